@@ -93,6 +93,8 @@ INSERT INTO noticias (titulo, resumo, conteudo, publicada, data_publicacao, usua
 -- Criar índices adicionais para otimização de consultas
 CREATE INDEX idx_noticias_busca ON noticias(titulo, resumo(255));
 CREATE INDEX idx_noticias_publicadas_data ON noticias(publicada, data_publicacao DESC);
+-- Índice usado pela paginação por cursor (keyset) sobre (data_publicacao, id)
+CREATE INDEX idx_noticias_data_id ON noticias(data_publicacao, id);
 
 -- Criar view para notícias publicadas com informações do autor
 CREATE VIEW vw_noticias_publicadas AS
@@ -0,0 +1,105 @@
+package com.portal.benchmark;
+
+import com.portal.dao.GenericDAO;
+import com.portal.dao.NoticiaDAO;
+import com.portal.dao.UsuarioDAO;
+import com.portal.model.PerfilUsuario;
+import com.portal.model.RegistroNoticia;
+import com.portal.model.Usuario;
+import com.portal.service.UsuarioService;
+import com.portal.service.VerificadorSenhas;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.lang.reflect.Field;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Banco H2 (modo MySQL) populado uma vez por trial com {@link #volume} notícias.
+ * O conteúdo é sintético, com semente fixa, para que execuções sejam comparáveis.
+ */
+@State(Scope.Benchmark)
+public class BaseDados {
+    
+    static final String UNIDADE = "portal-noticias-benchmark";
+    static final String EMAIL = "benchmark@portal.com";
+    static final String SENHA = "benchmark123";
+    
+    /** Palavra presente em ~1% das notícias, usada na busca por palavras-chave */
+    static final String PALAVRA_BUSCA = "economia";
+    
+    private static final int TAMANHO_LOTE = 1000;
+    private static final int PALAVRAS_TITULO = 6;
+    private static final int PALAVRAS_CONTEUDO = 60;
+    private static final int TAMANHO_VOCABULARIO = 5000;
+    
+    @Param({"10000", "1000000"})
+    public int volume;
+    
+    NoticiaDAO noticiaDAO;
+    UsuarioDAO usuarioDAO;
+    UsuarioService usuarioService;
+    VerificadorSenhas verificadorSenhas;
+    Usuario autor;
+    
+    @Setup(Level.Trial)
+    public void popular() throws Exception {
+        System.setProperty(GenericDAO.PROPRIEDADE_UNIDADE, UNIDADE);
+        noticiaDAO = new NoticiaDAO();
+        usuarioDAO = new UsuarioDAO();
+        usuarioService = new UsuarioService();
+        injetar(usuarioService, "usuarioDAO", usuarioDAO);
+        verificadorSenhas = new VerificadorSenhas();
+        injetar(usuarioService, "verificadorSenhas", verificadorSenhas);
+        
+        usuarioService.salvar(new Usuario("Benchmark", EMAIL, SENHA, PerfilUsuario.ADMIN));
+        autor = usuarioDAO.findByEmail(EMAIL).orElseThrow(IllegalStateException::new);
+        
+        SplittableRandom aleatorio = new SplittableRandom(42);
+        LocalDateTime inicio = LocalDateTime.of(2024, 1, 1, 0, 0);
+        List<RegistroNoticia> lote = new ArrayList<>(TAMANHO_LOTE);
+        for (int i = 0; i < volume; i++) {
+            lote.add(new RegistroNoticia(null,
+                texto(aleatorio, PALAVRAS_TITULO),
+                texto(aleatorio, PALAVRAS_CONTEUDO) + (i % 100 == 0 ? " " + PALAVRA_BUSCA : ""),
+                inicio.plusMinutes(i), autor.getId()));
+            if (lote.size() == TAMANHO_LOTE) {
+                noticiaDAO.insertBatch(lote);
+                lote.clear();
+            }
+        }
+        noticiaDAO.insertBatch(lote);
+    }
+    
+    @TearDown(Level.Trial)
+    public void encerrar() {
+        GenericDAO.closeEntityManagerFactory();
+    }
+    
+    static String texto(SplittableRandom aleatorio, int palavras) {
+        StringBuilder texto = new StringBuilder(palavras * 8);
+        for (int i = 0; i < palavras; i++) {
+            if (i > 0) {
+                texto.append(' ');
+            }
+            texto.append("termo").append(aleatorio.nextInt(TAMANHO_VOCABULARIO));
+        }
+        return texto.toString();
+    }
+    
+    /**
+     * Os serviços recebem dependências por CDI; fora do container são ligadas aqui
+     */
+    private static void injetar(Object alvo, String campo, Object valor) throws ReflectiveOperationException {
+        Field field = alvo.getClass().getDeclaredField(campo);
+        field.setAccessible(true);
+        field.set(alvo, valor);
+    }
+}
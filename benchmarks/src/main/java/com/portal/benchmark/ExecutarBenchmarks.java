@@ -0,0 +1,44 @@
+package com.portal.benchmark;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Ponto de entrada do jar de benchmarks. Aceita as mesmas opções do JMH
+ * (ex.: {@code -p volume=10000}, {@code -f 2}, {@code NoticiaBenchmark.findById}),
+ * mas grava o resultado em JSON em target/jmh-result.json quando {@code -rf}/{@code -rff}
+ * não são informados, para comparar versões.
+ */
+public final class ExecutarBenchmarks {
+    
+    private static final String RESULTADO_PADRAO = "target/jmh-result.json";
+    
+    private ExecutarBenchmarks() {
+    }
+    
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions linhaComando = new CommandLineOptions(args);
+        if (linhaComando.shouldHelp()) {
+            linhaComando.showHelp();
+            return;
+        }
+        
+        ChainedOptionsBuilder opcoes = new OptionsBuilder().parent(linhaComando);
+        if (!linhaComando.getResultFormat().hasValue()) {
+            opcoes.resultFormat(ResultFormatType.JSON);
+        }
+        if (!linhaComando.getResult().hasValue()) {
+            opcoes.result(RESULTADO_PADRAO);
+        }
+        
+        Runner runner = new Runner(opcoes.build());
+        if (linhaComando.shouldList()) {
+            runner.list();
+            return;
+        }
+        runner.run();
+    }
+}
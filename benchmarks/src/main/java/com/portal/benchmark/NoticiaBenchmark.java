@@ -0,0 +1,83 @@
+package com.portal.benchmark;
+
+import com.portal.model.Noticia;
+import com.portal.model.Usuario;
+import com.portal.service.ServiceException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caminhos quentes de {@code NoticiaDAO}, {@code UsuarioDAO} e {@code UsuarioService}.
+ * Cada benchmark roda em um fork próprio, com banco recém-populado, e é medido em
+ * vazão e em latência amostrada (percentis no resultado JSON).
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g", "-Dportal.persistence.unit=" + BaseDados.UNIDADE})
+@State(Scope.Thread)
+public class NoticiaBenchmark {
+    
+    private static final int TAMANHO_ULTIMAS = 10;
+    
+    private SplittableRandom aleatorio;
+    private Noticia paraAtualizar;
+    
+    @Setup(Level.Trial)
+    public void preparar(BaseDados base) {
+        aleatorio = new SplittableRandom(7);
+        paraAtualizar = base.noticiaDAO.findByIdComAutor(1L).orElseThrow(IllegalStateException::new);
+    }
+    
+    @Benchmark
+    public List<Noticia> findLatest(BaseDados base) {
+        return base.noticiaDAO.findLatest(TAMANHO_ULTIMAS);
+    }
+    
+    @Benchmark
+    public List<Noticia> findByKeywords(BaseDados base) {
+        return base.noticiaDAO.findByKeywords(BaseDados.PALAVRA_BUSCA);
+    }
+    
+    @Benchmark
+    public Optional<Noticia> findById(BaseDados base) {
+        return base.noticiaDAO.findById(idAleatorio(base));
+    }
+    
+    @Benchmark
+    public Usuario authenticate(BaseDados base) throws ServiceException {
+        return base.usuarioService.autenticar(BaseDados.EMAIL, BaseDados.SENHA);
+    }
+    
+    @Benchmark
+    public Noticia save(BaseDados base) {
+        Noticia noticia = new Noticia(BaseDados.texto(aleatorio, 6), BaseDados.texto(aleatorio, 60), base.autor);
+        base.noticiaDAO.save(noticia);
+        return noticia;
+    }
+    
+    @Benchmark
+    public Noticia update(BaseDados base) {
+        paraAtualizar.setTitulo(BaseDados.texto(aleatorio, 6));
+        return base.noticiaDAO.update(paraAtualizar);
+    }
+    
+    private long idAleatorio(BaseDados base) {
+        return 1 + aleatorio.nextInt(base.volume);
+    }
+}
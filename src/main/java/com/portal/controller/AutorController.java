@@ -0,0 +1,116 @@
+package com.portal.controller;
+
+import com.portal.dao.Pagina;
+import com.portal.model.NoticiaResumo;
+import com.portal.model.Usuario;
+import com.portal.model.UsuarioPrincipal;
+import com.portal.service.NoticiaService;
+import com.portal.service.UsuarioService;
+
+import javax.enterprise.context.RequestScoped;
+import javax.faces.context.FacesContext;
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Controller das páginas de autor: a pública (autor.xhtml?id=) e a de notícias
+ * do editor logado (minhas.xhtml). Listagem, total e última publicação vêm do
+ * índice por autor em memória.
+ */
+@Named
+@RequestScoped
+public class AutorController implements Serializable {
+    
+    private static final long serialVersionUID = 1L;
+    
+    private static final int TAMANHO_PAGINA = 10;
+    
+    @Inject
+    private NoticiaService noticiaService;
+    
+    @Inject
+    private UsuarioService usuarioService;
+    
+    @Inject
+    private LoginController loginController;
+    
+    private Long autorId;
+    private Usuario autor;
+    private Pagina<NoticiaResumo> pagina;
+    private Long total;
+    private String cursor;
+    
+    /**
+     * Responde 404 quando o autor indicado por ?id= não existe, em vez de renderizar a página vazia
+     */
+    public void verificarAutor() throws IOException {
+        FacesContext contexto = FacesContext.getCurrentInstance();
+        if (!contexto.isPostback() && getAutor() == null) {
+            contexto.getExternalContext().responseSendError(HttpServletResponse.SC_NOT_FOUND, "Autor não encontrado");
+            contexto.responseComplete();
+        }
+    }
+    
+    /**
+     * Passa a listar as notícias do usuário logado (página "Minhas notícias")
+     */
+    public void usarAutorLogado() {
+        autorId = Optional.ofNullable(loginController.getPrincipal()).map(UsuarioPrincipal::getId).orElse(null);
+    }
+    
+    /**
+     * Autor da página, indicado pelo parâmetro "id" da requisição quando não definido antes
+     */
+    public Long getAutorId() {
+        if (autorId == null) {
+            autorId = Optional.ofNullable(FacesContext.getCurrentInstance().getExternalContext()
+                    .getRequestParameterMap().get("id"))
+                .filter(id -> id.matches("\\d{1,18}"))
+                .map(Long::valueOf)
+                .orElse(null);
+        }
+        return autorId;
+    }
+    
+    public Usuario getAutor() {
+        if (autor == null) {
+            autor = Optional.ofNullable(getAutorId()).flatMap(usuarioService::buscarPorId).orElse(null);
+        }
+        return autor;
+    }
+    
+    /**
+     * Página de notícias do autor a partir do parâmetro "cursor" da requisição (ausente na primeira página)
+     */
+    public Pagina<NoticiaResumo> getPagina() {
+        if (pagina == null) {
+            cursor = FacesContext.getCurrentInstance().getExternalContext()
+                .getRequestParameterMap().get("cursor");
+            pagina = Optional.ofNullable(getAutorId())
+                .map(id -> noticiaService.listarPorAutor(id, cursor, TAMANHO_PAGINA))
+                .orElseGet(Pagina::vazia);
+        }
+        return pagina;
+    }
+    
+    public long getTotal() {
+        if (total == null) {
+            total = Optional.ofNullable(getAutorId()).map(noticiaService::contarPorAutor).orElse(0L);
+        }
+        return total;
+    }
+    
+    public LocalDateTime getUltimaPublicacao() {
+        return Optional.ofNullable(getAutorId()).flatMap(noticiaService::ultimaPublicacaoPorAutor).orElse(null);
+    }
+    
+    public String getCursor() {
+        getPagina();
+        return cursor;
+    }
+}
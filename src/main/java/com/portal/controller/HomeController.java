@@ -1,6 +1,8 @@
 package com.portal.controller;
 
+import com.portal.dao.Pagina;
 import com.portal.model.Noticia;
+import com.portal.model.NoticiaResumo;
 import com.portal.service.NoticiaService;
 
 import javax.annotation.PostConstruct;
@@ -9,6 +11,8 @@ import javax.faces.application.FacesMessage;
 import javax.faces.context.FacesContext;
 import javax.inject.Inject;
 import javax.inject.Named;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
 import java.io.Serializable;
 import java.util.List;
 import java.util.Optional;
@@ -22,14 +26,19 @@ public class HomeController implements Serializable {
     
     private static final long serialVersionUID = 1L;
     
+    private static final int TAMANHO_PAGINA = 10;
+    private static final int LIMITE_BUSCA = 50;
+    
     @Inject
     private NoticiaService noticiaService;
     
-    private List<Noticia> ultimasNoticias;
+    private List<NoticiaResumo> ultimasNoticias;
     private Noticia noticiaDetalhes;
     private Long noticiaId;
     private String termoBusca;
-    private List<Noticia> resultadosBusca;
+    private List<NoticiaResumo> resultadosBusca;
+    private String cursor;
+    private String proximoCursor;
     
     @PostConstruct
     public void init() {
@@ -37,10 +46,15 @@ public class HomeController implements Serializable {
     }
     
     /**
-     * Carrega as últimas notícias para exibição na home
+     * Carrega as últimas notícias para exibição na home, a partir do
+     * parâmetro "cursor" da requisição (ausente na primeira página)
      */
     public void carregarUltimasNoticias() {
-        ultimasNoticias = noticiaService.listarUltimas(10);
+        cursor = FacesContext.getCurrentInstance().getExternalContext()
+            .getRequestParameterMap().get("cursor");
+        Pagina<NoticiaResumo> pagina = noticiaService.listarPagina(cursor, TAMANHO_PAGINA);
+        ultimasNoticias = pagina.getItens();
+        proximoCursor = pagina.getProximoCursor();
     }
     
     /**
@@ -51,7 +65,7 @@ public class HomeController implements Serializable {
             Optional<Noticia> noticiaOpt = noticiaService.buscarPorId(noticiaId);
             if (noticiaOpt.isPresent()) {
                 noticiaDetalhes = noticiaOpt.get();
-                return "/pages/public/noticia.xhtml?faces-redirect=true";
+                return "/pages/public/noticia.xhtml?faces-redirect=true&id=" + noticiaId;
             } else {
                 FacesContext.getCurrentInstance().addMessage(null, 
                     new FacesMessage(FacesMessage.SEVERITY_ERROR, 
@@ -62,11 +76,22 @@ public class HomeController implements Serializable {
     }
     
     /**
-     * Realiza busca por título
+     * Responde 404 quando a notícia indicada por ?id= não existe, em vez de renderizar a página vazia
+     */
+    public void verificarNoticia() throws IOException {
+        FacesContext contexto = FacesContext.getCurrentInstance();
+        if (!contexto.isPostback() && getNoticiaDetalhes() == null) {
+            contexto.getExternalContext().responseSendError(HttpServletResponse.SC_NOT_FOUND, "Notícia não encontrada");
+            contexto.responseComplete();
+        }
+    }
+    
+    /**
+     * Realiza busca por palavras-chave, com os resultados mais relevantes primeiro
      */
     public void buscarNoticias() {
         if (termoBusca != null && !termoBusca.trim().isEmpty()) {
-            resultadosBusca = noticiaService.buscarPorTitulo(termoBusca.trim());
+            resultadosBusca = noticiaService.buscarPorRelevancia(termoBusca.trim(), LIMITE_BUSCA);
             
             if (resultadosBusca.isEmpty()) {
                 FacesContext.getCurrentInstance().addMessage(null, 
@@ -99,15 +124,27 @@ public class HomeController implements Serializable {
     }
     
     // Getters e Setters
-    public List<Noticia> getUltimasNoticias() {
+    public List<NoticiaResumo> getUltimasNoticias() {
         return ultimasNoticias;
     }
     
-    public void setUltimasNoticias(List<Noticia> ultimasNoticias) {
+    public void setUltimasNoticias(List<NoticiaResumo> ultimasNoticias) {
         this.ultimasNoticias = ultimasNoticias;
     }
     
+    /**
+     * Notícia exibida em noticia.xhtml, carregada sob demanda pelo parâmetro "id" da requisição
+     */
     public Noticia getNoticiaDetalhes() {
+        if (noticiaDetalhes == null) {
+            noticiaDetalhes = Optional.ofNullable(FacesContext.getCurrentInstance().getExternalContext()
+                    .getRequestParameterMap().get("id"))
+                .filter(id -> id.matches("\\d{1,18}"))
+                .map(Long::valueOf)
+                .flatMap(noticiaService::buscarPorId)
+                .orElse(null);
+            Optional.ofNullable(noticiaDetalhes).map(Noticia::getId).ifPresent(noticiaService::registrarAcesso);
+        }
         return noticiaDetalhes;
     }
     
@@ -131,11 +168,19 @@ public class HomeController implements Serializable {
         this.termoBusca = termoBusca;
     }
     
-    public List<Noticia> getResultadosBusca() {
+    public List<NoticiaResumo> getResultadosBusca() {
         return resultadosBusca;
     }
     
-    public void setResultadosBusca(List<Noticia> resultadosBusca) {
+    public void setResultadosBusca(List<NoticiaResumo> resultadosBusca) {
         this.resultadosBusca = resultadosBusca;
     }
+    
+    public String getCursor() {
+        return cursor;
+    }
+    
+    public String getProximoCursor() {
+        return proximoCursor;
+    }
 }
\ No newline at end of file
@@ -1,15 +1,22 @@
 package com.portal.controller;
 
 import com.portal.model.Usuario;
+import com.portal.model.UsuarioPrincipal;
+import com.portal.security.ModoAutenticacao;
+import com.portal.security.TokenAutenticacao;
 import com.portal.service.UsuarioService;
 import com.portal.service.ServiceException;
 
 import javax.enterprise.context.SessionScoped;
 import javax.faces.application.FacesMessage;
+import javax.faces.context.ExternalContext;
 import javax.faces.context.FacesContext;
 import javax.inject.Inject;
 import javax.inject.Named;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 import java.io.Serializable;
+import java.util.Optional;
 
 /**
  * Controller responsável pela autenticação de usuários
@@ -23,25 +30,39 @@ public class LoginController implements Serializable {
     @Inject
     private UsuarioService usuarioService;
     
-    private String email;
-    private String senha;
-    private Usuario usuarioLogado;
+    @Inject
+    private TokenAutenticacao tokenAutenticacao;
+    
+    /** Campos do formulário: não vão para a sessão serializada e são limpos após o login */
+    private transient String email;
+    private transient String senha;
+    
+    /** Único estado de autenticação mantido na sessão */
+    private UsuarioPrincipal principal;
     
     /**
      * Realiza o login do usuário
      */
     public String login() {
         try {
-            usuarioLogado = usuarioService.autenticar(email, senha);
+            Usuario autenticado = usuarioService.autenticar(email, senha);
             
-            if (usuarioLogado != null) {
+            if (autenticado != null) {
+                principal = UsuarioPrincipal.de(autenticado);
+                email = null;
+                
+                // O cookie assinado autoriza as próximas requisições em qualquer nó
+                ExternalContext contexto = FacesContext.getCurrentInstance().getExternalContext();
+                tokenAutenticacao.gravarCookie((HttpServletRequest) contexto.getRequest(),
+                    (HttpServletResponse) contexto.getResponse(), tokenAutenticacao.emitir(principal));
+                
                 FacesContext.getCurrentInstance().addMessage(null, 
                     new FacesMessage(FacesMessage.SEVERITY_INFO, 
                         "Login realizado com sucesso!", 
-                        "Bem-vindo, " + usuarioLogado.getNome()));
+                        "Bem-vindo, " + principal.getNome()));
                 
                 // Redireciona baseado no perfil
-                if (usuarioLogado.getPerfil().name().equals("ADMIN")) {
+                if (principal.isAdmin()) {
                     return "/pages/admin/listar.xhtml?faces-redirect=true";
                 } else {
                     return "/pages/public/home.xhtml?faces-redirect=true";
@@ -59,6 +80,8 @@ public class LoginController implements Serializable {
                 new FacesMessage(FacesMessage.SEVERITY_ERROR, 
                     "Erro no sistema", e.getMessage()));
             return null;
+        } finally {
+            senha = null; // A senha em claro não permanece na sessão
         }
     }
     
@@ -66,11 +89,14 @@ public class LoginController implements Serializable {
      * Realiza o logout do usuário
      */
     public String logout() {
-        usuarioLogado = null;
+        principal = null;
         email = null;
         senha = null;
         
-        FacesContext.getCurrentInstance().getExternalContext().invalidateSession();
+        ExternalContext contexto = FacesContext.getCurrentInstance().getExternalContext();
+        tokenAutenticacao.removerCookie((HttpServletRequest) contexto.getRequest(),
+            (HttpServletResponse) contexto.getResponse());
+        contexto.invalidateSession();
         
         FacesContext.getCurrentInstance().addMessage(null, 
             new FacesMessage(FacesMessage.SEVERITY_INFO, 
@@ -84,22 +110,22 @@ public class LoginController implements Serializable {
      * Verifica se o usuário está logado
      */
     public boolean isLogado() {
-        return usuarioLogado != null;
+        return getPrincipal() != null;
     }
     
     /**
      * Verifica se o usuário é administrador
      */
     public boolean isAdmin() {
-        return isLogado() && usuarioLogado.getPerfil().name().equals("ADMIN");
+        return isLogado() && getPrincipal().isAdmin();
     }
     
     /**
      * Verifica se o usuário é editor
      */
     public boolean isEditor() {
-        return isLogado() && (usuarioLogado.getPerfil().name().equals("ADMIN") || 
-                             usuarioLogado.getPerfil().name().equals("EDITOR"));
+        return isLogado() && (getPrincipal().isAdmin() || 
+                             getPrincipal().getPerfil().name().equals("EDITOR"));
     }
     
     // Getters e Setters
@@ -119,11 +145,40 @@ public class LoginController implements Serializable {
         this.senha = senha;
     }
     
-    public Usuario getUsuarioLogado() {
-        return usuarioLogado;
+    /**
+     * Principal da sessão; no modo token, uma sessão nova (outro nó do cluster)
+     * é restaurada a partir do principal autorizado pelo filtro ou do cookie assinado
+     */
+    public UsuarioPrincipal getPrincipal() {
+        if (principal == null) {
+            principal = principalDoToken();
+        }
+        return principal;
     }
     
-    public void setUsuarioLogado(Usuario usuarioLogado) {
-        this.usuarioLogado = usuarioLogado;
+    private UsuarioPrincipal principalDoToken() {
+        FacesContext facesContext = FacesContext.getCurrentInstance();
+        if (facesContext == null
+                || ModoAutenticacao.de(facesContext.getExternalContext().getInitParameter(ModoAutenticacao.PARAMETRO))
+                    != ModoAutenticacao.TOKEN) {
+            return null;
+        }
+        HttpServletRequest request = (HttpServletRequest) facesContext.getExternalContext().getRequest();
+        UsuarioPrincipal autorizado = (UsuarioPrincipal) request.getAttribute(TokenAutenticacao.ATRIBUTO_PRINCIPAL);
+        if (autorizado != null) {
+            return autorizado;
+        }
+        return tokenAutenticacao.autenticar(request, (HttpServletResponse) facesContext.getExternalContext().getResponse())
+            .orElse(null);
+    }
+    
+    /**
+     * Entidade do usuário logado, obtida sob demanda pelo ID do principal
+     * (atendida pelo contexto da requisição ou pelo cache de segundo nível)
+     */
+    public Usuario getUsuarioLogado() {
+        return Optional.ofNullable(getPrincipal())
+            .flatMap(p -> usuarioService.buscarPorId(p.getId()))
+            .orElse(null);
     }
 }
\ No newline at end of file
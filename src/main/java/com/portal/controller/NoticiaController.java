@@ -1,6 +1,10 @@
 package com.portal.controller;
 
+import com.portal.dao.FiltroNoticias;
+import com.portal.dao.OrdemNoticias;
+import com.portal.dao.PaginaNumerada;
 import com.portal.model.Noticia;
+import com.portal.model.NoticiaResumo;
 import com.portal.service.NoticiaService;
 import com.portal.service.ServiceException;
 
@@ -11,8 +15,16 @@ import javax.faces.context.FacesContext;
 import javax.inject.Inject;
 import javax.inject.Named;
 import java.io.Serializable;
+import java.io.UnsupportedEncodingException;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 /**
  * Controller para gerenciamento de notícias na área administrativa
@@ -23,6 +35,10 @@ public class NoticiaController implements Serializable {
     
     private static final long serialVersionUID = 1L;
     
+    private static final int TAMANHO_PAGINA = 20;
+    
+    private static final String LISTAGEM = "/pages/admin/listar.xhtml?faces-redirect=true";
+    
     @Inject
     private NoticiaService noticiaService;
     
@@ -30,20 +46,73 @@ public class NoticiaController implements Serializable {
     private LoginController loginController;
     
     private Noticia noticia;
-    private List<Noticia> noticias;
+    private PaginaNumerada<NoticiaResumo> paginaNoticias;
     private Long noticiaId;
+    private String filtroTitulo;
+    private String filtroAutor;
+    private LocalDate filtroDe;
+    private LocalDate filtroAte;
+    private OrdemNoticias ordem = OrdemNoticias.MAIS_RECENTES;
+    private int pagina = 1;
+    private String apos;
+    private String antes;
     
     @PostConstruct
     public void init() {
         noticia = new Noticia();
-        carregarNoticias();
+        lerFiltros();
     }
     
     /**
-     * Carrega todas as notícias
+     * Lê os filtros e a posição dos parâmetros da requisição (titulo, autor, de, ate, ordem,
+     * pagina e os cursores apos/antes), de modo que cada listagem filtrada tenha uma URL própria
+     */
+    private void lerFiltros() {
+        Map<String, String> parametros = FacesContext.getCurrentInstance().getExternalContext()
+            .getRequestParameterMap();
+        filtroTitulo = parametros.get("titulo");
+        filtroAutor = parametros.get("autor");
+        filtroDe = data(parametros.get("de"));
+        filtroAte = data(parametros.get("ate"));
+        ordem = OrdemNoticias.de(parametros.get("ordem"));
+        pagina = Optional.ofNullable(parametros.get("pagina"))
+            .filter(valor -> valor.matches("\\d{1,9}"))
+            .map(Integer::valueOf)
+            .orElse(1);
+        apos = parametros.get("apos");
+        antes = parametros.get("antes");
+    }
+    
+    /**
+     * Carrega a página de notícias que atende aos filtros atuais
      */
     public void carregarNoticias() {
-        noticias = noticiaService.listarTodas();
+        FiltroNoticias filtro = new FiltroNoticias(filtroTitulo, filtroAutor, filtroDe, filtroAte, ordem);
+        paginaNoticias = noticiaService.listarFiltradas(filtro, apos, antes, pagina, TAMANHO_PAGINA);
+    }
+    
+    /**
+     * Aplica os filtros do formulário, voltando para a primeira página
+     */
+    public String filtrar() {
+        Map<String, Object> parametros = new LinkedHashMap<>();
+        parametros.put("titulo", filtroTitulo);
+        parametros.put("autor", filtroAutor);
+        parametros.put("de", filtroDe);
+        parametros.put("ate", filtroAte);
+        parametros.put("ordem", ordem == OrdemNoticias.MAIS_RECENTES ? null : ordem);
+        String consulta = parametros.entrySet().stream()
+            .filter(parametro -> parametro.getValue() != null && !parametro.getValue().toString().trim().isEmpty())
+            .map(parametro -> parametro.getKey() + "=" + codificar(parametro.getValue().toString().trim()))
+            .collect(Collectors.joining("&"));
+        return consulta.isEmpty() ? LISTAGEM : LISTAGEM + "&" + consulta;
+    }
+    
+    /**
+     * Remove todos os filtros
+     */
+    public String limparFiltros() {
+        return LISTAGEM;
     }
     
     /**
@@ -105,7 +174,7 @@ public class NoticiaController implements Serializable {
                         "Sucesso", "Notícia atualizada com sucesso!"));
             }
             
-            return "/pages/admin/listar.xhtml?faces-redirect=true";
+            return LISTAGEM;
             
         } catch (ServiceException e) {
             FacesContext.getCurrentInstance().addMessage(null, 
@@ -140,7 +209,7 @@ public class NoticiaController implements Serializable {
                 }
                 
                 noticiaService.excluir(noticiaId, loginController.getUsuarioLogado());
-                carregarNoticias(); // Recarrega a lista
+                paginaNoticias = null; // Recarrega a lista na renderização
                 
                 FacesContext.getCurrentInstance().addMessage(null, 
                     new FacesMessage(FacesMessage.SEVERITY_INFO, 
@@ -157,7 +226,23 @@ public class NoticiaController implements Serializable {
      * Cancela a operação e volta para listagem
      */
     public String cancelar() {
-        return "/pages/admin/listar.xhtml?faces-redirect=true";
+        return LISTAGEM;
+    }
+    
+    private static LocalDate data(String valor) {
+        try {
+            return valor == null || valor.isEmpty() ? null : LocalDate.parse(valor);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+    
+    private static String codificar(String valor) {
+        try {
+            return URLEncoder.encode(valor, StandardCharsets.UTF_8.name());
+        } catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException(e);
+        }
     }
     
     // Getters e Setters
@@ -169,12 +254,18 @@ public class NoticiaController implements Serializable {
         this.noticia = noticia;
     }
     
-    public List<Noticia> getNoticias() {
-        return noticias;
+    /**
+     * Página atual da listagem, consultada apenas quando a página é renderizada
+     */
+    public PaginaNumerada<NoticiaResumo> getPaginaNoticias() {
+        if (paginaNoticias == null) {
+            carregarNoticias();
+        }
+        return paginaNoticias;
     }
     
-    public void setNoticias(List<Noticia> noticias) {
-        this.noticias = noticias;
+    public List<NoticiaResumo> getNoticias() {
+        return getPaginaNoticias().getItens();
     }
     
     public Long getNoticiaId() {
@@ -184,4 +275,60 @@ public class NoticiaController implements Serializable {
     public void setNoticiaId(Long noticiaId) {
         this.noticiaId = noticiaId;
     }
+    
+    public String getFiltroTitulo() {
+        return filtroTitulo;
+    }
+    
+    public void setFiltroTitulo(String filtroTitulo) {
+        this.filtroTitulo = filtroTitulo;
+    }
+    
+    public String getFiltroAutor() {
+        return filtroAutor;
+    }
+    
+    public void setFiltroAutor(String filtroAutor) {
+        this.filtroAutor = filtroAutor;
+    }
+    
+    public LocalDate getFiltroDe() {
+        return filtroDe;
+    }
+    
+    public void setFiltroDe(LocalDate filtroDe) {
+        this.filtroDe = filtroDe;
+    }
+    
+    public LocalDate getFiltroAte() {
+        return filtroAte;
+    }
+    
+    public void setFiltroAte(LocalDate filtroAte) {
+        this.filtroAte = filtroAte;
+    }
+    
+    public OrdemNoticias getOrdem() {
+        return ordem;
+    }
+    
+    public void setOrdem(OrdemNoticias ordem) {
+        this.ordem = ordem;
+    }
+    
+    public OrdemNoticias[] getOrdens() {
+        return OrdemNoticias.values();
+    }
+    
+    public int getPagina() {
+        return pagina;
+    }
+    
+    public String getApos() {
+        return apos;
+    }
+    
+    public String getAntes() {
+        return antes;
+    }
 }
\ No newline at end of file
@@ -2,6 +2,7 @@ package com.portal.controller;
 
 import com.portal.model.PerfilUsuario;
 import com.portal.model.Usuario;
+import com.portal.model.UsuarioPrincipal;
 import com.portal.service.UsuarioService;
 import com.portal.service.ServiceException;
 
@@ -100,8 +101,8 @@ public class UsuarioController implements Serializable {
             .ifPresent(id -> {
                 try {
                     // Verifica se não está tentando excluir o próprio usuário
-                    Optional<Long> loggedUserId = Optional.ofNullable(loginController.getUsuarioLogado())
-                        .map(Usuario::getId);
+                    Optional<Long> loggedUserId = Optional.ofNullable(loginController.getPrincipal())
+                        .map(UsuarioPrincipal::getId);
                     
                     if (loggedUserId.isPresent() && loggedUserId.get().equals(id)) {
                         adicionarMensagem(FacesMessage.SEVERITY_ERROR, 
@@ -0,0 +1,93 @@
+package com.portal.dao;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Total de registros de uma entidade mantido em memória para {@link ModoContagem#EXATA_EM_CACHE}.
+ * <p>
+ * O total é o último COUNT somado aos deltas das escritas do DAO aplicados depois dele.
+ * Os deltas só são aplicados depois do commit. Passada a validade, a primeira leitura
+ * reconta na própria thread (e na própria unidade de trabalho) enquanto as demais
+ * continuam recebendo o valor atual; a recontagem corrige o desvio das escritas feitas
+ * fora do DAO.
+ */
+final class ContagemEmCache {
+    
+    private static final long VALIDADE_NANOS = TimeUnit.SECONDS.toNanos(60);
+    
+    private final long validadeNanos;
+    
+    /** Soma de todos os deltas já aplicados, usada como marco de cada COUNT */
+    private final AtomicLong ajustes = new AtomicLong();
+    private final AtomicBoolean recontando = new AtomicBoolean();
+    private volatile Contagem contagem;
+    
+    ContagemEmCache() {
+        this(VALIDADE_NANOS);
+    }
+    
+    ContagemEmCache(long validadeNanos) {
+        this.validadeNanos = validadeNanos;
+    }
+    
+    /**
+     * Total atual; conta na primeira leitura e reconta quando o valor passou da validade
+     * @param contagemExata COUNT exato
+     */
+    long obter(LongSupplier contagemExata) {
+        Contagem atual = contagem;
+        if (atual == null) {
+            synchronized (this) {
+                if (contagem == null) {
+                    contar(contagemExata);
+                }
+                atual = contagem;
+            }
+        } else if (System.nanoTime() - atual.contadaEm > validadeNanos && recontando.compareAndSet(false, true)) {
+            try {
+                contar(contagemExata);
+                atual = contagem;
+            } catch (RuntimeException e) {
+                // Mantém o total anterior; a próxima leitura tenta recontar de novo
+            } finally {
+                recontando.set(false);
+            }
+        }
+        return Math.max(0, atual.valor + ajustes.get() - atual.ajustes);
+    }
+    
+    /**
+     * Soma as linhas incluídas (positivo) ou removidas (negativo) por uma escrita já efetivada
+     */
+    void ajustar(long delta) {
+        ajustes.addAndGet(delta);
+    }
+    
+    /**
+     * Marca os ajustes antes do COUNT: deltas de escritas confirmadas durante a contagem
+     * continuam valendo sobre o novo total em vez de serem sobrescritos por ele
+     */
+    private void contar(LongSupplier contagemExata) {
+        long marco = ajustes.get();
+        long valor = contagemExata.getAsLong();
+        contagem = new Contagem(valor, marco, System.nanoTime());
+    }
+    
+    /**
+     * Resultado de um COUNT, com os ajustes já somados quando ele começou
+     */
+    private static final class Contagem {
+        private final long valor;
+        private final long ajustes;
+        private final long contadaEm;
+        
+        private Contagem(long valor, long ajustes, long contadaEm) {
+            this.valor = valor;
+            this.ajustes = ajustes;
+            this.contadaEm = contadaEm;
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.portal.dao;
+
+import com.portal.model.NoticiaResumo;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.Optional;
+
+/**
+ * Posição na listagem filtrada de notícias: o valor da chave de ordenação e o id de um
+ * item da borda da página. Como o {@link CursorNoticia}, é trafegado em URLs como token
+ * opaco (Base64 URL-safe), e só vale para a ordenação em que foi gerado.
+ */
+public final class CursorListagem {
+    
+    private static final char SEPARADOR = '|';
+    
+    private final OrdemNoticias ordem;
+    private final LocalDateTime dataPublicacao;
+    private final String titulo;
+    private final Long id;
+    
+    private CursorListagem(OrdemNoticias ordem, LocalDateTime dataPublicacao, String titulo, Long id) {
+        this.ordem = ordem;
+        this.dataPublicacao = dataPublicacao;
+        this.titulo = titulo;
+        this.id = id;
+    }
+    
+    /**
+     * Posição do item na ordenação informada
+     */
+    public static CursorListagem de(NoticiaResumo item, OrdemNoticias ordem) {
+        return ordem == OrdemNoticias.TITULO
+            ? new CursorListagem(ordem, null, item.getTitulo(), item.getId())
+            : new CursorListagem(ordem, item.getDataPublicacao(), null, item.getId());
+    }
+    
+    public OrdemNoticias getOrdem() {
+        return ordem;
+    }
+    
+    /**
+     * Chave de ordenação nas ordens por data
+     */
+    public LocalDateTime getDataPublicacao() {
+        return dataPublicacao;
+    }
+    
+    /**
+     * Chave de ordenação na ordem por título
+     */
+    public String getTitulo() {
+        return titulo;
+    }
+    
+    public Long getId() {
+        return id;
+    }
+    
+    /**
+     * Codifica o cursor como token opaco. A chave vai por último, porque o título pode
+     * conter o separador.
+     */
+    public String codificar() {
+        String chave = ordem == OrdemNoticias.TITULO ? titulo : dataPublicacao.toString();
+        String bruto = ordem.name() + SEPARADOR + id + SEPARADOR + chave;
+        return Base64.getUrlEncoder().withoutPadding()
+            .encodeToString(bruto.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    /**
+     * Decodifica um token gerado por {@link #codificar()} para a ordenação informada.
+     * Tokens nulos, malformados ou de outra ordenação resultam em Optional vazio (primeira página).
+     */
+    public static Optional<CursorListagem> decodificar(String token, OrdemNoticias ordem) {
+        if (token == null || token.trim().isEmpty()) {
+            return Optional.empty();
+        }
+        try {
+            String bruto = new String(Base64.getUrlDecoder().decode(token.trim()), StandardCharsets.UTF_8);
+            String[] partes = bruto.split("\\" + SEPARADOR, 3);
+            if (partes.length < 3 || !ordem.name().equals(partes[0])) {
+                return Optional.empty();
+            }
+            Long id = Long.valueOf(partes[1]);
+            return Optional.of(ordem == OrdemNoticias.TITULO
+                ? new CursorListagem(ordem, null, partes[2], id)
+                : new CursorListagem(ordem, LocalDateTime.parse(partes[2]), null, id));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            return Optional.empty();
+        }
+    }
+}
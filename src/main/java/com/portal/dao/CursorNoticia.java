@@ -0,0 +1,63 @@
+package com.portal.dao;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.Optional;
+
+/**
+ * Posição de leitura na listagem de notícias ordenada por (dataPublicacao, id).
+ * É serializada como um token opaco (Base64 URL-safe) para ser trafegado em URLs.
+ */
+public final class CursorNoticia {
+    
+    private static final char SEPARADOR = '|';
+    
+    private final LocalDateTime dataPublicacao;
+    private final Long id;
+    
+    public CursorNoticia(LocalDateTime dataPublicacao, Long id) {
+        this.dataPublicacao = dataPublicacao;
+        this.id = id;
+    }
+    
+    public LocalDateTime getDataPublicacao() {
+        return dataPublicacao;
+    }
+    
+    public Long getId() {
+        return id;
+    }
+    
+    /**
+     * Codifica o cursor como token opaco
+     */
+    public String codificar() {
+        String bruto = dataPublicacao.toString() + SEPARADOR + id;
+        return Base64.getUrlEncoder().withoutPadding()
+            .encodeToString(bruto.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    /**
+     * Decodifica um token gerado por {@link #codificar()}.
+     * Tokens nulos, vazios ou malformados resultam em Optional vazio (primeira página).
+     */
+    public static Optional<CursorNoticia> decodificar(String token) {
+        if (token == null || token.trim().isEmpty()) {
+            return Optional.empty();
+        }
+        try {
+            String bruto = new String(Base64.getUrlDecoder().decode(token.trim()), StandardCharsets.UTF_8);
+            int separador = bruto.lastIndexOf(SEPARADOR);
+            if (separador <= 0) {
+                return Optional.empty();
+            }
+            LocalDateTime data = LocalDateTime.parse(bruto.substring(0, separador));
+            Long id = Long.valueOf(bruto.substring(separador + 1));
+            return Optional.of(new CursorNoticia(data, id));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            return Optional.empty();
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.portal.dao;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Critérios da listagem administrativa de notícias. Critérios nulos ou em branco
+ * são ignorados; a assinatura identifica o filtro (ex.: em chaves de cache e logs).
+ */
+public final class FiltroNoticias implements Serializable {
+    
+    private static final long serialVersionUID = 1L;
+    
+    private final String prefixoTitulo;
+    private final String nomeAutor;
+    private final LocalDate de;
+    private final LocalDate ate;
+    private final OrdemNoticias ordem;
+    
+    /**
+     * @param prefixoTitulo início do título (usa o índice da coluna)
+     * @param nomeAutor parte do nome do autor
+     * @param de primeiro dia de publicação (inclusive)
+     * @param ate último dia de publicação (inclusive)
+     */
+    public FiltroNoticias(String prefixoTitulo, String nomeAutor, LocalDate de, LocalDate ate, OrdemNoticias ordem) {
+        this.prefixoTitulo = semBrancos(prefixoTitulo);
+        this.nomeAutor = semBrancos(nomeAutor);
+        this.de = de;
+        this.ate = ate;
+        this.ordem = Optional.ofNullable(ordem).orElse(OrdemNoticias.MAIS_RECENTES);
+    }
+    
+    /**
+     * Filtro sem critérios, das mais recentes para as mais antigas
+     */
+    public static FiltroNoticias todas() {
+        return new FiltroNoticias(null, null, null, null, OrdemNoticias.MAIS_RECENTES);
+    }
+    
+    public Optional<String> getPrefixoTitulo() {
+        return Optional.ofNullable(prefixoTitulo);
+    }
+    
+    public Optional<String> getNomeAutor() {
+        return Optional.ofNullable(nomeAutor);
+    }
+    
+    public Optional<LocalDate> getDe() {
+        return Optional.ofNullable(de);
+    }
+    
+    public Optional<LocalDate> getAte() {
+        return Optional.ofNullable(ate);
+    }
+    
+    public OrdemNoticias getOrdem() {
+        return ordem;
+    }
+    
+    /**
+     * Indica se nenhum critério restringe o resultado (a ordenação não conta)
+     */
+    public boolean isVazio() {
+        return prefixoTitulo == null && nomeAutor == null && de == null && ate == null;
+    }
+    
+    /**
+     * Representação canônica dos critérios (sem a ordenação, que não altera o total)
+     */
+    public String getAssinatura() {
+        return "titulo=" + Objects.toString(prefixoTitulo, "") + "|autor=" + Objects.toString(nomeAutor, "")
+            + "|de=" + Objects.toString(de, "") + "|ate=" + Objects.toString(ate, "");
+    }
+    
+    private static String semBrancos(String valor) {
+        return Optional.ofNullable(valor).map(String::trim).filter(v -> !v.isEmpty()).orElse(null);
+    }
+}
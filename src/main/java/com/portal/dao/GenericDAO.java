@@ -1,12 +1,32 @@
 package com.portal.dao;
 
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.dialect.MySQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+import org.hibernate.stat.Statistics;
+
 import javax.persistence.EntityManager;
 import javax.persistence.EntityManagerFactory;
+import javax.persistence.EntityTransaction;
 import javax.persistence.Persistence;
+import javax.persistence.Query;
 import javax.persistence.TypedQuery;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaDelete;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.CriteriaUpdate;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import javax.persistence.metamodel.EntityType;
 import java.io.Serializable;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.function.Function;
 import java.util.function.Consumer;
 
@@ -18,7 +38,25 @@ import java.util.function.Consumer;
  */
 public abstract class GenericDAO<T, ID extends Serializable> {
     
-    private static EntityManagerFactory emf = Persistence.createEntityManagerFactory("portal-noticias-pu");
+    /** Hint JPA que define o plano de carga (fetch graph) de uma consulta */
+    protected static final String FETCH_GRAPH = "javax.persistence.fetchgraph";
+    
+    /**
+     * Propriedade de sistema que troca a unidade de persistência usada fora do servidor
+     * de aplicação (ex.: benchmarks contra banco embarcado)
+     */
+    public static final String PROPRIEDADE_UNIDADE = "portal.persistence.unit";
+    
+    /** Linhas estimadas pelo InnoDB, lidas do dicionário de dados sem tocar na tabela */
+    private static final String ESTATISTICA_TABELA =
+        "SELECT TABLE_ROWS FROM information_schema.TABLES WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ?1";
+    
+    private static EntityManagerFactory emf = Persistence.createEntityManagerFactory(
+        System.getProperty(PROPRIEDADE_UNIDADE, "portal-noticias-pu"));
+    
+    /** Totais em cache por entidade, compartilhados por todas as instâncias de DAO */
+    private static final ConcurrentMap<Class<?>, ContagemEmCache> CONTAGENS = new ConcurrentHashMap<>();
+    
     private Class<T> entityClass;
     
     public GenericDAO(Class<T> entityClass) {
@@ -26,9 +64,16 @@ public abstract class GenericDAO<T, ID extends Serializable> {
     }
     
     /**
-     * Obtém uma instância do EntityManager
+     * Obtém o EntityManager da unidade de trabalho aberta na thread ou, fora de uma,
+     * uma nova instância que o chamador deve fechar
      */
     protected EntityManager getEntityManager() {
+        return UnidadeTrabalho.atual()
+            .map(UnidadeTrabalho::getEntityManager)
+            .orElseGet(GenericDAO::createEntityManager);
+    }
+    
+    static EntityManager createEntityManager() {
         return emf.createEntityManager();
     }
     
@@ -37,6 +82,7 @@ public abstract class GenericDAO<T, ID extends Serializable> {
      */
     public void save(T entity) {
         executeInTransactionVoid(em -> em.persist(entity));
+        ajustarContagem(1);
     }
     
     /**
@@ -50,10 +96,14 @@ public abstract class GenericDAO<T, ID extends Serializable> {
      * Remove uma entidade pelo ID
      */
     public void delete(ID id) {
-        executeInTransactionVoid(em -> {
-            Optional.ofNullable(em.find(entityClass, id))
-                    .ifPresent(em::remove);
+        boolean removida = executeInTransaction(em -> {
+            Optional<T> entidade = Optional.ofNullable(em.find(entityClass, id));
+            entidade.ifPresent(em::remove);
+            return entidade.isPresent();
         });
+        if (removida) {
+            ajustarContagem(-1);
+        }
     }
     
     /**
@@ -63,6 +113,14 @@ public abstract class GenericDAO<T, ID extends Serializable> {
         return executeQuery(em -> Optional.ofNullable(em.find(entityClass, id)));
     }
     
+    /**
+     * Busca uma entidade pelo ID carregando as associações do grafo de entidade informado
+     * no mesmo statement
+     */
+    public Optional<T> findById(ID id, String grafo) {
+        return executeQuery(em -> Optional.ofNullable(em.find(entityClass, id, fetchGraphHint(em, grafo))));
+    }
+    
     /**
      * Lista todas as entidades
      */
@@ -74,51 +132,249 @@ public abstract class GenericDAO<T, ID extends Serializable> {
     }
     
     /**
-     * Conta o total de registros
+     * Conta o total de registros (contagem exata)
      */
     public Long count() {
+        return count(ModoContagem.EXATA);
+    }
+    
+    /**
+     * Conta o total de registros com a precisão escolhida pelo chamador. Paginadores e
+     * painéis devem preferir {@link ModoContagem#EXATA_EM_CACHE} ou {@link ModoContagem#APROXIMADA},
+     * que não percorrem a tabela a cada chamada.
+     */
+    public Long count(ModoContagem modo) {
+        switch (modo) {
+            case APROXIMADA:
+                return contagemAproximada().orElseGet(() -> count(ModoContagem.EXATA_EM_CACHE));
+            case EXATA_EM_CACHE:
+                return CONTAGENS.computeIfAbsent(entityClass, classe -> new ContagemEmCache())
+                    .obter(this::contagemExata);
+            default:
+                return contagemExata();
+        }
+    }
+    
+    /**
+     * Ajusta o total em cache da entidade após uma escrita que incluiu ou removeu linhas.
+     * Dentro de uma transação externa o ajuste espera o commit e é descartado no rollback.
+     * Subclasses que escrevem por JDBC direto devem chamá-lo.
+     */
+    protected void ajustarContagem(long delta) {
+        if (delta == 0) {
+            return;
+        }
+        Optional.ofNullable(CONTAGENS.get(entityClass))
+            .ifPresent(contagem -> UnidadeTrabalho.aposConfirmacao(() -> contagem.ajustar(delta)));
+    }
+    
+    /**
+     * Verifica se existe entidade com o ID, sem carregá-la
+     */
+    public boolean existsById(ID id) {
+        return executeQuery(em -> existe(em, Collections.<String, Object>singletonMap(idAttribute(em), id)));
+    }
+    
+    /**
+     * Verifica se existe entidade com o campo igual ao valor, sem carregá-la
+     * @param campo nome do atributo mapeado (validado pelo metamodelo)
+     */
+    public boolean existsBy(String campo, Object valor) {
+        return executeQuery(em -> existe(em, Collections.singletonMap(campo, valor)));
+    }
+    
+    /**
+     * Remove a entidade pelo ID em um único DELETE, sem carregá-la. Como toda operação
+     * em lote, invalida a região inteira do cache de segundo nível; para uma entidade
+     * em cache prefira {@link #delete(Serializable)}.
+     * @return quantidade de linhas removidas (0 se o ID não existe)
+     */
+    public int deleteById(ID id) {
+        int linhas = executeInTransaction(em -> excluir(em, Collections.<String, Object>singletonMap(idAttribute(em), id)));
+        ajustarContagem(-linhas);
+        return linhas;
+    }
+    
+    /**
+     * Remove em um único DELETE as entidades cujos campos são iguais aos valores informados (AND)
+     * @return quantidade de linhas removidas
+     */
+    public int deleteWhere(Map<String, Object> condicoes) {
+        int linhas = executeInTransaction(em -> excluir(em, condicoes));
+        ajustarContagem(-linhas);
+        return linhas;
+    }
+    
+    /**
+     * Atualiza em um único UPDATE os campos das entidades que atendem às condições (igualdade, AND)
+     * @return quantidade de linhas alteradas
+     */
+    public int updateWhere(Map<String, Object> valores, Map<String, Object> condicoes) {
+        if (valores.isEmpty()) {
+            throw new IllegalArgumentException("Nenhum campo informado para atualização");
+        }
+        return executeInTransaction(em -> {
+            CriteriaBuilder cb = em.getCriteriaBuilder();
+            CriteriaUpdate<T> update = cb.createCriteriaUpdate(entityClass);
+            Root<T> root = update.from(entityClass);
+            valores.forEach((campo, valor) -> update.set(root.<Object>get(campo), valor));
+            update.where(igualdades(cb, root, condicoes));
+            return executarEmLote(em, em.createQuery(update));
+        });
+    }
+    
+    private boolean existe(EntityManager em, Map<String, Object> condicoes) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<Object> query = cb.createQuery();
+        Root<T> root = query.from(entityClass);
+        query.select(root.get(idAttribute(em))).where(igualdades(cb, root, condicoes));
+        return !em.createQuery(query).setMaxResults(1).getResultList().isEmpty();
+    }
+    
+    private int excluir(EntityManager em, Map<String, Object> condicoes) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaDelete<T> delete = cb.createCriteriaDelete(entityClass);
+        Root<T> root = delete.from(entityClass);
+        delete.where(igualdades(cb, root, condicoes));
+        return executarEmLote(em, em.createQuery(delete));
+    }
+    
+    private long contagemExata() {
         return executeQuery(em -> {
             TypedQuery<Long> query = em.createQuery("SELECT COUNT(e) FROM " + entityClass.getSimpleName() + " e", Long.class);
             return query.getSingleResult();
         });
     }
     
+    /**
+     * Estimativa das estatísticas da tabela; vazia quando o banco não é MySQL
+     * ou ainda não tem estatísticas para a tabela
+     */
+    private Optional<Long> contagemAproximada() {
+        return executeQuery(em -> {
+            SessionFactoryImplementor fabrica = em.unwrap(Session.class).getSessionFactory()
+                .unwrap(SessionFactoryImplementor.class);
+            if (!(fabrica.getJdbcServices().getDialect() instanceof MySQLDialect)) {
+                return Optional.empty();
+            }
+            String tabela = ((AbstractEntityPersister) fabrica.getMetamodel().entityPersister(entityClass))
+                .getTableName();
+            List<?> linhas = em.createNativeQuery(ESTATISTICA_TABELA)
+                .setParameter(1, tabela.substring(tabela.lastIndexOf('.') + 1).replace("`", ""))
+                .getResultList();
+            return linhas.stream()
+                .filter(Number.class::isInstance)
+                .map(linha -> ((Number) linha).longValue())
+                .findFirst();
+        });
+    }
+    
+    /**
+     * Condições de igualdade combinadas com AND. Nomes de campo inexistentes no
+     * metamodelo lançam IllegalArgumentException; não há montagem de JPQL por texto.
+     */
+    private Predicate[] igualdades(CriteriaBuilder cb, Root<T> root, Map<String, Object> condicoes) {
+        if (condicoes.isEmpty()) {
+            throw new IllegalArgumentException("Operações em lote exigem ao menos uma condição");
+        }
+        return condicoes.entrySet().stream()
+            .map(c -> c.getValue() == null
+                ? cb.isNull(root.get(c.getKey()))
+                : cb.equal(root.get(c.getKey()), c.getValue()))
+            .toArray(Predicate[]::new);
+    }
+    
+    /**
+     * Executa um UPDATE/DELETE em lote. Esses statements não passam pelo contexto de
+     * persistência: pendências são descarregadas antes e, na unidade de trabalho
+     * compartilhada, o contexto é limpo depois para não servir instâncias desatualizadas.
+     * O Hibernate invalida a região de cache de segundo nível da entidade.
+     */
+    private int executarEmLote(EntityManager em, Query statement) {
+        em.flush();
+        int linhas = statement.executeUpdate();
+        if (UnidadeTrabalho.atual().isPresent()) {
+            em.clear();
+        }
+        return linhas;
+    }
+    
+    private String idAttribute(EntityManager em) {
+        EntityType<T> tipo = em.getMetamodel().entity(entityClass);
+        return tipo.getId(tipo.getIdType().getJavaType()).getName();
+    }
+    
+    /**
+     * Marca a consulta para usar o cache de consultas do Hibernate na região informada.
+     * O resultado é invalidado automaticamente quando a tabela consultada é alterada.
+     */
+    protected <R> TypedQuery<R> cacheable(TypedQuery<R> query, String regiao) {
+        query.setHint("org.hibernate.cacheable", Boolean.TRUE);
+        query.setHint("org.hibernate.cacheRegion", regiao);
+        return query;
+    }
+    
+    /**
+     * Hints para {@link EntityManager#find} com o grafo de entidade nomeado
+     */
+    protected Map<String, Object> fetchGraphHint(EntityManager em, String grafo) {
+        return Collections.<String, Object>singletonMap(FETCH_GRAPH, em.getEntityGraph(grafo));
+    }
+    
+    /**
+     * Aplica à consulta o grafo de entidade nomeado, para que as associações
+     * do grafo venham no mesmo statement (evita N+1 na renderização)
+     */
+    protected <R> TypedQuery<R> withFetchGraph(EntityManager em, TypedQuery<R> query, String grafo) {
+        query.setHint(FETCH_GRAPH, em.getEntityGraph(grafo));
+        return query;
+    }
+    
     /**
      * Executa uma operação em uma transação
      */
     protected void executeInTransactionVoid(Consumer<EntityManager> operation) {
-        EntityManager em = getEntityManager();
-        try {
-            em.getTransaction().begin();
+        executeInTransaction(em -> {
             operation.accept(em);
-            em.getTransaction().commit();
-        } catch (Exception e) {
-            if (em.getTransaction().isActive()) {
-                em.getTransaction().rollback();
-            }
-            throw new RuntimeException("Erro na operação de transação: " + e.getMessage(), e);
-        } finally {
-            em.close();
-        }
+            return null;
+        });
     }
     
     /**
-     * Executa uma operação em uma transação com retorno
+     * Executa uma operação em uma transação com retorno.
+     * Dentro de uma unidade de trabalho usa o EntityManager compartilhado e participa
+     * da transação já iniciada (por {@code @Transacional}), se houver; quem a iniciou
+     * decide commit ou rollback.
      */
     protected <R> R executeInTransaction(Function<EntityManager, R> operation) {
+        Optional<UnidadeTrabalho> unidade = UnidadeTrabalho.atual();
         EntityManager em = getEntityManager();
+        EntityTransaction transacao = em.getTransaction();
+        boolean participante = transacao.isActive();
         try {
-            em.getTransaction().begin();
+            if (!participante) {
+                transacao.begin();
+            }
             R result = operation.apply(em);
-            em.getTransaction().commit();
+            if (!participante) {
+                if (unidade.isPresent()) {
+                    unidade.get().confirmar();
+                } else {
+                    transacao.commit();
+                }
+            }
             return result;
         } catch (Exception e) {
-            if (em.getTransaction().isActive()) {
-                em.getTransaction().rollback();
+            if (!participante && unidade.isPresent()) {
+                unidade.get().desfazer();
+            } else if (!participante && transacao.isActive()) {
+                transacao.rollback();
             }
             throw new RuntimeException("Erro na operação de transação: " + e.getMessage(), e);
         } finally {
-            em.close();
+            if (!unidade.isPresent()) {
+                em.close();
+            }
         }
     }
     
@@ -126,14 +382,32 @@ public abstract class GenericDAO<T, ID extends Serializable> {
      * Executa uma consulta sem transação
      */
     protected <R> R executeQuery(Function<EntityManager, R> query) {
+        Optional<UnidadeTrabalho> unidade = UnidadeTrabalho.atual();
         EntityManager em = getEntityManager();
         try {
             return query.apply(em);
         } finally {
-            em.close();
+            if (!unidade.isPresent()) {
+                em.close();
+            }
         }
     }
     
+    /**
+     * Estatísticas do Hibernate (acertos e falhas do cache de segundo nível, consultas, statements)
+     */
+    public static Statistics getStatistics() {
+        return emf.unwrap(SessionFactory.class).getStatistics();
+    }
+    
+    /**
+     * Descarta o cache de consultas. Necessário após escritas feitas por JDBC direto,
+     * que o Hibernate não enxerga para invalidar os resultados em cache.
+     */
+    public static void evictQueryCache() {
+        emf.unwrap(SessionFactory.class).getCache().evictQueryRegions();
+    }
+    
     /**
      * Fecha o EntityManagerFactory
      */
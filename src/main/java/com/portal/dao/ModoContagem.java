@@ -0,0 +1,23 @@
+package com.portal.dao;
+
+/**
+ * Formas de contar os registros de uma entidade em {@link GenericDAO#count(ModoContagem)}.
+ * Cada chamador escolhe o quanto de precisão precisa pagar.
+ */
+public enum ModoContagem {
+    
+    /** COUNT(*) a cada chamada: exato, mas percorre a tabela inteira no InnoDB */
+    EXATA,
+    
+    /**
+     * Total contado uma vez e mantido em memória, ajustado pelas inclusões e exclusões
+     * feitas pelo DAO e recontado pela primeira leitura depois que envelhece
+     */
+    EXATA_EM_CACHE,
+    
+    /**
+     * Estimativa das estatísticas da tabela mantidas pelo banco (sem varredura). Em bancos
+     * sem essas estatísticas, equivale a {@link #EXATA_EM_CACHE}.
+     */
+    APROXIMADA
+}
@@ -1,9 +1,36 @@
 package com.portal.dao;
 
 import com.portal.model.Noticia;
+import com.portal.model.NoticiaResumo;
+import com.portal.model.RegistroNoticia;
 import com.portal.model.Usuario;
+import org.hibernate.Hibernate;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+import org.hibernate.dialect.MySQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.query.Query;
+
 import javax.persistence.TypedQuery;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Join;
+import javax.persistence.criteria.Order;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -12,10 +39,54 @@ import java.util.stream.Collectors;
  */
 public class NoticiaDAO extends GenericDAO<Noticia, Long> {
     
+    /** Região do cache de consultas usada pelas listagens quentes */
+    static final String REGIAO_CONSULTAS = "noticias-consultas";
+    
+    /**
+     * Projeção para listagens: o resumo é cortado no próprio banco, trazendo apenas
+     * um caractere além do tamanho do resumo para saber se houve corte
+     */
+    private static final String SELECT_RESUMO =
+        "SELECT NEW com.portal.model.NoticiaResumo(n.id, n.titulo, " +
+        "SUBSTRING(n.conteudo, 1, " + (NoticiaResumo.TAMANHO_RESUMO + 1) + "), " +
+        "a.id, a.nome, n.dataPublicacao) FROM Noticia n JOIN n.autor a ";
+    
+    private static final String APOS_CURSOR =
+        "n.dataPublicacao < :data OR (n.dataPublicacao = :data AND n.id < :id) ";
+    
+    private static final String ORDEM_CURSOR = "ORDER BY n.dataPublicacao DESC, n.id DESC";
+    
+    /** Caractere de escape dos curingas nos filtros LIKE */
+    private static final char ESCAPE_LIKE = '\\';
+    
+    /** Inserção direta usada pela importação em lote (colunas conforme o mapeamento de {@link Noticia}) */
+    private static final String INSERT_LOTE =
+        "INSERT INTO noticias (titulo, conteudo, data_publicacao, autor_id) VALUES (?, ?, ?, ?)";
+    
+    private static final String SELECT_EXPORTACAO =
+        "SELECT NEW com.portal.model.RegistroNoticia(n.id, n.titulo, n.conteudo, n.dataPublicacao, n.autor.id) " +
+        "FROM Noticia n ORDER BY n.id";
+    
+    /** Fetch size que faz o Connector/J transmitir as linhas uma a uma em vez de carregar o resultado inteiro */
+    private static final int FETCH_STREAMING_MYSQL = Integer.MIN_VALUE;
+    
+    /** Fetch size da exportação nos demais bancos (ex.: H2 dos benchmarks), que não aceitam valor negativo */
+    private static final int FETCH_EXPORTACAO = 1000;
+    
     public NoticiaDAO() {
         super(Noticia.class);
     }
     
+    /**
+     * Busca uma notícia pelo ID com o autor carregado, pronta para renderização
+     * após o fechamento do EntityManager
+     */
+    public Optional<Noticia> findByIdComAutor(Long id) {
+        return executeQuery(em -> Optional.ofNullable(
+                em.find(Noticia.class, id, fetchGraphHint(em, Noticia.GRAFO_AUTOR)))
+            .map(NoticiaDAO::comAutor));
+    }
+    
     /**
      * Lista todas as notícias ordenadas por data de publicação (mais recentes primeiro)
      */
@@ -23,18 +94,247 @@ public class NoticiaDAO extends GenericDAO<Noticia, Long> {
         return executeQuery(em -> {
             TypedQuery<Noticia> query = em.createQuery(
                 "SELECT n FROM Noticia n ORDER BY n.dataPublicacao DESC", Noticia.class);
+            withFetchGraph(em, query, Noticia.GRAFO_AUTOR);
+            return comAutores(query.getResultList());
+        });
+    }
+    
+    /**
+     * Lista uma página de notícias ordenadas por data de publicação (mais recentes primeiro).
+     * Usa paginação por cursor (keyset) sobre (dataPublicacao, id) em vez de OFFSET,
+     * de modo que o custo de qualquer página é o mesmo da primeira.
+     * @param cursor posição após a qual a página começa, ou vazio para a primeira página
+     * @param tamanho quantidade máxima de notícias na página
+     */
+    public Pagina<Noticia> findPagina(Optional<CursorNoticia> cursor, int tamanho) {
+        return executeQuery(em -> {
+            TypedQuery<Noticia> query = cursor
+                .map(c -> {
+                    TypedQuery<Noticia> q = em.createQuery(
+                        "SELECT n FROM Noticia n WHERE " + APOS_CURSOR + ORDEM_CURSOR, Noticia.class);
+                    q.setParameter("data", c.getDataPublicacao());
+                    q.setParameter("id", c.getId());
+                    return q;
+                })
+                .orElseGet(() -> em.createQuery("SELECT n FROM Noticia n " + ORDEM_CURSOR, Noticia.class));
+            
+            // Busca um registro a mais para saber se existe próxima página
+            query.setMaxResults(tamanho + 1);
+            withFetchGraph(em, query, Noticia.GRAFO_AUTOR);
+            cacheable(query, REGIAO_CONSULTAS);
+            return paginar(comAutores(query.getResultList()), tamanho,
+                n -> new CursorNoticia(n.getDataPublicacao(), n.getId()));
+        });
+    }
+    
+    /**
+     * Mesma paginação por cursor de {@link #findPagina}, projetada em {@link NoticiaResumo}
+     */
+    public Pagina<NoticiaResumo> findResumosPagina(Optional<CursorNoticia> cursor, int tamanho) {
+        return executeQuery(em -> {
+            TypedQuery<NoticiaResumo> query = cursor
+                .map(c -> {
+                    TypedQuery<NoticiaResumo> q = em.createQuery(
+                        SELECT_RESUMO + "WHERE " + APOS_CURSOR + ORDEM_CURSOR, NoticiaResumo.class);
+                    q.setParameter("data", c.getDataPublicacao());
+                    q.setParameter("id", c.getId());
+                    return q;
+                })
+                .orElseGet(() -> em.createQuery(SELECT_RESUMO + ORDEM_CURSOR, NoticiaResumo.class));
+            
+            query.setMaxResults(tamanho + 1);
+            cacheable(query, REGIAO_CONSULTAS);
+            return paginar(query.getResultList(), tamanho,
+                r -> new CursorNoticia(r.getDataPublicacao(), r.getId()));
+        });
+    }
+    
+    /**
+     * Mesma paginação por cursor de {@link #findResumosPagina}, restrita às notícias de um autor
+     */
+    public Pagina<NoticiaResumo> findResumosPaginaByAutor(Long autorId, Optional<CursorNoticia> cursor, int tamanho) {
+        return executeQuery(em -> {
+            TypedQuery<NoticiaResumo> query = cursor
+                .map(c -> {
+                    TypedQuery<NoticiaResumo> q = em.createQuery(
+                        SELECT_RESUMO + "WHERE a.id = :autor AND (" + APOS_CURSOR + ") " + ORDEM_CURSOR,
+                        NoticiaResumo.class);
+                    q.setParameter("data", c.getDataPublicacao());
+                    q.setParameter("id", c.getId());
+                    return q;
+                })
+                .orElseGet(() -> em.createQuery(SELECT_RESUMO + "WHERE a.id = :autor " + ORDEM_CURSOR,
+                    NoticiaResumo.class));
+            query.setParameter("autor", autorId);
+            query.setMaxResults(tamanho + 1);
+            cacheable(query, REGIAO_CONSULTAS);
+            return paginar(query.getResultList(), tamanho,
+                r -> new CursorNoticia(r.getDataPublicacao(), r.getId()));
+        });
+    }
+    
+    /**
+     * Conta as notícias de um autor
+     */
+    public long countByAutor(Long autorId) {
+        return executeQuery(em -> cacheable(em.createQuery(
+                "SELECT COUNT(n) FROM Noticia n WHERE n.autor.id = :autor", Long.class), REGIAO_CONSULTAS)
+            .setParameter("autor", autorId)
+            .getSingleResult());
+    }
+    
+    /**
+     * Data da notícia mais recente de um autor
+     */
+    public Optional<LocalDateTime> findUltimaPublicacaoByAutor(Long autorId) {
+        return executeQuery(em -> Optional.ofNullable(cacheable(em.createQuery(
+                "SELECT MAX(n.dataPublicacao) FROM Noticia n WHERE n.autor.id = :autor", LocalDateTime.class),
+                REGIAO_CONSULTAS)
+            .setParameter("autor", autorId)
+            .getSingleResult()));
+    }
+    
+    /**
+     * Busca o resumo de uma notícia pelo ID
+     */
+    public Optional<NoticiaResumo> findResumoById(Long id) {
+        return executeQuery(em -> em.createQuery(SELECT_RESUMO + "WHERE n.id = :id", NoticiaResumo.class)
+            .setParameter("id", id)
+            .getResultList().stream().findFirst());
+    }
+    
+    /**
+     * Lista os resumos de todas as notícias ordenados por data (mais recentes primeiro)
+     */
+    public List<NoticiaResumo> findResumosOrderByDate() {
+        return executeQuery(em -> em.createQuery(SELECT_RESUMO + ORDEM_CURSOR, NoticiaResumo.class)
+            .getResultList());
+    }
+    
+    /**
+     * Lista os resumos das últimas N notícias
+     */
+    public List<NoticiaResumo> findResumosLatest(int limit) {
+        return executeQuery(em -> {
+            TypedQuery<NoticiaResumo> query = em.createQuery(SELECT_RESUMO + ORDEM_CURSOR, NoticiaResumo.class);
+            query.setMaxResults(limit);
+            cacheable(query, REGIAO_CONSULTAS);
+            return query.getResultList();
+        });
+    }
+    
+    /**
+     * Lista os resumos das últimas N notícias de um autor
+     */
+    public List<NoticiaResumo> findResumosLatestByAutor(Long autorId, int limit) {
+        return executeQuery(em -> {
+            TypedQuery<NoticiaResumo> query = em.createQuery(
+                SELECT_RESUMO + "WHERE a.id = :autor " + ORDEM_CURSOR, NoticiaResumo.class);
+            query.setParameter("autor", autorId);
+            query.setMaxResults(limit);
+            cacheable(query, REGIAO_CONSULTAS);
+            return query.getResultList();
+        });
+    }
+    
+    /**
+     * Busca resumos de notícias por título (busca parcial)
+     */
+    public List<NoticiaResumo> findResumosByTitulo(String titulo) {
+        return executeQuery(em -> em.createQuery(
+                SELECT_RESUMO + "WHERE LOWER(n.titulo) LIKE LOWER(:titulo) " + ORDEM_CURSOR, NoticiaResumo.class)
+            .setParameter("titulo", "%" + titulo + "%")
+            .getResultList());
+    }
+    
+    /**
+     * Busca resumos de notícias por palavras-chave no título ou conteúdo
+     */
+    public List<NoticiaResumo> findResumosByKeywords(String keywords) {
+        return executeQuery(em -> em.createQuery(
+                SELECT_RESUMO + "WHERE LOWER(n.titulo) LIKE LOWER(:keywords) " +
+                "OR LOWER(n.conteudo) LIKE LOWER(:keywords) " + ORDEM_CURSOR, NoticiaResumo.class)
+            .setParameter("keywords", "%" + keywords + "%")
+            .getResultList());
+    }
+    
+    /**
+     * Lista uma página de resumos que atendem ao filtro, na ordem pedida, em uma única
+     * consulta montada com a Criteria API (só os critérios informados entram no WHERE).
+     * A página começa logo depois da posição do cursor (keyset), sem OFFSET: o custo não
+     * cresce com a profundidade da página. Com {@code anteriores}, percorre a ordem
+     * invertida a partir do cursor e devolve os itens na ordem pedida.
+     * @param limite quantidade máxima de resultados (peça um a mais para saber se há mais)
+     */
+    public List<NoticiaResumo> findResumos(FiltroNoticias filtro, Optional<CursorListagem> cursor,
+            boolean anteriores, int limite) {
+        return executeQuery(em -> {
+            CriteriaBuilder cb = em.getCriteriaBuilder();
+            CriteriaQuery<NoticiaResumo> criteria = cb.createQuery(NoticiaResumo.class);
+            Root<Noticia> n = criteria.from(Noticia.class);
+            Join<Noticia, Usuario> a = n.join("autor");
+            List<Predicate> condicoes = new ArrayList<>(Arrays.asList(condicoes(cb, n, a, filtro)));
+            cursor.filter(c -> c.getOrdem() == filtro.getOrdem())
+                .ifPresent(c -> condicoes.add(aposCursor(cb, n, c, anteriores)));
+            criteria.select(cb.construct(NoticiaResumo.class, n.get("id"), n.get("titulo"),
+                    cb.substring(n.get("conteudo"), 1, NoticiaResumo.TAMANHO_RESUMO + 1),
+                    a.get("id"), a.get("nome"), n.get("dataPublicacao")))
+                .where(condicoes.toArray(new Predicate[0]))
+                .orderBy(ordenacao(cb, n, filtro.getOrdem(), anteriores));
+            List<NoticiaResumo> resultado = em.createQuery(criteria)
+                .setMaxResults(limite)
+                .getResultList();
+            if (anteriores) {
+                resultado = new ArrayList<>(resultado);
+                Collections.reverse(resultado);
+            }
+            return resultado;
+        });
+    }
+    
+    /**
+     * Conta as notícias que atendem ao filtro. O total fica no cache de consultas,
+     * uma entrada por combinação de critérios, e é invalidado por qualquer escrita na tabela.
+     */
+    public long countResumos(FiltroNoticias filtro) {
+        return executeQuery(em -> {
+            CriteriaBuilder cb = em.getCriteriaBuilder();
+            CriteriaQuery<Long> criteria = cb.createQuery(Long.class);
+            Root<Noticia> n = criteria.from(Noticia.class);
+            // O join só é necessário quando o autor faz parte do filtro
+            Join<Noticia, Usuario> a = filtro.getNomeAutor().isPresent() ? n.join("autor") : null;
+            criteria.select(cb.count(n)).where(condicoes(cb, n, a, filtro));
+            return cacheable(em.createQuery(criteria), REGIAO_CONSULTAS).getSingleResult();
+        });
+    }
+    
+    /**
+     * Lista um lote de notícias com o autor carregado, em ordem crescente de id,
+     * começando após o id informado. Usado para percorrer a tabela inteira em lotes.
+     */
+    public List<Noticia> findLoteComAutor(long aposId, int tamanho) {
+        return executeQuery(em -> {
+            TypedQuery<Noticia> query = em.createQuery(
+                "SELECT n FROM Noticia n WHERE n.id > :id ORDER BY n.id", Noticia.class);
+            query.setParameter("id", aposId);
+            query.setMaxResults(tamanho);
+            withFetchGraph(em, query, Noticia.GRAFO_AUTOR);
             return query.getResultList();
         });
     }
     
     /**
-     * Lista notícias de um autor específico
+     * Lista um lote das notícias do autor com o autor carregado, em ordem crescente de id,
+     * começando após o id informado
      */
-    public List<Noticia> findByAutor(Usuario autor) {
+    public List<Noticia> findLoteComAutorByAutor(Long autorId, long aposId, int tamanho) {
         return executeQuery(em -> {
             TypedQuery<Noticia> query = em.createQuery(
-                "SELECT n FROM Noticia n WHERE n.autor = :autor ORDER BY n.dataPublicacao DESC", Noticia.class);
-            query.setParameter("autor", autor);
+                "SELECT n FROM Noticia n WHERE n.autor.id = :autorId AND n.id > :id ORDER BY n.id", Noticia.class);
+            query.setParameter("autorId", autorId);
+            query.setParameter("id", aposId);
+            query.setMaxResults(tamanho);
+            withFetchGraph(em, query, Noticia.GRAFO_AUTOR);
             return query.getResultList();
         });
     }
@@ -47,6 +347,7 @@ public class NoticiaDAO extends GenericDAO<Noticia, Long> {
             TypedQuery<Noticia> query = em.createQuery(
                 "SELECT n FROM Noticia n WHERE LOWER(n.titulo) LIKE LOWER(:titulo) ORDER BY n.dataPublicacao DESC", Noticia.class);
             query.setParameter("titulo", "%" + titulo + "%");
+            withFetchGraph(em, query, Noticia.GRAFO_AUTOR);
             return query.getResultList();
         });
     }
@@ -59,7 +360,9 @@ public class NoticiaDAO extends GenericDAO<Noticia, Long> {
             TypedQuery<Noticia> query = em.createQuery(
                 "SELECT n FROM Noticia n ORDER BY n.dataPublicacao DESC", Noticia.class);
             query.setMaxResults(limit);
-            return query.getResultList();
+            withFetchGraph(em, query, Noticia.GRAFO_AUTOR);
+            cacheable(query, REGIAO_CONSULTAS);
+            return comAutores(query.getResultList());
         });
     }
     
@@ -72,7 +375,162 @@ public class NoticiaDAO extends GenericDAO<Noticia, Long> {
                 "SELECT n FROM Noticia n WHERE LOWER(n.titulo) LIKE LOWER(:keywords) " +
                 "OR LOWER(n.conteudo) LIKE LOWER(:keywords) ORDER BY n.dataPublicacao DESC", Noticia.class);
             query.setParameter("keywords", "%" + keywords + "%");
+            withFetchGraph(em, query, Noticia.GRAFO_AUTOR);
             return query.getResultList();
         });
     }
+    
+    /**
+     * Altera título e conteúdo na notícia gerenciada: o dirty checking grava só essa linha
+     * e o cache de segundo nível perde só essa entrada. Um UPDATE em lote invalidaria a
+     * região "noticias" inteira e limparia o contexto de persistência da requisição.
+     * @return a notícia atualizada, com o autor carregado, ou vazio se não existe
+     */
+    public Optional<Noticia> updateTexto(Long id, String titulo, String conteudo) {
+        return executeInTransaction(em -> Optional.ofNullable(
+                em.find(Noticia.class, id, fetchGraphHint(em, Noticia.GRAFO_AUTOR)))
+            .map(noticia -> {
+                noticia.setTitulo(titulo);
+                noticia.setConteudo(conteudo);
+                return comAutor(noticia);
+            }));
+    }
+    
+    /**
+     * Insere um lote de notícias em uma única transação, enviando todos os INSERTs
+     * em um só batch JDBC. Com ids IDENTITY o Hibernate desativa o batching de
+     * inserts, por isso o lote vai direto pela conexão da sessão, sem passar pelo
+     * contexto de persistência (nada a descarregar ou limpar entre lotes).
+     * @return quantidade de linhas inseridas
+     */
+    public int insertBatch(List<RegistroNoticia> lote) {
+        if (lote.isEmpty()) {
+            return 0;
+        }
+        int linhas = executeInTransaction(em -> em.unwrap(Session.class).doReturningWork(conexao -> {
+            try (PreparedStatement ps = conexao.prepareStatement(INSERT_LOTE)) {
+                for (RegistroNoticia registro : lote) {
+                    ps.setString(1, registro.getTitulo());
+                    ps.setString(2, registro.getConteudo());
+                    ps.setTimestamp(3, Timestamp.valueOf(registro.getDataPublicacao()));
+                    ps.setLong(4, registro.getAutorId());
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+                return lote.size();
+            }
+        }));
+        ajustarContagem(linhas);
+        return linhas;
+    }
+    
+    /**
+     * Percorre todas as notícias em ordem de ID com um cursor somente-avanço,
+     * entregando cada linha ao destino sem acumular o resultado em memória
+     * @return quantidade de linhas exportadas
+     */
+    public long exportAll(Consumer<RegistroNoticia> destino) {
+        return executeQuery(em -> {
+            Session sessao = em.unwrap(Session.class);
+            boolean mysql = sessao.getSessionFactory().unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices().getDialect() instanceof MySQLDialect;
+            Query<RegistroNoticia> query = sessao
+                .createQuery(SELECT_EXPORTACAO, RegistroNoticia.class)
+                .setFetchSize(mysql ? FETCH_STREAMING_MYSQL : FETCH_EXPORTACAO)
+                .setReadOnly(true)
+                .setCacheable(false);
+            long total = 0;
+            try (ScrollableResults linhas = query.scroll(ScrollMode.FORWARD_ONLY)) {
+                while (linhas.next()) {
+                    destino.accept((RegistroNoticia) linhas.get(0));
+                    total++;
+                }
+            }
+            return total;
+        });
+    }
+    
+    /**
+     * Predicados dos critérios presentes no filtro. O título é comparado por prefixo,
+     * sem LOWER, para que o índice da coluna possa ser usado (a collation do banco já
+     * ignora maiúsculas); o autor é comparado por trecho do nome.
+     */
+    private static Predicate[] condicoes(CriteriaBuilder cb, Root<Noticia> n, Join<Noticia, Usuario> a,
+            FiltroNoticias filtro) {
+        List<Predicate> condicoes = new ArrayList<>();
+        filtro.getPrefixoTitulo().ifPresent(prefixo ->
+            condicoes.add(cb.like(n.get("titulo"), escaparLike(prefixo) + "%", ESCAPE_LIKE)));
+        filtro.getNomeAutor().ifPresent(nome ->
+            condicoes.add(cb.like(cb.lower(a.get("nome")),
+                "%" + escaparLike(nome.toLowerCase(Locale.ROOT)) + "%", ESCAPE_LIKE)));
+        filtro.getDe().ifPresent(de ->
+            condicoes.add(cb.greaterThanOrEqualTo(n.get("dataPublicacao"), de.atStartOfDay())));
+        filtro.getAte().ifPresent(ate ->
+            condicoes.add(cb.lessThan(n.get("dataPublicacao"), ate.plusDays(1).atStartOfDay())));
+        return condicoes.toArray(new Predicate[0]);
+    }
+    
+    /**
+     * Ordenação terminada no id, para que a ordem seja total e o cursor não repita nem pule
+     * linhas; invertida para percorrer as páginas anteriores
+     */
+    private static List<Order> ordenacao(CriteriaBuilder cb, Root<Noticia> n, OrdemNoticias ordem, boolean invertida) {
+        Path<?> chave = ordem == OrdemNoticias.TITULO ? n.get("titulo") : n.get("dataPublicacao");
+        boolean crescente = (ordem != OrdemNoticias.MAIS_RECENTES) != invertida;
+        return crescente
+            ? Arrays.asList(cb.asc(chave), cb.asc(n.get("id")))
+            : Arrays.asList(cb.desc(chave), cb.desc(n.get("id")));
+    }
+    
+    /**
+     * Linhas que vêm depois do cursor na ordenação (invertida, para as páginas anteriores),
+     * no mesmo formato do {@link #APOS_CURSOR}: chave maior, ou chave igual e id maior
+     */
+    private static Predicate aposCursor(CriteriaBuilder cb, Root<Noticia> n, CursorListagem cursor, boolean invertida) {
+        boolean crescente = (cursor.getOrdem() != OrdemNoticias.MAIS_RECENTES) != invertida;
+        return cursor.getOrdem() == OrdemNoticias.TITULO
+            ? depois(cb, n.get("titulo"), cursor.getTitulo(), n.get("id"), cursor.getId(), crescente)
+            : depois(cb, n.get("dataPublicacao"), cursor.getDataPublicacao(), n.get("id"), cursor.getId(), crescente);
+    }
+    
+    private static <C extends Comparable<? super C>> Predicate depois(CriteriaBuilder cb, Path<C> chave, C valor,
+            Path<Long> id, Long valorId, boolean crescente) {
+        return crescente
+            ? cb.or(cb.greaterThan(chave, valor), cb.and(cb.equal(chave, valor), cb.greaterThan(id, valorId)))
+            : cb.or(cb.lessThan(chave, valor), cb.and(cb.equal(chave, valor), cb.lessThan(id, valorId)));
+    }
+    
+    /**
+     * Escapa os curingas do LIKE para que o texto digitado seja comparado literalmente
+     */
+    private static String escaparLike(String texto) {
+        return texto.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+    
+    /**
+     * Corta o resultado (que traz um item a mais) no tamanho da página e calcula o cursor
+     * da próxima página a partir do último item
+     */
+    private static <R> Pagina<R> paginar(List<R> resultado, int tamanho, Function<R, CursorNoticia> cursorDe) {
+        if (resultado.size() <= tamanho) {
+            return new Pagina<>(new ArrayList<>(resultado), null);
+        }
+        List<R> itens = new ArrayList<>(resultado.subList(0, tamanho));
+        return new Pagina<>(itens, cursorDe.apply(itens.get(tamanho - 1)).codificar());
+    }
+    
+    /**
+     * Garante o autor inicializado enquanto o EntityManager está aberto.
+     * Resultados vindos do cache de consultas/entidades trazem o autor como proxy;
+     * aqui ele é resolvido pelo cache de usuários, sem SQL na renderização.
+     */
+    private static List<Noticia> comAutores(List<Noticia> noticias) {
+        noticias.forEach(NoticiaDAO::comAutor);
+        return noticias;
+    }
+    
+    private static Noticia comAutor(Noticia noticia) {
+        Hibernate.initialize(noticia.getAutor());
+        return noticia;
+    }
 }
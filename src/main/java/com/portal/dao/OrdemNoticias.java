@@ -0,0 +1,34 @@
+package com.portal.dao;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * Ordenações aceitas pela listagem filtrada de notícias. Cada uma termina no id
+ * para que a ordem seja total e as páginas não repitam nem pulem linhas.
+ */
+public enum OrdemNoticias {
+    
+    MAIS_RECENTES("Mais recentes"),
+    MAIS_ANTIGAS("Mais antigas"),
+    TITULO("Título (A-Z)");
+    
+    private final String descricao;
+    
+    OrdemNoticias(String descricao) {
+        this.descricao = descricao;
+    }
+    
+    public String getDescricao() {
+        return descricao;
+    }
+    
+    /**
+     * Ordenação pelo nome, ou a padrão (mais recentes) quando ausente ou desconhecido
+     */
+    public static OrdemNoticias de(String nome) {
+        return Optional.ofNullable(nome)
+            .flatMap(n -> Arrays.stream(values()).filter(o -> o.name().equals(n)).findFirst())
+            .orElse(MAIS_RECENTES);
+    }
+}
@@ -0,0 +1,49 @@
+package com.portal.dao;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Página de resultados de uma consulta paginada por cursor (keyset).
+ * Contém os itens da página e o cursor opaco para buscar a próxima.
+ * @param <T> Tipo dos itens da página
+ */
+public class Pagina<T> implements Serializable {
+    
+    private static final long serialVersionUID = 1L;
+    
+    private final List<T> itens;
+    private final String proximoCursor;
+    
+    public Pagina(List<T> itens, String proximoCursor) {
+        this.itens = Collections.unmodifiableList(itens);
+        this.proximoCursor = proximoCursor;
+    }
+    
+    /**
+     * Cria uma página vazia, sem próxima página
+     */
+    public static <T> Pagina<T> vazia() {
+        return new Pagina<>(Collections.<T>emptyList(), null);
+    }
+    
+    public List<T> getItens() {
+        return itens;
+    }
+    
+    /**
+     * Cursor opaco da próxima página, ou null se esta for a última
+     */
+    public String getProximoCursor() {
+        return proximoCursor;
+    }
+    
+    public boolean isTemProxima() {
+        return proximoCursor != null;
+    }
+    
+    public boolean isVazia() {
+        return itens.isEmpty();
+    }
+}
@@ -0,0 +1,74 @@
+package com.portal.dao;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Página da listagem administrativa, com o total de registros do filtro e o número da
+ * página para exibição. A navegação para a página anterior e a seguinte é por cursor
+ * ({@link CursorListagem}), como em {@link Pagina}, e não por OFFSET.
+ * @param <T> Tipo dos itens da página
+ */
+public class PaginaNumerada<T> implements Serializable {
+    
+    private static final long serialVersionUID = 1L;
+    
+    private final List<T> itens;
+    private final int numero;
+    private final int tamanho;
+    private final long total;
+    private final String cursorAnterior;
+    private final String cursorProximo;
+    
+    /**
+     * @param numero número da página, começando em 1
+     * @param cursorAnterior cursor da página anterior, ou null se esta for a primeira
+     * @param cursorProximo cursor da próxima página, ou null se esta for a última
+     */
+    public PaginaNumerada(List<T> itens, int numero, int tamanho, long total,
+                          String cursorAnterior, String cursorProximo) {
+        this.itens = Collections.unmodifiableList(itens);
+        this.numero = numero;
+        this.tamanho = tamanho;
+        this.total = total;
+        this.cursorAnterior = cursorAnterior;
+        this.cursorProximo = cursorProximo;
+    }
+    
+    public List<T> getItens() {
+        return itens;
+    }
+    
+    public int getNumero() {
+        return numero;
+    }
+    
+    public int getTamanho() {
+        return tamanho;
+    }
+    
+    public long getTotal() {
+        return total;
+    }
+    
+    public int getTotalPaginas() {
+        return (int) Math.max(1, (total + tamanho - 1) / tamanho);
+    }
+    
+    public String getCursorAnterior() {
+        return cursorAnterior;
+    }
+    
+    public String getCursorProximo() {
+        return cursorProximo;
+    }
+    
+    public boolean isTemAnterior() {
+        return cursorAnterior != null;
+    }
+    
+    public boolean isTemProxima() {
+        return cursorProximo != null;
+    }
+}
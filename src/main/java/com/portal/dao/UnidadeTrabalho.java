@@ -0,0 +1,146 @@
+package com.portal.dao;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Unidade de trabalho: um único EntityManager compartilhado por todas as chamadas
+ * de DAO feitas na mesma thread (tipicamente uma requisição HTTP), do {@link #abrir()}
+ * até o {@link #close()}. Leituras repetidas da mesma entidade são atendidas pelo
+ * contexto de persistência e a requisição usa uma só conexão do pool.
+ * <p>
+ * O EntityManager só é criado no primeiro acesso, então requisições que não tocam
+ * o banco não retiram conexão. Aberturas aninhadas participam da unidade existente.
+ * <p>
+ * Efeitos que não podem ser desfeitos (eventos, caches e índices em memória) são
+ * agendados com {@link #aposConfirmacao(Runnable)} e só acontecem depois do commit.
+ */
+public final class UnidadeTrabalho implements AutoCloseable {
+    
+    private static final Logger LOGGER = Logger.getLogger(UnidadeTrabalho.class.getName());
+    
+    private static final ThreadLocal<UnidadeTrabalho> ATUAL = new ThreadLocal<>();
+    
+    private final UnidadeTrabalho raiz;
+    private EntityManager entityManager;
+    private List<Runnable> aposConfirmacao = new ArrayList<>();
+    
+    private UnidadeTrabalho(UnidadeTrabalho raiz) {
+        this.raiz = raiz;
+    }
+    
+    /**
+     * Abre uma unidade de trabalho na thread atual, ou participa da que já estiver aberta
+     */
+    public static UnidadeTrabalho abrir() {
+        UnidadeTrabalho existente = ATUAL.get();
+        if (existente != null) {
+            return new UnidadeTrabalho(existente);
+        }
+        UnidadeTrabalho nova = new UnidadeTrabalho(null);
+        ATUAL.set(nova);
+        return nova;
+    }
+    
+    /**
+     * Unidade de trabalho aberta na thread atual, se houver
+     */
+    static Optional<UnidadeTrabalho> atual() {
+        return Optional.ofNullable(ATUAL.get());
+    }
+    
+    /**
+     * EntityManager compartilhado da unidade, criado no primeiro uso
+     */
+    public EntityManager getEntityManager() {
+        if (raiz != null) {
+            return raiz.getEntityManager();
+        }
+        if (entityManager == null) {
+            entityManager = GenericDAO.createEntityManager();
+        }
+        return entityManager;
+    }
+    
+    /**
+     * Executa a ação depois do commit da transação em curso na thread, ou a descarta se
+     * a transação for desfeita. Sem unidade de trabalho ou sem transação ativa, executa na hora.
+     */
+    public static void aposConfirmacao(Runnable acao) {
+        UnidadeTrabalho unidade = ATUAL.get();
+        if (unidade == null || unidade.entityManager == null || !unidade.entityManager.getTransaction().isActive()) {
+            acao.run();
+            return;
+        }
+        unidade.aposConfirmacao.add(acao);
+    }
+    
+    /**
+     * Confirma a transação ativa e executa as ações agendadas para depois do commit.
+     * Falhas nessas ações são registradas e não desfazem nada: a transação já foi confirmada.
+     */
+    public void confirmar() {
+        if (raiz != null) {
+            raiz.confirmar();
+            return;
+        }
+        getEntityManager().getTransaction().commit();
+        // Ações que abrirem novas transações agendam as suas em outra lista
+        List<Runnable> acoes = aposConfirmacao;
+        aposConfirmacao = new ArrayList<>();
+        for (Runnable acao : acoes) {
+            try {
+                acao.run();
+            } catch (RuntimeException e) {
+                LOGGER.log(Level.WARNING, "Falha em ação executada após o commit", e);
+            }
+        }
+    }
+    
+    /**
+     * Desfaz a transação ativa, descarta as ações agendadas e limpa o contexto de
+     * persistência, que não pode continuar com entidades da transação desfeita
+     */
+    public void desfazer() {
+        if (raiz != null) {
+            raiz.desfazer();
+            return;
+        }
+        aposConfirmacao.clear();
+        if (entityManager == null) {
+            return;
+        }
+        if (entityManager.getTransaction().isActive()) {
+            entityManager.getTransaction().rollback();
+        }
+        entityManager.clear();
+    }
+    
+    /**
+     * Encerra a unidade. Transações deixadas abertas são desfeitas. Em unidades
+     * participantes não faz nada: quem abriu a unidade é quem a encerra.
+     */
+    @Override
+    public void close() {
+        if (raiz != null) {
+            return;
+        }
+        ATUAL.remove();
+        aposConfirmacao.clear();
+        if (entityManager == null) {
+            return;
+        }
+        try {
+            if (entityManager.getTransaction().isActive()) {
+                entityManager.getTransaction().rollback();
+            }
+        } finally {
+            entityManager.close();
+            entityManager = null;
+        }
+    }
+}
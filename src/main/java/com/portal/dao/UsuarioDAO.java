@@ -32,26 +32,9 @@ public class UsuarioDAO extends GenericDAO<Usuario, Long> {
     }
     
     /**
-     * Autentica um usuário pelo email e senha
-     */
-    public Optional<Usuario> authenticate(String email, String senha) {
-        return executeQuery(em -> {
-            try {
-                TypedQuery<Usuario> query = em.createQuery(
-                    "SELECT u FROM Usuario u WHERE u.email = :email AND u.senha = :senha", Usuario.class);
-                query.setParameter("email", email);
-                query.setParameter("senha", senha);
-                return Optional.of(query.getSingleResult());
-            } catch (NoResultException e) {
-                return Optional.empty();
-            }
-        });
-    }
-    
-    /**
-     * Verifica se um email já está em uso
+     * Verifica se um email já está em uso, sem carregar o usuário
      */
     public boolean emailExists(String email) {
-        return findByEmail(email).isPresent();
+        return existsBy("email", email);
     }
 }
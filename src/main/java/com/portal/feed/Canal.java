@@ -0,0 +1,59 @@
+package com.portal.feed;
+
+import com.portal.model.NoticiaResumo;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Conteúdo imutável de um feed (global ou de um autor): título e últimas notícias,
+ * das mais recentes para as mais antigas. Alterações geram um novo canal.
+ */
+final class Canal {
+    
+    private final String titulo;
+    private final String caminho;
+    private final List<NoticiaResumo> itens;
+    
+    Canal(String titulo, String caminho, List<NoticiaResumo> itens) {
+        this.titulo = titulo;
+        this.caminho = caminho;
+        this.itens = Collections.unmodifiableList(new ArrayList<>(itens));
+    }
+    
+    String getTitulo() {
+        return titulo;
+    }
+    
+    /** Caminho do feed a partir do contexto, sem o formato (ex.: /feeds/autor/3) */
+    String getCaminho() {
+        return caminho;
+    }
+    
+    List<NoticiaResumo> getItens() {
+        return itens;
+    }
+    
+    boolean contem(Long id) {
+        return itens.stream().anyMatch(item -> item.getId().equals(id));
+    }
+    
+    /**
+     * Canal com a notícia incluída (ou substituída) na posição da sua data, limitado
+     * a {@code limite} itens
+     */
+    Canal comNoticia(NoticiaResumo noticia, int limite) {
+        List<NoticiaResumo> novo = new ArrayList<>(itens);
+        novo.removeIf(item -> item.getId().equals(noticia.getId()));
+        novo.add(noticia);
+        novo.sort(NoticiaResumo.MAIS_RECENTES_PRIMEIRO);
+        return new Canal(titulo, caminho, novo.size() > limite ? novo.subList(0, limite) : novo);
+    }
+    
+    Canal semNoticia(Long id) {
+        List<NoticiaResumo> novo = new ArrayList<>(itens);
+        novo.removeIf(item -> item.getId().equals(id));
+        return new Canal(titulo, caminho, novo);
+    }
+}
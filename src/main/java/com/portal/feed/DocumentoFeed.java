@@ -0,0 +1,64 @@
+package com.portal.feed;
+
+import com.portal.filter.ValidadoresHttp;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Feed já serializado, em UTF-8 e em gzip, com os validadores HTTP calculados uma vez
+ */
+public final class DocumentoFeed {
+    
+    private final FormatoFeed formato;
+    private final byte[] conteudo;
+    private final byte[] comprimido;
+    private final String etag;
+    private final long ultimaAlteracao;
+    
+    DocumentoFeed(FormatoFeed formato, byte[] conteudo, long ultimaAlteracao) {
+        this.formato = formato;
+        this.conteudo = conteudo;
+        this.comprimido = comprimir(conteudo);
+        this.etag = "\"" + ValidadoresHttp.hash(conteudo) + "\"";
+        this.ultimaAlteracao = ultimaAlteracao;
+    }
+    
+    public String getContentType() {
+        return formato.getContentType();
+    }
+    
+    public byte[] getConteudo() {
+        return conteudo;
+    }
+    
+    public byte[] getComprimido() {
+        return comprimido;
+    }
+    
+    /** ETag da representação sem compressão; a comprimida usa o sufixo -gz */
+    public String getEtag() {
+        return etag;
+    }
+    
+    public long getUltimaAlteracao() {
+        return ultimaAlteracao;
+    }
+    
+    private static byte[] comprimir(byte[] conteudo) {
+        ByteArrayOutputStream saida = new ByteArrayOutputStream(conteudo.length / 3 + 32);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(saida) {
+            {
+                def.setLevel(Deflater.BEST_COMPRESSION);
+            }
+        }) {
+            gzip.write(conteudo);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return saida.toByteArray();
+    }
+}
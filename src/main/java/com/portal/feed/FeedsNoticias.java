@@ -0,0 +1,215 @@
+package com.portal.feed;
+
+import com.portal.dao.NoticiaDAO;
+import com.portal.dao.UsuarioDAO;
+import com.portal.model.NoticiaResumo;
+import com.portal.model.Usuario;
+import com.portal.service.NoticiaAlterada;
+import com.portal.service.NoticiaService;
+import com.portal.service.NoticiasImportadas;
+import com.portal.service.UsuarioAlterado;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Observes;
+import javax.inject.Inject;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Feeds RSS/Atom das últimas notícias, global e por autor.
+ * Os canais são mantidos de forma incremental pelos eventos de escrita do
+ * {@link NoticiaService}, e os documentos são serializados (e comprimidos) uma
+ * única vez por alteração, de modo que as leituras apenas devolvem bytes prontos.
+ */
+@ApplicationScoped
+public class FeedsNoticias {
+    
+    /** Quantidade de itens de cada feed */
+    public static final int TAMANHO_FEED = 20;
+    
+    private static final String CAMINHO_GLOBAL = "/feeds";
+    
+    /** Limite de documentos em cache (a URL base entra na chave e vem do cabeçalho Host) */
+    private static final int LIMITE_DOCUMENTOS = 256;
+    
+    @Inject
+    private NoticiaService noticiaService;
+    
+    @Inject
+    private NoticiaDAO noticiaDAO;
+    
+    @Inject
+    private UsuarioDAO usuarioDAO;
+    
+    /** Canal global; nulo até a primeira leitura ou após uma invalidação total */
+    private volatile Canal global;
+    
+    /** Canais por id do autor, carregados sob demanda */
+    private final Map<Long, Canal> porAutor = new ConcurrentHashMap<>();
+    
+    /** Documentos serializados por formato, autor (0 para o global) e URL base */
+    private final Map<String, DocumentoFeed> documentos = new ConcurrentHashMap<>();
+    
+    /** Data da última alteração, truncada em segundos (Last-Modified) */
+    private volatile long ultimaAlteracao = agora();
+    
+    private final Object trava = new Object();
+    
+    /**
+     * Feed global das últimas notícias
+     */
+    public DocumentoFeed global(FormatoFeed formato, String base) {
+        String chave = chave(formato, 0L, base);
+        DocumentoFeed documento = documentos.get(chave);
+        if (documento != null) {
+            return documento;
+        }
+        synchronized (trava) {
+            limitarDocumentos();
+            return documentos.computeIfAbsent(chave, c -> serializar(formato, canalGlobal(), base));
+        }
+    }
+    
+    /**
+     * Feed das últimas notícias de um autor; vazio quando o usuário não existe
+     */
+    public Optional<DocumentoFeed> doAutor(Long autorId, FormatoFeed formato, String base) {
+        String chave = chave(formato, autorId, base);
+        DocumentoFeed documento = documentos.get(chave);
+        if (documento != null) {
+            return Optional.of(documento);
+        }
+        synchronized (trava) {
+            limitarDocumentos();
+            return canalDoAutor(autorId).map(canal -> documentos.computeIfAbsent(chave,
+                c -> serializar(formato, canal, base)));
+        }
+    }
+    
+    /**
+     * Aplica a escrita ao feed global e ao do autor da notícia, descartando apenas
+     * os documentos desses dois canais
+     */
+    void aoAlterarNoticia(@Observes NoticiaAlterada evento) {
+        synchronized (trava) {
+            if (evento.isExclusao()) {
+                excluir(evento.getId());
+            } else {
+                Optional<NoticiaResumo> resumo = evento.getNoticia()
+                    .filter(noticia -> noticia.getAutor() != null)
+                    .map(NoticiaResumo::de);
+                (resumo.isPresent() ? resumo : noticiaDAO.findResumoById(evento.getId()))
+                    .ifPresent(this::incluir);
+            }
+            ultimaAlteracao = agora();
+        }
+    }
+    
+    /**
+     * A importação em lote não dispara um evento por notícia: recarrega tudo na próxima leitura
+     */
+    void aoImportarNoticias(@Observes NoticiasImportadas evento) {
+        invalidarTudo();
+    }
+    
+    /**
+     * Feeds guardam o nome do autor e a exclusão de um usuário leva junto as notícias dele
+     */
+    void aoAlterarUsuario(@Observes UsuarioAlterado evento) {
+        invalidarTudo();
+    }
+    
+    private void incluir(NoticiaResumo noticia) {
+        Canal atual = global;
+        if (atual != null) {
+            global = atual.comNoticia(noticia, TAMANHO_FEED);
+        }
+        Optional.ofNullable(noticia.getAutorId()).ifPresent(autorId -> {
+            porAutor.computeIfPresent(autorId, (id, canal) -> canal.comNoticia(noticia, TAMANHO_FEED));
+            descartarDocumentos(autorId);
+        });
+        descartarDocumentos(0L);
+    }
+    
+    /**
+     * Um canal cheio que perde um item é descartado para ser recarregado do banco,
+     * já que a notícia seguinte pode estar fora da janela mantida em memória
+     */
+    private void excluir(Long id) {
+        Canal atual = global;
+        if (atual != null && atual.contem(id)) {
+            global = atual.getItens().size() == TAMANHO_FEED ? null : atual.semNoticia(id);
+            descartarDocumentos(0L);
+        }
+        porAutor.forEach((autorId, canal) -> {
+            if (canal.contem(id)) {
+                if (canal.getItens().size() == TAMANHO_FEED) {
+                    porAutor.remove(autorId);
+                } else {
+                    porAutor.put(autorId, canal.semNoticia(id));
+                }
+                descartarDocumentos(autorId);
+            }
+        });
+    }
+    
+    private void invalidarTudo() {
+        synchronized (trava) {
+            global = null;
+            porAutor.clear();
+            documentos.clear();
+            ultimaAlteracao = agora();
+        }
+    }
+    
+    /**
+     * Documentos são montados com a trava, para que um evento concorrente não
+     * deixe em cache um documento de um canal já substituído
+     */
+    private DocumentoFeed serializar(FormatoFeed formato, Canal canal, String base) {
+        return new DocumentoFeed(formato, formato.serializar(canal, base), ultimaAlteracao);
+    }
+    
+    private Canal canalGlobal() {
+        if (global == null) {
+            global = new Canal("Portal de Notícias", CAMINHO_GLOBAL, noticiaService.listarUltimas(TAMANHO_FEED));
+        }
+        return global;
+    }
+    
+    private Optional<Canal> canalDoAutor(Long autorId) {
+        return Optional.ofNullable(porAutor.get(autorId))
+            .map(Optional::of)
+            .orElseGet(() -> usuarioDAO.findById(autorId).map(this::carregarCanal));
+    }
+    
+    private Canal carregarCanal(Usuario autor) {
+        Canal canal = new Canal("Portal de Notícias - " + autor.getNome(),
+            CAMINHO_GLOBAL + "/autor/" + autor.getId(),
+            noticiaDAO.findResumosLatestByAutor(autor.getId(), TAMANHO_FEED));
+        porAutor.put(autor.getId(), canal);
+        return canal;
+    }
+    
+    private void limitarDocumentos() {
+        if (documentos.size() >= LIMITE_DOCUMENTOS) {
+            documentos.clear();
+        }
+    }
+    
+    private void descartarDocumentos(Long autorId) {
+        String sufixo = "|" + autorId + "|";
+        documentos.keySet().removeIf(chave -> chave.contains(sufixo));
+    }
+    
+    private static String chave(FormatoFeed formato, Long autorId, String base) {
+        return formato.getNome() + "|" + autorId + "|" + base;
+    }
+    
+    private static long agora() {
+        return Instant.now().truncatedTo(ChronoUnit.SECONDS).toEpochMilli();
+    }
+}
@@ -0,0 +1,164 @@
+package com.portal.feed;
+
+import com.portal.model.NoticiaResumo;
+
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import java.io.ByteArrayOutputStream;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Optional;
+
+/**
+ * Formatos de feed suportados, cada um serializando um canal em bytes UTF-8
+ */
+public enum FormatoFeed {
+    
+    RSS("rss", "application/rss+xml") {
+        @Override
+        void escrever(XMLStreamWriter xml, Canal canal, String base) throws XMLStreamException {
+            xml.writeStartElement("rss");
+            xml.writeAttribute("version", "2.0");
+            xml.writeNamespace("atom", ATOM_NS);
+            xml.writeNamespace("dc", DC_NS);
+            xml.writeStartElement("channel");
+            elemento(xml, "title", canal.getTitulo());
+            elemento(xml, "link", base + HOME);
+            elemento(xml, "description", canal.getTitulo());
+            elemento(xml, "language", "pt-BR");
+            if (!canal.getItens().isEmpty()) {
+                elemento(xml, "lastBuildDate", rfc1123(canal.getItens().get(0).getDataPublicacao()));
+            }
+            xml.writeEmptyElement("atom", "link", ATOM_NS);
+            xml.writeAttribute("rel", "self");
+            xml.writeAttribute("type", getContentType());
+            xml.writeAttribute("href", base + canal.getCaminho() + "/" + getNome());
+            for (NoticiaResumo noticia : canal.getItens()) {
+                String link = base + NOTICIA + noticia.getId();
+                xml.writeStartElement("item");
+                elemento(xml, "title", noticia.getTitulo());
+                elemento(xml, "link", link);
+                xml.writeStartElement("guid");
+                xml.writeAttribute("isPermaLink", "true");
+                xml.writeCharacters(link);
+                xml.writeEndElement();
+                elemento(xml, "description", noticia.getResumo());
+                xml.writeStartElement("dc", "creator", DC_NS);
+                xml.writeCharacters(Optional.ofNullable(noticia.getNomeAutor()).orElse(""));
+                xml.writeEndElement();
+                elemento(xml, "pubDate", rfc1123(noticia.getDataPublicacao()));
+                xml.writeEndElement();
+            }
+            xml.writeEndElement();
+            xml.writeEndElement();
+        }
+    },
+    
+    ATOM("atom", "application/atom+xml") {
+        @Override
+        void escrever(XMLStreamWriter xml, Canal canal, String base) throws XMLStreamException {
+            String self = base + canal.getCaminho() + "/" + getNome();
+            xml.writeStartElement("feed");
+            xml.writeDefaultNamespace(ATOM_NS);
+            elemento(xml, "title", canal.getTitulo());
+            elemento(xml, "id", self);
+            elemento(xml, "updated", canal.getItens().isEmpty()
+                ? iso(LocalDateTime.now())
+                : iso(canal.getItens().get(0).getDataPublicacao()));
+            link(xml, "self", self);
+            link(xml, "alternate", base + HOME);
+            for (NoticiaResumo noticia : canal.getItens()) {
+                String link = base + NOTICIA + noticia.getId();
+                xml.writeStartElement("entry");
+                elemento(xml, "title", noticia.getTitulo());
+                elemento(xml, "id", link);
+                link(xml, "alternate", link);
+                elemento(xml, "published", iso(noticia.getDataPublicacao()));
+                elemento(xml, "updated", iso(noticia.getDataPublicacao()));
+                xml.writeStartElement("author");
+                elemento(xml, "name", Optional.ofNullable(noticia.getNomeAutor()).orElse(""));
+                xml.writeEndElement();
+                elemento(xml, "summary", noticia.getResumo());
+                xml.writeEndElement();
+            }
+            xml.writeEndElement();
+        }
+    };
+    
+    private static final String ATOM_NS = "http://www.w3.org/2005/Atom";
+    private static final String DC_NS = "http://purl.org/dc/elements/1.1/";
+    private static final String HOME = "/pages/public/home.xhtml";
+    private static final String NOTICIA = "/pages/public/noticia.xhtml?id=";
+    
+    private static final XMLOutputFactory FABRICA = XMLOutputFactory.newFactory();
+    
+    private final String nome;
+    private final String contentType;
+    
+    FormatoFeed(String nome, String contentType) {
+        this.nome = nome;
+        this.contentType = contentType;
+    }
+    
+    public String getNome() {
+        return nome;
+    }
+    
+    public String getContentType() {
+        return contentType;
+    }
+    
+    /**
+     * Formato pelo nome usado na URL (rss, atom)
+     */
+    public static Optional<FormatoFeed> resolver(String nome) {
+        for (FormatoFeed formato : values()) {
+            if (formato.nome.equals(nome)) {
+                return Optional.of(formato);
+            }
+        }
+        return Optional.empty();
+    }
+    
+    /**
+     * Documento completo do canal em UTF-8, com links absolutos a partir de {@code base}
+     */
+    byte[] serializar(Canal canal, String base) {
+        ByteArrayOutputStream saida = new ByteArrayOutputStream(8 * 1024);
+        try {
+            XMLStreamWriter xml = FABRICA.createXMLStreamWriter(saida, "UTF-8");
+            xml.writeStartDocument("UTF-8", "1.0");
+            escrever(xml, canal, base);
+            xml.writeEndDocument();
+            xml.close();
+        } catch (XMLStreamException e) {
+            throw new IllegalStateException("Falha ao serializar feed " + nome, e);
+        }
+        return saida.toByteArray();
+    }
+    
+    abstract void escrever(XMLStreamWriter xml, Canal canal, String base) throws XMLStreamException;
+    
+    private static void elemento(XMLStreamWriter xml, String nome, String texto) throws XMLStreamException {
+        xml.writeStartElement(nome);
+        xml.writeCharacters(Optional.ofNullable(texto).orElse(""));
+        xml.writeEndElement();
+    }
+    
+    private static void link(XMLStreamWriter xml, String rel, String href) throws XMLStreamException {
+        xml.writeEmptyElement("link");
+        xml.writeAttribute("rel", rel);
+        xml.writeAttribute("href", href);
+    }
+    
+    private static String rfc1123(LocalDateTime data) {
+        return DateTimeFormatter.RFC_1123_DATE_TIME.format(ZonedDateTime.of(data, ZoneId.systemDefault()));
+    }
+    
+    private static String iso(LocalDateTime data) {
+        return DateTimeFormatter.ISO_OFFSET_DATE_TIME.format(ZonedDateTime.of(data, ZoneId.systemDefault()));
+    }
+}
@@ -1,20 +1,34 @@
 package com.portal.filter;
 
 import com.portal.controller.LoginController;
+import com.portal.model.UsuarioPrincipal;
+import com.portal.security.ModoAutenticacao;
+import com.portal.security.TokenAutenticacao;
+
+import javax.inject.Inject;
 import javax.servlet.*;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import javax.servlet.http.HttpSession;
 import java.io.IOException;
+import java.util.Optional;
 
 /**
- * Filtro para verificar autenticação nas páginas administrativas
+ * Filtro para verificar autenticação nas páginas administrativas.
+ * No modo {@link ModoAutenticacao#TOKEN} confia apenas no cookie assinado, sem
+ * abrir sessão nem consultar o banco. Em ambos os modos o principal autorizado
+ * fica no atributo {@link TokenAutenticacao#ATRIBUTO_PRINCIPAL} da requisição.
  */
 public class AuthenticationFilter implements Filter {
 
+    @Inject
+    private TokenAutenticacao tokenAutenticacao;
+    
+    private ModoAutenticacao modo;
+
     @Override
     public void init(FilterConfig filterConfig) throws ServletException {
-        // Inicialização do filtro
+        modo = ModoAutenticacao.de(filterConfig.getServletContext());
     }
 
     @Override
@@ -23,7 +37,6 @@ public class AuthenticationFilter implements Filter {
         
         HttpServletRequest httpRequest = (HttpServletRequest) request;
         HttpServletResponse httpResponse = (HttpServletResponse) response;
-        HttpSession session = httpRequest.getSession(false);
         
         String requestURI = httpRequest.getRequestURI();
         
@@ -33,14 +46,13 @@ public class AuthenticationFilter implements Filter {
             return;
         }
         
-        // Verificar se o usuário está logado
-        LoginController loginController = null;
-        if (session != null) {
-            loginController = (LoginController) session.getAttribute("loginController");
-        }
+        Optional<UsuarioPrincipal> principal = modo == ModoAutenticacao.TOKEN
+            ? tokenAutenticacao.autenticar(httpRequest, httpResponse)
+            : principalDaSessao(httpRequest);
         
-        if (loginController != null && loginController.isLogado()) {
+        if (principal.isPresent()) {
             // Usuário autenticado, permitir acesso
+            request.setAttribute(TokenAutenticacao.ATRIBUTO_PRINCIPAL, principal.get());
             chain.doFilter(request, response);
         } else {
             // Usuário não autenticado, redirecionar para login
@@ -48,9 +60,16 @@ public class AuthenticationFilter implements Filter {
             httpResponse.sendRedirect(contextPath + "/pages/admin/login.xhtml");
         }
     }
+    
+    private static Optional<UsuarioPrincipal> principalDaSessao(HttpServletRequest request) {
+        HttpSession session = request.getSession(false);
+        return Optional.ofNullable(session)
+            .map(s -> (LoginController) s.getAttribute("loginController"))
+            .map(LoginController::getPrincipal);
+    }
 
     @Override
     public void destroy() {
         // Limpeza do filtro
     }
-}
\ No newline at end of file
+}
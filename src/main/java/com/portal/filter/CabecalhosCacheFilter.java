@@ -0,0 +1,190 @@
+package com.portal.filter;
+
+import com.portal.controller.LoginController;
+import com.portal.security.TokenAutenticacao;
+import com.portal.service.VersaoConteudo;
+
+import javax.inject.Inject;
+import javax.servlet.*;
+import javax.servlet.http.Cookie;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpSession;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Filtro de cabeçalhos de cache HTTP para as páginas públicas.
+ * <p>
+ * Para leitores anônimos das páginas versionadas (init-param {@code versionadas}) a
+ * ETag forte vem da {@link VersaoConteudo}, e GETs condicionais recebem 304 sem passar
+ * pelo ciclo do JSF. Para usuários autenticados nessas páginas o corpo é gerado, e a
+ * ETag fraca é o hash do HTML, o que economiza a transferência. O {@code Cache-Control} de cada
+ * padrão de URL vem do init-param {@code politicas}, uma linha {@code padrão = valor}
+ * por regra, valendo a primeira que casar.
+ * <p>
+ * A resposta anônima é pública (proxy pode guardá-la); o proxy deve ignorar o cache
+ * quando houver o cookie {@value TokenAutenticacao#COOKIE}, emitido em todo login.
+ */
+public class CabecalhosCacheFilter implements Filter {
+    
+    /** Política aplicada às páginas com política pública quando o usuário está autenticado */
+    private static final String PRIVADO = "private, no-cache";
+    
+    @Inject
+    private VersaoConteudo versaoConteudo;
+    
+    private final List<Politica> politicas = new ArrayList<>();
+    private final List<String> versionadas = new ArrayList<>();
+    
+    @Override
+    public void init(FilterConfig filterConfig) throws ServletException {
+        Optional.ofNullable(filterConfig.getInitParameter("politicas")).ifPresent(valor -> {
+            for (String linha : valor.split("\\R")) {
+                int separador = linha.indexOf('=');
+                if (separador > 0) {
+                    politicas.add(new Politica(linha.substring(0, separador).trim(),
+                        linha.substring(separador + 1).trim()));
+                }
+            }
+        });
+        Optional.ofNullable(filterConfig.getInitParameter("versionadas")).ifPresent(valor ->
+            Arrays.stream(valor.split("[,\\s]+"))
+                .filter(padrao -> !padrao.isEmpty())
+                .forEach(versionadas::add));
+    }
+    
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+            throws IOException, ServletException {
+        
+        HttpServletRequest httpRequest = (HttpServletRequest) request;
+        HttpServletResponse httpResponse = (HttpServletResponse) response;
+        
+        String metodo = httpRequest.getMethod();
+        Optional<Politica> politica = "GET".equals(metodo) || "HEAD".equals(metodo)
+            ? politica(caminho(httpRequest))
+            : Optional.empty();
+        if (!politica.isPresent()) {
+            chain.doFilter(request, response);
+            return;
+        }
+        
+        String cacheControl = politica.get().cacheControl;
+        if (cacheControl.contains("no-store") || !versionada(caminho(httpRequest))) {
+            // Recursos estáticos já têm validadores próprios; aqui só entra a política
+            httpResponse.setHeader("Cache-Control", cacheControl);
+            chain.doFilter(request, response);
+        } else if (!autenticado(httpRequest)) {
+            validarPorVersao(httpRequest, httpResponse, chain, cacheControl);
+        } else {
+            validarPorConteudo(httpRequest, httpResponse, chain);
+        }
+    }
+    
+    /**
+     * ETag forte e Last-Modified pela versão do conteúdo; 304 sem renderizar a página
+     */
+    private void validarPorVersao(HttpServletRequest request, HttpServletResponse response, FilterChain chain,
+            String cacheControl) throws IOException, ServletException {
+        String etag = "\"v" + Long.toString(versaoConteudo.getVersao(), 36) + "\"";
+        long ultimaAlteracao = versaoConteudo.getUltimaAlteracao();
+        
+        response.setHeader("Cache-Control", cacheControl);
+        response.setHeader("ETag", etag);
+        response.setDateHeader("Last-Modified", ultimaAlteracao);
+        
+        if (ValidadoresHttp.naoModificado(request, etag, ultimaAlteracao)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+        chain.doFilter(request, response);
+    }
+    
+    /**
+     * Renderiza a página e usa o hash do corpo como ETag fraca
+     */
+    private void validarPorConteudo(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws IOException, ServletException {
+        RespostaBufferizada buffer = new RespostaBufferizada(response);
+        chain.doFilter(request, buffer);
+        if (response.isCommitted()) {
+            return; // Redirecionamento ou erro já enviados
+        }
+        
+        byte[] corpo = buffer.getCorpo();
+        response.setHeader("Cache-Control", PRIVADO);
+        if (buffer.getStatus() == HttpServletResponse.SC_OK) {
+            String etag = "W/\"" + ValidadoresHttp.hash(corpo) + "\"";
+            response.setHeader("ETag", etag);
+            if (ValidadoresHttp.naoModificado(request, etag, -1)) {
+                response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+                return;
+            }
+        }
+        response.setContentLength(corpo.length);
+        response.getOutputStream().write(corpo);
+    }
+    
+    /**
+     * Há usuário logado na sessão ou cookie de autenticação (sem validá-lo: na dúvida, não é anônimo)
+     */
+    static boolean autenticado(HttpServletRequest request) {
+        boolean cookie = Optional.ofNullable(request.getCookies())
+            .map(cookies -> Arrays.stream(cookies).map(Cookie::getName).anyMatch(TokenAutenticacao.COOKIE::equals))
+            .orElse(false);
+        if (cookie) {
+            return true;
+        }
+        HttpSession session = request.getSession(false);
+        return session != null
+            && Optional.ofNullable((LoginController) session.getAttribute("loginController"))
+                .map(LoginController::isLogado)
+                .orElse(false);
+    }
+    
+    private Optional<Politica> politica(String caminho) {
+        return politicas.stream()
+            .filter(politica -> casa(politica.padrao, caminho))
+            .findFirst();
+    }
+    
+    private boolean versionada(String caminho) {
+        return versionadas.stream().anyMatch(padrao -> casa(padrao, caminho));
+    }
+    
+    private static String caminho(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+    
+    /**
+     * Padrões no estilo url-pattern: exato, prefixo "/dir/*" ou extensão "*.ext"
+     */
+    static boolean casa(String padrao, String caminho) {
+        if (padrao.endsWith("/*")) {
+            return caminho.startsWith(padrao.substring(0, padrao.length() - 1));
+        }
+        if (padrao.startsWith("*.")) {
+            return caminho.endsWith(padrao.substring(1));
+        }
+        return padrao.equals(caminho);
+    }
+    
+    private static final class Politica {
+        private final String padrao;
+        private final String cacheControl;
+        
+        private Politica(String padrao, String cacheControl) {
+            this.padrao = padrao;
+            this.cacheControl = cacheControl;
+        }
+    }
+    
+    @Override
+    public void destroy() {
+        // Limpeza do filtro
+    }
+}
@@ -0,0 +1,275 @@
+package com.portal.filter;
+
+import com.portal.service.VersaoConteudo;
+
+import javax.inject.Inject;
+import javax.servlet.*;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+/**
+ * Microcache de páginas inteiras para leitores anônimos.
+ * <p>
+ * Guarda o HTML renderizado das páginas do init-param {@code paginas}, por URL
+ * normalizada (parâmetros ordenados, vazios descartados). Uma entrada vale por
+ * {@code ttlSegundos}; depois disso, por mais {@code staleSegundos}, continua sendo
+ * servida enquanto uma única requisição a renderiza de novo. Em uma falta, só a
+ * primeira requisição renderiza e as concorrentes esperam o resultado. Entradas de
+ * uma {@link VersaoConteudo} anterior (qualquer escrita de notícia ou usuário) não
+ * são servidas. O total guardado é limitado a {@code limiteBytes}, descartando as
+ * entradas menos usadas.
+ */
+public class CachePaginasFilter implements Filter {
+    
+    /** Tempo máximo que uma requisição espera a renderização de outra antes de renderizar sozinha */
+    private static final long ESPERA_MS = 5000;
+    
+    @Inject
+    private VersaoConteudo versaoConteudo;
+    
+    private List<String> paginas;
+    private long ttlNanos = TimeUnit.SECONDS.toNanos(5);
+    private long staleNanos = TimeUnit.SECONDS.toNanos(30);
+    private long limiteBytes = 32L * 1024 * 1024;
+    
+    /** Entradas em ordem de acesso (LRU), sob o monitor do próprio mapa */
+    private final LinkedHashMap<String, Entrada> entradas = new LinkedHashMap<>(256, 0.75f, true);
+    private long totalBytes;
+    
+    /** Renderizações em andamento por chave, para coalescer as faltas */
+    private final Map<String, CompletableFuture<Entrada>> emAndamento = new ConcurrentHashMap<>();
+    
+    @Override
+    public void init(FilterConfig filterConfig) throws ServletException {
+        paginas = Arrays.stream(Optional.ofNullable(filterConfig.getInitParameter("paginas")).orElse("").split("[,\\s]+"))
+            .filter(padrao -> !padrao.isEmpty())
+            .collect(Collectors.toList());
+        Optional.ofNullable(filterConfig.getInitParameter("ttlSegundos"))
+            .ifPresent(valor -> ttlNanos = TimeUnit.SECONDS.toNanos(Long.parseLong(valor.trim())));
+        Optional.ofNullable(filterConfig.getInitParameter("staleSegundos"))
+            .ifPresent(valor -> staleNanos = TimeUnit.SECONDS.toNanos(Long.parseLong(valor.trim())));
+        Optional.ofNullable(filterConfig.getInitParameter("limiteBytes"))
+            .ifPresent(valor -> limiteBytes = Long.parseLong(valor.trim()));
+    }
+    
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+            throws IOException, ServletException {
+        
+        HttpServletRequest httpRequest = (HttpServletRequest) request;
+        HttpServletResponse httpResponse = (HttpServletResponse) response;
+        
+        if (!cacheavel(httpRequest)) {
+            chain.doFilter(request, response);
+            return;
+        }
+        
+        String chave = chave(httpRequest);
+        long versao = versaoConteudo.getVersao();
+        long agora = System.nanoTime();
+        Entrada entrada = buscar(chave, versao);
+        
+        if (entrada != null && agora - entrada.criadaEm < ttlNanos) {
+            entrada.enviar(httpRequest, httpResponse, "HIT");
+            return;
+        }
+        boolean head = "HEAD".equals(httpRequest.getMethod());
+        if (entrada != null && agora - entrada.criadaEm < ttlNanos + staleNanos) {
+            // Vencida: só quem ganhar a marcação renderiza, os demais recebem a cópia antiga
+            if (!head && entrada.revalidando.compareAndSet(false, true)) {
+                try {
+                    renderizar(httpRequest, httpResponse, chain, chave, versao, "REVALIDATED");
+                } finally {
+                    entrada.revalidando.set(false);
+                }
+            } else {
+                entrada.enviar(httpRequest, httpResponse, "STALE");
+            }
+            return;
+        }
+        
+        if (head) {
+            // HEAD não gera corpo para guardar
+            chain.doFilter(request, response);
+            return;
+        }
+        
+        CompletableFuture<Entrada> andamento = new CompletableFuture<>();
+        CompletableFuture<Entrada> existente = emAndamento.putIfAbsent(chave, andamento);
+        if (existente == null) {
+            try {
+                andamento.complete(renderizar(httpRequest, httpResponse, chain, chave, versao, "MISS"));
+            } catch (IOException | ServletException | RuntimeException e) {
+                andamento.complete(null);
+                throw e;
+            } finally {
+                emAndamento.remove(chave, andamento);
+            }
+            return;
+        }
+        
+        Entrada renderizada = aguardar(existente);
+        if (renderizada != null) {
+            renderizada.enviar(httpRequest, httpResponse, "HIT");
+        } else {
+            chain.doFilter(request, response);
+        }
+    }
+    
+    /**
+     * Renderiza a página guardando o corpo; armazena se o resultado for um 200 reutilizável
+     */
+    private Entrada renderizar(HttpServletRequest request, HttpServletResponse response, FilterChain chain,
+            String chave, long versao, String situacao) throws IOException, ServletException {
+        RespostaCacheavel buffer = new RespostaCacheavel(response);
+        chain.doFilter(request, buffer);
+        if (response.isCommitted()) {
+            return null; // Redirecionamento ou erro já enviados
+        }
+        
+        byte[] corpo = buffer.getCorpo();
+        if (buffer.getStatus() != HttpServletResponse.SC_OK || buffer.getContentType() == null) {
+            response.setContentLength(corpo.length);
+            response.getOutputStream().write(corpo);
+            return null;
+        }
+        Entrada entrada = new Entrada(corpo, buffer.getContentType(), versao);
+        armazenar(chave, entrada);
+        entrada.enviar(request, response, situacao);
+        return entrada;
+    }
+    
+    private static Entrada aguardar(CompletableFuture<Entrada> andamento) {
+        try {
+            return andamento.get(ESPERA_MS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException | TimeoutException e) {
+            return null;
+        }
+    }
+    
+    private Entrada buscar(String chave, long versao) {
+        synchronized (entradas) {
+            Entrada entrada = entradas.get(chave);
+            if (entrada != null && entrada.versao != versao) {
+                // Conteúdo alterado desde a renderização: nunca é servida, nem como stale
+                entradas.remove(chave);
+                totalBytes -= entrada.corpo.length;
+                return null;
+            }
+            return entrada;
+        }
+    }
+    
+    private void armazenar(String chave, Entrada entrada) {
+        if (entrada.corpo.length > limiteBytes / 4) {
+            return; // Uma página não deve ocupar boa parte do cache sozinha
+        }
+        synchronized (entradas) {
+            Entrada anterior = entradas.put(chave, entrada);
+            totalBytes += entrada.corpo.length - (anterior != null ? anterior.corpo.length : 0);
+            Iterator<Entrada> iterador = entradas.values().iterator();
+            while (totalBytes > limiteBytes && iterador.hasNext()) {
+                totalBytes -= iterador.next().corpo.length;
+                iterador.remove();
+            }
+        }
+    }
+    
+    /**
+     * GET/HEAD anônimo de uma das páginas configuradas
+     */
+    private boolean cacheavel(HttpServletRequest request) {
+        String metodo = request.getMethod();
+        if (!"GET".equals(metodo) && !"HEAD".equals(metodo)) {
+            return false;
+        }
+        String caminho = request.getRequestURI().substring(request.getContextPath().length());
+        return paginas.stream().anyMatch(padrao -> CabecalhosCacheFilter.casa(padrao, caminho))
+            && !CabecalhosCacheFilter.autenticado(request);
+    }
+    
+    /**
+     * Caminho mais parâmetros em ordem alfabética, sem os vazios
+     */
+    private static String chave(HttpServletRequest request) {
+        String caminho = request.getRequestURI().substring(request.getContextPath().length());
+        String parametros = new TreeMap<>(request.getParameterMap()).entrySet().stream()
+            .flatMap(parametro -> Arrays.stream(parametro.getValue())
+                .filter(valor -> !valor.isEmpty())
+                .sorted()
+                .map(valor -> parametro.getKey() + "=" + valor))
+            .collect(Collectors.joining("&"));
+        return parametros.isEmpty() ? caminho : caminho + "?" + parametros;
+    }
+    
+    @Override
+    public void destroy() {
+        synchronized (entradas) {
+            entradas.clear();
+            totalBytes = 0;
+        }
+    }
+    
+    private static final class Entrada {
+        private final byte[] corpo;
+        private final String contentType;
+        private final long versao;
+        private final long criadaEm = System.nanoTime();
+        private final AtomicBoolean revalidando = new AtomicBoolean();
+        
+        private Entrada(byte[] corpo, String contentType, long versao) {
+            this.corpo = corpo;
+            this.contentType = contentType;
+            this.versao = versao;
+        }
+        
+        private void enviar(HttpServletRequest request, HttpServletResponse response, String situacao)
+                throws IOException {
+            response.setHeader("X-Cache", situacao);
+            response.setContentType(contentType);
+            response.setContentLength(corpo.length);
+            if (!"HEAD".equals(request.getMethod())) {
+                response.getOutputStream().write(corpo);
+            }
+        }
+    }
+    
+    /**
+     * Resposta guardada em memória que não reescreve URLs com o jsessionid:
+     * o HTML armazenado é compartilhado entre todos os leitores
+     */
+    private static final class RespostaCacheavel extends RespostaBufferizada {
+        
+        private RespostaCacheavel(HttpServletResponse response) {
+            super(response);
+        }
+        
+        @Override
+        public String encodeURL(String url) {
+            return url;
+        }
+        
+        @Override
+        public String encodeRedirectURL(String url) {
+            return url;
+        }
+    }
+}
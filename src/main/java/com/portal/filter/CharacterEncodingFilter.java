@@ -7,7 +7,7 @@ import java.io.IOException;
 /**
  * Filtro para configuração de encoding UTF-8
  */
-@WebFilter("/*")
+@WebFilter(urlPatterns = "/*", asyncSupported = true)
 public class CharacterEncodingFilter implements Filter {
     
     private String encoding = "UTF-8";
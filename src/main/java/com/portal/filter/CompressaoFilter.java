@@ -0,0 +1,300 @@
+package com.portal.filter;
+
+import javax.servlet.*;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Filtro de compressão gzip das respostas.
+ * <p>
+ * Negocia pelo Accept-Encoding, comprime apenas os tipos de conteúdo do init-param
+ * {@code tipos} e corpos a partir de {@code tamanhoMinimo} bytes, em streaming e com
+ * Deflaters reaproveitados de um pool. Os arquivos estáticos de {@code /resources}
+ * são comprimidos uma única vez na inicialização e servidos da memória, tanto pelo
+ * caminho direto quanto pela URL de recurso do JSF ({@code /javax.faces.resource/...?ln=}).
+ */
+public class CompressaoFilter implements Filter {
+    
+    private static final Logger LOGGER = Logger.getLogger(CompressaoFilter.class.getName());
+    
+    private static final String RECURSOS = "/resources/";
+    private static final String RECURSOS_JSF = "/javax.faces.resource/";
+    
+    private Set<String> tiposComprimiveis;
+    private int tamanhoMinimo = 1024;
+    private PoolDeflater pool;
+    
+    /** Recursos estáticos pré-comprimidos, por caminho em /resources */
+    private final Map<String, RecursoEstatico> recursos = new ConcurrentHashMap<>();
+    
+    @Override
+    public void init(FilterConfig filterConfig) throws ServletException {
+        tiposComprimiveis = Arrays.stream(Optional.ofNullable(filterConfig.getInitParameter("tipos"))
+                .orElse("text/html,text/css,text/plain,application/javascript,application/json").split("[,\\s]+"))
+            .filter(tipo -> !tipo.isEmpty())
+            .map(tipo -> tipo.toLowerCase(Locale.ROOT))
+            .collect(Collectors.toCollection(HashSet::new));
+        Optional.ofNullable(filterConfig.getInitParameter("tamanhoMinimo"))
+            .ifPresent(valor -> tamanhoMinimo = Integer.parseInt(valor.trim()));
+        int nivel = Optional.ofNullable(filterConfig.getInitParameter("nivel"))
+            .map(valor -> Integer.parseInt(valor.trim()))
+            .orElse(Deflater.DEFAULT_COMPRESSION);
+        pool = new PoolDeflater(nivel, Runtime.getRuntime().availableProcessors() * 2);
+        
+        precomprimir(filterConfig.getServletContext(), RECURSOS);
+        LOGGER.info(recursos.size() + " recursos estáticos pré-comprimidos");
+    }
+    
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+            throws IOException, ServletException {
+        
+        HttpServletRequest httpRequest = (HttpServletRequest) request;
+        HttpServletResponse httpResponse = (HttpServletResponse) response;
+        boolean aceitaGzip = aceitaGzip(httpRequest.getHeader("Accept-Encoding"));
+        
+        Optional<RecursoEstatico> recurso = recursoEstatico(httpRequest);
+        if (recurso.isPresent()) {
+            recurso.get().enviar(httpRequest, httpResponse, aceitaGzip);
+            return;
+        }
+        
+        httpResponse.addHeader("Vary", "Accept-Encoding");
+        if (!aceitaGzip || "HEAD".equals(httpRequest.getMethod()) || fluxoEventos(httpRequest)) {
+            chain.doFilter(request, response);
+            return;
+        }
+        
+        RespostaComprimida comprimida = new RespostaComprimida(httpResponse, pool, tiposComprimiveis, tamanhoMinimo);
+        boolean concluida = false;
+        try {
+            chain.doFilter(request, comprimida);
+            concluida = true;
+        } finally {
+            if (concluida) {
+                comprimida.finalizar();
+            } else {
+                comprimida.abandonar();
+            }
+        }
+    }
+    
+    /**
+     * gzip (ou x-gzip, ou *) aceito com q maior que zero
+     */
+    public static boolean aceitaGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        Double gzip = null;
+        Double curinga = null;
+        for (String item : acceptEncoding.split(",")) {
+            String[] partes = item.trim().split(";");
+            String codificacao = partes[0].trim().toLowerCase(Locale.ROOT);
+            double q = 1;
+            for (int i = 1; i < partes.length; i++) {
+                String parametro = partes[i].trim();
+                if (parametro.startsWith("q=")) {
+                    try {
+                        q = Double.parseDouble(parametro.substring(2));
+                    } catch (NumberFormatException e) {
+                        q = 0;
+                    }
+                }
+            }
+            if ("gzip".equals(codificacao) || "x-gzip".equals(codificacao)) {
+                gzip = q;
+            } else if ("*".equals(codificacao)) {
+                curinga = q;
+            }
+        }
+        Double q = gzip != null ? gzip : curinga;
+        return q != null && q > 0;
+    }
+    
+    /**
+     * Server-Sent Events: resposta assíncrona e sem fim, escrita fora desta requisição
+     */
+    private static boolean fluxoEventos(HttpServletRequest request) {
+        String accept = request.getHeader("Accept");
+        return accept != null && accept.contains("text/event-stream");
+    }
+    
+    private Optional<RecursoEstatico> recursoEstatico(HttpServletRequest request) {
+        String metodo = request.getMethod();
+        if (!"GET".equals(metodo) && !"HEAD".equals(metodo)) {
+            return Optional.empty();
+        }
+        String caminho = request.getRequestURI().substring(request.getContextPath().length());
+        if (caminho.startsWith(RECURSOS)) {
+            return Optional.ofNullable(recursos.get(caminho));
+        }
+        String biblioteca = request.getParameter("ln");
+        if (caminho.startsWith(RECURSOS_JSF) && request.getParameter("v") == null) {
+            // /javax.faces.resource/style.css.xhtml?ln=css -> /resources/css/style.css
+            String nome = caminho.substring(RECURSOS_JSF.length());
+            int sufixo = nome.lastIndexOf(".xhtml");
+            if (sufixo > 0) {
+                nome = nome.substring(0, sufixo);
+            }
+            return Optional.ofNullable(recursos.get(RECURSOS + (biblioteca == null ? "" : biblioteca + "/") + nome));
+        }
+        return Optional.empty();
+    }
+    
+    private void precomprimir(ServletContext contexto, String diretorio) {
+        Set<String> caminhos = contexto.getResourcePaths(diretorio);
+        if (caminhos == null) {
+            return;
+        }
+        for (String caminho : caminhos) {
+            if (caminho.endsWith("/")) {
+                precomprimir(contexto, caminho);
+                continue;
+            }
+            String tipo = contexto.getMimeType(caminho);
+            if (tipo == null || !tiposComprimiveis.contains(tipo.toLowerCase(Locale.ROOT))) {
+                continue;
+            }
+            try {
+                URL url = contexto.getResource(caminho);
+                byte[] conteudo;
+                try (InputStream entrada = url.openStream()) {
+                    conteudo = ler(entrada);
+                }
+                // Recursos com EL (#{resource[...]}) dependem do JSF para serem resolvidos
+                if (new String(conteudo, "ISO-8859-1").contains("#{")) {
+                    continue;
+                }
+                recursos.put(caminho, new RecursoEstatico(tipo, conteudo,
+                    url.openConnection().getLastModified() / 1000 * 1000));
+            } catch (IOException e) {
+                LOGGER.warning("Não foi possível pré-comprimir " + caminho + ": " + e.getMessage());
+            }
+        }
+    }
+    
+    private static byte[] ler(InputStream entrada) throws IOException {
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        int lidos;
+        while ((lidos = entrada.read(buffer)) != -1) {
+            saida.write(buffer, 0, lidos);
+        }
+        return saida.toByteArray();
+    }
+    
+    @Override
+    public void destroy() {
+        pool.encerrar();
+        recursos.clear();
+    }
+    
+    /**
+     * Deflaters (modo nowrap, para gzip) reaproveitados entre requisições: evita alocar
+     * e liberar o estado nativo do zlib a cada resposta
+     */
+    static final class PoolDeflater {
+        private final int nivel;
+        private final BlockingQueue<Deflater> livres;
+        
+        private PoolDeflater(int nivel, int capacidade) {
+            this.nivel = nivel;
+            this.livres = new ArrayBlockingQueue<>(capacidade);
+        }
+        
+        Deflater emprestar() {
+            Deflater deflater = livres.poll();
+            return deflater != null ? deflater : new Deflater(nivel, true);
+        }
+        
+        void devolver(Deflater deflater) {
+            deflater.reset();
+            if (!livres.offer(deflater)) {
+                deflater.end();
+            }
+        }
+        
+        private void encerrar() {
+            Deflater deflater;
+            while ((deflater = livres.poll()) != null) {
+                deflater.end();
+            }
+        }
+    }
+    
+    /**
+     * Arquivo estático em memória nas duas codificações, com validadores próprios
+     */
+    private static final class RecursoEstatico {
+        private final String tipo;
+        private final byte[] original;
+        private final byte[] comprimido;
+        private final String etag;
+        private final long ultimaAlteracao;
+        
+        private RecursoEstatico(String tipo, byte[] original, long ultimaAlteracao) throws IOException {
+            this.tipo = tipo;
+            this.original = original;
+            this.ultimaAlteracao = ultimaAlteracao;
+            ByteArrayOutputStream saida = new ByteArrayOutputStream(original.length / 2 + 32);
+            try (GZIPOutputStream gzip = new GZIPOutputStream(saida) {
+                {
+                    def.setLevel(Deflater.BEST_COMPRESSION);
+                }
+            }) {
+                gzip.write(original);
+            }
+            // Só vale a pena guardar a versão comprimida se ela for menor
+            this.comprimido = saida.size() < original.length ? saida.toByteArray() : null;
+            this.etag = ValidadoresHttp.hash(original);
+        }
+        
+        private void enviar(HttpServletRequest request, HttpServletResponse response, boolean aceitaGzip)
+                throws IOException {
+            boolean gzip = aceitaGzip && comprimido != null;
+            String etagRepresentacao = "\"" + etag + (gzip ? "-gz" : "") + "\"";
+            response.setHeader("Vary", "Accept-Encoding");
+            response.setHeader("ETag", etagRepresentacao);
+            if (ultimaAlteracao > 0) {
+                response.setDateHeader("Last-Modified", ultimaAlteracao);
+            }
+            if (naoModificado(request)) {
+                response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+                return;
+            }
+            
+            byte[] corpo = gzip ? comprimido : original;
+            response.setContentType(tipo);
+            if (gzip) {
+                response.setHeader("Content-Encoding", "gzip");
+            }
+            response.setContentLength(corpo.length);
+            if (!"HEAD".equals(request.getMethod())) {
+                response.getOutputStream().write(corpo);
+            }
+        }
+        
+        private boolean naoModificado(HttpServletRequest request) {
+            return ValidadoresHttp.naoModificado(request, "\"" + etag + "\"", ultimaAlteracao > 0 ? ultimaAlteracao : -1)
+                || ValidadoresHttp.naoModificado(request, "\"" + etag + "-gz\"", -1);
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.portal.filter;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+
+/**
+ * Resposta que guarda o corpo em memória em vez de enviá-lo, para que o filtro
+ * possa inspecioná-lo (hash, cache) antes de decidir o que vai para o cliente.
+ * Redirecionamentos e erros continuam indo direto para a resposta original.
+ */
+class RespostaBufferizada extends HttpServletResponseWrapper {
+    
+    private final ByteArrayOutputStream corpo = new ByteArrayOutputStream(16 * 1024);
+    private ServletOutputStream saida;
+    private PrintWriter escritor;
+    
+    RespostaBufferizada(HttpServletResponse response) {
+        super(response);
+    }
+    
+    @Override
+    public ServletOutputStream getOutputStream() {
+        if (escritor != null) {
+            throw new IllegalStateException("getWriter() já foi chamado nesta resposta");
+        }
+        if (saida == null) {
+            saida = new ServletOutputStream() {
+                @Override
+                public void write(int b) {
+                    corpo.write(b);
+                }
+                
+                @Override
+                public void write(byte[] b, int off, int len) {
+                    corpo.write(b, off, len);
+                }
+                
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+                
+                @Override
+                public void setWriteListener(WriteListener listener) {
+                    throw new UnsupportedOperationException("Escrita assíncrona não suportada");
+                }
+            };
+        }
+        return saida;
+    }
+    
+    @Override
+    public PrintWriter getWriter() throws IOException {
+        if (saida != null) {
+            throw new IllegalStateException("getOutputStream() já foi chamado nesta resposta");
+        }
+        if (escritor == null) {
+            escritor = new PrintWriter(new OutputStreamWriter(corpo, getCharacterEncoding()));
+        }
+        return escritor;
+    }
+    
+    /** O tamanho é definido por quem enviar o corpo guardado */
+    @Override
+    public void setContentLength(int len) {
+    }
+    
+    @Override
+    public void setContentLengthLong(long len) {
+    }
+    
+    /** Nada é enviado enquanto o corpo estiver guardado */
+    @Override
+    public void flushBuffer() {
+    }
+    
+    @Override
+    public void resetBuffer() {
+        corpo.reset();
+    }
+    
+    @Override
+    public void reset() {
+        super.reset();
+        corpo.reset();
+    }
+    
+    /**
+     * Corpo gerado até agora
+     */
+    byte[] getCorpo() {
+        if (escritor != null) {
+            escritor.flush();
+        }
+        return corpo.toByteArray();
+    }
+}
@@ -0,0 +1,250 @@
+package com.portal.filter;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.util.Set;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * Resposta que comprime o corpo em gzip à medida que ele é escrito.
+ * Os primeiros bytes ficam em memória até atingir o tamanho mínimo: corpos menores
+ * saem sem compressão e com Content-Length; os maiores seguem em streaming pelo
+ * Deflater emprestado do pool, sem guardar a resposta inteira.
+ */
+class RespostaComprimida extends HttpServletResponseWrapper {
+    
+    private static final byte[] CABECALHO_GZIP = {0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xff};
+    
+    private final CompressaoFilter.PoolDeflater pool;
+    private final Set<String> tiposComprimiveis;
+    private final int tamanhoMinimo;
+    
+    private final ByteArrayOutputStream inicio;
+    private final Saida saida = new Saida();
+    private PrintWriter escritor;
+    private boolean usouStream;
+    private long tamanhoDeclarado = -1;
+    
+    /** Destino decidido: o stream original ou o gzip sobre ele */
+    private OutputStream destino;
+    private DeflaterOutputStream gzip;
+    private Deflater deflater;
+    private final CRC32 crc = new CRC32();
+    private long tamanhoOriginal;
+    private boolean finalizando;
+    private boolean abandonada;
+    
+    RespostaComprimida(HttpServletResponse response, CompressaoFilter.PoolDeflater pool,
+            Set<String> tiposComprimiveis, int tamanhoMinimo) {
+        super(response);
+        this.pool = pool;
+        this.tiposComprimiveis = tiposComprimiveis;
+        this.tamanhoMinimo = tamanhoMinimo;
+        this.inicio = new ByteArrayOutputStream(tamanhoMinimo);
+    }
+    
+    @Override
+    public ServletOutputStream getOutputStream() {
+        if (escritor != null) {
+            throw new IllegalStateException("getWriter() já foi chamado nesta resposta");
+        }
+        usouStream = true;
+        return saida;
+    }
+    
+    @Override
+    public PrintWriter getWriter() throws IOException {
+        if (usouStream) {
+            throw new IllegalStateException("getOutputStream() já foi chamado nesta resposta");
+        }
+        if (escritor == null) {
+            escritor = new PrintWriter(new OutputStreamWriter(saida, getCharacterEncoding()));
+        }
+        return escritor;
+    }
+    
+    /** O tamanho declarado só vale se o corpo sair sem compressão */
+    @Override
+    public void setContentLength(int len) {
+        tamanhoDeclarado = len;
+    }
+    
+    @Override
+    public void setContentLengthLong(long len) {
+        tamanhoDeclarado = len;
+    }
+    
+    @Override
+    public void flushBuffer() throws IOException {
+        if (escritor != null) {
+            escritor.flush();
+        }
+        saida.flush();
+        super.flushBuffer();
+    }
+    
+    @Override
+    public void resetBuffer() {
+        if (destino == null) {
+            inicio.reset();
+        }
+        super.resetBuffer();
+    }
+    
+    @Override
+    public void reset() {
+        if (destino == null) {
+            inicio.reset();
+            tamanhoDeclarado = -1;
+        }
+        super.reset();
+    }
+    
+    /**
+     * Envia o que ficou em memória e fecha o gzip; devolve o Deflater ao pool
+     */
+    void finalizar() throws IOException {
+        finalizando = true;
+        try {
+            if (escritor != null) {
+                escritor.flush();
+            }
+            if (destino == null) {
+                if (inicio.size() == 0 && (isCommitted() || tamanhoDeclarado < 0)) {
+                    return; // Sem corpo (304, HEAD, redirecionamento)
+                }
+                decidir(false);
+            }
+            if (gzip != null) {
+                gzip.finish();
+                OutputStream original = getResponse().getOutputStream();
+                escreverInt(original, (int) crc.getValue());
+                escreverInt(original, (int) tamanhoOriginal);
+            }
+        } finally {
+            devolverDeflater();
+        }
+    }
+    
+    /**
+     * Descarta a compressão de uma resposta que falhou: devolve o Deflater ao pool
+     * sem escrever o trailer do gzip
+     */
+    void abandonar() {
+        abandonada = true;
+        devolverDeflater();
+    }
+    
+    private void devolverDeflater() {
+        if (deflater != null) {
+            pool.devolver(deflater);
+            deflater = null;
+        }
+    }
+    
+    private void decidir(boolean grande) throws IOException {
+        HttpServletResponse response = (HttpServletResponse) getResponse();
+        if (grande && comprimivel(response)) {
+            response.setHeader("Content-Encoding", "gzip");
+            // A representação comprimida é equivalente, não idêntica: a ETag forte passa a fraca
+            String etag = response.getHeader("ETag");
+            if (etag != null && !etag.startsWith("W/")) {
+                response.setHeader("ETag", "W/" + etag);
+            }
+            OutputStream original = response.getOutputStream();
+            original.write(CABECALHO_GZIP);
+            deflater = pool.emprestar();
+            gzip = new DeflaterOutputStream(original, deflater, 8192, true);
+            destino = gzip;
+            crc.update(inicio.toByteArray());
+            tamanhoOriginal = inicio.size();
+        } else {
+            if (!grande) {
+                response.setContentLength(inicio.size());
+            } else if (tamanhoDeclarado >= 0) {
+                response.setContentLengthLong(tamanhoDeclarado);
+            }
+            destino = response.getOutputStream();
+        }
+        inicio.writeTo(destino);
+    }
+    
+    private boolean comprimivel(HttpServletResponse response) {
+        if (response.getStatus() != HttpServletResponse.SC_OK || response.containsHeader("Content-Encoding")) {
+            return false;
+        }
+        String tipo = response.getContentType();
+        if (tipo == null) {
+            return false;
+        }
+        int separador = tipo.indexOf(';');
+        return tiposComprimiveis.contains((separador < 0 ? tipo : tipo.substring(0, separador)).trim().toLowerCase());
+    }
+    
+    private static void escreverInt(OutputStream out, int valor) throws IOException {
+        out.write(valor & 0xff);
+        out.write((valor >>> 8) & 0xff);
+        out.write((valor >>> 16) & 0xff);
+        out.write((valor >>> 24) & 0xff);
+    }
+    
+    private final class Saida extends ServletOutputStream {
+        
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+        
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (abandonada) {
+                throw new IOException("Resposta abandonada após falha no processamento");
+            }
+            if (destino == null) {
+                inicio.write(b, off, len);
+                if (inicio.size() >= tamanhoMinimo) {
+                    decidir(true);
+                }
+                return;
+            }
+            if (gzip != null) {
+                crc.update(b, off, len);
+                tamanhoOriginal += len;
+            }
+            destino.write(b, off, len);
+        }
+        
+        /** Flush explícito (streaming) decide a codificação com o que já foi escrito */
+        @Override
+        public void flush() throws IOException {
+            if (abandonada) {
+                return;
+            }
+            if (destino == null && inicio.size() > 0 && !finalizando) {
+                decidir(true);
+            }
+            if (destino != null) {
+                destino.flush();
+            }
+        }
+        
+        @Override
+        public boolean isReady() {
+            return true;
+        }
+        
+        @Override
+        public void setWriteListener(WriteListener listener) {
+            throw new UnsupportedOperationException("Escrita assíncrona não suportada");
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.portal.filter;
+
+import com.portal.dao.UnidadeTrabalho;
+
+import javax.servlet.*;
+import java.io.IOException;
+
+/**
+ * Abre uma unidade de trabalho por requisição: todos os DAOs chamados durante a
+ * requisição compartilham um único EntityManager (e uma única conexão), fechado ao final
+ */
+public class UnidadeTrabalhoFilter implements Filter {
+
+    @Override
+    public void init(FilterConfig filterConfig) throws ServletException {
+        // Nada a configurar
+    }
+
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+            throws IOException, ServletException {
+        UnidadeTrabalho unidade = UnidadeTrabalho.abrir();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            unidade.close();
+        }
+    }
+
+    @Override
+    public void destroy() {
+        // Nada a liberar
+    }
+}
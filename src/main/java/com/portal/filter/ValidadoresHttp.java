@@ -0,0 +1,56 @@
+package com.portal.filter;
+
+import javax.servlet.http.HttpServletRequest;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Base64;
+
+/**
+ * Avaliação de requisições condicionais (ETag/Last-Modified) compartilhada pelos
+ * filtros e servlets que respondem 304
+ */
+public final class ValidadoresHttp {
+    
+    private ValidadoresHttp() {
+    }
+    
+    /**
+     * Avalia If-None-Match (comparação fraca) e, na sua ausência, If-Modified-Since.
+     * Use {@code ultimaAlteracao} negativo quando não houver data de alteração.
+     */
+    public static boolean naoModificado(HttpServletRequest request, String etag, long ultimaAlteracao) {
+        String ifNoneMatch = request.getHeader("If-None-Match");
+        if (ifNoneMatch != null) {
+            String opaca = semPrefixoFraco(etag);
+            return Arrays.stream(ifNoneMatch.split(","))
+                .map(String::trim)
+                .anyMatch(candidata -> "*".equals(candidata) || semPrefixoFraco(candidata).equals(opaca));
+        }
+        if (ultimaAlteracao < 0) {
+            return false;
+        }
+        try {
+            long ifModifiedSince = request.getDateHeader("If-Modified-Since");
+            return ifModifiedSince >= 0 && ultimaAlteracao <= ifModifiedSince;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+    
+    /**
+     * Hash curto (96 bits do SHA-256, Base64 URL) para uso como ETag de um conteúdo
+     */
+    public static String hash(byte[] conteudo) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(conteudo);
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(digest, 12));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível", e);
+        }
+    }
+    
+    private static String semPrefixoFraco(String etag) {
+        return etag.startsWith("W/") ? etag.substring(2) : etag;
+    }
+}
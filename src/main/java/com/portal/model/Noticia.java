@@ -1,5 +1,8 @@
 package com.portal.model;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
 import javax.persistence.*;
 import javax.validation.constraints.NotNull;
 import javax.validation.constraints.Size;
@@ -12,11 +15,21 @@ import java.time.format.DateTimeFormatter;
  * Contém título, conteúdo, data de publicação e referência ao autor.
  */
 @Entity
-@Table(name = "noticias")
+@NamedEntityGraph(name = Noticia.GRAFO_AUTOR, attributeNodes = @NamedAttributeNode("autor"))
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "noticias")
+@Table(name = "noticias", indexes = {
+    @Index(name = "idx_noticias_data_id", columnList = "data_publicacao, id"),
+    @Index(name = "idx_noticias_titulo", columnList = "titulo"),
+    @Index(name = "idx_noticias_autor_data_id", columnList = "autor_id, data_publicacao, id")
+})
 public class Noticia implements Serializable {
     
     private static final long serialVersionUID = 1L;
     
+    /** Grafo de entidade que carrega a notícia junto com o autor (listagens e detalhes) */
+    public static final String GRAFO_AUTOR = "Noticia.autor";
+    
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
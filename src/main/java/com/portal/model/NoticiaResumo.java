@@ -0,0 +1,116 @@
+package com.portal.model;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Comparator;
+
+/**
+ * Resumo imutável de uma notícia para páginas de listagem.
+ * Contém apenas título, trecho inicial do conteúdo, autor e data, evitando
+ * carregar a entidade {@link Noticia} completa com o conteúdo inteiro.
+ * É instanciado diretamente por consultas JPQL com expressão de construtor.
+ */
+public final class NoticiaResumo implements Serializable {
+    
+    private static final long serialVersionUID = 1L;
+    
+    /** Quantidade de caracteres do conteúdo exibidos no resumo */
+    public static final int TAMANHO_RESUMO = 200;
+    
+    /** Ordem das listagens: mais recentes primeiro, desempate pelo maior id (a mesma do cursor) */
+    public static final Comparator<NoticiaResumo> MAIS_RECENTES_PRIMEIRO =
+        Comparator.comparing(NoticiaResumo::getDataPublicacao, Comparator.nullsLast(Comparator.<LocalDateTime>reverseOrder()))
+            .thenComparing(NoticiaResumo::getId, Comparator.nullsLast(Comparator.<Long>reverseOrder()));
+    
+    private static final DateTimeFormatter FORMATO_DATA = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
+    
+    private final Long id;
+    private final String titulo;
+    private final String resumo;
+    private final Long autorId;
+    private final String nomeAutor;
+    private final LocalDateTime dataPublicacao;
+    
+    /**
+     * @param inicioConteudo início do conteúdo; basta conter {@link #TAMANHO_RESUMO} + 1
+     *                       caracteres para que se saiba se o resumo foi cortado
+     */
+    public NoticiaResumo(Long id, String titulo, String inicioConteudo, Long autorId, String nomeAutor,
+                         LocalDateTime dataPublicacao) {
+        this.id = id;
+        this.titulo = titulo;
+        this.resumo = resumir(inicioConteudo);
+        this.autorId = autorId;
+        this.nomeAutor = nomeAutor;
+        this.dataPublicacao = dataPublicacao;
+    }
+    
+    /**
+     * Resumo de uma notícia já carregada (com o autor)
+     */
+    public static NoticiaResumo de(Noticia noticia) {
+        Usuario autor = noticia.getAutor();
+        return new NoticiaResumo(noticia.getId(), noticia.getTitulo(), noticia.getConteudo(),
+            autor != null ? autor.getId() : null, autor != null ? autor.getNome() : null,
+            noticia.getDataPublicacao());
+    }
+    
+    public Long getId() {
+        return id;
+    }
+    
+    public String getTitulo() {
+        return titulo;
+    }
+    
+    public String getResumo() {
+        return resumo;
+    }
+    
+    public Long getAutorId() {
+        return autorId;
+    }
+    
+    public String getNomeAutor() {
+        return nomeAutor != null ? nomeAutor : "Autor desconhecido";
+    }
+    
+    public LocalDateTime getDataPublicacao() {
+        return dataPublicacao;
+    }
+    
+    public String getDataPublicacaoFormatada() {
+        return dataPublicacao != null ? dataPublicacao.format(FORMATO_DATA) : "";
+    }
+    
+    private static String resumir(String conteudo) {
+        if (conteudo != null && conteudo.length() > TAMANHO_RESUMO) {
+            return conteudo.substring(0, TAMANHO_RESUMO) + "...";
+        }
+        return conteudo;
+    }
+    
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        if (obj == null || getClass() != obj.getClass()) return false;
+        NoticiaResumo outro = (NoticiaResumo) obj;
+        return id != null && id.equals(outro.id);
+    }
+    
+    @Override
+    public int hashCode() {
+        return id != null ? id.hashCode() : 0;
+    }
+    
+    @Override
+    public String toString() {
+        return "NoticiaResumo{" +
+                "id=" + id +
+                ", titulo='" + titulo + '\'' +
+                ", dataPublicacao=" + dataPublicacao +
+                ", autor=" + nomeAutor +
+                '}';
+    }
+}
@@ -0,0 +1,57 @@
+package com.portal.model;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * Linha de importação/exportação em lote de notícias.
+ * Carrega apenas colunas (sem entidade gerenciada), para que o pipeline
+ * rode em memória constante independentemente do volume.
+ */
+public final class RegistroNoticia implements Serializable {
+    
+    private static final long serialVersionUID = 1L;
+    
+    private final Long id;
+    private final String titulo;
+    private final String conteudo;
+    private final LocalDateTime dataPublicacao;
+    private final Long autorId;
+    
+    public RegistroNoticia(Long id, String titulo, String conteudo, LocalDateTime dataPublicacao, Long autorId) {
+        this.id = id;
+        this.titulo = titulo;
+        this.conteudo = conteudo;
+        this.dataPublicacao = dataPublicacao;
+        this.autorId = autorId;
+    }
+    
+    /**
+     * Cópia do registro com valores padrão para data e autor ausentes
+     */
+    public RegistroNoticia comPadroes(LocalDateTime data, Long autor) {
+        return new RegistroNoticia(id, titulo, conteudo,
+            dataPublicacao != null ? dataPublicacao : data,
+            autorId != null ? autorId : autor);
+    }
+    
+    public Long getId() {
+        return id;
+    }
+    
+    public String getTitulo() {
+        return titulo;
+    }
+    
+    public String getConteudo() {
+        return conteudo;
+    }
+    
+    public LocalDateTime getDataPublicacao() {
+        return dataPublicacao;
+    }
+    
+    public Long getAutorId() {
+        return autorId;
+    }
+}
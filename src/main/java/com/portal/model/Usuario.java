@@ -1,5 +1,8 @@
 package com.portal.model;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
 import javax.persistence.*;
 import javax.validation.constraints.Email;
 import javax.validation.constraints.NotNull;
@@ -12,6 +15,8 @@ import java.util.List;
  * Contém informações básicas do usuário e seu perfil de acesso.
  */
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "usuarios")
 @Table(name = "usuarios")
 public class Usuario implements Serializable {
     
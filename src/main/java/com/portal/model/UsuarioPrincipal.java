@@ -0,0 +1,48 @@
+package com.portal.model;
+
+import java.io.Serializable;
+
+/**
+ * Identidade do usuário autenticado guardada na sessão HTTP.
+ * Imutável e com apenas id, nome e perfil; os demais dados do usuário
+ * são obtidos sob demanda (via cache de segundo nível) quando necessários.
+ */
+public final class UsuarioPrincipal implements Serializable {
+    
+    private static final long serialVersionUID = 1L;
+    
+    private final Long id;
+    private final String nome;
+    private final PerfilUsuario perfil;
+    
+    public UsuarioPrincipal(Long id, String nome, PerfilUsuario perfil) {
+        this.id = id;
+        this.nome = nome;
+        this.perfil = perfil;
+    }
+    
+    public static UsuarioPrincipal de(Usuario usuario) {
+        return new UsuarioPrincipal(usuario.getId(), usuario.getNome(), usuario.getPerfil());
+    }
+    
+    public Long getId() {
+        return id;
+    }
+    
+    public String getNome() {
+        return nome;
+    }
+    
+    public PerfilUsuario getPerfil() {
+        return perfil;
+    }
+    
+    public boolean isAdmin() {
+        return perfil == PerfilUsuario.ADMIN;
+    }
+    
+    @Override
+    public String toString() {
+        return "UsuarioPrincipal{id=" + id + ", nome='" + nome + "', perfil=" + perfil + "}";
+    }
+}
@@ -0,0 +1,112 @@
+package com.portal.monitoring;
+
+import com.portal.dao.GenericDAO;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.context.Destroyed;
+import javax.enterprise.context.Initialized;
+import javax.enterprise.event.Observes;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Publica via JMX (com.portal:type=CacheSegundoNivel) as estatísticas de
+ * acertos e falhas do cache de segundo nível e do cache de consultas.
+ */
+@ApplicationScoped
+public class CacheSegundoNivel implements CacheSegundoNivelMBean {
+    
+    private static final Logger LOGGER = Logger.getLogger(CacheSegundoNivel.class.getName());
+    private static final String NOME_JMX = "com.portal:type=CacheSegundoNivel";
+    
+    void registrar(@Observes @Initialized(ApplicationScoped.class) Object inicio) {
+        try {
+            MBeanServer servidor = ManagementFactory.getPlatformMBeanServer();
+            ObjectName nome = new ObjectName(NOME_JMX);
+            if (!servidor.isRegistered(nome)) {
+                servidor.registerMBean(this, nome);
+            }
+        } catch (JMException e) {
+            LOGGER.log(Level.WARNING, "Não foi possível registrar o MBean " + NOME_JMX, e);
+        }
+    }
+    
+    void desregistrar(@Observes @Destroyed(ApplicationScoped.class) Object fim) {
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(new ObjectName(NOME_JMX));
+        } catch (JMException e) {
+            LOGGER.log(Level.FINE, "MBean " + NOME_JMX + " já removido", e);
+        }
+    }
+    
+    @Override
+    public String[] getRegioes() {
+        return estatisticas().getSecondLevelCacheRegionNames();
+    }
+    
+    @Override
+    public long getAcertos() {
+        return estatisticas().getSecondLevelCacheHitCount();
+    }
+    
+    @Override
+    public long getFalhas() {
+        return estatisticas().getSecondLevelCacheMissCount();
+    }
+    
+    @Override
+    public long getInsercoes() {
+        return estatisticas().getSecondLevelCachePutCount();
+    }
+    
+    @Override
+    public double getTaxaAcerto() {
+        return taxa(getAcertos(), getFalhas());
+    }
+    
+    @Override
+    public long getAcertosConsultas() {
+        return estatisticas().getQueryCacheHitCount();
+    }
+    
+    @Override
+    public long getFalhasConsultas() {
+        return estatisticas().getQueryCacheMissCount();
+    }
+    
+    @Override
+    public double getTaxaAcertoConsultas() {
+        return taxa(getAcertosConsultas(), getFalhasConsultas());
+    }
+    
+    @Override
+    public String resumoRegiao(String regiao) {
+        CacheRegionStatistics regiaoStats = estatisticas().getCacheRegionStatistics(regiao);
+        if (regiaoStats == null) {
+            return "Região desconhecida: " + regiao;
+        }
+        return String.format("%s: acertos=%d, falhas=%d, inserções=%d, em memória=%d, taxa de acerto=%.2f",
+            regiao, regiaoStats.getHitCount(), regiaoStats.getMissCount(), regiaoStats.getPutCount(),
+            regiaoStats.getElementCountInMemory(), taxa(regiaoStats.getHitCount(), regiaoStats.getMissCount()));
+    }
+    
+    @Override
+    public void zerarEstatisticas() {
+        estatisticas().clear();
+    }
+    
+    private static Statistics estatisticas() {
+        return GenericDAO.getStatistics();
+    }
+    
+    private static double taxa(long acertos, long falhas) {
+        long total = acertos + falhas;
+        return total == 0 ? 0.0 : (double) acertos / total;
+    }
+}
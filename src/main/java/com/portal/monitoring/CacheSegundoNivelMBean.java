@@ -0,0 +1,33 @@
+package com.portal.monitoring;
+
+/**
+ * Interface JMX com as estatísticas do cache de segundo nível do Hibernate
+ */
+public interface CacheSegundoNivelMBean {
+    
+    String[] getRegioes();
+    
+    long getAcertos();
+    
+    long getFalhas();
+    
+    long getInsercoes();
+    
+    double getTaxaAcerto();
+    
+    long getAcertosConsultas();
+    
+    long getFalhasConsultas();
+    
+    double getTaxaAcertoConsultas();
+    
+    /**
+     * Resumo de acertos, falhas, inserções e entradas em memória de uma região
+     */
+    String resumoRegiao(String regiao);
+    
+    /**
+     * Zera as estatísticas acumuladas
+     */
+    void zerarEstatisticas();
+}
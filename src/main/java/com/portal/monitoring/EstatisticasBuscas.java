@@ -0,0 +1,91 @@
+package com.portal.monitoring;
+
+import com.portal.search.CacheBuscas;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.context.Destroyed;
+import javax.enterprise.context.Initialized;
+import javax.enterprise.event.Observes;
+import javax.inject.Inject;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Publica via JMX (com.portal:type=CacheBuscas) os acertos, falhas e ocupação
+ * do cache de resultados de busca.
+ */
+@ApplicationScoped
+public class EstatisticasBuscas implements EstatisticasBuscasMBean {
+    
+    private static final Logger LOGGER = Logger.getLogger(EstatisticasBuscas.class.getName());
+    private static final String NOME_JMX = "com.portal:type=CacheBuscas";
+    
+    @Inject
+    private CacheBuscas cacheBuscas;
+    
+    void registrar(@Observes @Initialized(ApplicationScoped.class) Object inicio) {
+        try {
+            MBeanServer servidor = ManagementFactory.getPlatformMBeanServer();
+            ObjectName nome = new ObjectName(NOME_JMX);
+            if (!servidor.isRegistered(nome)) {
+                servidor.registerMBean(this, nome);
+            }
+        } catch (JMException e) {
+            LOGGER.log(Level.WARNING, "Não foi possível registrar o MBean " + NOME_JMX, e);
+        }
+    }
+    
+    void desregistrar(@Observes @Destroyed(ApplicationScoped.class) Object fim) {
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(new ObjectName(NOME_JMX));
+        } catch (JMException e) {
+            LOGGER.log(Level.FINE, "MBean " + NOME_JMX + " já removido", e);
+        }
+    }
+    
+    @Override
+    public long getAcertos() {
+        return cacheBuscas.getAcertos();
+    }
+    
+    @Override
+    public long getFalhas() {
+        return cacheBuscas.getFalhas();
+    }
+    
+    @Override
+    public double getTaxaAcerto() {
+        long acertos = getAcertos();
+        long total = acertos + getFalhas();
+        return total == 0 ? 0.0 : (double) acertos / total;
+    }
+    
+    @Override
+    public long getRemocoes() {
+        return cacheBuscas.getRemocoes();
+    }
+    
+    @Override
+    public int getEntradas() {
+        return cacheBuscas.getEntradas();
+    }
+    
+    @Override
+    public long getTamanhoBytes() {
+        return cacheBuscas.getTotalBytes();
+    }
+    
+    @Override
+    public void zerarEstatisticas() {
+        cacheBuscas.zerarEstatisticas();
+    }
+    
+    @Override
+    public void limpar() {
+        cacheBuscas.limpar();
+    }
+}
@@ -0,0 +1,32 @@
+package com.portal.monitoring;
+
+/**
+ * Interface JMX com as estatísticas do cache de resultados de busca
+ */
+public interface EstatisticasBuscasMBean {
+    
+    long getAcertos();
+    
+    long getFalhas();
+    
+    double getTaxaAcerto();
+    
+    /**
+     * Entradas descartadas por versão antiga do índice ou pelos limites de quantidade e bytes
+     */
+    long getRemocoes();
+    
+    int getEntradas();
+    
+    long getTamanhoBytes();
+    
+    /**
+     * Zera as estatísticas acumuladas
+     */
+    void zerarEstatisticas();
+    
+    /**
+     * Descarta todas as entradas do cache
+     */
+    void limpar();
+}
@@ -0,0 +1,173 @@
+package com.portal.monitoring;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import javax.servlet.ServletContextEvent;
+import javax.servlet.ServletContextListener;
+import javax.servlet.annotation.WebListener;
+import javax.servlet.http.HttpSession;
+import javax.servlet.http.HttpSessionEvent;
+import javax.servlet.http.HttpSessionListener;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+
+/**
+ * Acompanha as sessões HTTP ativas e publica via JMX (com.portal:type=TamanhoSessoes)
+ * quanto elas ocupam serializadas, que é o custo de replicação e passivação.
+ */
+@WebListener
+public class TamanhoSessoes implements HttpSessionListener, ServletContextListener, TamanhoSessoesMBean {
+    
+    private static final Logger LOGGER = Logger.getLogger(TamanhoSessoes.class.getName());
+    private static final String NOME_JMX = "com.portal:type=TamanhoSessoes";
+    
+    /** Intervalo em que uma medição é reaproveitada (o JConsole lê vários atributos de uma vez) */
+    private static final long VALIDADE_MEDICAO_MS = 5000;
+    
+    private final Set<HttpSession> sessoes = Collections.newSetFromMap(new ConcurrentHashMap<>());
+    private volatile Medicao ultima;
+    
+    @Override
+    public void contextInitialized(ServletContextEvent evento) {
+        try {
+            ObjectName nome = new ObjectName(NOME_JMX);
+            if (!ManagementFactory.getPlatformMBeanServer().isRegistered(nome)) {
+                ManagementFactory.getPlatformMBeanServer().registerMBean(this, nome);
+            }
+        } catch (JMException e) {
+            LOGGER.log(Level.WARNING, "Não foi possível registrar o MBean " + NOME_JMX, e);
+        }
+    }
+    
+    @Override
+    public void contextDestroyed(ServletContextEvent evento) {
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(new ObjectName(NOME_JMX));
+        } catch (JMException e) {
+            LOGGER.log(Level.FINE, "MBean " + NOME_JMX + " já removido", e);
+        }
+        sessoes.clear();
+    }
+    
+    @Override
+    public void sessionCreated(HttpSessionEvent evento) {
+        sessoes.add(evento.getSession());
+    }
+    
+    @Override
+    public void sessionDestroyed(HttpSessionEvent evento) {
+        sessoes.remove(evento.getSession());
+    }
+    
+    @Override
+    public int getSessoesAtivas() {
+        return sessoes.size();
+    }
+    
+    @Override
+    public long getTamanhoTotalBytes() {
+        return medir().total;
+    }
+    
+    @Override
+    public long getTamanhoMedioBytes() {
+        Medicao medicao = medir();
+        return medicao.sessoes == 0 ? 0 : medicao.total / medicao.sessoes;
+    }
+    
+    @Override
+    public long getMaiorSessaoBytes() {
+        return medir().maior;
+    }
+    
+    @Override
+    public long getAtributosNaoSerializaveis() {
+        return medir().naoSerializaveis;
+    }
+    
+    @Override
+    public String resumoAtributos() {
+        return medir().porAtributo.entrySet().stream()
+            .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+            .map(e -> e.getKey() + "=" + e.getValue())
+            .collect(Collectors.joining(", "));
+    }
+    
+    private Medicao medir() {
+        Medicao atual = ultima;
+        if (atual != null && System.currentTimeMillis() - atual.instante < VALIDADE_MEDICAO_MS) {
+            return atual;
+        }
+        Medicao nova = new Medicao();
+        for (HttpSession sessao : sessoes) {
+            try {
+                long tamanho = 0;
+                Enumeration<String> nomes = sessao.getAttributeNames();
+                while (nomes.hasMoreElements()) {
+                    String nome = nomes.nextElement();
+                    long bytes = tamanhoSerializado(sessao.getAttribute(nome));
+                    if (bytes < 0) {
+                        nova.naoSerializaveis++;
+                        continue;
+                    }
+                    tamanho += bytes;
+                    nova.porAtributo.merge(nome, bytes, Long::sum);
+                }
+                nova.sessoes++;
+                nova.total += tamanho;
+                nova.maior = Math.max(nova.maior, tamanho);
+            } catch (IllegalStateException e) {
+                sessoes.remove(sessao); // Invalidada entre a listagem e a leitura
+            }
+        }
+        ultima = nova;
+        return nova;
+    }
+    
+    /**
+     * Bytes do objeto serializado, ou -1 se não for serializável
+     */
+    private static long tamanhoSerializado(Object valor) {
+        ContadorBytes contador = new ContadorBytes();
+        try (ObjectOutputStream saida = new ObjectOutputStream(contador)) {
+            saida.writeObject(valor);
+        } catch (IOException e) {
+            return -1;
+        }
+        return contador.bytes;
+    }
+    
+    private static final class Medicao {
+        private final long instante = System.currentTimeMillis();
+        private final Map<String, Long> porAtributo = new HashMap<>();
+        private int sessoes;
+        private long total;
+        private long maior;
+        private long naoSerializaveis;
+    }
+    
+    private static final class ContadorBytes extends OutputStream {
+        private long bytes;
+        
+        @Override
+        public void write(int b) {
+            bytes++;
+        }
+        
+        @Override
+        public void write(byte[] b, int off, int len) {
+            bytes += len;
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.portal.monitoring;
+
+/**
+ * Interface JMX com o tamanho serializado das sessões HTTP ativas.
+ * Os valores são medidos serializando os atributos de cada sessão, com o
+ * resultado reaproveitado por alguns segundos entre leituras.
+ */
+public interface TamanhoSessoesMBean {
+    
+    int getSessoesAtivas();
+    
+    long getTamanhoTotalBytes();
+    
+    long getTamanhoMedioBytes();
+    
+    long getMaiorSessaoBytes();
+    
+    /**
+     * Atributos que falharam ao serializar (impedem replicação/persistência da sessão)
+     */
+    long getAtributosNaoSerializaveis();
+    
+    /**
+     * Bytes por nome de atributo, somados em todas as sessões, do maior para o menor
+     */
+    String resumoAtributos();
+}
@@ -0,0 +1,67 @@
+package com.portal.search;
+
+/**
+ * Quebra um texto em termos normalizados para indexação e consulta.
+ * Ignora marcação HTML (conteúdo entre '<' e '>'), converte para minúsculas
+ * e remove acentos. Cada termo é entregue com sua posição no texto.
+ */
+public class Analisador {
+    
+    /** Termos maiores que este limite são descartados */
+    private static final int TAMANHO_MAXIMO_TERMO = 40;
+    
+    /**
+     * Recebe os termos produzidos pela análise
+     */
+    @FunctionalInterface
+    public interface ConsumidorTermo {
+        void aceitar(String termo, int posicao);
+    }
+    
+    /**
+     * Analisa o texto, entregando cada termo ao consumidor na ordem em que aparece
+     */
+    public void analisar(String texto, ConsumidorTermo consumidor) {
+        if (texto == null) {
+            return;
+        }
+        char[] buffer = new char[TAMANHO_MAXIMO_TERMO];
+        int tamanho = 0;
+        int posicao = 0;
+        boolean descartar = false;
+        boolean dentroDeTag = false;
+        
+        for (int i = 0, n = texto.length(); i <= n; i++) {
+            char c = i < n ? texto.charAt(i) : ' ';
+            if (dentroDeTag) {
+                dentroDeTag = c != '>';
+                continue;
+            }
+            if (Character.isLetterOrDigit(c)) {
+                if (tamanho < TAMANHO_MAXIMO_TERMO) {
+                    buffer[tamanho++] = Normalizador.dobrar(c);
+                } else {
+                    descartar = true;
+                }
+                continue;
+            }
+            if (tamanho > 0) {
+                int reduzido = descartar ? 0 : reduzir(buffer, tamanho);
+                if (reduzido > 0) {
+                    consumidor.aceitar(new String(buffer, 0, reduzido), posicao++);
+                }
+                tamanho = 0;
+                descartar = false;
+            }
+            dentroDeTag = c == '<';
+        }
+    }
+    
+    /**
+     * Ponto de extensão aplicado a cada termo já normalizado, diretamente no buffer.
+     * Retorna o novo tamanho do termo, ou zero para descartá-lo.
+     */
+    protected int reduzir(char[] termo, int tamanho) {
+        return tamanho;
+    }
+}
@@ -0,0 +1,65 @@
+package com.portal.search;
+
+import java.util.Arrays;
+
+/**
+ * Analisador para textos em português: além da normalização do {@link Analisador},
+ * descarta palavras vazias (artigos, preposições, conjunções) e reduz cada termo
+ * ao seu radical com o {@link Radicalizador}, de modo que "eleição" e "eleições"
+ * caiam no mesmo termo. Tudo é feito no buffer do termo, sem alocações extras.
+ */
+public class AnalisadorPortugues extends Analisador {
+    
+    /** Palavras vazias já normalizadas (sem acentos), agrupadas pelo tamanho */
+    private static final char[][][] PALAVRAS_VAZIAS = agrupar(
+        "a", "o", "e", "as", "os", "um", "de", "do", "da", "em", "no", "na", "ao", "se", "ou",
+        "uma", "uns", "dos", "das", "nos", "nas", "aos", "por", "com", "sem", "que", "seu", "sua", "mas",
+        "lhe", "foi", "ser", "pra", "num", "ele", "ela", "ja",
+        "umas", "pelo", "pela", "para", "como", "mais", "seus", "suas", "numa", "este", "esta", "esse",
+        "essa", "isso", "isto", "eles", "elas", "pelos", "pelas", "entre", "sobre", "quando", "tambem");
+    
+    @Override
+    protected int reduzir(char[] termo, int tamanho) {
+        if (palavraVazia(termo, tamanho)) {
+            return 0;
+        }
+        return Radicalizador.reduzir(termo, tamanho);
+    }
+    
+    private static boolean palavraVazia(char[] termo, int tamanho) {
+        if (tamanho >= PALAVRAS_VAZIAS.length) {
+            return false;
+        }
+        for (char[] palavra : PALAVRAS_VAZIAS[tamanho]) {
+            if (iguais(palavra, termo)) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    private static boolean iguais(char[] palavra, char[] termo) {
+        for (int i = 0; i < palavra.length; i++) {
+            if (palavra[i] != termo[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    private static char[][][] agrupar(String... palavras) {
+        int maior = 0;
+        for (String palavra : palavras) {
+            maior = Math.max(maior, palavra.length());
+        }
+        char[][][] porTamanho = new char[maior + 1][][];
+        for (int tamanho = 0; tamanho <= maior; tamanho++) {
+            final int t = tamanho;
+            porTamanho[tamanho] = Arrays.stream(palavras)
+                .filter(palavra -> palavra.length() == t)
+                .map(String::toCharArray)
+                .toArray(char[][]::new);
+        }
+        return porTamanho;
+    }
+}
@@ -0,0 +1,144 @@
+package com.portal.search;
+
+import javax.enterprise.context.ApplicationScoped;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Cache de resultados de busca, chaveado pela consulta normalizada.
+ * Guarda apenas os ids encontrados, na ordem do resultado, junto com a versão do
+ * índice em que foram calculados: qualquer escrita avança a versão e invalida
+ * todas as entradas de uma vez, sem percorrê-las. Entradas de versões antigas são
+ * descartadas ao serem encontradas ou pela ordem de uso (LRU), dentro dos limites
+ * de quantidade e de bytes.
+ */
+@ApplicationScoped
+public class CacheBuscas {
+    
+    /** Quantidade máxima de consultas guardadas */
+    private static final int LIMITE_ENTRADAS = 10_000;
+    
+    /** Memória máxima estimada das entradas (chaves e ids) */
+    private static final long LIMITE_BYTES = 16L * 1024 * 1024;
+    
+    /** Custo fixo estimado de uma entrada (objetos, nó do mapa, cabeçalhos de arrays) */
+    private static final int CUSTO_ENTRADA = 96;
+    
+    private final LinkedHashMap<String, Entrada> entradas = new LinkedHashMap<>(256, 0.75f, true);
+    private long totalBytes;
+    
+    private final LongAdder acertos = new LongAdder();
+    private final LongAdder falhas = new LongAdder();
+    private final LongAdder remocoes = new LongAdder();
+    
+    /**
+     * Ids guardados para a chave na versão informada, ou calculados (e guardados) quando ausentes
+     */
+    public long[] obter(String chave, long versao, Supplier<long[]> calcular) {
+        synchronized (entradas) {
+            Entrada entrada = entradas.get(chave);
+            if (entrada != null && entrada.versao == versao) {
+                acertos.increment();
+                return entrada.ids;
+            }
+            if (entrada != null) {
+                remover(chave, entrada);
+            }
+        }
+        falhas.increment();
+        long[] ids = calcular.get();
+        armazenar(chave, new Entrada(ids, versao, CUSTO_ENTRADA + chave.length() * 2L + ids.length * 8L));
+        return ids;
+    }
+    
+    /**
+     * Chave da consulta: tipo de busca, limite e texto sem acentos, em minúsculas e com
+     * espaços simplificados. O operador OR é preservado (vira "|") para não se confundir
+     * com o termo "or".
+     */
+    public static String chave(String tipo, int limite, String consulta) {
+        StringBuilder chave = new StringBuilder(tipo).append('|').append(limite).append('|');
+        int inicio = chave.length();
+        for (String trecho : consulta.trim().split("\\s+")) {
+            if (chave.length() > inicio) {
+                chave.append(' ');
+            }
+            chave.append("OR".equals(trecho) ? "|" : Normalizador.normalizar(trecho));
+        }
+        return chave.toString();
+    }
+    
+    public long getAcertos() {
+        return acertos.sum();
+    }
+    
+    public long getFalhas() {
+        return falhas.sum();
+    }
+    
+    /** Entradas descartadas por versão antiga ou pelos limites */
+    public long getRemocoes() {
+        return remocoes.sum();
+    }
+    
+    public int getEntradas() {
+        synchronized (entradas) {
+            return entradas.size();
+        }
+    }
+    
+    public long getTotalBytes() {
+        synchronized (entradas) {
+            return totalBytes;
+        }
+    }
+    
+    public void zerarEstatisticas() {
+        acertos.reset();
+        falhas.reset();
+        remocoes.reset();
+    }
+    
+    public void limpar() {
+        synchronized (entradas) {
+            entradas.clear();
+            totalBytes = 0;
+        }
+    }
+    
+    private void armazenar(String chave, Entrada entrada) {
+        if (entrada.bytes > LIMITE_BYTES / 64) {
+            return; // Uma consulta muito ampla não deve ocupar boa parte do cache sozinha
+        }
+        synchronized (entradas) {
+            Entrada anterior = entradas.put(chave, entrada);
+            totalBytes += entrada.bytes - (anterior != null ? anterior.bytes : 0);
+            Iterator<Entrada> iterador = entradas.values().iterator();
+            while ((totalBytes > LIMITE_BYTES || entradas.size() > LIMITE_ENTRADAS) && iterador.hasNext()) {
+                totalBytes -= iterador.next().bytes;
+                iterador.remove();
+                remocoes.increment();
+            }
+        }
+    }
+    
+    private void remover(String chave, Entrada entrada) {
+        entradas.remove(chave);
+        totalBytes -= entrada.bytes;
+        remocoes.increment();
+    }
+    
+    private static final class Entrada {
+        private final long[] ids;
+        private final long versao;
+        private final long bytes;
+        
+        private Entrada(long[] ids, long versao, long bytes) {
+            this.ids = ids;
+            this.versao = versao;
+            this.bytes = bytes;
+        }
+    }
+}
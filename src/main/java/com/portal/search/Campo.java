@@ -0,0 +1,9 @@
+package com.portal.search;
+
+/**
+ * Campos indexados de uma notícia
+ */
+public enum Campo {
+    TITULO,
+    CONTEUDO
+}
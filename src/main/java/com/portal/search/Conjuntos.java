@@ -0,0 +1,56 @@
+package com.portal.search;
+
+import java.util.Arrays;
+
+/**
+ * Operações de conjunto sobre arrays de ids ordenados em ordem crescente
+ */
+final class Conjuntos {
+    
+    private Conjuntos() {
+    }
+    
+    static long[] intersecao(long[] a, long[] b) {
+        long[] resultado = new long[Math.min(a.length, b.length)];
+        int i = 0;
+        int j = 0;
+        int k = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] < b[j]) {
+                i++;
+            } else if (a[i] > b[j]) {
+                j++;
+            } else {
+                resultado[k++] = a[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(resultado, k);
+    }
+    
+    static long[] uniao(long[] a, long[] b) {
+        if (a.length == 0) {
+            return b;
+        }
+        if (b.length == 0) {
+            return a;
+        }
+        long[] resultado = new long[a.length + b.length];
+        int i = 0;
+        int j = 0;
+        int k = 0;
+        while (i < a.length || j < b.length) {
+            if (j == b.length || (i < a.length && a[i] < b[j])) {
+                resultado[k++] = a[i++];
+            } else if (i == a.length || b[j] < a[i]) {
+                resultado[k++] = b[j++];
+            } else {
+                resultado[k++] = a[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(resultado, k);
+    }
+}
@@ -0,0 +1,91 @@
+package com.portal.search;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Consulta booleana interpretada a partir do texto digitado pelo usuário.
+ * Termos separados por espaço devem ocorrer todos (AND); grupos separados
+ * por "OR" (ou "|") são alternativos; trechos entre aspas são frases exatas.
+ * Exemplo: {@code "copa do mundo" brasil OR olimpiadas}
+ */
+public final class ConsultaBusca {
+    
+    private final List<List<List<String>>> grupos;
+    
+    private ConsultaBusca(List<List<List<String>>> grupos) {
+        this.grupos = grupos;
+    }
+    
+    /**
+     * Grupos alternativos (OR); cada grupo é uma lista de cláusulas obrigatórias (AND)
+     * e cada cláusula é uma sequência de termos (um termo, ou uma frase)
+     */
+    public List<List<List<String>>> getGrupos() {
+        return grupos;
+    }
+    
+    public boolean isVazia() {
+        return grupos.isEmpty();
+    }
+    
+    /**
+     * Interpreta o texto da consulta usando o analisador informado nos termos
+     */
+    public static ConsultaBusca interpretar(String texto, Analisador analisador) {
+        List<List<List<String>>> grupos = new ArrayList<>();
+        List<List<String>> grupoAtual = new ArrayList<>();
+        
+        int i = 0;
+        int n = texto == null ? 0 : texto.length();
+        while (i < n) {
+            char c = texto.charAt(i);
+            if (Character.isWhitespace(c)) {
+                i++;
+                continue;
+            }
+            int fim;
+            String trecho;
+            if (c == '"') {
+                fim = texto.indexOf('"', i + 1);
+                fim = fim < 0 ? n : fim;
+                trecho = texto.substring(i + 1, fim);
+                fim++;
+            } else {
+                fim = i;
+                while (fim < n && !Character.isWhitespace(texto.charAt(fim)) && texto.charAt(fim) != '"') {
+                    fim++;
+                }
+                trecho = texto.substring(i, fim);
+                if (trecho.equals("OR") || trecho.equals("|")) {
+                    fecharGrupo(grupos, grupoAtual);
+                    grupoAtual = new ArrayList<>();
+                    i = fim;
+                    continue;
+                }
+            }
+            List<String> termos = new ArrayList<>();
+            analisador.analisar(trecho, (termo, posicao) -> termos.add(termo));
+            if (!termos.isEmpty()) {
+                if (c == '"') {
+                    grupoAtual.add(termos);
+                } else {
+                    // Um trecho sem aspas como "guarda-chuva" vira termos independentes
+                    for (String termo : termos) {
+                        grupoAtual.add(Collections.singletonList(termo));
+                    }
+                }
+            }
+            i = fim;
+        }
+        fecharGrupo(grupos, grupoAtual);
+        return new ConsultaBusca(grupos);
+    }
+    
+    private static void fecharGrupo(List<List<List<String>>> grupos, List<List<String>> grupo) {
+        if (!grupo.isEmpty()) {
+            grupos.add(grupo);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.portal.search;
+
+import com.portal.model.NoticiaResumo;
+import java.time.LocalDateTime;
+
+/**
+ * Notícia mantida em memória pelo índice de busca.
+ * Guarda o resumo usado para listar resultados sem consultar o banco,
+ * além dos termos distintos de cada campo, usados para desindexar o documento,
+ * e da quantidade de termos de cada campo, usada na classificação por relevância.
+ */
+public final class DocumentoIndexado {
+    
+    private final long id;
+    private final NoticiaResumo resumo;
+    private final String[] termosTitulo;
+    private final String[] termosConteudo;
+    private final int comprimentoTitulo;
+    private final int comprimentoConteudo;
+    
+    DocumentoIndexado(long id, NoticiaResumo resumo, String[] termosTitulo, String[] termosConteudo,
+                      int comprimentoTitulo, int comprimentoConteudo) {
+        this.id = id;
+        this.resumo = resumo;
+        this.termosTitulo = termosTitulo;
+        this.termosConteudo = termosConteudo;
+        this.comprimentoTitulo = comprimentoTitulo;
+        this.comprimentoConteudo = comprimentoConteudo;
+    }
+    
+    public long getId() {
+        return id;
+    }
+    
+    public NoticiaResumo getResumo() {
+        return resumo;
+    }
+    
+    public LocalDateTime getDataPublicacao() {
+        return resumo.getDataPublicacao();
+    }
+    
+    String[] getTermos(Campo campo) {
+        return campo == Campo.TITULO ? termosTitulo : termosConteudo;
+    }
+    
+    /**
+     * Quantidade de termos (com repetições) do campo
+     */
+    int getComprimento(Campo campo) {
+        return campo == Campo.TITULO ? comprimentoTitulo : comprimentoConteudo;
+    }
+}
@@ -0,0 +1,260 @@
+package com.portal.search;
+
+import com.portal.dao.CursorNoticia;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Índice das notícias de cada autor, em memória.
+ * Por autor guarda dois arrays de primitivos paralelos (data de publicação codificada
+ * e id), ordenados das mais recentes para as mais antigas: uma página por cursor é uma
+ * busca binária e uma cópia de trecho, e o total e a última publicação saem direto dos
+ * arrays. Leituras não bloqueiam; escritas trocam os arrays do autor (copy-on-write).
+ */
+public class IndiceAutores {
+    
+    private static final long NANOS_POR_SEGUNDO = 1_000_000_000L;
+    
+    private final Map<Long, Publicacoes> porAutor;
+    private final Map<Long, Long> autorPorNoticia;
+    
+    public IndiceAutores() {
+        this(new ConcurrentHashMap<>(), new ConcurrentHashMap<>());
+    }
+    
+    private IndiceAutores(Map<Long, Publicacoes> porAutor, Map<Long, Long> autorPorNoticia) {
+        this.porAutor = porAutor;
+        this.autorPorNoticia = autorPorNoticia;
+    }
+    
+    /**
+     * Quantidade de autores com ao menos uma notícia
+     */
+    public int getTotalAutores() {
+        return porAutor.size();
+    }
+    
+    /**
+     * Inclui a notícia (ou a move, se o autor ou a data mudaram)
+     */
+    public synchronized void indexar(long id, long autorId, LocalDateTime dataPublicacao) {
+        remover(id);
+        porAutor.put(autorId, porAutor.getOrDefault(autorId, Publicacoes.VAZIA).com(chave(dataPublicacao), id));
+        autorPorNoticia.put(id, autorId);
+    }
+    
+    /**
+     * Remove a notícia, se indexada
+     */
+    public synchronized void remover(long id) {
+        Long autorId = autorPorNoticia.remove(id);
+        if (autorId == null) {
+            return;
+        }
+        Publicacoes restantes = porAutor.get(autorId).sem(id);
+        if (restantes.tamanho == 0) {
+            porAutor.remove(autorId);
+        } else {
+            porAutor.put(autorId, restantes);
+        }
+    }
+    
+    /**
+     * Ids das notícias do autor que vêm depois do cursor, das mais recentes para as mais antigas
+     * @param limite quantidade máxima de ids (peça um a mais para saber se há próxima página)
+     */
+    public long[] pagina(long autorId, Optional<CursorNoticia> cursor, int limite) {
+        Publicacoes publicacoes = porAutor.getOrDefault(autorId, Publicacoes.VAZIA);
+        int inicio = cursor
+            .map(c -> publicacoes.posicaoApos(chave(c.getDataPublicacao()), c.getId()))
+            .orElse(0);
+        int fim = Math.min(publicacoes.tamanho, inicio + Math.max(0, limite));
+        return inicio >= fim ? new long[0] : Arrays.copyOfRange(publicacoes.ids, inicio, fim);
+    }
+    
+    /**
+     * Quantidade de notícias do autor
+     */
+    public int contar(long autorId) {
+        return porAutor.getOrDefault(autorId, Publicacoes.VAZIA).tamanho;
+    }
+    
+    /**
+     * Data da publicação mais recente do autor
+     */
+    public Optional<LocalDateTime> ultimaPublicacao(long autorId) {
+        Publicacoes publicacoes = porAutor.getOrDefault(autorId, Publicacoes.VAZIA);
+        return publicacoes.tamanho == 0 ? Optional.empty() : Optional.of(data(publicacoes.chaves[0]));
+    }
+    
+    /**
+     * Codifica a data em nanossegundos desde a época (UTC), preservando a ordem e a precisão
+     */
+    private static long chave(LocalDateTime data) {
+        if (data == null) {
+            return Long.MIN_VALUE;
+        }
+        return data.toEpochSecond(ZoneOffset.UTC) * NANOS_POR_SEGUNDO + data.getNano();
+    }
+    
+    private static LocalDateTime data(long chave) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(chave, NANOS_POR_SEGUNDO),
+            (int) Math.floorMod(chave, NANOS_POR_SEGUNDO), ZoneOffset.UTC);
+    }
+    
+    /**
+     * Notícias de um autor, imutáveis: (chave, id) em ordem decrescente
+     */
+    private static final class Publicacoes {
+        
+        private static final Publicacoes VAZIA = new Publicacoes(new long[0], new long[0]);
+        
+        private final long[] chaves;
+        private final long[] ids;
+        private final int tamanho;
+        
+        private Publicacoes(long[] chaves, long[] ids) {
+            this.chaves = chaves;
+            this.ids = ids;
+            this.tamanho = ids.length;
+        }
+        
+        /**
+         * Primeira posição cujo par (chave, id) vem depois do informado na ordem decrescente
+         */
+        private int posicaoApos(long chave, long id) {
+            int baixo = 0;
+            int alto = tamanho;
+            while (baixo < alto) {
+                int meio = (baixo + alto) >>> 1;
+                if (chaves[meio] > chave || (chaves[meio] == chave && ids[meio] >= id)) {
+                    baixo = meio + 1;
+                } else {
+                    alto = meio;
+                }
+            }
+            return baixo;
+        }
+        
+        private Publicacoes com(long chave, long id) {
+            int posicao = posicaoApos(chave, id);
+            long[] novasChaves = new long[tamanho + 1];
+            long[] novosIds = new long[tamanho + 1];
+            System.arraycopy(chaves, 0, novasChaves, 0, posicao);
+            System.arraycopy(ids, 0, novosIds, 0, posicao);
+            novasChaves[posicao] = chave;
+            novosIds[posicao] = id;
+            System.arraycopy(chaves, posicao, novasChaves, posicao + 1, tamanho - posicao);
+            System.arraycopy(ids, posicao, novosIds, posicao + 1, tamanho - posicao);
+            return new Publicacoes(novasChaves, novosIds);
+        }
+        
+        private Publicacoes sem(long id) {
+            int posicao = -1;
+            for (int i = 0; i < tamanho && posicao < 0; i++) {
+                if (ids[i] == id) {
+                    posicao = i;
+                }
+            }
+            if (posicao < 0) {
+                return this;
+            }
+            long[] novasChaves = new long[tamanho - 1];
+            long[] novosIds = new long[tamanho - 1];
+            System.arraycopy(chaves, 0, novasChaves, 0, posicao);
+            System.arraycopy(ids, 0, novosIds, 0, posicao);
+            System.arraycopy(chaves, posicao + 1, novasChaves, posicao, tamanho - posicao - 1);
+            System.arraycopy(ids, posicao + 1, novosIds, posicao, tamanho - posicao - 1);
+            return new Publicacoes(novasChaves, novosIds);
+        }
+    }
+    
+    /**
+     * Monta o índice em lote: as notícias são acumuladas por autor e ordenadas uma única vez
+     */
+    public static class Construtor {
+        
+        private final Map<Long, Acumulador> acumuladores = new HashMap<>();
+        
+        public void adicionar(long id, long autorId, LocalDateTime dataPublicacao) {
+            acumuladores.computeIfAbsent(autorId, autor -> new Acumulador()).adicionar(chave(dataPublicacao), id);
+        }
+        
+        public IndiceAutores construir() {
+            Map<Long, Publicacoes> porAutor = new ConcurrentHashMap<>();
+            Map<Long, Long> autorPorNoticia = new ConcurrentHashMap<>();
+            acumuladores.forEach((autorId, acumulador) -> {
+                Publicacoes publicacoes = acumulador.ordenar();
+                porAutor.put(autorId, publicacoes);
+                for (long id : publicacoes.ids) {
+                    autorPorNoticia.put(id, autorId);
+                }
+            });
+            return new IndiceAutores(porAutor, autorPorNoticia);
+        }
+    }
+    
+    private static final class Acumulador {
+        
+        private long[] chaves = new long[8];
+        private long[] ids = new long[8];
+        private int tamanho;
+        
+        private void adicionar(long chave, long id) {
+            if (tamanho == ids.length) {
+                chaves = Arrays.copyOf(chaves, tamanho * 2);
+                ids = Arrays.copyOf(ids, tamanho * 2);
+            }
+            chaves[tamanho] = chave;
+            ids[tamanho] = id;
+            tamanho++;
+        }
+        
+        /**
+         * Ordena os pares por (chave, id) decrescentes com um merge sort de posições,
+         * sem criar objetos por notícia
+         */
+        private Publicacoes ordenar() {
+            int[] posicoes = new int[tamanho];
+            for (int i = 0; i < tamanho; i++) {
+                posicoes[i] = i;
+            }
+            int[] auxiliar = new int[tamanho];
+            for (int largura = 1; largura < tamanho; largura *= 2) {
+                for (int inicio = 0; inicio < tamanho - largura; inicio += 2 * largura) {
+                    intercalar(posicoes, auxiliar, inicio, inicio + largura, Math.min(inicio + 2 * largura, tamanho));
+                }
+            }
+            long[] chavesOrdenadas = new long[tamanho];
+            long[] idsOrdenados = new long[tamanho];
+            for (int i = 0; i < tamanho; i++) {
+                chavesOrdenadas[i] = chaves[posicoes[i]];
+                idsOrdenados[i] = ids[posicoes[i]];
+            }
+            return new Publicacoes(chavesOrdenadas, idsOrdenados);
+        }
+        
+        private void intercalar(int[] posicoes, int[] auxiliar, int inicio, int meio, int fim) {
+            System.arraycopy(posicoes, inicio, auxiliar, inicio, fim - inicio);
+            int esquerda = inicio;
+            int direita = meio;
+            for (int i = inicio; i < fim; i++) {
+                if (direita >= fim || (esquerda < meio && antes(auxiliar[esquerda], auxiliar[direita]))) {
+                    posicoes[i] = auxiliar[esquerda++];
+                } else {
+                    posicoes[i] = auxiliar[direita++];
+                }
+            }
+        }
+        
+        private boolean antes(int a, int b) {
+            return chaves[a] > chaves[b] || (chaves[a] == chaves[b] && ids[a] >= ids[b]);
+        }
+    }
+}
@@ -0,0 +1,438 @@
+package com.portal.search;
+
+import com.portal.model.NoticiaResumo;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.Collectors;
+
+/**
+ * Índice invertido em memória dos campos título e conteúdo das notícias.
+ * Cada termo aponta para uma {@link ListaPostagem} comprimida com ids e posições.
+ * Leituras não bloqueiam: as listas são imutáveis e substituídas atomicamente
+ * a cada escrita; escritas são serializadas.
+ */
+public class IndiceInvertido {
+    
+    private static final Comparator<DocumentoIndexado> MAIS_RECENTES_PRIMEIRO =
+        Comparator.comparing(DocumentoIndexado::getDataPublicacao,
+                Comparator.nullsLast(Comparator.<LocalDateTime>reverseOrder()))
+            .thenComparing(Comparator.comparingLong(DocumentoIndexado::getId).reversed());
+    
+    /** Parâmetros usuais do BM25: saturação da frequência e normalização pelo comprimento */
+    private static final double BM25_K1 = 1.2;
+    private static final double BM25_B = 0.75;
+    
+    /** Ordem do heap de resultados: o pior no topo; empate favorece o mais recente */
+    private static final Comparator<Pontuado> PIOR_PRIMEIRO =
+        Comparator.<Pontuado>comparingDouble(p -> p.pontuacao)
+            .thenComparing(p -> p.documento, MAIS_RECENTES_PRIMEIRO.reversed());
+    
+    private final Analisador analisador;
+    private final Map<Campo, ConcurrentHashMap<String, ListaPostagem>> postagens;
+    private final ConcurrentHashMap<Long, DocumentoIndexado> documentos;
+    
+    /** Soma dos comprimentos de cada campo em todos os documentos, para o comprimento médio do BM25 */
+    private final AtomicLongArray somaComprimentos;
+    
+    public IndiceInvertido(Analisador analisador) {
+        this(analisador, new EnumMap<>(Campo.class), new ConcurrentHashMap<>(), new long[Campo.values().length]);
+        for (Campo campo : Campo.values()) {
+            postagens.put(campo, new ConcurrentHashMap<>());
+        }
+    }
+    
+    private IndiceInvertido(Analisador analisador, Map<Campo, ConcurrentHashMap<String, ListaPostagem>> postagens,
+                            ConcurrentHashMap<Long, DocumentoIndexado> documentos, long[] somaComprimentos) {
+        this.analisador = analisador;
+        this.postagens = postagens;
+        this.documentos = documentos;
+        this.somaComprimentos = new AtomicLongArray(somaComprimentos);
+    }
+    
+    public Analisador getAnalisador() {
+        return analisador;
+    }
+    
+    /**
+     * Quantidade de documentos indexados
+     */
+    public int getTotalDocumentos() {
+        return documentos.size();
+    }
+    
+    /**
+     * Quantidade de termos distintos no campo
+     */
+    public int getTotalTermos(Campo campo) {
+        return postagens.get(campo).size();
+    }
+    
+    public Optional<DocumentoIndexado> documento(long id) {
+        return Optional.ofNullable(documentos.get(id));
+    }
+    
+    /**
+     * Indexa (ou reindexa) um documento
+     */
+    public synchronized void indexar(long id, String titulo, String conteudo, LocalDateTime dataPublicacao,
+                                     Long autorId, String autorNome) {
+        remover(id);
+        Map<String, Posicoes> termosTitulo = analisarCampo(analisador, titulo);
+        Map<String, Posicoes> termosConteudo = analisarCampo(analisador, conteudo);
+        
+        incluirPostagens(Campo.TITULO, id, termosTitulo);
+        incluirPostagens(Campo.CONTEUDO, id, termosConteudo);
+        documentos.put(id, new DocumentoIndexado(id,
+            new NoticiaResumo(id, titulo, conteudo, autorId, autorNome, dataPublicacao),
+            termosTitulo.keySet().toArray(new String[0]), termosConteudo.keySet().toArray(new String[0]),
+            comprimento(termosTitulo), comprimento(termosConteudo)));
+        somarComprimentos(documentos.get(id), 1);
+    }
+    
+    /**
+     * Remove um documento do índice, se existir
+     */
+    public synchronized void remover(long id) {
+        DocumentoIndexado existente = documentos.remove(id);
+        if (existente == null) {
+            return;
+        }
+        somarComprimentos(existente, -1);
+        for (Campo campo : Campo.values()) {
+            ConcurrentHashMap<String, ListaPostagem> listas = postagens.get(campo);
+            for (String termo : existente.getTermos(campo)) {
+                listas.computeIfPresent(termo, (t, lista) -> lista.semDocumento(id));
+            }
+        }
+    }
+    
+    /**
+     * Executa a consulta nos campos informados.
+     * Um termo casa se ocorrer em qualquer dos campos; uma frase, se ocorrer inteira em um deles.
+     * @return ids dos documentos encontrados, em ordem crescente
+     */
+    public long[] buscar(ConsultaBusca consulta, Set<Campo> campos) {
+        long[] resultado = new long[0];
+        for (List<List<String>> grupo : consulta.getGrupos()) {
+            long[] doGrupo = null;
+            for (List<String> clausula : grupo) {
+                long[] daClausula = new long[0];
+                for (Campo campo : campos) {
+                    daClausula = Conjuntos.uniao(daClausula, buscarClausula(campo, clausula));
+                }
+                doGrupo = doGrupo == null ? daClausula : Conjuntos.intersecao(doGrupo, daClausula);
+                if (doGrupo.length == 0) {
+                    break;
+                }
+            }
+            resultado = Conjuntos.uniao(resultado, doGrupo == null ? new long[0] : doGrupo);
+        }
+        return resultado;
+    }
+    
+    /**
+     * Classifica os documentos por relevância (BM25), somando a pontuação de cada campo
+     * multiplicada pelo seu peso. Todos os termos da consulta contam, inclusive os de frases
+     * e de grupos OR, e basta um deles para o documento ser candidato. As listas dos termos
+     * são percorridas em paralelo (document-at-a-time) e só os {@code limite} melhores
+     * documentos são mantidos, em um heap limitado.
+     * @return documentos do mais relevante para o menos relevante
+     */
+    public List<DocumentoIndexado> classificar(ConsultaBusca consulta, Map<Campo, Double> pesos, int limite) {
+        List<Campo> campos = new ArrayList<>();
+        List<ListaPostagem.Leitor> leitores = new ArrayList<>();
+        List<Double> fatores = new ArrayList<>();
+        double total = documentos.size();
+        Set<String> termos = consulta.getGrupos().stream()
+            .flatMap(List::stream)
+            .flatMap(List::stream)
+            .collect(Collectors.toCollection(LinkedHashSet::new));
+        for (Campo campo : pesos.keySet()) {
+            for (String termo : termos) {
+                ListaPostagem lista = postagens.get(campo).get(termo);
+                if (lista != null) {
+                    ListaPostagem.Leitor leitor = lista.leitor();
+                    if (leitor.proximo()) {
+                        campos.add(campo);
+                        leitores.add(leitor);
+                        double df = lista.getDocumentos();
+                        fatores.add(pesos.get(campo) * Math.log(1 + (total - df + 0.5) / (df + 0.5)));
+                    }
+                }
+            }
+        }
+        if (leitores.isEmpty() || limite <= 0) {
+            return Collections.emptyList();
+        }
+        
+        double[] mediaComprimento = new double[Campo.values().length];
+        for (Campo campo : Campo.values()) {
+            mediaComprimento[campo.ordinal()] = Math.max(1.0, somaComprimentos.get(campo.ordinal()) / Math.max(1.0, total));
+        }
+        int n = leitores.size();
+        ListaPostagem.Leitor[] leitor = leitores.toArray(new ListaPostagem.Leitor[n]);
+        Campo[] campo = campos.toArray(new Campo[n]);
+        double[] fator = new double[n];
+        boolean[] ativos = new boolean[n];
+        for (int i = 0; i < n; i++) {
+            fator[i] = fatores.get(i);
+            ativos[i] = true;
+        }
+        PriorityQueue<Pontuado> melhores = new PriorityQueue<>(limite + 1, PIOR_PRIMEIRO);
+        while (true) {
+            long documento = Long.MAX_VALUE;
+            for (int i = 0; i < n; i++) {
+                if (ativos[i]) {
+                    documento = Math.min(documento, leitor[i].documento());
+                }
+            }
+            if (documento == Long.MAX_VALUE) {
+                break;
+            }
+            DocumentoIndexado indexado = documentos.get(documento);
+            double pontuacao = 0;
+            for (int i = 0; i < n; i++) {
+                if (!ativos[i] || leitor[i].documento() != documento) {
+                    continue;
+                }
+                if (indexado != null) {
+                    double tf = leitor[i].frequencia();
+                    double normalizacao = 1 - BM25_B
+                        + BM25_B * indexado.getComprimento(campo[i]) / mediaComprimento[campo[i].ordinal()];
+                    pontuacao += fator[i] * tf * (BM25_K1 + 1) / (tf + BM25_K1 * normalizacao);
+                }
+                ativos[i] = leitor[i].proximo();
+            }
+            if (indexado == null) {
+                continue;
+            }
+            if (melhores.size() < limite) {
+                melhores.add(new Pontuado(indexado, pontuacao));
+            } else if (pontuacao > melhores.peek().pontuacao) {
+                melhores.poll();
+                melhores.add(new Pontuado(indexado, pontuacao));
+            }
+        }
+        
+        List<DocumentoIndexado> resultado = new ArrayList<>(melhores.size());
+        while (!melhores.isEmpty()) {
+            resultado.add(melhores.poll().documento);
+        }
+        Collections.reverse(resultado);
+        return resultado;
+    }
+    
+    /**
+     * Converte ids em documentos, ordenados do mais recente para o mais antigo
+     */
+    public List<DocumentoIndexado> documentosPorData(long[] ids) {
+        List<DocumentoIndexado> lista = new ArrayList<>(ids.length);
+        for (long id : ids) {
+            DocumentoIndexado documento = documentos.get(id);
+            if (documento != null) {
+                lista.add(documento);
+            }
+        }
+        lista.sort(MAIS_RECENTES_PRIMEIRO);
+        return lista;
+    }
+    
+    private long[] buscarClausula(Campo campo, List<String> termos) {
+        ConcurrentHashMap<String, ListaPostagem> listas = postagens.get(campo);
+        if (termos.size() == 1) {
+            ListaPostagem lista = listas.get(termos.get(0));
+            return lista == null ? new long[0] : lista.ids();
+        }
+        ListaPostagem.Leitor[] leitores = new ListaPostagem.Leitor[termos.size()];
+        for (int i = 0; i < leitores.length; i++) {
+            ListaPostagem lista = listas.get(termos.get(i));
+            if (lista == null) {
+                return new long[0];
+            }
+            leitores[i] = lista.leitor();
+        }
+        return buscarFrase(leitores);
+    }
+    
+    /**
+     * Percorre as listas dos termos da frase em paralelo (document-at-a-time)
+     * e verifica, nos documentos comuns, se as posições são consecutivas
+     */
+    private static long[] buscarFrase(ListaPostagem.Leitor[] leitores) {
+        long[] encontrados = new long[16];
+        int total = 0;
+        for (ListaPostagem.Leitor leitor : leitores) {
+            if (!leitor.proximo()) {
+                return new long[0];
+            }
+        }
+        while (true) {
+            long maior = Long.MIN_VALUE;
+            for (ListaPostagem.Leitor leitor : leitores) {
+                maior = Math.max(maior, leitor.documento());
+            }
+            boolean alinhados = true;
+            for (ListaPostagem.Leitor leitor : leitores) {
+                while (leitor.documento() < maior) {
+                    if (!leitor.proximo()) {
+                        return Arrays.copyOf(encontrados, total);
+                    }
+                }
+                alinhados &= leitor.documento() == maior;
+            }
+            if (!alinhados) {
+                continue;
+            }
+            if (contemFrase(leitores)) {
+                if (total == encontrados.length) {
+                    encontrados = Arrays.copyOf(encontrados, total * 2);
+                }
+                encontrados[total++] = maior;
+            }
+            if (!leitores[0].proximo()) {
+                return Arrays.copyOf(encontrados, total);
+            }
+        }
+    }
+    
+    private static boolean contemFrase(ListaPostagem.Leitor[] leitores) {
+        ListaPostagem.Leitor primeiro = leitores[0];
+        for (int p = 0; p < primeiro.frequencia(); p++) {
+            int inicio = primeiro.posicoes()[p];
+            boolean casou = true;
+            for (int t = 1; t < leitores.length && casou; t++) {
+                casou = Arrays.binarySearch(leitores[t].posicoes(), 0, leitores[t].frequencia(), inicio + t) >= 0;
+            }
+            if (casou) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    private void incluirPostagens(Campo campo, long id, Map<String, Posicoes> termos) {
+        ConcurrentHashMap<String, ListaPostagem> listas = postagens.get(campo);
+        termos.forEach((termo, posicoes) -> listas.compute(termo, (t, lista) -> lista == null
+            ? novaLista(id, posicoes)
+            : lista.comDocumento(id, posicoes.valores, posicoes.tamanho)));
+    }
+    
+    private static ListaPostagem novaLista(long id, Posicoes posicoes) {
+        ListaPostagem.Construtor construtor = new ListaPostagem.Construtor();
+        construtor.adicionar(id, posicoes.valores, posicoes.tamanho);
+        return construtor.construir();
+    }
+    
+    private void somarComprimentos(DocumentoIndexado documento, int sinal) {
+        for (Campo campo : Campo.values()) {
+            somaComprimentos.addAndGet(campo.ordinal(), sinal * documento.getComprimento(campo));
+        }
+    }
+    
+    private static int comprimento(Map<String, Posicoes> termos) {
+        int comprimento = 0;
+        for (Posicoes posicoes : termos.values()) {
+            comprimento += posicoes.tamanho;
+        }
+        return comprimento;
+    }
+    
+    private static Map<String, Posicoes> analisarCampo(Analisador analisador, String texto) {
+        Map<String, Posicoes> termos = new HashMap<>();
+        analisador.analisar(texto, (termo, posicao) -> termos.computeIfAbsent(termo, t -> new Posicoes()).adicionar(posicao));
+        return termos;
+    }
+    
+    /**
+     * Constrói um índice completo a partir de documentos entregues em ordem crescente de id.
+     * Cada lista de postagem é escrita uma única vez, sem recompressões.
+     */
+    public static class Construtor {
+        
+        private final Analisador analisador;
+        private final Map<Campo, Map<String, ListaPostagem.Construtor>> construtores = new EnumMap<>(Campo.class);
+        private final ConcurrentHashMap<Long, DocumentoIndexado> documentos = new ConcurrentHashMap<>();
+        private final long[] somaComprimentos = new long[Campo.values().length];
+        
+        public Construtor(Analisador analisador) {
+            this.analisador = analisador;
+            for (Campo campo : Campo.values()) {
+                construtores.put(campo, new HashMap<>());
+            }
+        }
+        
+        public void adicionar(long id, String titulo, String conteudo, LocalDateTime dataPublicacao,
+                              Long autorId, String autorNome) {
+            Map<String, Posicoes> termosTitulo = analisarCampo(analisador, titulo);
+            Map<String, Posicoes> termosConteudo = analisarCampo(analisador, conteudo);
+            adicionarPostagens(Campo.TITULO, id, termosTitulo);
+            adicionarPostagens(Campo.CONTEUDO, id, termosConteudo);
+            documentos.put(id, new DocumentoIndexado(id,
+                new NoticiaResumo(id, titulo, conteudo, autorId, autorNome, dataPublicacao),
+                termosTitulo.keySet().toArray(new String[0]), termosConteudo.keySet().toArray(new String[0]),
+                comprimento(termosTitulo), comprimento(termosConteudo)));
+            somaComprimentos[Campo.TITULO.ordinal()] += comprimento(termosTitulo);
+            somaComprimentos[Campo.CONTEUDO.ordinal()] += comprimento(termosConteudo);
+        }
+        
+        public IndiceInvertido construir() {
+            Map<Campo, ConcurrentHashMap<String, ListaPostagem>> postagens = new EnumMap<>(Campo.class);
+            construtores.forEach((campo, porTermo) -> {
+                ConcurrentHashMap<String, ListaPostagem> listas = new ConcurrentHashMap<>(porTermo.size() * 4 / 3 + 1);
+                porTermo.forEach((termo, construtor) -> listas.put(termo, construtor.construir()));
+                postagens.put(campo, listas);
+            });
+            return new IndiceInvertido(analisador, postagens, documentos, somaComprimentos);
+        }
+        
+        private void adicionarPostagens(Campo campo, long id, Map<String, Posicoes> termos) {
+            Map<String, ListaPostagem.Construtor> porTermo = construtores.get(campo);
+            termos.forEach((termo, posicoes) -> porTermo.computeIfAbsent(termo, t -> new ListaPostagem.Construtor())
+                .adicionar(id, posicoes.valores, posicoes.tamanho));
+        }
+    }
+    
+    /**
+     * Documento com a sua pontuação, mantido no heap dos melhores resultados
+     */
+    private static final class Pontuado {
+        
+        private final DocumentoIndexado documento;
+        private final double pontuacao;
+        
+        Pontuado(DocumentoIndexado documento, double pontuacao) {
+            this.documento = documento;
+            this.pontuacao = pontuacao;
+        }
+    }
+    
+    /**
+     * Posições de um termo em um campo, em array primitivo crescente
+     */
+    private static final class Posicoes {
+        
+        private int[] valores = new int[2];
+        private int tamanho;
+        
+        void adicionar(int posicao) {
+            if (tamanho == valores.length) {
+                valores = Arrays.copyOf(valores, tamanho * 2);
+            }
+            valores[tamanho++] = posicao;
+        }
+    }
+}
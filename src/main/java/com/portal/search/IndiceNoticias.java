@@ -0,0 +1,371 @@
+package com.portal.search;
+
+import com.portal.dao.CursorNoticia;
+import com.portal.dao.NoticiaDAO;
+import com.portal.dao.Pagina;
+import com.portal.model.Noticia;
+import com.portal.model.NoticiaResumo;
+import com.portal.model.Usuario;
+import com.portal.service.NoticiaAlterada;
+import com.portal.service.NoticiasImportadas;
+import com.portal.service.UsuarioAlterado;
+
+import javax.annotation.Resource;
+import javax.enterprise.concurrent.ManagedExecutorService;
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.context.Initialized;
+import javax.enterprise.event.Observes;
+import javax.inject.Inject;
+import javax.persistence.Persistence;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Índice de busca textual das notícias, mantido em memória, junto com o índice de
+ * sugestões e o de notícias por autor.
+ * É construído em segundo plano na inicialização da aplicação e atualizado
+ * incrementalmente a cada {@link NoticiaAlterada}. Enquanto não estiver pronto,
+ * as consultas retornam vazio e o chamador deve recorrer ao banco.
+ */
+@ApplicationScoped
+public class IndiceNoticias {
+    
+    private static final Logger LOGGER = Logger.getLogger(IndiceNoticias.class.getName());
+    private static final int TAMANHO_LOTE = 500;
+    
+    /** Pesos dos campos na classificação por relevância: o título vale mais que o corpo */
+    private static final Map<Campo, Double> PESOS_RELEVANCIA;
+    
+    static {
+        Map<Campo, Double> pesos = new EnumMap<>(Campo.class);
+        pesos.put(Campo.TITULO, 3.0);
+        pesos.put(Campo.CONTEUDO, 1.0);
+        PESOS_RELEVANCIA = Collections.unmodifiableMap(pesos);
+    }
+    
+    @Inject
+    private NoticiaDAO noticiaDAO;
+    
+    @Resource
+    private ManagedExecutorService executor;
+    
+    @Inject
+    private CacheBuscas cacheBuscas;
+    
+    private final Analisador analisador = new AnalisadorPortugues();
+    private final Map<Long, String> nomesAutores = new ConcurrentHashMap<>();
+    private final List<NoticiaAlterada> pendentes = new ArrayList<>();
+    private final List<UsuarioAlterado> usuariosPendentes = new ArrayList<>();
+    private volatile IndiceInvertido indice;
+    private volatile IndiceSugestoes sugestoes;
+    private volatile IndiceAutores autores;
+    private boolean construindo;
+    
+    /**
+     * Versão do conteúdo indexado, avançada depois de cada escrita aplicada ao índice
+     * (e da troca por um índice reconstruído). Resultados guardados no {@link CacheBuscas}
+     * valem apenas para a versão em que foram calculados.
+     */
+    private final AtomicLong versao = new AtomicLong();
+    
+    /**
+     * Dispara a construção do índice quando a aplicação sobe
+     */
+    void iniciar(@Observes @Initialized(ApplicationScoped.class) Object inicio) {
+        reconstruirEmSegundoPlano();
+    }
+    
+    /**
+     * Importações em lote não geram eventos por notícia; o índice é refeito por inteiro,
+     * e o atual continua respondendo até o novo ficar pronto
+     */
+    void aoImportarNoticias(@Observes NoticiasImportadas evento) {
+        reconstruirEmSegundoPlano();
+    }
+    
+    private void reconstruirEmSegundoPlano() {
+        if (executor != null) {
+            executor.submit(this::reconstruir);
+        } else {
+            reconstruir();
+        }
+    }
+    
+    /**
+     * Reconstrói o índice inteiro a partir do banco, em lotes.
+     * Alterações recebidas durante a construção são aplicadas ao final.
+     */
+    public void reconstruir() {
+        synchronized (this) {
+            if (construindo) {
+                return;
+            }
+            construindo = true;
+        }
+        try {
+            IndiceInvertido.Construtor construtor = new IndiceInvertido.Construtor(analisador);
+            IndiceSugestoes.Construtor construtorSugestoes = new IndiceSugestoes.Construtor(sugestoes);
+            IndiceAutores.Construtor construtorAutores = new IndiceAutores.Construtor();
+            long ultimoId = 0;
+            List<Noticia> lote;
+            do {
+                lote = noticiaDAO.findLoteComAutor(ultimoId, TAMANHO_LOTE);
+                for (Noticia noticia : lote) {
+                    Usuario autor = noticia.getAutor();
+                    nomesAutores.put(autor.getId(), autor.getNome());
+                    construtor.adicionar(noticia.getId(), noticia.getTitulo(), noticia.getConteudo(),
+                        noticia.getDataPublicacao(), autor.getId(), autor.getNome());
+                    construtorSugestoes.adicionar(noticia.getId(), noticia.getTitulo(), noticia.getDataPublicacao());
+                    construtorAutores.adicionar(noticia.getId(), autor.getId(), noticia.getDataPublicacao());
+                    ultimoId = noticia.getId();
+                }
+            } while (lote.size() == TAMANHO_LOTE);
+            
+            IndiceInvertido novo = construtor.construir();
+            IndiceSugestoes novasSugestoes = construtorSugestoes.construir();
+            IndiceAutores novosAutores = construtorAutores.construir();
+            synchronized (this) {
+                pendentes.forEach(evento -> aplicar(novo, novasSugestoes, novosAutores, evento));
+                pendentes.clear();
+                // Depois das notícias: uma exclusão de usuário remove também as que ele publicou durante a construção
+                usuariosPendentes.forEach(evento -> aplicar(novo, novasSugestoes, novosAutores, evento));
+                usuariosPendentes.clear();
+                sugestoes = novasSugestoes;
+                autores = novosAutores;
+                indice = novo;
+                construindo = false;
+            }
+            versao.incrementAndGet();
+            LOGGER.log(Level.INFO, "Índice de busca construído com {0} notícias", novo.getTotalDocumentos());
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                pendentes.clear();
+                usuariosPendentes.clear();
+                construindo = false;
+            }
+            LOGGER.log(Level.SEVERE, "Erro ao construir o índice de busca", e);
+        }
+    }
+    
+    /**
+     * Mantém o índice atualizado a cada escrita de notícia
+     */
+    void aoAlterarNoticia(@Observes NoticiaAlterada evento) {
+        synchronized (this) {
+            if (construindo) {
+                pendentes.add(evento);
+                return;
+            }
+        }
+        IndiceInvertido atual = indice;
+        if (atual != null) {
+            aplicar(atual, sugestoes, autores, evento);
+            versao.incrementAndGet();
+        }
+    }
+    
+    /**
+     * A exclusão de um usuário remove em cascata as notícias dele sem gerar um
+     * {@link NoticiaAlterada} por notícia, e a alteração pode trocar o nome exibido nos
+     * resumos: as notícias do autor são retiradas do índice ou reindexadas do banco.
+     * A nova versão invalida as buscas guardadas no {@link CacheBuscas}.
+     */
+    void aoAlterarUsuario(@Observes UsuarioAlterado evento) {
+        synchronized (this) {
+            if (construindo) {
+                usuariosPendentes.add(evento);
+                return;
+            }
+        }
+        IndiceInvertido atual = indice;
+        if (atual != null) {
+            aplicar(atual, sugestoes, autores, evento);
+            versao.incrementAndGet();
+        }
+    }
+    
+    /**
+     * Indica se o índice já pode responder consultas
+     */
+    public boolean isPronto() {
+        return indice != null;
+    }
+    
+    /**
+     * Busca por palavras-chave no título e no conteúdo
+     */
+    public Optional<List<NoticiaResumo>> buscarPorPalavrasChave(String consulta) {
+        return buscar("palavras", consulta, EnumSet.of(Campo.TITULO, Campo.CONTEUDO));
+    }
+    
+    /**
+     * Busca por termos apenas no título
+     */
+    public Optional<List<NoticiaResumo>> buscarPorTitulo(String consulta) {
+        return buscar("titulo", consulta, EnumSet.of(Campo.TITULO));
+    }
+    
+    /**
+     * Busca por palavras-chave no título e no conteúdo, classificada por relevância (BM25)
+     * com peso maior para o título
+     */
+    public Optional<List<NoticiaResumo>> buscarPorRelevancia(String consulta, int limite) {
+        long versaoAtual = versao.get();
+        IndiceInvertido atual = indice;
+        if (atual == null) {
+            return Optional.empty();
+        }
+        long[] ids = cacheBuscas.obter(CacheBuscas.chave("relevancia", limite, consulta), versaoAtual,
+            () -> atual.classificar(ConsultaBusca.interpretar(consulta, analisador), PESOS_RELEVANCIA, limite).stream()
+                .mapToLong(DocumentoIndexado::getId)
+                .toArray());
+        return Optional.of(resumos(atual, ids));
+    }
+    
+    /**
+     * Títulos que têm alguma palavra começando pelo prefixo, para o autocompletar
+     */
+    public Optional<List<Sugestao>> sugerir(String prefixo, int limite) {
+        return Optional.ofNullable(sugestoes).map(s -> s.sugerir(prefixo, limite));
+    }
+    
+    /**
+     * Conta um acesso à notícia no peso das sugestões
+     */
+    public void registrarAcesso(long id) {
+        Optional.ofNullable(sugestoes).ifPresent(s -> s.registrarAcesso(id));
+    }
+    
+    /**
+     * Página das notícias de um autor, das mais recentes para as mais antigas, a partir do cursor
+     */
+    public Optional<Pagina<NoticiaResumo>> listarPorAutor(long autorId, Optional<CursorNoticia> cursor, int tamanho) {
+        IndiceInvertido atual = indice;
+        IndiceAutores atuais = autores;
+        if (atual == null || atuais == null) {
+            return Optional.empty();
+        }
+        // Um id a mais indica se existe próxima página
+        List<NoticiaResumo> resultado = resumos(atual, atuais.pagina(autorId, cursor, tamanho + 1));
+        if (resultado.size() <= tamanho) {
+            return Optional.of(new Pagina<>(resultado, null));
+        }
+        List<NoticiaResumo> itens = new ArrayList<>(resultado.subList(0, tamanho));
+        NoticiaResumo ultimo = itens.get(tamanho - 1);
+        return Optional.of(new Pagina<>(itens,
+            new CursorNoticia(ultimo.getDataPublicacao(), ultimo.getId()).codificar()));
+    }
+    
+    /**
+     * Quantidade de notícias do autor
+     */
+    public Optional<Integer> contarPorAutor(long autorId) {
+        return Optional.ofNullable(autores).map(a -> a.contar(autorId));
+    }
+    
+    /**
+     * Data da notícia mais recente do autor; vazio também quando o autor não tem notícias
+     */
+    public Optional<LocalDateTime> ultimaPublicacaoPorAutor(long autorId) {
+        return Optional.ofNullable(autores).flatMap(a -> a.ultimaPublicacao(autorId));
+    }
+    
+    /**
+     * A versão é lida antes do índice: um resultado calculado sobre um índice que mudou
+     * no meio do caminho fica guardado com a versão anterior e nunca é reaproveitado
+     */
+    private Optional<List<NoticiaResumo>> buscar(String tipo, String consulta, Set<Campo> campos) {
+        long versaoAtual = versao.get();
+        IndiceInvertido atual = indice;
+        if (atual == null) {
+            return Optional.empty();
+        }
+        long[] ids = cacheBuscas.obter(CacheBuscas.chave(tipo, 0, consulta), versaoAtual, () -> {
+            ConsultaBusca interpretada = ConsultaBusca.interpretar(consulta, analisador);
+            if (interpretada.isVazia()) {
+                return new long[0];
+            }
+            return atual.documentosPorData(atual.buscar(interpretada, campos)).stream()
+                .mapToLong(DocumentoIndexado::getId)
+                .toArray();
+        });
+        return Optional.of(resumos(atual, ids));
+    }
+    
+    private static List<NoticiaResumo> resumos(IndiceInvertido indice, long[] ids) {
+        List<NoticiaResumo> resumos = new ArrayList<>(ids.length);
+        for (long id : ids) {
+            indice.documento(id).map(DocumentoIndexado::getResumo).ifPresent(resumos::add);
+        }
+        return resumos;
+    }
+    
+    private void aplicar(IndiceInvertido alvo, IndiceSugestoes alvoSugestoes, IndiceAutores alvoAutores,
+            NoticiaAlterada evento) {
+        if (evento.isExclusao()) {
+            alvo.remover(evento.getId());
+            alvoSugestoes.remover(evento.getId());
+            alvoAutores.remover(evento.getId());
+            return;
+        }
+        evento.getNoticia().ifPresent(noticia -> {
+            Long autorId = noticia.getAutor() != null ? noticia.getAutor().getId() : null;
+            alvo.indexar(noticia.getId(), noticia.getTitulo(), noticia.getConteudo(),
+                noticia.getDataPublicacao(), autorId, nomeAutor(noticia.getAutor()));
+            alvoSugestoes.indexar(noticia.getId(), noticia.getTitulo(), noticia.getDataPublicacao());
+            if (autorId != null) {
+                alvoAutores.indexar(noticia.getId(), autorId, noticia.getDataPublicacao());
+            }
+        });
+    }
+    
+    private void aplicar(IndiceInvertido alvo, IndiceSugestoes alvoSugestoes, IndiceAutores alvoAutores,
+            UsuarioAlterado evento) {
+        long autorId = evento.getId();
+        if (evento.isExclusao()) {
+            for (long id : alvoAutores.pagina(autorId, Optional.empty(), Integer.MAX_VALUE)) {
+                alvo.remover(id);
+                alvoSugestoes.remover(id);
+                alvoAutores.remover(id);
+            }
+            nomesAutores.remove(autorId);
+            return;
+        }
+        long ultimoId = 0;
+        List<Noticia> lote;
+        do {
+            lote = noticiaDAO.findLoteComAutorByAutor(autorId, ultimoId, TAMANHO_LOTE);
+            for (Noticia noticia : lote) {
+                alvo.indexar(noticia.getId(), noticia.getTitulo(), noticia.getConteudo(),
+                    noticia.getDataPublicacao(), autorId, nomeAutor(noticia.getAutor()));
+                ultimoId = noticia.getId();
+            }
+        } while (lote.size() == TAMANHO_LOTE);
+    }
+    
+    /**
+     * Obtém o nome do autor sem disparar carga preguiçosa: se o proxy não estiver
+     * inicializado, usa o nome já conhecido pelo índice
+     */
+    private String nomeAutor(Usuario autor) {
+        if (autor == null) {
+            return null;
+        }
+        if (Persistence.getPersistenceUtil().isLoaded(autor)) {
+            nomesAutores.put(autor.getId(), autor.getNome());
+            return autor.getNome();
+        }
+        return nomesAutores.get(autor.getId());
+    }
+}
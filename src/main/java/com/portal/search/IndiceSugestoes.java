@@ -0,0 +1,354 @@
+package com.portal.search;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Índice de prefixos dos títulos para o autocompletar.
+ * Cada título gera uma chave por palavra (o título normalizado a partir dela),
+ * guardadas em um array ordenado: um prefixo é respondido com uma busca binária
+ * e a varredura do intervalo que começa com ele. Leituras não bloqueiam; escritas
+ * montam uma nova tabela e a substituem (copy-on-write).
+ */
+public class IndiceSugestoes {
+    
+    /** Prefixos menores que este tamanho não são respondidos */
+    public static final int TAMANHO_MINIMO_PREFIXO = 2;
+    
+    /** Chaves são cortadas neste tamanho; prefixos maiores são cortados da mesma forma */
+    private static final int TAMANHO_MAXIMO_CHAVE = 48;
+    
+    /** Maior quantidade de sugestões devolvidas por consulta */
+    public static final int LIMITE_MAXIMO = 20;
+    
+    /** Palavras menores que este tamanho não iniciam chaves (artigos e preposições curtas) */
+    private static final int TAMANHO_MINIMO_PALAVRA = 2;
+    
+    /**
+     * Intervalos maiores que este (prefixos curtos e comuns) têm o resultado memorizado
+     * por alguns segundos, em vez de varridos a cada tecla
+     */
+    private static final int INTERVALO_MEMORIZADO = 2048;
+    private static final long VALIDADE_MEMORIA_NANOS = TimeUnit.SECONDS.toNanos(5);
+    
+    private static final Comparator<Sugestao> MAIS_POPULARES_PRIMEIRO =
+        Comparator.comparingLong(Sugestao::getPeso).reversed()
+            .thenComparing(Sugestao::getDataPublicacao, Comparator.nullsLast(Comparator.<LocalDateTime>reverseOrder()))
+            .thenComparing(Comparator.comparingLong(Sugestao::getId).reversed());
+    
+    private final Map<Long, Sugestao> porId;
+    private volatile Tabela tabela;
+    
+    public IndiceSugestoes() {
+        this(new ConcurrentHashMap<>(), new Tabela(new String[0], new Sugestao[0]));
+    }
+    
+    private IndiceSugestoes(Map<Long, Sugestao> porId, Tabela tabela) {
+        this.porId = porId;
+        this.tabela = tabela;
+    }
+    
+    /**
+     * Quantidade de chaves (uma por palavra indexada)
+     */
+    public int getTotalChaves() {
+        return tabela.chaves.length;
+    }
+    
+    /**
+     * Títulos com alguma palavra começando pelo prefixo, dos mais populares para os menos
+     */
+    public List<Sugestao> sugerir(String prefixo, int limite) {
+        String chave = normalizarPrefixo(prefixo);
+        if (chave.length() < TAMANHO_MINIMO_PREFIXO || limite <= 0) {
+            return Collections.emptyList();
+        }
+        int quantidade = Math.min(limite, LIMITE_MAXIMO);
+        Tabela atual = tabela;
+        int inicio = inicio(atual.chaves, chave);
+        int fim = inicio(atual.chaves, chave + Character.MAX_VALUE);
+        if (fim - inicio <= INTERVALO_MEMORIZADO) {
+            return melhores(atual, inicio, fim, quantidade);
+        }
+        long agora = System.nanoTime();
+        Memoria memoria = atual.memorizados.get(chave);
+        if (memoria == null || agora - memoria.criacao > VALIDADE_MEMORIA_NANOS) {
+            memoria = new Memoria(melhores(atual, inicio, fim, LIMITE_MAXIMO), agora);
+            atual.memorizados.put(chave, memoria);
+        }
+        return memoria.sugestoes.subList(0, Math.min(quantidade, memoria.sugestoes.size()));
+    }
+    
+    private static List<Sugestao> melhores(Tabela tabela, int inicio, int fim, int quantidade) {
+        Sugestao[] melhores = new Sugestao[quantidade];
+        int total = 0;
+        for (int i = inicio; i < fim; i++) {
+            total = considerar(melhores, total, tabela.alvos[i]);
+        }
+        return Collections.unmodifiableList(Arrays.asList(Arrays.copyOf(melhores, total)));
+    }
+    
+    /**
+     * Soma um acesso ao peso da notícia, se indexada
+     */
+    public void registrarAcesso(long id) {
+        Sugestao sugestao = porId.get(id);
+        if (sugestao != null) {
+            sugestao.getContador().incrementAndGet();
+        }
+    }
+    
+    /**
+     * Indexa (ou reindexa) um título, mantendo o peso já acumulado pela notícia
+     */
+    public synchronized void indexar(long id, String titulo, LocalDateTime dataPublicacao) {
+        Sugestao anterior = porId.get(id);
+        Sugestao sugestao = new Sugestao(id, titulo, dataPublicacao,
+            anterior != null ? anterior.getContador() : new AtomicLong());
+        substituir(anterior, sugestao);
+        porId.put(id, sugestao);
+    }
+    
+    /**
+     * Remove um título do índice, se existir
+     */
+    public synchronized void remover(long id) {
+        Sugestao anterior = porId.remove(id);
+        if (anterior != null) {
+            substituir(anterior, null);
+        }
+    }
+    
+    /**
+     * Monta a nova tabela copiando por segmentos os trechos entre as chaves removidas
+     * e as inseridas, localizadas por busca binária
+     */
+    private void substituir(Sugestao anterior, Sugestao nova) {
+        Tabela atual = tabela;
+        int[] remocoes = anterior != null ? posicoes(atual, anterior) : new int[0];
+        List<Entrada> novas = new ArrayList<>();
+        if (nova != null) {
+            gerarChaves(nova, novas);
+            novas.sort(null);
+        }
+        
+        int tamanho = atual.chaves.length;
+        String[] chaves = new String[tamanho - remocoes.length + novas.size()];
+        Sugestao[] alvos = new Sugestao[chaves.length];
+        int origem = 0;
+        int destino = 0;
+        int r = 0;
+        int j = 0;
+        while (r < remocoes.length || j < novas.size() || origem < tamanho) {
+            int proximaRemocao = r < remocoes.length ? remocoes[r] : tamanho;
+            int proximaInsercao = j < novas.size() ? inicio(atual.chaves, novas.get(j).chave) : tamanho;
+            int proximo = Math.min(proximaRemocao, proximaInsercao);
+            System.arraycopy(atual.chaves, origem, chaves, destino, proximo - origem);
+            System.arraycopy(atual.alvos, origem, alvos, destino, proximo - origem);
+            destino += proximo - origem;
+            origem = proximo;
+            if (j < novas.size() && proximaInsercao <= proximaRemocao) {
+                chaves[destino] = novas.get(j).chave;
+                alvos[destino++] = nova;
+                j++;
+            } else if (r < remocoes.length) {
+                origem++;
+                r++;
+            }
+        }
+        tabela = new Tabela(chaves, alvos);
+    }
+    
+    /**
+     * Posições (crescentes) das chaves de uma sugestão na tabela
+     */
+    private static int[] posicoes(Tabela tabela, Sugestao sugestao) {
+        List<Entrada> entradas = new ArrayList<>();
+        gerarChaves(sugestao, entradas);
+        return entradas.stream()
+            .map(entrada -> entrada.chave)
+            .distinct()
+            .flatMapToInt(chave -> {
+                int[] encontradas = new int[0];
+                for (int i = inicio(tabela.chaves, chave); i < tabela.chaves.length && tabela.chaves[i].equals(chave); i++) {
+                    if (tabela.alvos[i] == sugestao) {
+                        encontradas = Arrays.copyOf(encontradas, encontradas.length + 1);
+                        encontradas[encontradas.length - 1] = i;
+                    }
+                }
+                return Arrays.stream(encontradas);
+            })
+            .sorted()
+            .toArray();
+    }
+    
+    /**
+     * Peso atual de uma notícia, para ser preservado ao reconstruir o índice
+     */
+    AtomicLong contador(long id) {
+        Sugestao sugestao = porId.get(id);
+        return sugestao != null ? sugestao.getContador() : new AtomicLong();
+    }
+    
+    /**
+     * Insere a sugestão entre as melhores (ordenadas), ignorando repetições do mesmo título
+     */
+    private static int considerar(Sugestao[] melhores, int total, Sugestao candidata) {
+        for (int k = 0; k < total; k++) {
+            if (melhores[k] == candidata) {
+                return total;
+            }
+        }
+        int posicao = total;
+        while (posicao > 0 && MAIS_POPULARES_PRIMEIRO.compare(candidata, melhores[posicao - 1]) < 0) {
+            posicao--;
+        }
+        if (posicao == melhores.length) {
+            return total;
+        }
+        int novoTotal = Math.min(total + 1, melhores.length);
+        System.arraycopy(melhores, posicao, melhores, posicao + 1, novoTotal - posicao - 1);
+        melhores[posicao] = candidata;
+        return novoTotal;
+    }
+    
+    /**
+     * Primeira posição com chave maior ou igual ao prefixo
+     */
+    private static int inicio(String[] chaves, String prefixo) {
+        int baixo = 0;
+        int alto = chaves.length;
+        while (baixo < alto) {
+            int meio = (baixo + alto) >>> 1;
+            if (chaves[meio].compareTo(prefixo) < 0) {
+                baixo = meio + 1;
+            } else {
+                alto = meio;
+            }
+        }
+        return baixo;
+    }
+    
+    /**
+     * Título normalizado (minúsculas, sem acentos, separadores reduzidos a um espaço)
+     * a partir de cada palavra
+     */
+    private static void gerarChaves(Sugestao sugestao, List<Entrada> destino) {
+        String normalizado = normalizarPrefixo(sugestao.getTitulo());
+        int inicioPalavra = 0;
+        for (int i = 0; i <= normalizado.length(); i++) {
+            if (i == normalizado.length() || normalizado.charAt(i) == ' ') {
+                if (i - inicioPalavra >= TAMANHO_MINIMO_PALAVRA) {
+                    String chave = normalizado.substring(inicioPalavra,
+                        Math.min(normalizado.length(), inicioPalavra + TAMANHO_MAXIMO_CHAVE));
+                    destino.add(new Entrada(chave, sugestao));
+                }
+                inicioPalavra = i + 1;
+            }
+        }
+    }
+    
+    static String normalizarPrefixo(String texto) {
+        if (texto == null) {
+            return "";
+        }
+        StringBuilder saida = new StringBuilder(Math.min(texto.length(), TAMANHO_MAXIMO_CHAVE * 4));
+        boolean separador = false;
+        for (int i = 0, n = texto.length(); i < n; i++) {
+            char c = texto.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                if (separador && saida.length() > 0) {
+                    saida.append(' ');
+                }
+                saida.append(Normalizador.dobrar(c));
+                separador = false;
+            } else {
+                separador = true;
+            }
+        }
+        return saida.toString();
+    }
+    
+    /**
+     * Tabela imutável de chaves ordenadas e das sugestões correspondentes. Os resultados
+     * memorizados pertencem à tabela e são descartados junto com ela a cada escrita.
+     */
+    private static final class Tabela {
+        
+        private final String[] chaves;
+        private final Sugestao[] alvos;
+        private final Map<String, Memoria> memorizados = new ConcurrentHashMap<>();
+        
+        Tabela(String[] chaves, Sugestao[] alvos) {
+            this.chaves = chaves;
+            this.alvos = alvos;
+        }
+    }
+    
+    private static final class Memoria {
+        
+        private final List<Sugestao> sugestoes;
+        private final long criacao;
+        
+        Memoria(List<Sugestao> sugestoes, long criacao) {
+            this.sugestoes = sugestoes;
+            this.criacao = criacao;
+        }
+    }
+    
+    private static final class Entrada implements Comparable<Entrada> {
+        
+        private final String chave;
+        private final Sugestao sugestao;
+        
+        Entrada(String chave, Sugestao sugestao) {
+            this.chave = chave;
+            this.sugestao = sugestao;
+        }
+        
+        @Override
+        public int compareTo(Entrada outra) {
+            return chave.compareTo(outra.chave);
+        }
+    }
+    
+    /**
+     * Constrói o índice completo com uma única ordenação, preservando os pesos de um índice anterior
+     */
+    public static class Construtor {
+        
+        private final IndiceSugestoes anterior;
+        private final List<Entrada> entradas = new ArrayList<>();
+        private final Map<Long, Sugestao> porId = new ConcurrentHashMap<>();
+        
+        public Construtor(IndiceSugestoes anterior) {
+            this.anterior = anterior;
+        }
+        
+        public void adicionar(long id, String titulo, LocalDateTime dataPublicacao) {
+            Sugestao sugestao = new Sugestao(id, titulo, dataPublicacao,
+                anterior != null ? anterior.contador(id) : new AtomicLong());
+            porId.put(id, sugestao);
+            gerarChaves(sugestao, entradas);
+        }
+        
+        public IndiceSugestoes construir() {
+            entradas.sort(null);
+            String[] chaves = new String[entradas.size()];
+            Sugestao[] alvos = new Sugestao[chaves.length];
+            for (int i = 0; i < chaves.length; i++) {
+                chaves[i] = entradas.get(i).chave;
+                alvos[i] = entradas.get(i).sugestao;
+            }
+            return new IndiceSugestoes(porId, new Tabela(chaves, alvos));
+        }
+    }
+}
@@ -0,0 +1,244 @@
+package com.portal.search;
+
+import java.util.Arrays;
+
+/**
+ * Lista de postagem imutável e comprimida de um termo.
+ * Para cada documento (em ordem crescente de id) armazena, em varints:
+ * o delta do id em relação ao documento anterior, a frequência do termo
+ * e os deltas das posições em que o termo ocorre.
+ */
+public final class ListaPostagem {
+    
+    private final byte[] dados;
+    private final int documentos;
+    private final long ultimoId;
+    
+    private ListaPostagem(byte[] dados, int documentos, long ultimoId) {
+        this.dados = dados;
+        this.documentos = documentos;
+        this.ultimoId = ultimoId;
+    }
+    
+    /**
+     * Quantidade de documentos que contêm o termo
+     */
+    public int getDocumentos() {
+        return documentos;
+    }
+    
+    /**
+     * Tamanho em bytes da representação comprimida
+     */
+    public int getTamanhoBytes() {
+        return dados.length;
+    }
+    
+    public Leitor leitor() {
+        return new Leitor(dados, documentos);
+    }
+    
+    /**
+     * Decodifica apenas os ids dos documentos, em ordem crescente
+     */
+    public long[] ids() {
+        long[] ids = new long[documentos];
+        Leitor leitor = leitor();
+        for (int i = 0; leitor.proximo(); i++) {
+            ids[i] = leitor.documento();
+        }
+        return ids;
+    }
+    
+    /**
+     * Retorna uma nova lista com o documento incluído (ou substituído, se já existir).
+     * Um id maior que o último, o caso comum de notícias novas, é anexado aos bytes
+     * existentes; só inclusões fora de ordem decodificam e recodificam a lista.
+     */
+    public ListaPostagem comDocumento(long id, int[] posicoes, int frequencia) {
+        if (documentos > 0 && id > ultimoId) {
+            return new Construtor(this, id, posicoes, frequencia)
+                .adicionar(id, posicoes, frequencia)
+                .construir();
+        }
+        Construtor construtor = new Construtor();
+        Leitor leitor = leitor();
+        boolean incluido = false;
+        while (leitor.proximo()) {
+            long atual = leitor.documento();
+            if (!incluido && atual >= id) {
+                construtor.adicionar(id, posicoes, frequencia);
+                incluido = true;
+            }
+            if (atual != id) {
+                construtor.adicionar(atual, leitor.posicoes(), leitor.frequencia());
+            }
+        }
+        if (!incluido) {
+            construtor.adicionar(id, posicoes, frequencia);
+        }
+        return construtor.construir();
+    }
+    
+    /**
+     * Retorna uma nova lista sem o documento, ou null se ela ficar vazia
+     */
+    public ListaPostagem semDocumento(long id) {
+        Construtor construtor = new Construtor();
+        Leitor leitor = leitor();
+        while (leitor.proximo()) {
+            if (leitor.documento() != id) {
+                construtor.adicionar(leitor.documento(), leitor.posicoes(), leitor.frequencia());
+            }
+        }
+        return construtor.documentos == 0 ? null : construtor.construir();
+    }
+    
+    /**
+     * Percorre a lista documento a documento, sem alocar por documento
+     */
+    public static final class Leitor {
+        
+        private final byte[] dados;
+        private final int documentos;
+        private int offset;
+        private int lidos;
+        private long documento;
+        private int frequencia;
+        private int[] posicoes = new int[8];
+        
+        private Leitor(byte[] dados, int documentos) {
+            this.dados = dados;
+            this.documentos = documentos;
+        }
+        
+        /**
+         * Avança para o próximo documento; retorna false ao fim da lista
+         */
+        public boolean proximo() {
+            if (lidos == documentos) {
+                return false;
+            }
+            documento += lerVarLong();
+            frequencia = lerVarInt();
+            if (posicoes.length < frequencia) {
+                posicoes = new int[Math.max(frequencia, posicoes.length * 2)];
+            }
+            int posicao = 0;
+            for (int i = 0; i < frequencia; i++) {
+                posicao += lerVarInt();
+                posicoes[i] = posicao;
+            }
+            lidos++;
+            return true;
+        }
+        
+        public long documento() {
+            return documento;
+        }
+        
+        public int frequencia() {
+            return frequencia;
+        }
+        
+        /**
+         * Posições do termo no documento atual; válidas apenas as primeiras {@link #frequencia()}.
+         * O array é reutilizado a cada chamada de {@link #proximo()}.
+         */
+        public int[] posicoes() {
+            return posicoes;
+        }
+        
+        private int lerVarInt() {
+            return (int) lerVarLong();
+        }
+        
+        private long lerVarLong() {
+            long valor = 0;
+            int deslocamento = 0;
+            byte b;
+            do {
+                b = dados[offset++];
+                valor |= (long) (b & 0x7F) << deslocamento;
+                deslocamento += 7;
+            } while ((b & 0x80) != 0);
+            return valor;
+        }
+    }
+    
+    /**
+     * Constrói uma lista a partir de documentos adicionados em ordem crescente de id
+     */
+    public static final class Construtor {
+        
+        private byte[] dados;
+        private int tamanho;
+        private int documentos;
+        private long ultimoId;
+        
+        public Construtor() {
+            dados = new byte[16];
+        }
+        
+        /**
+         * Continua a lista existente, com espaço exato para o documento que será anexado
+         */
+        private Construtor(ListaPostagem lista, long id, int[] posicoes, int frequencia) {
+            int acrescimo = tamanhoVarLong(id - lista.ultimoId) + tamanhoVarLong(frequencia);
+            int anterior = 0;
+            for (int i = 0; i < frequencia; i++) {
+                acrescimo += tamanhoVarLong(posicoes[i] - anterior);
+                anterior = posicoes[i];
+            }
+            dados = Arrays.copyOf(lista.dados, lista.dados.length + acrescimo);
+            tamanho = lista.dados.length;
+            documentos = lista.documentos;
+            ultimoId = lista.ultimoId;
+        }
+        
+        public Construtor adicionar(long id, int[] posicoes, int frequencia) {
+            if (documentos > 0 && id <= ultimoId) {
+                throw new IllegalArgumentException("Documentos devem ser adicionados em ordem crescente de id");
+            }
+            escreverVarLong(id - ultimoId);
+            escreverVarLong(frequencia);
+            int anterior = 0;
+            for (int i = 0; i < frequencia; i++) {
+                escreverVarLong(posicoes[i] - anterior);
+                anterior = posicoes[i];
+            }
+            ultimoId = id;
+            documentos++;
+            return this;
+        }
+        
+        public boolean isVazio() {
+            return documentos == 0;
+        }
+        
+        public ListaPostagem construir() {
+            return new ListaPostagem(tamanho == dados.length ? dados : Arrays.copyOf(dados, tamanho),
+                documentos, ultimoId);
+        }
+        
+        private static int tamanhoVarLong(long valor) {
+            int bytes = 1;
+            while ((valor & ~0x7FL) != 0) {
+                valor >>>= 7;
+                bytes++;
+            }
+            return bytes;
+        }
+        
+        private void escreverVarLong(long valor) {
+            if (tamanho + tamanhoVarLong(valor) > dados.length) {
+                dados = Arrays.copyOf(dados, Math.max(dados.length * 2, tamanho + 10));
+            }
+            while ((valor & ~0x7FL) != 0) {
+                dados[tamanho++] = (byte) ((valor & 0x7F) | 0x80);
+                valor >>>= 7;
+            }
+            dados[tamanho++] = (byte) valor;
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.portal.search;
+
+/**
+ * Normalização de texto para busca: minúsculas e remoção de acentos.
+ * Opera caractere a caractere, sem tabelas Unicode nem alocações intermediárias.
+ */
+public final class Normalizador {
+    
+    private Normalizador() {
+    }
+    
+    /**
+     * Converte o caractere para minúsculo e remove o acento, se houver
+     */
+    public static char dobrar(char c) {
+        char minusculo = Character.toLowerCase(c);
+        if (minusculo < 'à') {
+            return minusculo;
+        }
+        switch (minusculo) {
+            case 'á': case 'à': case 'â': case 'ã': case 'ä':
+                return 'a';
+            case 'é': case 'è': case 'ê': case 'ë':
+                return 'e';
+            case 'í': case 'ì': case 'î': case 'ï':
+                return 'i';
+            case 'ó': case 'ò': case 'ô': case 'õ': case 'ö':
+                return 'o';
+            case 'ú': case 'ù': case 'û': case 'ü':
+                return 'u';
+            case 'ç':
+                return 'c';
+            case 'ñ':
+                return 'n';
+            default:
+                return minusculo;
+        }
+    }
+    
+    /**
+     * Normaliza um texto completo (minúsculas, sem acentos e sem espaços nas pontas)
+     */
+    public static String normalizar(String texto) {
+        if (texto == null) {
+            return "";
+        }
+        String aparado = texto.trim();
+        char[] saida = new char[aparado.length()];
+        for (int i = 0; i < saida.length; i++) {
+            saida[i] = dobrar(aparado.charAt(i));
+        }
+        return new String(saida);
+    }
+}
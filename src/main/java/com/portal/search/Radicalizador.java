@@ -0,0 +1,73 @@
+package com.portal.search;
+
+/**
+ * Radicalização leve para o português, aplicada a termos já normalizados
+ * (minúsculas, sem acentos). Remove plurais, o sufixo adverbial "-mente" e a
+ * vogal temática final, unificando variações de número e gênero
+ * ("eleicao"/"eleicoes", "brasileiro"/"brasileiras"). Não pretende produzir
+ * radicais linguísticos, apenas formas consistentes entre texto e consulta.
+ */
+final class Radicalizador {
+    
+    /** Termos menores que este tamanho não são alterados */
+    private static final int TAMANHO_MINIMO = 4;
+    
+    private Radicalizador() {
+    }
+    
+    /**
+     * Reduz o termo no próprio buffer e retorna o novo tamanho
+     */
+    static int reduzir(char[] s, int n) {
+        if (n < TAMANHO_MINIMO) {
+            return n;
+        }
+        n = plural(s, n);
+        if (n >= 8 && termina(s, n, "mente")) {
+            n -= 5;
+        }
+        if (n > TAMANHO_MINIMO && (s[n - 1] == 'a' || s[n - 1] == 'e' || s[n - 1] == 'o')) {
+            n--;
+        }
+        return n;
+    }
+    
+    private static int plural(char[] s, int n) {
+        if (s[n - 1] != 's') {
+            return n;
+        }
+        if (termina(s, n, "oes") || termina(s, n, "aes")) {
+            s[n - 3] = 'a';
+            s[n - 2] = 'o';
+            return n - 1;
+        }
+        if (n > 4 && (termina(s, n, "ais") || termina(s, n, "eis") || termina(s, n, "ois"))) {
+            s[n - 2] = 'l';
+            return n - 1;
+        }
+        if (termina(s, n, "ns")) {
+            s[n - 2] = 'm';
+            return n - 1;
+        }
+        if (n >= 5 && (termina(s, n, "res") || termina(s, n, "ses") || termina(s, n, "zes"))) {
+            return n - 2;
+        }
+        if (termina(s, n, "ss") || termina(s, n, "us") || termina(s, n, "is")) {
+            return n;
+        }
+        return n - 1;
+    }
+    
+    private static boolean termina(char[] s, int n, String sufixo) {
+        int inicio = n - sufixo.length();
+        if (inicio < 0) {
+            return false;
+        }
+        for (int i = 0; i < sufixo.length(); i++) {
+            if (s[inicio + i] != sufixo.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
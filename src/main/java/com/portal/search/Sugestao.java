@@ -0,0 +1,44 @@
+package com.portal.search;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Título sugerido pelo autocompletar, com o peso de popularidade da notícia.
+ * O peso é compartilhado entre versões do índice e sobrevive a edições do título.
+ */
+public final class Sugestao {
+    
+    private final long id;
+    private final String titulo;
+    private final LocalDateTime dataPublicacao;
+    private final AtomicLong peso;
+    
+    Sugestao(long id, String titulo, LocalDateTime dataPublicacao, AtomicLong peso) {
+        this.id = id;
+        this.titulo = titulo;
+        this.dataPublicacao = dataPublicacao;
+        this.peso = peso;
+    }
+    
+    public long getId() {
+        return id;
+    }
+    
+    public String getTitulo() {
+        return titulo;
+    }
+    
+    public LocalDateTime getDataPublicacao() {
+        return dataPublicacao;
+    }
+    
+    /** Acessos à notícia registrados desde que a aplicação subiu */
+    public long getPeso() {
+        return peso.get();
+    }
+    
+    AtomicLong getContador() {
+        return peso;
+    }
+}
@@ -0,0 +1,30 @@
+package com.portal.security;
+
+import javax.servlet.ServletContext;
+import java.util.Arrays;
+
+/**
+ * Como as páginas administrativas são autorizadas, configurado pelo context-param
+ * {@value #PARAMETRO} do web.xml
+ */
+public enum ModoAutenticacao {
+    
+    /** Autorização pelo LoginController guardado na sessão HTTP (padrão) */
+    SESSAO,
+    
+    /** Autorização pelo cookie de token assinado, sem sessão nem banco: permite vários nós sem sessão compartilhada */
+    TOKEN;
+    
+    public static final String PARAMETRO = "com.portal.AUTENTICACAO";
+    
+    public static ModoAutenticacao de(ServletContext contexto) {
+        return de(contexto.getInitParameter(PARAMETRO));
+    }
+    
+    public static ModoAutenticacao de(String valor) {
+        return Arrays.stream(values())
+            .filter(modo -> modo.name().equalsIgnoreCase(valor == null ? "" : valor.trim()))
+            .findFirst()
+            .orElse(SESSAO);
+    }
+}
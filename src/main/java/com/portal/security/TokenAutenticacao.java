@@ -0,0 +1,244 @@
+package com.portal.security;
+
+import com.portal.model.PerfilUsuario;
+import com.portal.model.UsuarioPrincipal;
+
+import javax.annotation.PostConstruct;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import javax.enterprise.context.ApplicationScoped;
+import javax.servlet.http.Cookie;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.logging.Logger;
+
+/**
+ * Emite e verifica o token de autenticação sem estado: um cookie assinado com
+ * HMAC-SHA256 que carrega id, perfil, nome e validade do usuário. A verificação
+ * não consulta sessão nem banco, então qualquer nó do cluster pode autorizar a
+ * requisição.
+ * <p>
+ * Formato: {@code v2.<kid>.<dados>.<assinatura>}, com dados e assinatura em Base64 URL.
+ * Os dados levam também o instante do login: a renovação deslizante nunca passa de
+ * {@value #VIDA_MAXIMA_SEGUNDOS} segundos depois dele, e então o usuário entra de novo
+ * (e recebe o perfil atual). Tokens v1, sem esse instante, valem até expirar e não são renovados.
+ * As chaves vêm da propriedade de sistema (ou variável de ambiente)
+ * {@value #PROPRIEDADE_CHAVES} no formato {@code kid:chaveBase64,kid2:chaveBase64}.
+ * A primeira chave assina; as demais só verificam, o que permite rotação: publique
+ * a nova chave na frente e mantenha a antiga até os tokens emitidos com ela expirarem.
+ */
+@ApplicationScoped
+public class TokenAutenticacao {
+    
+    private static final Logger LOGGER = Logger.getLogger(TokenAutenticacao.class.getName());
+    
+    public static final String COOKIE = "PORTAL_AUTH";
+    public static final String PROPRIEDADE_CHAVES = "portal.token.chaves";
+    
+    /** Atributo de requisição com o {@link UsuarioPrincipal} já autorizado pelo filtro */
+    public static final String ATRIBUTO_PRINCIPAL = "com.portal.principal";
+    
+    private static final String VERSAO = "v2";
+    private static final String VERSAO_SEM_EMISSAO = "v1";
+    private static final String ALGORITMO = "HmacSHA256";
+    private static final long VALIDADE_SEGUNDOS = 8 * 60 * 60;
+    
+    /** Tempo máximo desde o login, somadas todas as renovações */
+    static final long VIDA_MAXIMA_SEGUNDOS = 24 * 60 * 60;
+    
+    private static final Base64.Encoder CODIFICADOR = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODIFICADOR = Base64.getUrlDecoder();
+    
+    /** Chaves por kid, na ordem de configuração (a primeira assina) */
+    private Map<String, Chave> chaves;
+    private Chave chaveAtiva;
+    
+    @PostConstruct
+    public void iniciar() {
+        String configuracao = Optional.ofNullable(System.getProperty(PROPRIEDADE_CHAVES))
+            .orElseGet(() -> System.getenv("PORTAL_TOKEN_CHAVES"));
+        chaves = new LinkedHashMap<>();
+        if (configuracao != null) {
+            for (String item : configuracao.split(",")) {
+                String[] partes = item.trim().split(":", 2);
+                if (partes.length == 2) {
+                    chaves.put(partes[0], new Chave(partes[0], Base64.getDecoder().decode(partes[1])));
+                }
+            }
+        }
+        if (chaves.isEmpty()) {
+            // Sem configuração, tokens só valem neste nó e até o próximo restart
+            byte[] aleatoria = new byte[32];
+            new SecureRandom().nextBytes(aleatoria);
+            chaves.put("local", new Chave("local", aleatoria));
+            LOGGER.warning("Nenhuma chave em " + PROPRIEDADE_CHAVES + "; usando chave temporária local");
+        }
+        chaveAtiva = chaves.values().iterator().next();
+    }
+    
+    /**
+     * Gera um token para o usuário, válido a partir de agora
+     */
+    public String emitir(UsuarioPrincipal principal) {
+        return emitir(principal, agora());
+    }
+    
+    /**
+     * Gera um token para o login feito no instante informado, com validade limitada pela vida máxima
+     */
+    private String emitir(UsuarioPrincipal principal, long emissao) {
+        long expiracao = expiracaoRenovada(emissao);
+        String dados = CODIFICADOR.encodeToString((principal.getId() + "|" + principal.getPerfil().name() + "|"
+            + expiracao + "|" + emissao + "|" + principal.getNome()).getBytes(StandardCharsets.UTF_8));
+        String assinado = VERSAO + "." + chaveAtiva.kid + "." + dados;
+        return assinado + "." + CODIFICADOR.encodeToString(chaveAtiva.assinar(assinado));
+    }
+    
+    /**
+     * Valida assinatura (em tempo constante) e validade do token
+     */
+    public Optional<UsuarioPrincipal> verificar(String token) {
+        return decodificar(token).map(Dados::getPrincipal);
+    }
+    
+    /**
+     * Lê e valida o cookie da requisição. Tokens que passaram da metade da validade
+     * são reemitidos na resposta (renovação deslizante), até a vida máxima desde o login.
+     */
+    public Optional<UsuarioPrincipal> autenticar(HttpServletRequest request, HttpServletResponse response) {
+        Optional<Dados> dados = cookie(request).flatMap(this::decodificar);
+        dados.filter(Dados::isRenovavel)
+            .ifPresent(d -> gravarCookie(request, response, emitir(d.principal, d.emissao)));
+        return dados.map(Dados::getPrincipal);
+    }
+    
+    /**
+     * Expiração de um token emitido agora para o login informado
+     */
+    private static long expiracaoRenovada(long emissao) {
+        return Math.min(agora() + VALIDADE_SEGUNDOS, emissao + VIDA_MAXIMA_SEGUNDOS);
+    }
+    
+    private static long agora() {
+        return System.currentTimeMillis() / 1000;
+    }
+    
+    /**
+     * Grava o cookie de autenticação (HttpOnly, SameSite=Lax, Secure em HTTPS)
+     */
+    public void gravarCookie(HttpServletRequest request, HttpServletResponse response, String token) {
+        response.addHeader("Set-Cookie", COOKIE + "=" + token + "; Path=" + caminho(request)
+            + "; Max-Age=" + VALIDADE_SEGUNDOS + "; HttpOnly; SameSite=Lax" + (request.isSecure() ? "; Secure" : ""));
+    }
+    
+    public void removerCookie(HttpServletRequest request, HttpServletResponse response) {
+        response.addHeader("Set-Cookie", COOKIE + "=; Path=" + caminho(request)
+            + "; Max-Age=0; HttpOnly; SameSite=Lax" + (request.isSecure() ? "; Secure" : ""));
+    }
+    
+    private static String caminho(HttpServletRequest request) {
+        return request.getContextPath().isEmpty() ? "/" : request.getContextPath();
+    }
+    
+    private static Optional<String> cookie(HttpServletRequest request) {
+        return Optional.ofNullable(request.getCookies())
+            .flatMap(cookies -> Arrays.stream(cookies)
+                .filter(c -> COOKIE.equals(c.getName()))
+                .map(Cookie::getValue)
+                .findFirst());
+    }
+    
+    private Optional<Dados> decodificar(String token) {
+        if (token == null) {
+            return Optional.empty();
+        }
+        String[] partes = token.split("\\.");
+        boolean comEmissao = VERSAO.equals(partes[0]);
+        if (partes.length != 4 || !(comEmissao || VERSAO_SEM_EMISSAO.equals(partes[0]))) {
+            return Optional.empty();
+        }
+        Chave chave = chaves.get(partes[1]);
+        if (chave == null) {
+            return Optional.empty();
+        }
+        try {
+            byte[] esperada = chave.assinar(partes[0] + "." + partes[1] + "." + partes[2]);
+            if (!MessageDigest.isEqual(esperada, DECODIFICADOR.decode(partes[3]))) {
+                return Optional.empty();
+            }
+            String[] campos = new String(DECODIFICADOR.decode(partes[2]), StandardCharsets.UTF_8)
+                .split("\\|", comEmissao ? 5 : 4);
+            long expiracao = Long.parseLong(campos[2]);
+            if (expiracao <= agora()) {
+                return Optional.empty();
+            }
+            long emissao = comEmissao ? Long.parseLong(campos[3]) : Dados.SEM_EMISSAO;
+            return Optional.of(new Dados(new UsuarioPrincipal(Long.valueOf(campos[0]), campos[comEmissao ? 4 : 3],
+                PerfilUsuario.valueOf(campos[1])), expiracao, emissao));
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+            return Optional.empty();
+        }
+    }
+    
+    private static final class Dados {
+        private static final long SEM_EMISSAO = -1;
+        
+        private final UsuarioPrincipal principal;
+        private final long expiracao;
+        private final long emissao;
+        
+        private Dados(UsuarioPrincipal principal, long expiracao, long emissao) {
+            this.principal = principal;
+            this.expiracao = expiracao;
+            this.emissao = emissao;
+        }
+        
+        private UsuarioPrincipal getPrincipal() {
+            return principal;
+        }
+        
+        /**
+         * Passou da metade da validade e a reemissão ainda estende a expiração
+         */
+        private boolean isRenovavel() {
+            return emissao != SEM_EMISSAO
+                && expiracao - agora() < VALIDADE_SEGUNDOS / 2
+                && expiracaoRenovada(emissao) > expiracao;
+        }
+    }
+    
+    /**
+     * Chave HMAC identificada por kid; cada thread reaproveita sua instância de Mac
+     */
+    private static final class Chave {
+        private final String kid;
+        private final ThreadLocal<Mac> mac;
+        
+        private Chave(String kid, byte[] segredo) {
+            this.kid = kid;
+            SecretKeySpec especificacao = new SecretKeySpec(segredo, ALGORITMO);
+            this.mac = ThreadLocal.withInitial(() -> {
+                try {
+                    Mac instancia = Mac.getInstance(ALGORITMO);
+                    instancia.init(especificacao);
+                    return instancia;
+                } catch (GeneralSecurityException e) {
+                    throw new IllegalStateException("HMAC indisponível", e);
+                }
+            });
+        }
+        
+        private byte[] assinar(String conteudo) {
+            return mac.get().doFinal(conteudo.getBytes(StandardCharsets.US_ASCII));
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.portal.service;
+
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+
+/**
+ * Hash de senhas com PBKDF2-HMAC-SHA256 e salt aleatório, no formato
+ * {@code pbkdf2$<iterações>$<salt>$<hash>} (Base64 sem padding, cabe na coluna de 100 caracteres).
+ * Também reconhece o formato legado (SHA-256 em hexadecimal, sem salt) para migração no login.
+ */
+final class CodificadorSenha {
+    
+    /** Custo atual; hashes gravados com menos iterações são refeitos no próximo login */
+    static final int ITERACOES = 310000;
+    
+    private static final String PREFIXO = "pbkdf2";
+    private static final String ALGORITMO = "PBKDF2WithHmacSHA256";
+    private static final int TAMANHO_SALT = 16;
+    private static final int TAMANHO_HASH_BITS = 256;
+    private static final int TAMANHO_LEGADO = 64;
+    
+    private static final SecureRandom ALEATORIO = new SecureRandom();
+    private static final Base64.Encoder BASE64 = Base64.getEncoder().withoutPadding();
+    
+    private CodificadorSenha() {
+    }
+    
+    /**
+     * Gera o hash de uma nova senha
+     */
+    static String codificar(String senha) {
+        byte[] salt = new byte[TAMANHO_SALT];
+        ALEATORIO.nextBytes(salt);
+        return PREFIXO + "$" + ITERACOES + "$" + BASE64.encodeToString(salt) + "$"
+            + BASE64.encodeToString(pbkdf2(senha, salt, ITERACOES));
+    }
+    
+    /**
+     * Confere a senha com o hash gravado, em tempo constante em relação ao conteúdo
+     */
+    static boolean confere(String senha, String gravado) {
+        if (gravado == null) {
+            return false;
+        }
+        if (isLegado(gravado)) {
+            return MessageDigest.isEqual(sha256Hex(senha).getBytes(), gravado.toLowerCase().getBytes());
+        }
+        String[] partes = gravado.split("\\$");
+        if (partes.length != 4 || !PREFIXO.equals(partes[0])) {
+            return false;
+        }
+        try {
+            int iteracoes = Integer.parseInt(partes[1]);
+            byte[] salt = Base64.getDecoder().decode(partes[2]);
+            byte[] esperado = Base64.getDecoder().decode(partes[3]);
+            return MessageDigest.isEqual(pbkdf2(senha, salt, iteracoes), esperado);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+    
+    /**
+     * Indica se o hash gravado deve ser refeito com os parâmetros atuais
+     */
+    static boolean precisaRecodificar(String gravado) {
+        if (gravado == null || isLegado(gravado)) {
+            return true;
+        }
+        String[] partes = gravado.split("\\$");
+        try {
+            return partes.length != 4 || Integer.parseInt(partes[1]) < ITERACOES;
+        } catch (NumberFormatException e) {
+            return true;
+        }
+    }
+    
+    private static boolean isLegado(String gravado) {
+        return gravado.length() == TAMANHO_LEGADO && !gravado.startsWith(PREFIXO + "$");
+    }
+    
+    private static byte[] pbkdf2(String senha, byte[] salt, int iteracoes) {
+        PBEKeySpec especificacao = new PBEKeySpec(senha.toCharArray(), salt, iteracoes, TAMANHO_HASH_BITS);
+        try {
+            return SecretKeyFactory.getInstance(ALGORITMO).generateSecret(especificacao).getEncoded();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("PBKDF2 indisponível", e);
+        } finally {
+            especificacao.clearPassword();
+        }
+    }
+    
+    /**
+     * Hash do formato legado: SHA-256 em hexadecimal minúsculo, sobre os bytes no
+     * charset padrão da JVM, exatamente como as senhas antigas foram gravadas
+     */
+    private static String sha256Hex(String senha) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(senha.getBytes());
+            char[] hex = new char[hash.length * 2];
+            for (int i = 0; i < hash.length; i++) {
+                hex[i * 2] = Character.forDigit((hash[i] >> 4) & 0xf, 16);
+                hex[i * 2 + 1] = Character.forDigit(hash[i] & 0xf, 16);
+            }
+            return new String(hex);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("SHA-256 indisponível", e);
+        }
+    }
+}
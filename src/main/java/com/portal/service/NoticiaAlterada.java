@@ -0,0 +1,46 @@
+package com.portal.service;
+
+import com.portal.model.Noticia;
+import java.util.Optional;
+
+/**
+ * Evento CDI disparado pelo {@link NoticiaService} após cada escrita de notícia.
+ * Permite que índices e caches em memória se mantenham atualizados de forma incremental.
+ */
+public class NoticiaAlterada {
+    
+    public enum Tipo {
+        CRIADA,
+        ATUALIZADA,
+        EXCLUIDA
+    }
+    
+    private final Tipo tipo;
+    private final Long id;
+    private final Noticia noticia;
+    
+    public NoticiaAlterada(Tipo tipo, Long id, Noticia noticia) {
+        this.tipo = tipo;
+        this.id = id;
+        this.noticia = noticia;
+    }
+    
+    public Tipo getTipo() {
+        return tipo;
+    }
+    
+    public Long getId() {
+        return id;
+    }
+    
+    /**
+     * Estado da notícia após a escrita (ou antes da exclusão, quando disponível)
+     */
+    public Optional<Noticia> getNoticia() {
+        return Optional.ofNullable(noticia);
+    }
+    
+    public boolean isExclusao() {
+        return tipo == Tipo.EXCLUIDA;
+    }
+}
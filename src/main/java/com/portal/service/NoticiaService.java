@@ -1,11 +1,25 @@
 package com.portal.service;
 
+import com.portal.dao.CursorListagem;
+import com.portal.dao.CursorNoticia;
+import com.portal.dao.FiltroNoticias;
+import com.portal.dao.ModoContagem;
 import com.portal.dao.NoticiaDAO;
+import com.portal.dao.Pagina;
+import com.portal.dao.PaginaNumerada;
+import com.portal.dao.UnidadeTrabalho;
 import com.portal.model.Noticia;
+import com.portal.model.NoticiaResumo;
 import com.portal.model.Usuario;
+import com.portal.search.IndiceNoticias;
+import com.portal.search.Sugestao;
 import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Event;
+import javax.enterprise.event.Observes;
 import javax.inject.Inject;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 import java.util.function.Predicate;
@@ -18,12 +32,35 @@ import java.util.stream.Collectors;
 @ApplicationScoped
 public class NoticiaService {
     
+    private static final int TAMANHO_PAGINA_PADRAO = 20;
+    private static final int TAMANHO_PAGINA_MAXIMO = 100;
+    
+    /**
+     * Quantidade de notícias mantidas no snapshot do feed da home.
+     * Um item a mais que o maior limite atendido permite calcular o cursor da próxima página.
+     */
+    private static final int TAMANHO_FEED = 51;
+    
     @Inject
     private NoticiaDAO noticiaDAO;
     
+    @Inject
+    private IndiceNoticias indiceNoticias;
+    
+    @Inject
+    private Event<NoticiaAlterada> eventos;
+    
+    /**
+     * Snapshot imutável das últimas notícias. Leituras apenas leem a referência
+     * volátil; escritas montam uma nova lista e a substituem (copy-on-write).
+     */
+    private volatile List<NoticiaResumo> feed;
+    private final Object travaFeed = new Object();
+    
     /**
      * Salva uma nova notícia com validações
      */
+    @Transacional
     public void salvar(Noticia noticia) throws ServiceException {
         validarNoticia(noticia);
         
@@ -36,86 +73,244 @@ public class NoticiaService {
             });
         
         noticiaDAO.save(noticia);
+        Long id = noticia.getId();
+        UnidadeTrabalho.aposConfirmacao(() -> {
+            incluirNoFeed(id);
+            eventos.fire(new NoticiaAlterada(NoticiaAlterada.Tipo.CRIADA, id, noticia));
+        });
     }
     
     /**
      * Atualiza uma notícia existente
      */
+    @Transacional
     public Noticia atualizar(Noticia noticia) throws ServiceException {
         validarNoticia(noticia);
         
-        noticiaDAO.findById(noticia.getId())
+        // Apenas título e conteúdo são editáveis; autor e data de publicação são preservados
+        Noticia atualizada = noticiaDAO.updateTexto(noticia.getId(), noticia.getTitulo(), noticia.getConteudo())
             .orElseThrow(() -> new ServiceException("Notícia não encontrada"));
-        
-        return noticiaDAO.update(noticia);
+        UnidadeTrabalho.aposConfirmacao(() -> {
+            substituirNoFeed(atualizada.getId());
+            eventos.fire(new NoticiaAlterada(NoticiaAlterada.Tipo.ATUALIZADA, atualizada.getId(), atualizada));
+        });
+        return atualizada;
     }
     
     /**
-     * Busca notícia por ID
+     * Busca notícia por ID, já com o autor carregado para exibição
      */
     public Optional<Noticia> buscarPorId(Long id) {
-        return noticiaDAO.findById(id);
+        return noticiaDAO.findByIdComAutor(id);
+    }
+    
+    /**
+     * Descarta o snapshot do feed após uma importação em lote; a próxima leitura o recarrega do banco
+     */
+    void aoImportarNoticias(@Observes NoticiasImportadas evento) {
+        synchronized (travaFeed) {
+            feed = null;
+        }
+    }
+    
+    /**
+     * O feed guarda o nome do autor, e a exclusão de um usuário leva junto as notícias dele
+     */
+    void aoAlterarUsuario(@Observes UsuarioAlterado evento) {
+        synchronized (travaFeed) {
+            feed = null;
+        }
     }
     
     /**
-     * Lista todas as notícias ordenadas por data
+     * Lista os resumos de todas as notícias ordenados por data
      */
-    public List<Noticia> listarTodas() {
-        return noticiaDAO.findAllOrderByDate();
+    public List<NoticiaResumo> listarTodas() {
+        return noticiaDAO.findResumosOrderByDate();
     }
     
     /**
-     * Lista notícias de um autor específico
+     * Lista uma página de notícias ordenadas por data, a partir de um cursor opaco.
+     * Cursor nulo ou inválido retorna a primeira página, servida pelo snapshot do feed
+     * quando o tamanho pedido cabe nele.
      */
-    public List<Noticia> listarPorAutor(Usuario autor) {
-        return noticiaDAO.findByAutor(autor);
+    public Pagina<NoticiaResumo> listarPagina(String cursor, int tamanho) {
+        int tamanhoValido = tamanho <= 0 ? TAMANHO_PAGINA_PADRAO : Math.min(tamanho, TAMANHO_PAGINA_MAXIMO);
+        Optional<CursorNoticia> posicao = CursorNoticia.decodificar(cursor);
+        if (!posicao.isPresent() && tamanhoValido < TAMANHO_FEED) {
+            return paginaDoFeed(tamanhoValido);
+        }
+        return noticiaDAO.findResumosPagina(posicao, tamanhoValido);
     }
     
     /**
-     * Busca notícias por título
+     * Lista uma página das notícias que atendem ao filtro. A navegação é por cursor: com
+     * {@code apos} vem a página seguinte à do cursor, com {@code antes} a anterior e, sem
+     * nenhum dos dois, a primeira. O número da página é trazido pela navegação e serve só
+     * para exibição. O total é contado com o mesmo filtro; sem filtro, vem da contagem em
+     * cache do DAO, que sobrevive às escritas.
      */
-    public List<Noticia> buscarPorTitulo(String titulo) {
+    public PaginaNumerada<NoticiaResumo> listarFiltradas(FiltroNoticias filtro, String apos, String antes,
+                                                         int pagina, int tamanho) {
+        int tamanhoValido = tamanho <= 0 ? TAMANHO_PAGINA_PADRAO : Math.min(tamanho, TAMANHO_PAGINA_MAXIMO);
+        long total = filtro.isVazio()
+            ? noticiaDAO.count(ModoContagem.EXATA_EM_CACHE)
+            : noticiaDAO.countResumos(filtro);
+        if (total == 0) {
+            return new PaginaNumerada<>(Collections.emptyList(), 1, tamanhoValido, 0, null, null);
+        }
+        Optional<CursorListagem> anterior = CursorListagem.decodificar(antes, filtro.getOrdem());
+        Optional<CursorListagem> posicao = anterior.isPresent()
+            ? anterior
+            : CursorListagem.decodificar(apos, filtro.getOrdem());
+        boolean voltando = anterior.isPresent();
+        
+        // Um item a mais indica se há páginas além desta no sentido da navegação
+        List<NoticiaResumo> resultado = noticiaDAO.findResumos(filtro, posicao, voltando, tamanhoValido + 1);
+        boolean haMais = resultado.size() > tamanhoValido;
+        if (posicao.isPresent() && (resultado.isEmpty() || (voltando && !haMais))) {
+            // Cursor além do fim, ou volta que chegou ao início: a primeira página, completa
+            return listarFiltradas(filtro, null, null, 1, tamanhoValido);
+        }
+        List<NoticiaResumo> itens = !haMais ? resultado
+            : voltando ? resultado.subList(1, resultado.size()) : resultado.subList(0, tamanhoValido);
+        boolean temAnterior = voltando ? haMais : posicao.isPresent();
+        boolean temProxima = voltando || haMais;
+        
+        int totalPaginas = (int) ((total + tamanhoValido - 1) / tamanhoValido);
+        int numero = posicao.isPresent() ? Math.max(2, Math.min(pagina, totalPaginas)) : 1;
+        return new PaginaNumerada<>(itens, numero, tamanhoValido, total,
+            temAnterior ? CursorListagem.de(itens.get(0), filtro.getOrdem()).codificar() : null,
+            temProxima ? CursorListagem.de(itens.get(itens.size() - 1), filtro.getOrdem()).codificar() : null);
+    }
+    
+    /**
+     * Lista uma página das notícias de um autor, das mais recentes para as mais antigas,
+     * a partir de um cursor opaco. Responde pelo índice por autor em memória; recorre ao
+     * banco apenas enquanto o índice é construído.
+     */
+    public Pagina<NoticiaResumo> listarPorAutor(Long autorId, String cursor, int tamanho) {
+        int tamanhoValido = tamanho <= 0 ? TAMANHO_PAGINA_PADRAO : Math.min(tamanho, TAMANHO_PAGINA_MAXIMO);
+        Optional<CursorNoticia> posicao = CursorNoticia.decodificar(cursor);
+        return indiceNoticias.listarPorAutor(autorId, posicao, tamanhoValido)
+            .orElseGet(() -> noticiaDAO.findResumosPaginaByAutor(autorId, posicao, tamanhoValido));
+    }
+    
+    /**
+     * Quantidade de notícias de um autor
+     */
+    public long contarPorAutor(Long autorId) {
+        return indiceNoticias.contarPorAutor(autorId)
+            .map(Integer::longValue)
+            .orElseGet(() -> noticiaDAO.countByAutor(autorId));
+    }
+    
+    /**
+     * Data da notícia mais recente de um autor, se ele tiver alguma
+     */
+    public Optional<LocalDateTime> ultimaPublicacaoPorAutor(Long autorId) {
+        if (indiceNoticias.isPronto()) {
+            return indiceNoticias.ultimaPublicacaoPorAutor(autorId);
+        }
+        return noticiaDAO.findUltimaPublicacaoByAutor(autorId);
+    }
+    
+    /**
+     * Busca notícias por título.
+     * Responde pelo índice em memória; recorre ao banco apenas enquanto o índice é construído.
+     */
+    public List<NoticiaResumo> buscarPorTitulo(String titulo) {
         return Optional.ofNullable(titulo)
             .filter(t -> !t.isEmpty())
             .filter(t -> !t.trim().isEmpty())
             .map(String::trim)
-            .map(noticiaDAO::findByTitulo)
+            .map(t -> indiceNoticias.buscarPorTitulo(t)
+                .orElseGet(() -> noticiaDAO.findResumosByTitulo(t)))
             .orElseGet(this::listarTodas);
     }
     
     /**
      * Lista as últimas notícias
      */
-    public List<Noticia> listarUltimas(int limite) {
+    public List<NoticiaResumo> listarUltimas(int limite) {
         int limiteValido = limite <= 0 ? 10 : limite; // Padrão
-        return noticiaDAO.findLatest(limiteValido);
+        if (limiteValido > TAMANHO_FEED) {
+            return noticiaDAO.findResumosLatest(limiteValido);
+        }
+        List<NoticiaResumo> atual = obterFeed();
+        return atual.subList(0, Math.min(limiteValido, atual.size()));
     }
     
     /**
-     * Busca notícias por palavras-chave
+     * Busca notícias por palavras-chave no título ou conteúdo.
+     * Aceita termos (AND), alternativas com OR e frases entre aspas.
+     * Responde pelo índice em memória; recorre ao banco apenas enquanto o índice é construído.
      */
-    public List<Noticia> buscarPorPalavrasChave(String keywords) {
+    public List<NoticiaResumo> buscarPorPalavrasChave(String keywords) {
         return Optional.ofNullable(keywords)
             .filter(k -> !k.isEmpty())
             .filter(k -> !k.trim().isEmpty())
             .map(String::trim)
-            .map(noticiaDAO::findByKeywords)
+            .map(k -> indiceNoticias.buscarPorPalavrasChave(k)
+                .orElseGet(() -> noticiaDAO.findResumosByKeywords(k)))
             .orElse(java.util.Collections.emptyList());
     }
     
+    /**
+     * Busca por palavras-chave no título e no conteúdo, das mais relevantes para as menos.
+     * Termos passam pela análise em português (sem acentos, palavras vazias e plurais), e a
+     * pontuação BM25 favorece ocorrências no título. Enquanto o índice é construído, recorre
+     * ao banco, ordenado por data.
+     */
+    public List<NoticiaResumo> buscarPorRelevancia(String consulta, int limite) {
+        int limiteValido = limite <= 0 ? TAMANHO_PAGINA_PADRAO : Math.min(limite, TAMANHO_PAGINA_MAXIMO);
+        return Optional.ofNullable(consulta)
+            .map(String::trim)
+            .filter(c -> !c.isEmpty())
+            .map(c -> indiceNoticias.buscarPorRelevancia(c, limiteValido)
+                .orElseGet(() -> {
+                    List<NoticiaResumo> encontradas = noticiaDAO.findResumosByKeywords(c);
+                    return encontradas.subList(0, Math.min(limiteValido, encontradas.size()));
+                }))
+            .orElse(Collections.emptyList());
+    }
+    
+    /**
+     * Sugestões de títulos para o autocompletar da busca, das mais populares para as menos.
+     * Responde apenas pelo índice em memória: enquanto ele é construído, não há sugestões.
+     */
+    public List<Sugestao> sugerirTitulos(String prefixo, int limite) {
+        return Optional.ofNullable(prefixo)
+            .flatMap(p -> indiceNoticias.sugerir(p, limite))
+            .orElse(Collections.emptyList());
+    }
+    
+    /**
+     * Registra a leitura de uma notícia no peso de popularidade das sugestões
+     */
+    public void registrarAcesso(Long id) {
+        Optional.ofNullable(id).ifPresent(indiceNoticias::registrarAcesso);
+    }
+    
     /**
      * Exclui uma notícia
      */
+    @Transacional
     public void excluir(Long id, Usuario usuarioLogado) throws ServiceException {
-        Noticia noticia = noticiaDAO.findById(id)
+        Noticia noticia = noticiaDAO.findByIdComAutor(id)
             .orElseThrow(() -> new ServiceException("Notícia não encontrada"));
+        if (!podeExcluir(noticia, usuarioLogado)) {
+            throw new ServiceException("Você não tem permissão para excluir esta notícia");
+        }
         
-        // Verifica se o usuário pode excluir a notícia
-        Optional.of(podeExcluir(noticia, usuarioLogado))
-            .filter(Boolean::booleanValue)
-            .orElseThrow(() -> new ServiceException("Você não tem permissão para excluir esta notícia"));
-        
+        // Remoção pela entidade gerenciada (já no contexto da requisição): um DELETE em
+        // lote invalidaria toda a região "noticias" do cache de segundo nível
         noticiaDAO.delete(id);
+        
+        UnidadeTrabalho.aposConfirmacao(() -> {
+            removerDoFeed(id);
+            eventos.fire(new NoticiaAlterada(NoticiaAlterada.Tipo.EXCLUIDA, id, null));
+        });
     }
     
     /**
@@ -138,6 +333,118 @@ public class NoticiaService {
         return podeEditar(noticia, usuario); // Mesma regra de edição
     }
     
+    /**
+     * Monta a primeira página a partir do snapshot, sem acessar o banco
+     */
+    private Pagina<NoticiaResumo> paginaDoFeed(int tamanho) {
+        List<NoticiaResumo> atual = obterFeed();
+        if (atual.size() <= tamanho) {
+            return new Pagina<>(atual, null);
+        }
+        NoticiaResumo ultima = atual.get(tamanho - 1);
+        return new Pagina<>(atual.subList(0, tamanho),
+            new CursorNoticia(ultima.getDataPublicacao(), ultima.getId()).codificar());
+    }
+    
+    /**
+     * Retorna o snapshot do feed, carregando-o do banco apenas na primeira vez
+     */
+    private List<NoticiaResumo> obterFeed() {
+        List<NoticiaResumo> atual = feed;
+        if (atual != null) {
+            return atual;
+        }
+        synchronized (travaFeed) {
+            if (feed == null) {
+                recarregarFeed();
+            }
+            return feed;
+        }
+    }
+    
+    /**
+     * Recarrega o snapshot do banco; deve ser chamado com a trava do feed
+     */
+    private void recarregarFeed() {
+        feed = Collections.unmodifiableList(new ArrayList<>(
+            noticiaDAO.findResumosPagina(Optional.empty(), TAMANHO_FEED).getItens()));
+    }
+    
+    /**
+     * Inclui uma notícia recém-publicada no snapshot, na posição correspondente à sua data
+     */
+    private void incluirNoFeed(Long id) {
+        synchronized (travaFeed) {
+            if (feed == null) {
+                return; // Será carregado do banco, já com a notícia, na próxima leitura
+            }
+            Optional<NoticiaResumo> noticia = noticiaDAO.findResumoById(id);
+            if (!noticia.isPresent()) {
+                return;
+            }
+            List<NoticiaResumo> novo = new ArrayList<>(feed);
+            novo.add(noticia.get());
+            novo.sort(NoticiaResumo.MAIS_RECENTES_PRIMEIRO);
+            if (novo.size() > TAMANHO_FEED) {
+                novo.remove(novo.size() - 1);
+            }
+            feed = Collections.unmodifiableList(novo);
+        }
+    }
+    
+    /**
+     * Substitui uma notícia editada no snapshot. Se a edição a tirar da janela do feed,
+     * o snapshot é recarregado do banco para não deixar lacunas.
+     */
+    private void substituirNoFeed(Long id) {
+        synchronized (travaFeed) {
+            if (feed == null) {
+                return;
+            }
+            NoticiaResumo noticia = noticiaDAO.findResumoById(id).orElse(null);
+            List<NoticiaResumo> novo = new ArrayList<>(feed);
+            boolean estava = novo.removeIf(n -> n.getId().equals(id));
+            if (noticia == null) {
+                feed = Collections.unmodifiableList(novo);
+                return;
+            }
+            boolean temEspaco = feed.size() < TAMANHO_FEED;
+            boolean dentroDaJanela = temEspaco || novo.isEmpty()
+                || NoticiaResumo.MAIS_RECENTES_PRIMEIRO.compare(noticia, novo.get(novo.size() - 1)) < 0;
+            if (!dentroDaJanela) {
+                if (estava) {
+                    recarregarFeed();
+                }
+                return;
+            }
+            novo.add(noticia);
+            novo.sort(NoticiaResumo.MAIS_RECENTES_PRIMEIRO);
+            if (novo.size() > TAMANHO_FEED) {
+                novo.remove(novo.size() - 1);
+            }
+            feed = Collections.unmodifiableList(novo);
+        }
+    }
+    
+    /**
+     * Remove uma notícia excluída do snapshot. Se ela estava na janela de um feed cheio,
+     * o snapshot é recarregado do banco para repor o último item.
+     */
+    private void removerDoFeed(Long id) {
+        synchronized (travaFeed) {
+            if (feed == null || feed.stream().noneMatch(n -> n.getId().equals(id))) {
+                return;
+            }
+            if (feed.size() == TAMANHO_FEED) {
+                recarregarFeed();
+                return;
+            }
+            List<NoticiaResumo> novo = new ArrayList<>(feed);
+            novo.removeIf(n -> n.getId().equals(id));
+            feed = Collections.unmodifiableList(novo);
+        }
+    }
+    
     /**
      * Valida os dados da notícia
      */
@@ -155,7 +462,7 @@ public class NoticiaService {
     /**
      * Valida o título da notícia
      */
-    private void validarTitulo(String titulo) throws ServiceException {
+    static void validarTitulo(String titulo) throws ServiceException {
         Optional.ofNullable(titulo)
             .filter(t -> !t.isEmpty())
             .filter(t -> !t.trim().isEmpty())
@@ -169,7 +476,7 @@ public class NoticiaService {
     /**
      * Valida o conteúdo da notícia
      */
-    private void validarConteudo(String conteudo) throws ServiceException {
+    static void validarConteudo(String conteudo) throws ServiceException {
         Optional.ofNullable(conteudo)
             .filter(c -> !c.isEmpty())
             .filter(c -> !c.trim().isEmpty())
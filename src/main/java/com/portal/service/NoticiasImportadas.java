@@ -0,0 +1,19 @@
+package com.portal.service;
+
+/**
+ * Evento CDI disparado ao fim de uma importação em lote. As linhas são gravadas
+ * por JDBC direto, sem um {@link NoticiaAlterada} por notícia, então índices e
+ * snapshots em memória devem ser recarregados por inteiro.
+ */
+public class NoticiasImportadas {
+    
+    private final long quantidade;
+    
+    public NoticiasImportadas(long quantidade) {
+        this.quantidade = quantidade;
+    }
+    
+    public long getQuantidade() {
+        return quantidade;
+    }
+}
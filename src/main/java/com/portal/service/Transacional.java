@@ -0,0 +1,20 @@
+package com.portal.service;
+
+import javax.interceptor.InterceptorBinding;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Delimita uma transação na camada de serviço: todas as chamadas de DAO do método
+ * compartilham o EntityManager da unidade de trabalho e são confirmadas juntas ao
+ * final, ou desfeitas juntas se o método lançar exceção.
+ */
+@Inherited
+@InterceptorBinding
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.TYPE, ElementType.METHOD})
+public @interface Transacional {
+}
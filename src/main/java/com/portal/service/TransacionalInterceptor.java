@@ -0,0 +1,44 @@
+package com.portal.service;
+
+import com.portal.dao.UnidadeTrabalho;
+
+import javax.annotation.Priority;
+import javax.interceptor.AroundInvoke;
+import javax.interceptor.Interceptor;
+import javax.interceptor.InvocationContext;
+import javax.persistence.EntityTransaction;
+import java.io.Serializable;
+
+/**
+ * Implementa {@link Transacional}. Métodos transacionais chamados dentro de outro
+ * participam da transação externa, que é a única a decidir commit ou rollback.
+ * As ações agendadas com {@link UnidadeTrabalho#aposConfirmacao(Runnable)} rodam
+ * após o commit dessa transação externa e são descartadas no rollback.
+ */
+@Transacional
+@Interceptor
+@Priority(Interceptor.Priority.APPLICATION)
+public class TransacionalInterceptor implements Serializable {
+    
+    private static final long serialVersionUID = 1L;
+    
+    @AroundInvoke
+    public Object executar(InvocationContext contexto) throws Exception {
+        try (UnidadeTrabalho unidade = UnidadeTrabalho.abrir()) {
+            EntityTransaction transacao = unidade.getEntityManager().getTransaction();
+            if (transacao.isActive()) {
+                return contexto.proceed();
+            }
+            
+            transacao.begin();
+            try {
+                Object resultado = contexto.proceed();
+                unidade.confirmar();
+                return resultado;
+            } catch (Exception | Error e) {
+                unidade.desfazer();
+                throw e;
+            }
+        }
+    }
+}
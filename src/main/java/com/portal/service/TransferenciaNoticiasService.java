@@ -0,0 +1,158 @@
+package com.portal.service;
+
+import com.portal.dao.GenericDAO;
+import com.portal.dao.NoticiaDAO;
+import com.portal.dao.UsuarioDAO;
+import com.portal.model.RegistroNoticia;
+import com.portal.transfer.EscritorRegistros;
+import com.portal.transfer.FormatoTransferencia;
+import com.portal.transfer.LeitorRegistros;
+import com.portal.transfer.LinhaInvalidaException;
+import com.portal.transfer.ResultadoImportacao;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Event;
+import javax.inject.Inject;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Importação e exportação em lote de notícias (NDJSON ou CSV).
+ * Os dois sentidos trabalham em fluxo: a importação grava em transações de
+ * {@value #TAMANHO_LOTE} linhas com batch JDBC e a exportação percorre a tabela
+ * com um cursor somente-avanço, ambos em memória constante.
+ */
+@ApplicationScoped
+public class TransferenciaNoticiasService {
+    
+    private static final Logger LOGGER = Logger.getLogger(TransferenciaNoticiasService.class.getName());
+    
+    /** Linhas por transação e por batch JDBC na importação */
+    static final int TAMANHO_LOTE = 1000;
+    
+    private static final int TAMANHO_TITULO = 200;
+    private static final int TAMANHO_BUFFER_SAIDA = 64 * 1024;
+    
+    @Inject
+    private NoticiaDAO noticiaDAO;
+    
+    @Inject
+    private UsuarioDAO usuarioDAO;
+    
+    @Inject
+    private Event<NoticiasImportadas> eventos;
+    
+    /**
+     * Importa as notícias da entrada. Linhas inválidas são rejeitadas individualmente;
+     * um lote que falhar no banco é desfeito por inteiro e os demais seguem.
+     * @param responsavelId autor atribuído às linhas sem autorId
+     */
+    public ResultadoImportacao importar(InputStream entrada, FormatoTransferencia formato, Long responsavelId)
+            throws ServiceException {
+        ResultadoImportacao resultado = new ResultadoImportacao();
+        Map<Long, Boolean> autoresValidos = new HashMap<>();
+        List<RegistroNoticia> lote = new ArrayList<>(TAMANHO_LOTE);
+        long inicio = System.currentTimeMillis();
+        long linhaLote = 1;
+        long registros = 0;
+        
+        try (LeitorRegistros leitor = formato.leitor(new InputStreamReader(entrada, StandardCharsets.UTF_8))) {
+            while (true) {
+                RegistroNoticia registro;
+                try {
+                    registro = leitor.proximo();
+                } catch (LinhaInvalidaException e) {
+                    resultado.rejeitar(1, e.getMessage());
+                    continue;
+                }
+                if (registro == null) {
+                    break;
+                }
+                registros++;
+                
+                RegistroNoticia completo = registro.comPadroes(LocalDateTime.now(), responsavelId);
+                try {
+                    validar(completo, autoresValidos);
+                } catch (ServiceException e) {
+                    resultado.rejeitar(1, "Registro " + registros + ": " + e.getMessage());
+                    continue;
+                }
+                
+                lote.add(completo);
+                if (lote.size() == TAMANHO_LOTE) {
+                    gravar(lote, linhaLote, resultado);
+                    linhaLote = registros + 1;
+                }
+            }
+            gravar(lote, linhaLote, resultado);
+        } catch (IOException e) {
+            throw new ServiceException("Erro ao ler o arquivo de importação: " + e.getMessage(), e);
+        } finally {
+            resultado.setDuracaoMs(System.currentTimeMillis() - inicio);
+            if (resultado.getImportadas() > 0) {
+                GenericDAO.evictQueryCache();
+                eventos.fire(new NoticiasImportadas(resultado.getImportadas()));
+            }
+        }
+        return resultado;
+    }
+    
+    /**
+     * Exporta todas as notícias, em ordem de ID, para a saída informada
+     * @return quantidade de notícias exportadas
+     */
+    public long exportar(OutputStream saida, FormatoTransferencia formato) throws ServiceException {
+        try (EscritorRegistros escritor = formato.escritor(new BufferedWriter(
+                new OutputStreamWriter(saida, StandardCharsets.UTF_8), TAMANHO_BUFFER_SAIDA))) {
+            return noticiaDAO.exportAll(registro -> {
+                try {
+                    escritor.escrever(registro);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (IOException | UncheckedIOException e) {
+            throw new ServiceException("Erro ao exportar notícias: " + e.getMessage(), e);
+        }
+    }
+    
+    private void gravar(List<RegistroNoticia> lote, long primeiroRegistro, ResultadoImportacao resultado) {
+        if (lote.isEmpty()) {
+            return;
+        }
+        try {
+            resultado.somarImportadas(noticiaDAO.insertBatch(lote));
+        } catch (RuntimeException e) {
+            LOGGER.log(Level.WARNING, "Falha ao gravar lote de importação", e);
+            resultado.rejeitar(lote.size(), "Registros " + primeiroRegistro + " a "
+                + (primeiroRegistro + lote.size() - 1) + ": " + e.getMessage());
+        }
+        lote.clear();
+    }
+    
+    private void validar(RegistroNoticia registro, Map<Long, Boolean> autoresValidos) throws ServiceException {
+        NoticiaService.validarTitulo(registro.getTitulo());
+        NoticiaService.validarConteudo(registro.getConteudo());
+        if (registro.getTitulo().length() > TAMANHO_TITULO) {
+            throw new ServiceException("Título deve ter no máximo " + TAMANHO_TITULO + " caracteres");
+        }
+        boolean autorExiste = autoresValidos.computeIfAbsent(registro.getAutorId(),
+            id -> usuarioDAO.findById(id).isPresent());
+        if (!autorExiste) {
+            throw new ServiceException("Autor " + registro.getAutorId() + " não encontrado");
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.portal.service;
+
+/**
+ * Evento CDI disparado pelo {@link UsuarioService} após atualizar ou excluir um usuário.
+ * O nome do autor aparece nas listagens, e a exclusão remove em cascata as notícias
+ * do usuário sem gerar um {@link NoticiaAlterada} por notícia.
+ */
+public class UsuarioAlterado {
+    
+    private final Long id;
+    private final boolean exclusao;
+    
+    public UsuarioAlterado(Long id, boolean exclusao) {
+        this.id = id;
+        this.exclusao = exclusao;
+    }
+    
+    public Long getId() {
+        return id;
+    }
+    
+    public boolean isExclusao() {
+        return exclusao;
+    }
+}
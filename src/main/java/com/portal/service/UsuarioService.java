@@ -1,15 +1,17 @@
 package com.portal.service;
 
+import com.portal.dao.UnidadeTrabalho;
 import com.portal.dao.UsuarioDAO;
 import com.portal.model.PerfilUsuario;
 import com.portal.model.Usuario;
 import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Event;
 import javax.inject.Inject;
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
 import java.util.List;
 import java.util.Optional;
 import java.util.function.Predicate;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 /**
  * Serviço para operações de negócio relacionadas a usuários.
@@ -18,12 +20,21 @@ import java.util.function.Predicate;
 @ApplicationScoped
 public class UsuarioService {
     
+    private static final Logger LOGGER = Logger.getLogger(UsuarioService.class.getName());
+    
     @Inject
     private UsuarioDAO usuarioDAO;
     
+    @Inject
+    private VerificadorSenhas verificadorSenhas;
+    
+    @Inject
+    private Event<UsuarioAlterado> eventos;
+    
     /**
      * Salva um novo usuário com validações
      */
+    @Transacional
     public void salvar(Usuario usuario) throws ServiceException {
         validarUsuario(usuario);
         
@@ -33,7 +44,7 @@ public class UsuarioService {
         }
         
         // Criptografa a senha
-        usuario.setSenha(criptografarSenha(usuario.getSenha()));
+        usuario.setSenha(verificadorSenhas.codificar(usuario.getSenha()));
         
         usuarioDAO.save(usuario);
     }
@@ -41,6 +52,7 @@ public class UsuarioService {
     /**
      * Atualiza um usuário existente
      */
+    @Transacional
     public Usuario atualizar(Usuario usuario) throws ServiceException {
         validarUsuario(usuario);
         
@@ -51,7 +63,9 @@ public class UsuarioService {
                 throw new RuntimeException("Email já está em uso por outro usuário");
             });
         
-        return usuarioDAO.update(usuario);
+        Usuario atualizado = usuarioDAO.update(usuario);
+        UnidadeTrabalho.aposConfirmacao(() -> eventos.fire(new UsuarioAlterado(atualizado.getId(), false)));
+        return atualizado;
     }
     
     /**
@@ -61,9 +75,32 @@ public class UsuarioService {
         validarCampoObrigatorio(email, "Email é obrigatório");
         validarCampoObrigatorio(senha, "Senha é obrigatória");
         
-        String senhaCriptografada = criptografarSenha(senha);
-        return usuarioDAO.authenticate(email, senhaCriptografada)
-            .orElseThrow(() -> new ServiceException("Email ou senha inválidos"));
+        // Uma única busca pelo email (índice único); a senha é conferida em memória
+        Optional<Usuario> usuario = usuarioDAO.findByEmail(email);
+        String gravado = usuario.map(Usuario::getSenha).orElse(null);
+        if (!verificadorSenhas.confere(senha, gravado)) {
+            throw new ServiceException("Email ou senha inválidos");
+        }
+        
+        Usuario autenticado = usuario.get();
+        if (verificadorSenhas.precisaRecodificar(gravado)) {
+            recodificarSenha(autenticado, senha);
+        }
+        return autenticado;
+    }
+    
+    /**
+     * Migra o hash legado (ou de custo menor) para o formato atual, aproveitando a senha em claro do login.
+     * Uma falha aqui não impede o login; a migração é tentada de novo no próximo.
+     */
+    private void recodificarSenha(Usuario usuario, String senha) {
+        try {
+            // Atualiza a instância gerenciada: um UPDATE em lote limparia o contexto de persistência da requisição
+            usuario.setSenha(verificadorSenhas.codificar(senha));
+            usuarioDAO.update(usuario);
+        } catch (ServiceException | RuntimeException e) {
+            LOGGER.log(Level.WARNING, "Não foi possível migrar o hash de senha do usuário " + usuario.getId(), e);
+        }
     }
     
     /**
@@ -83,11 +120,13 @@ public class UsuarioService {
     /**
      * Exclui um usuário
      */
+    @Transacional
     public void excluir(Long id) throws ServiceException {
         usuarioDAO.findById(id)
             .orElseThrow(() -> new ServiceException("Usuário não encontrado"));
         
         usuarioDAO.delete(id);
+        UnidadeTrabalho.aposConfirmacao(() -> eventos.fire(new UsuarioAlterado(id, true)));
     }
     
     /**
@@ -136,27 +175,4 @@ public class UsuarioService {
             .filter(s -> s.length() >= 6)
             .orElseThrow(() -> new ServiceException("Senha deve ter pelo menos 6 caracteres"));
     }
-    
-    /**
-     * Criptografa a senha usando SHA-256
-     */
-    private String criptografarSenha(String senha) {
-        try {
-            MessageDigest md = MessageDigest.getInstance("SHA-256");
-            byte[] hash = md.digest(senha.getBytes());
-            StringBuilder hexString = new StringBuilder();
-            
-            for (byte b : hash) {
-                String hex = Integer.toHexString(0xff & b);
-                if (hex.length() == 1) {
-                    hexString.append('0');
-                }
-                hexString.append(hex);
-            }
-            
-            return hexString.toString();
-        } catch (NoSuchAlgorithmException e) {
-            throw new RuntimeException("Erro ao criptografar senha", e);
-        }
-    }
-}
\ No newline at end of file
+}
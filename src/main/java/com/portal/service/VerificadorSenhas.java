@@ -0,0 +1,138 @@
+package com.portal.service;
+
+import javax.annotation.Resource;
+import javax.enterprise.concurrent.ManagedExecutorService;
+import javax.enterprise.context.ApplicationScoped;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Executa o hash de senhas (caro por design) no executor gerenciado do container, fora
+ * das threads de requisição, com paralelismo e espera limitados por semáforos. Com as
+ * vagas de execução e de espera ocupadas, novos logins são recusados na hora em vez de
+ * enfileirar sem limite e consumir as threads que atendem o restante do portal.
+ * Fora do container (sem executor), o hash roda na thread chamadora, com os mesmos limites.
+ */
+@ApplicationScoped
+public class VerificadorSenhas {
+    
+    private static final int LIMITE_FILA = 64;
+    private static final long TEMPO_MAXIMO_SEGUNDOS = 10;
+    
+    /** Hash de referência usado quando o email não existe, para que a resposta leve o mesmo tempo */
+    private static final String HASH_FICTICIO = CodificadorSenha.codificar("senha-inexistente");
+    
+    @Resource
+    private ManagedExecutorService executor;
+    
+    private final int paralelismo = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+    
+    /** Hashes em execução ao mesmo tempo */
+    private final Semaphore execucoes = new Semaphore(paralelismo);
+    
+    /** Verificações admitidas, em execução ou aguardando vaga */
+    private final Semaphore admitidas = new Semaphore(paralelismo + LIMITE_FILA);
+    
+    /**
+     * Gera o hash de uma nova senha
+     */
+    public String codificar(String senha) throws ServiceException {
+        return executar(() -> CodificadorSenha.codificar(senha));
+    }
+    
+    /**
+     * Confere a senha com o hash gravado; com hash nulo (usuário inexistente) faz o mesmo
+     * trabalho contra um hash fictício e retorna falso
+     */
+    public boolean confere(String senha, String gravado) throws ServiceException {
+        return executar(() -> {
+            if (gravado == null) {
+                CodificadorSenha.confere(senha, HASH_FICTICIO);
+                return false;
+            }
+            return CodificadorSenha.confere(senha, gravado);
+        });
+    }
+    
+    /**
+     * Indica se o hash gravado está em formato legado ou com custo abaixo do atual
+     */
+    public boolean precisaRecodificar(String gravado) {
+        return CodificadorSenha.precisaRecodificar(gravado);
+    }
+    
+    /**
+     * Verificações aguardando vaga de execução (para monitoração)
+     */
+    public int getTamanhoFila() {
+        return execucoes.getQueueLength();
+    }
+    
+    private <R> R executar(Callable<R> tarefa) throws ServiceException {
+        if (!admitidas.tryAcquire()) {
+            throw new ServiceException("Muitas tentativas de login no momento. Tente novamente em instantes.");
+        }
+        try {
+            if (!execucoes.tryAcquire(TEMPO_MAXIMO_SEGUNDOS, TimeUnit.SECONDS)) {
+                throw new ServiceException("Tempo esgotado ao verificar a senha. Tente novamente.");
+            }
+            return executor != null ? emSegundoPlano(tarefa) : naThreadAtual(tarefa);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceException("Verificação de senha interrompida");
+        } finally {
+            admitidas.release();
+        }
+    }
+    
+    /**
+     * Executa no executor gerenciado; a vaga de execução é devolvida uma única vez,
+     * pela tarefa ao terminar ou por quem a cancelar
+     */
+    private <R> R emSegundoPlano(Callable<R> tarefa) throws ServiceException, InterruptedException {
+        AtomicBoolean liberada = new AtomicBoolean();
+        Runnable liberar = () -> {
+            if (liberada.compareAndSet(false, true)) {
+                execucoes.release();
+            }
+        };
+        Future<R> resultado;
+        try {
+            resultado = executor.submit(() -> {
+                try {
+                    return tarefa.call();
+                } finally {
+                    liberar.run();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            liberar.run();
+            throw new ServiceException("Muitas tentativas de login no momento. Tente novamente em instantes.");
+        }
+        try {
+            return resultado.get(TEMPO_MAXIMO_SEGUNDOS, TimeUnit.SECONDS);
+        } catch (TimeoutException e) {
+            resultado.cancel(true);
+            liberar.run();
+            throw new ServiceException("Tempo esgotado ao verificar a senha. Tente novamente.");
+        } catch (ExecutionException e) {
+            throw new ServiceException("Erro ao verificar a senha", e.getCause());
+        }
+    }
+    
+    private <R> R naThreadAtual(Callable<R> tarefa) throws ServiceException {
+        try {
+            return tarefa.call();
+        } catch (Exception e) {
+            throw new ServiceException("Erro ao verificar a senha", e);
+        } finally {
+            execucoes.release();
+        }
+    }
+}
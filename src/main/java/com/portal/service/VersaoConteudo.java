@@ -0,0 +1,52 @@
+package com.portal.service;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Observes;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Versão global do conteúdo público, usada como validador HTTP (ETag/Last-Modified).
+ * Avança a cada escrita de notícia, importação ou alteração de usuário (o nome do
+ * autor aparece nas páginas). Começa no instante da subida da aplicação, então um
+ * novo deploy nunca reaproveita ETags emitidas pela versão anterior.
+ */
+@ApplicationScoped
+public class VersaoConteudo {
+    
+    private final AtomicLong versao = new AtomicLong(System.currentTimeMillis());
+    
+    /** Instante da última alteração, truncado em segundos como o cabeçalho Last-Modified */
+    private volatile long ultimaAlteracao = segundos(System.currentTimeMillis());
+    
+    public long getVersao() {
+        return versao.get();
+    }
+    
+    public long getUltimaAlteracao() {
+        return ultimaAlteracao;
+    }
+    
+    /**
+     * Invalida os validadores emitidos até agora
+     */
+    public void incrementar() {
+        ultimaAlteracao = segundos(System.currentTimeMillis());
+        versao.incrementAndGet();
+    }
+    
+    void aoAlterarNoticia(@Observes NoticiaAlterada evento) {
+        incrementar();
+    }
+    
+    void aoImportarNoticias(@Observes NoticiasImportadas evento) {
+        incrementar();
+    }
+    
+    void aoAlterarUsuario(@Observes UsuarioAlterado evento) {
+        incrementar();
+    }
+    
+    private static long segundos(long millis) {
+        return millis / 1000 * 1000;
+    }
+}
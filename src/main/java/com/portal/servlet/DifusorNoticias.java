@@ -0,0 +1,257 @@
+package com.portal.servlet;
+
+import com.portal.model.Noticia;
+import com.portal.service.NoticiaAlterada;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.annotation.Resource;
+import javax.enterprise.concurrent.ManagedExecutorService;
+import javax.enterprise.concurrent.ManagedExecutors;
+import javax.enterprise.concurrent.ManagedTask;
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Observes;
+import javax.json.Json;
+import javax.json.stream.JsonGenerator;
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Difunde por Server-Sent Events as notícias publicadas ou atualizadas.
+ * <p>
+ * Uma única tarefa de longa duração, no executor gerenciado do container, distribui
+ * cada evento para a fila limitada de cada cliente; a escrita usa I/O não bloqueante
+ * (WriteListener), então nenhuma thread fica presa a uma conexão ociosa ou lenta. O cliente cuja fila enche é desconectado (o
+ * EventSource do navegador reconecta sozinho). Um comentário de keep-alive é
+ * enviado periodicamente para manter proxies abertos e detectar conexões mortas.
+ */
+@ApplicationScoped
+public class DifusorNoticias {
+    
+    private static final Logger LOGGER = Logger.getLogger(DifusorNoticias.class.getName());
+    
+    /** Eventos pendentes por cliente antes de ele ser considerado lento */
+    private static final int TAMANHO_FILA_CLIENTE = 32;
+    private static final int LIMITE_CLIENTES = 50_000;
+    private static final long INTERVALO_KEEPALIVE_MS = 15_000;
+    
+    private static final byte[] KEEPALIVE = ":\n\n".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] INICIO = "retry: 5000\n\n".getBytes(StandardCharsets.UTF_8);
+    
+    private final Set<Cliente> clientes = ConcurrentHashMap.newKeySet();
+    private final BlockingQueue<byte[]> eventos = new LinkedBlockingQueue<>(1024);
+    private final AtomicLong sequencia = new AtomicLong();
+    
+    @Resource
+    private ManagedExecutorService executor;
+    
+    private Future<?> difusor;
+    private volatile boolean ativo;
+    
+    @PostConstruct
+    public void iniciar() {
+        if (executor == null) {
+            LOGGER.warning("Executor gerenciado indisponível; eventos SSE não serão difundidos");
+            return;
+        }
+        ativo = true;
+        // Marcada como longa para o container não tratá-la como tarefa presa
+        difusor = executor.submit(ManagedExecutors.managedTask((Runnable) this::difundir,
+            Collections.singletonMap(ManagedTask.LONGRUNNING_HINT, "true"), null));
+    }
+    
+    @PreDestroy
+    public void encerrar() {
+        ativo = false;
+        if (difusor != null) {
+            difusor.cancel(true);
+        }
+        clientes.forEach(Cliente::encerrar);
+    }
+    
+    /**
+     * Registra uma conexão SSE já em modo assíncrono
+     * @return false se a difusão não está ativa ou o limite de conexões foi atingido
+     */
+    public boolean registrar(AsyncContext contexto) throws IOException {
+        if (!ativo || clientes.size() >= LIMITE_CLIENTES) {
+            return false;
+        }
+        Cliente cliente = new Cliente(contexto);
+        cliente.enfileirar(INICIO);
+        contexto.addListener(cliente);
+        contexto.getResponse().getOutputStream().setWriteListener(cliente);
+        // Só entra na difusão depois de estar em modo não bloqueante
+        clientes.add(cliente);
+        return true;
+    }
+    
+    public int getClientesConectados() {
+        return clientes.size();
+    }
+    
+    /**
+     * Publica as notícias criadas ou atualizadas; exclusões não geram evento
+     */
+    void aoAlterarNoticia(@Observes NoticiaAlterada evento) {
+        if (!ativo || evento.isExclusao() || !evento.getNoticia().isPresent() || clientes.isEmpty()) {
+            return;
+        }
+        if (!eventos.offer(formatar(evento.getTipo(), evento.getNoticia().get()))) {
+            LOGGER.warning("Fila de eventos SSE cheia; evento descartado");
+        }
+    }
+    
+    private byte[] formatar(NoticiaAlterada.Tipo tipo, Noticia noticia) {
+        StringWriter dados = new StringWriter();
+        try (JsonGenerator json = Json.createGenerator(dados)) {
+            json.writeStartObject()
+                .write("tipo", tipo.name())
+                .write("id", noticia.getId())
+                .write("titulo", noticia.getTitulo());
+            if (noticia.getDataPublicacao() != null) {
+                json.write("dataPublicacao", noticia.getDataPublicacao().toString());
+            }
+            json.writeEnd();
+        }
+        return ("id: " + sequencia.incrementAndGet() + "\nevent: noticia\ndata: " + dados + "\n\n")
+            .getBytes(StandardCharsets.UTF_8);
+    }
+    
+    /**
+     * Laço da tarefa difusora: entrega cada evento a todos os clientes e, na falta de
+     * eventos, envia o keep-alive
+     */
+    private void difundir() {
+        long ultimoEnvio = System.currentTimeMillis();
+        while (ativo) {
+            try {
+                byte[] evento = eventos.poll(INTERVALO_KEEPALIVE_MS, TimeUnit.MILLISECONDS);
+                if (evento == null && System.currentTimeMillis() - ultimoEnvio < INTERVALO_KEEPALIVE_MS) {
+                    continue;
+                }
+                byte[] mensagem = evento != null ? evento : KEEPALIVE;
+                for (Cliente cliente : clientes) {
+                    if (cliente.encerrado) {
+                        clientes.remove(cliente);
+                    } else if (cliente.enfileirar(mensagem)) {
+                        cliente.escrever();
+                    } else {
+                        cliente.encerrar();
+                    }
+                }
+                ultimoEnvio = System.currentTimeMillis();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                LOGGER.log(Level.WARNING, "Falha ao difundir evento SSE", e);
+            }
+        }
+    }
+    
+    /**
+     * Conexão SSE: fila limitada de mensagens escrita sem bloquear, tanto pela tarefa
+     * difusora quanto pelo container quando o socket volta a aceitar dados
+     */
+    private final class Cliente implements WriteListener, AsyncListener {
+        
+        private final AsyncContext contexto;
+        private final BlockingQueue<byte[]> fila = new ArrayBlockingQueue<>(TAMANHO_FILA_CLIENTE);
+        private volatile boolean encerrado;
+        
+        private Cliente(AsyncContext contexto) {
+            this.contexto = contexto;
+        }
+        
+        private boolean enfileirar(byte[] mensagem) {
+            return fila.offer(mensagem);
+        }
+        
+        /**
+         * Escreve o que couber sem bloquear; o restante fica para o próximo onWritePossible
+         */
+        private synchronized void escrever() {
+            if (encerrado) {
+                return;
+            }
+            try {
+                ServletOutputStream saida = contexto.getResponse().getOutputStream();
+                boolean escreveu = false;
+                while (saida.isReady()) {
+                    byte[] mensagem = fila.poll();
+                    if (mensagem == null) {
+                        if (escreveu && saida.isReady()) {
+                            saida.flush();
+                        }
+                        return;
+                    }
+                    saida.write(mensagem);
+                    escreveu = true;
+                }
+            } catch (IOException | IllegalStateException e) {
+                encerrar();
+            }
+        }
+        
+        private void encerrar() {
+            if (!encerrado) {
+                encerrado = true;
+                clientes.remove(this);
+                try {
+                    contexto.complete();
+                } catch (IllegalStateException e) {
+                    // Já concluído pelo container
+                }
+            }
+        }
+        
+        @Override
+        public void onWritePossible() {
+            escrever();
+        }
+        
+        @Override
+        public void onError(Throwable t) {
+            encerrar();
+        }
+        
+        @Override
+        public void onComplete(AsyncEvent event) {
+            encerrado = true;
+            clientes.remove(this);
+        }
+        
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            encerrar();
+        }
+        
+        @Override
+        public void onError(AsyncEvent event) {
+            encerrar();
+        }
+        
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // Não reinicia
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.portal.servlet;
+
+import com.portal.feed.DocumentoFeed;
+import com.portal.feed.FeedsNoticias;
+import com.portal.feed.FormatoFeed;
+import com.portal.filter.CompressaoFilter;
+import com.portal.filter.ValidadoresHttp;
+
+import javax.inject.Inject;
+import javax.servlet.ServletException;
+import javax.servlet.annotation.WebServlet;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Feeds RSS 2.0 e Atom das últimas notícias.
+ * <ul>
+ *   <li>{@code GET /feeds/rss} e {@code /feeds/atom} - feed global</li>
+ *   <li>{@code GET /feeds/autor/{id}/rss} e {@code /feeds/autor/{id}/atom} - feed de um autor</li>
+ * </ul>
+ * Os documentos vêm prontos do {@link FeedsNoticias}, já em gzip quando o cliente aceita.
+ * Links absolutos usam o context-param {@code com.portal.URL_PUBLICA} ou, na sua
+ * ausência, o esquema e o host da requisição.
+ */
+@WebServlet(name = "FeedsServlet", urlPatterns = "/feeds/*")
+public class FeedsServlet extends HttpServlet {
+    
+    private static final long serialVersionUID = 1L;
+    
+    public static final String PARAMETRO_URL_PUBLICA = "com.portal.URL_PUBLICA";
+    
+    private static final String CACHE_CONTROL = "public, max-age=60";
+    private static final Pattern GLOBAL = Pattern.compile("/(\\w+)");
+    private static final Pattern AUTOR = Pattern.compile("/autor/(\\d{1,18})/(\\w+)");
+    
+    @Inject
+    private FeedsNoticias feedsNoticias;
+    
+    private String urlPublica;
+    
+    @Override
+    public void init() throws ServletException {
+        urlPublica = Optional.ofNullable(getServletContext().getInitParameter(PARAMETRO_URL_PUBLICA))
+            .map(String::trim)
+            .filter(url -> !url.isEmpty())
+            .map(url -> url.endsWith("/") ? url.substring(0, url.length() - 1) : url)
+            .orElse(null);
+    }
+    
+    @Override
+    protected void doGet(HttpServletRequest request, HttpServletResponse response)
+            throws ServletException, IOException {
+        String caminho = Optional.ofNullable(request.getPathInfo()).orElse("/");
+        String base = base(request);
+        
+        Optional<DocumentoFeed> documento;
+        Matcher global = GLOBAL.matcher(caminho);
+        Matcher autor = AUTOR.matcher(caminho);
+        if (global.matches()) {
+            documento = FormatoFeed.resolver(global.group(1))
+                .map(formato -> feedsNoticias.global(formato, base));
+        } else if (autor.matches()) {
+            Long autorId = Long.valueOf(autor.group(1));
+            documento = FormatoFeed.resolver(autor.group(2))
+                .flatMap(formato -> feedsNoticias.doAutor(autorId, formato, base));
+        } else {
+            documento = Optional.empty();
+        }
+        
+        if (!documento.isPresent()) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        enviar(request, response, documento.get());
+    }
+    
+    private static void enviar(HttpServletRequest request, HttpServletResponse response, DocumentoFeed documento)
+            throws IOException {
+        boolean gzip = CompressaoFilter.aceitaGzip(request.getHeader("Accept-Encoding"));
+        String etag = gzip ? documento.getEtag().replaceFirst("\"$", "-gz\"") : documento.getEtag();
+        response.setHeader("Cache-Control", CACHE_CONTROL);
+        response.setHeader("Vary", "Accept-Encoding");
+        response.setHeader("ETag", etag);
+        response.setDateHeader("Last-Modified", documento.getUltimaAlteracao());
+        if (ValidadoresHttp.naoModificado(request, etag, documento.getUltimaAlteracao())) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+        
+        byte[] corpo = gzip ? documento.getComprimido() : documento.getConteudo();
+        response.setContentType(documento.getContentType());
+        response.setCharacterEncoding("UTF-8");
+        if (gzip) {
+            response.setHeader("Content-Encoding", "gzip");
+        }
+        response.setContentLength(corpo.length);
+        response.getOutputStream().write(corpo);
+    }
+    
+    private String base(HttpServletRequest request) {
+        if (urlPublica != null) {
+            return urlPublica;
+        }
+        int porta = request.getServerPort();
+        boolean portaPadrao = ("http".equals(request.getScheme()) && porta == 80)
+            || ("https".equals(request.getScheme()) && porta == 443);
+        return request.getScheme() + "://" + request.getServerName()
+            + (portaPadrao ? "" : ":" + porta) + request.getContextPath();
+    }
+}
@@ -0,0 +1,167 @@
+package com.portal.servlet;
+
+import com.portal.dao.Pagina;
+import com.portal.filter.ValidadoresHttp;
+import com.portal.model.Noticia;
+import com.portal.model.NoticiaResumo;
+import com.portal.service.NoticiaService;
+import com.portal.service.VersaoConteudo;
+
+import javax.inject.Inject;
+import javax.json.Json;
+import javax.json.stream.JsonGenerator;
+import javax.servlet.ServletException;
+import javax.servlet.annotation.WebServlet;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * API JSON somente leitura das notícias, sem passar pelo ciclo do JSF.
+ * <ul>
+ *   <li>{@code GET /api/noticias?cursor=&limite=} - página por cursor, mais recentes primeiro</li>
+ *   <li>{@code GET /api/noticias?autor=&cursor=&limite=} - página das notícias de um autor, com o total</li>
+ *   <li>{@code GET /api/noticias/{id}} - notícia completa</li>
+ *   <li>{@code GET /api/noticias/search?q=&limite=&ordem=} - busca por palavras-chave, por data
+ *       (padrão) ou, com {@code ordem=relevancia}, das mais relevantes para as menos</li>
+ * </ul>
+ * As respostas são escritas em streaming pelo JsonGenerator e validadas pela
+ * {@link VersaoConteudo} (ETag, Last-Modified e 304).
+ */
+@WebServlet(name = "NoticiasApiServlet", urlPatterns = {"/api/noticias", "/api/noticias/*"})
+public class NoticiasApiServlet extends HttpServlet {
+    
+    private static final long serialVersionUID = 1L;
+    
+    private static final String CACHE_CONTROL = "public, max-age=30, stale-while-revalidate=60";
+    private static final int LIMITE_PADRAO = 20;
+    private static final int LIMITE_MAXIMO = 100;
+    
+    @Inject
+    private NoticiaService noticiaService;
+    
+    @Inject
+    private VersaoConteudo versaoConteudo;
+    
+    @Override
+    protected void doGet(HttpServletRequest request, HttpServletResponse response)
+            throws ServletException, IOException {
+        String caminho = Optional.ofNullable(request.getPathInfo()).orElse("/");
+        
+        // Todo o conteúdo da API muda junto com a versão global
+        String etag = "\"a" + Long.toString(versaoConteudo.getVersao(), 36) + "\"";
+        long ultimaAlteracao = versaoConteudo.getUltimaAlteracao();
+        response.setHeader("Cache-Control", CACHE_CONTROL);
+        response.setHeader("ETag", etag);
+        response.setDateHeader("Last-Modified", ultimaAlteracao);
+        response.setHeader("Access-Control-Allow-Origin", "*");
+        if (ValidadoresHttp.naoModificado(request, etag, ultimaAlteracao)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+        
+        if ("/".equals(caminho)) {
+            listar(request, response);
+        } else if ("/search".equals(caminho)) {
+            buscar(request, response);
+        } else if (caminho.matches("/\\d{1,18}")) {
+            detalhar(Long.valueOf(caminho.substring(1)), response);
+        } else {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+        }
+    }
+    
+    private void listar(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        Optional<Long> autorId = Optional.ofNullable(request.getParameter("autor"))
+            .filter(valor -> valor.matches("\\d{1,18}"))
+            .map(Long::valueOf);
+        Pagina<NoticiaResumo> pagina = autorId
+            .map(autor -> noticiaService.listarPorAutor(autor, request.getParameter("cursor"), limite(request)))
+            .orElseGet(() -> noticiaService.listarPagina(request.getParameter("cursor"), limite(request)));
+        try (JsonGenerator json = gerador(response)) {
+            json.writeStartObject();
+            autorId.ifPresent(autor -> json.write("total", noticiaService.contarPorAutor(autor)));
+            escreverResumos(json, pagina.getItens());
+            if (pagina.getProximoCursor() != null) {
+                json.write("proximoCursor", pagina.getProximoCursor());
+            } else {
+                json.writeNull("proximoCursor");
+            }
+            json.writeEnd();
+        }
+    }
+    
+    private void buscar(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        String termo = request.getParameter("q");
+        if (termo == null || termo.trim().isEmpty()) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, "Informe o parâmetro q");
+            return;
+        }
+        List<NoticiaResumo> resultados = "relevancia".equals(request.getParameter("ordem"))
+            ? noticiaService.buscarPorRelevancia(termo, limite(request))
+            : noticiaService.buscarPorPalavrasChave(termo);
+        try (JsonGenerator json = gerador(response)) {
+            json.writeStartObject()
+                .write("total", resultados.size());
+            escreverResumos(json, resultados.subList(0, Math.min(limite(request), resultados.size())));
+            json.writeEnd();
+        }
+    }
+    
+    private void detalhar(Long id, HttpServletResponse response) throws IOException {
+        Optional<Noticia> noticia = noticiaService.buscarPorId(id);
+        if (!noticia.isPresent()) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND, "Notícia não encontrada");
+            return;
+        }
+        Noticia encontrada = noticia.get();
+        noticiaService.registrarAcesso(id);
+        try (JsonGenerator json = gerador(response)) {
+            json.writeStartObject()
+                .write("id", encontrada.getId())
+                .write("titulo", encontrada.getTitulo())
+                .write("conteudo", encontrada.getConteudo())
+                .write("dataPublicacao", encontrada.getDataPublicacao().toString())
+                .writeStartObject("autor")
+                    .write("id", encontrada.getAutor().getId())
+                    .write("nome", encontrada.getAutor().getNome())
+                .writeEnd()
+                .writeEnd();
+        }
+    }
+    
+    private static void escreverResumos(JsonGenerator json, List<NoticiaResumo> resumos) {
+        json.writeStartArray("itens");
+        for (NoticiaResumo resumo : resumos) {
+            json.writeStartObject()
+                .write("id", resumo.getId())
+                .write("titulo", resumo.getTitulo())
+                .write("resumo", resumo.getResumo())
+                .write("dataPublicacao", resumo.getDataPublicacao().toString())
+                .writeStartObject("autor")
+                    .write("id", resumo.getAutorId())
+                    .write("nome", resumo.getNomeAutor())
+                .writeEnd()
+                .writeEnd();
+        }
+        json.writeEnd();
+    }
+    
+    private static JsonGenerator gerador(HttpServletResponse response) throws IOException {
+        response.setContentType("application/json");
+        response.setCharacterEncoding("UTF-8");
+        return Json.createGenerator(response.getWriter());
+    }
+    
+    private static int limite(HttpServletRequest request) {
+        return Optional.ofNullable(request.getParameter("limite"))
+            .filter(valor -> valor.matches("\\d{1,4}"))
+            .map(Integer::valueOf)
+            .filter(valor -> valor > 0)
+            .map(valor -> Math.min(valor, LIMITE_MAXIMO))
+            .orElse(LIMITE_PADRAO);
+    }
+}
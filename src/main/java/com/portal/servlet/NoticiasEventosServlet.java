@@ -0,0 +1,42 @@
+package com.portal.servlet;
+
+import javax.inject.Inject;
+import javax.servlet.AsyncContext;
+import javax.servlet.ServletException;
+import javax.servlet.annotation.WebServlet;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * Endpoint Server-Sent Events ({@code GET /api/noticias/eventos}) que avisa os leitores
+ * sobre notícias publicadas ou atualizadas. A requisição entra em modo assíncrono e a
+ * conexão fica com o {@link DifusorNoticias}, sem ocupar uma thread.
+ */
+@WebServlet(name = "NoticiasEventosServlet", urlPatterns = "/api/noticias/eventos", asyncSupported = true)
+public class NoticiasEventosServlet extends HttpServlet {
+    
+    private static final long serialVersionUID = 1L;
+    
+    @Inject
+    private DifusorNoticias difusor;
+    
+    @Override
+    protected void doGet(HttpServletRequest request, HttpServletResponse response)
+            throws ServletException, IOException {
+        response.setContentType("text/event-stream");
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader("Cache-Control", "no-cache");
+        response.setHeader("X-Accel-Buffering", "no"); // Proxy reverso não deve bufferizar o stream
+        response.setHeader("Access-Control-Allow-Origin", "*");
+        
+        AsyncContext contexto = request.startAsync();
+        contexto.setTimeout(0); // A conexão dura até o cliente sair ou ser descartado
+        if (!difusor.registrar(contexto)) {
+            response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            response.setHeader("Retry-After", "30");
+            contexto.complete();
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.portal.servlet;
+
+import com.portal.search.IndiceSugestoes;
+import com.portal.search.Sugestao;
+import com.portal.service.NoticiaService;
+
+import javax.inject.Inject;
+import javax.json.Json;
+import javax.json.stream.JsonGenerator;
+import javax.servlet.ServletException;
+import javax.servlet.annotation.WebServlet;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Autocompletar da busca: {@code GET /api/noticias/sugestoes?q=&limite=}.
+ * Responde pelo índice de prefixos em memória, sem consultar o banco, com os
+ * títulos que têm alguma palavra começando pelo texto digitado (sem diferenciar
+ * maiúsculas nem acentos), dos mais acessados para os menos.
+ */
+@WebServlet(name = "SugestoesServlet", urlPatterns = "/api/noticias/sugestoes")
+public class SugestoesServlet extends HttpServlet {
+    
+    private static final long serialVersionUID = 1L;
+    
+    private static final String CACHE_CONTROL = "public, max-age=60";
+    private static final int LIMITE_PADRAO = 8;
+    private static final int LIMITE_MAXIMO = IndiceSugestoes.LIMITE_MAXIMO;
+    
+    @Inject
+    private NoticiaService noticiaService;
+    
+    @Override
+    protected void doGet(HttpServletRequest request, HttpServletResponse response)
+            throws ServletException, IOException {
+        String prefixo = Optional.ofNullable(request.getParameter("q")).orElse("");
+        List<Sugestao> sugestoes = prefixo.trim().length() < IndiceSugestoes.TAMANHO_MINIMO_PREFIXO
+            ? Collections.emptyList()
+            : noticiaService.sugerirTitulos(prefixo, limite(request));
+        
+        response.setHeader("Cache-Control", CACHE_CONTROL);
+        response.setHeader("Access-Control-Allow-Origin", "*");
+        response.setContentType("application/json");
+        response.setCharacterEncoding("UTF-8");
+        try (JsonGenerator json = Json.createGenerator(response.getWriter())) {
+            json.writeStartArray();
+            for (Sugestao sugestao : sugestoes) {
+                json.writeStartObject()
+                    .write("id", sugestao.getId())
+                    .write("titulo", sugestao.getTitulo())
+                    .write("peso", sugestao.getPeso())
+                    .writeEnd();
+            }
+            json.writeEnd();
+        }
+    }
+    
+    private static int limite(HttpServletRequest request) {
+        return Optional.ofNullable(request.getParameter("limite"))
+            .filter(valor -> valor.matches("\\d{1,4}"))
+            .map(Integer::valueOf)
+            .filter(valor -> valor > 0)
+            .map(valor -> Math.min(valor, LIMITE_MAXIMO))
+            .orElse(LIMITE_PADRAO);
+    }
+}
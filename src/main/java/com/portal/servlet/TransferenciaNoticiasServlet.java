@@ -0,0 +1,101 @@
+package com.portal.servlet;
+
+import com.portal.model.UsuarioPrincipal;
+import com.portal.security.TokenAutenticacao;
+import com.portal.service.ServiceException;
+import com.portal.service.TransferenciaNoticiasService;
+import com.portal.transfer.FormatoTransferencia;
+import com.portal.transfer.ResultadoImportacao;
+
+import javax.inject.Inject;
+import javax.json.Json;
+import javax.json.stream.JsonGenerator;
+import javax.servlet.ServletException;
+import javax.servlet.annotation.WebServlet;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Optional;
+
+/**
+ * Endpoint administrativo de importação e exportação em lote de notícias.
+ * GET exporta (?formato=ndjson|csv); POST importa o corpo da requisição, com o
+ * formato indicado em ?formato= ou no Content-Type. Restrito a administradores.
+ */
+@WebServlet(name = "TransferenciaNoticiasServlet", urlPatterns = "/pages/admin/noticias/transferencia")
+public class TransferenciaNoticiasServlet extends HttpServlet {
+    
+    private static final long serialVersionUID = 1L;
+    
+    @Inject
+    private TransferenciaNoticiasService transferenciaService;
+    
+    @Override
+    protected void doGet(HttpServletRequest request, HttpServletResponse response)
+            throws ServletException, IOException {
+        Optional<UsuarioPrincipal> login = administrador(request);
+        if (!login.isPresent()) {
+            response.sendError(HttpServletResponse.SC_FORBIDDEN);
+            return;
+        }
+        FormatoTransferencia formato = FormatoTransferencia.resolver(request.getParameter("formato"))
+            .orElse(FormatoTransferencia.NDJSON);
+        
+        response.setContentType(formato.getContentType());
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader("Content-Disposition", "attachment; filename=\"noticias." + formato.getExtensao() + "\"");
+        try {
+            transferenciaService.exportar(response.getOutputStream(), formato);
+        } catch (ServiceException e) {
+            throw new ServletException(e.getMessage(), e);
+        }
+    }
+    
+    @Override
+    protected void doPost(HttpServletRequest request, HttpServletResponse response)
+            throws ServletException, IOException {
+        Optional<UsuarioPrincipal> login = administrador(request);
+        if (!login.isPresent()) {
+            response.sendError(HttpServletResponse.SC_FORBIDDEN);
+            return;
+        }
+        Optional<FormatoTransferencia> formato = Optional.ofNullable(request.getParameter("formato"))
+            .map(FormatoTransferencia::resolver)
+            .orElseGet(() -> FormatoTransferencia.resolver(request.getContentType()));
+        if (!formato.isPresent()) {
+            response.sendError(HttpServletResponse.SC_UNSUPPORTED_MEDIA_TYPE,
+                "Formato não suportado: use application/x-ndjson ou text/csv");
+            return;
+        }
+        
+        ResultadoImportacao resultado;
+        try {
+            resultado = transferenciaService.importar(request.getInputStream(), formato.get(),
+                login.get().getId());
+        } catch (ServiceException e) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, e.getMessage());
+            return;
+        }
+        
+        response.setContentType("application/json");
+        response.setCharacterEncoding("UTF-8");
+        try (JsonGenerator json = Json.createGenerator(response.getWriter())) {
+            json.writeStartObject()
+                .write("importadas", resultado.getImportadas())
+                .write("rejeitadas", resultado.getRejeitadas())
+                .write("duracaoMs", resultado.getDuracaoMs())
+                .writeStartArray("erros");
+            resultado.getErros().forEach(json::write);
+            json.writeEnd().writeEnd();
+        }
+    }
+    
+    /**
+     * Principal já autorizado pelo AuthenticationFilter (sessão ou token), se for administrador
+     */
+    private static Optional<UsuarioPrincipal> administrador(HttpServletRequest request) {
+        return Optional.ofNullable((UsuarioPrincipal) request.getAttribute(TokenAutenticacao.ATRIBUTO_PRINCIPAL))
+            .filter(UsuarioPrincipal::isAdmin);
+    }
+}
@@ -0,0 +1,65 @@
+package com.portal.transfer;
+
+import com.portal.model.RegistroNoticia;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Escreve CSV no formato RFC 4180, com cabeçalho, no mesmo layout aceito por {@link LeitorCsv}
+ */
+class EscritorCsv implements EscritorRegistros {
+    
+    private static final String CABECALHO = "id,titulo,conteudo,dataPublicacao,autorId\r\n";
+    
+    private final Writer saida;
+    private boolean cabecalhoEscrito;
+    
+    EscritorCsv(Writer destino) {
+        this.saida = destino;
+    }
+    
+    @Override
+    public void escrever(RegistroNoticia registro) throws IOException {
+        if (!cabecalhoEscrito) {
+            saida.write(CABECALHO);
+            cabecalhoEscrito = true;
+        }
+        saida.write(registro.getId() != null ? registro.getId().toString() : "");
+        saida.write(',');
+        escreverTexto(registro.getTitulo());
+        saida.write(',');
+        escreverTexto(registro.getConteudo());
+        saida.write(',');
+        saida.write(registro.getDataPublicacao() != null ? registro.getDataPublicacao().toString() : "");
+        saida.write(',');
+        saida.write(registro.getAutorId() != null ? registro.getAutorId().toString() : "");
+        saida.write("\r\n");
+    }
+    
+    private void escreverTexto(String valor) throws IOException {
+        if (valor == null) {
+            return;
+        }
+        boolean precisaAspas = false;
+        for (int i = 0; i < valor.length() && !precisaAspas; i++) {
+            char c = valor.charAt(i);
+            precisaAspas = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!precisaAspas) {
+            saida.write(valor);
+            return;
+        }
+        saida.write('"');
+        saida.write(valor.replace("\"", "\"\""));
+        saida.write('"');
+    }
+    
+    @Override
+    public void close() throws IOException {
+        if (!cabecalhoEscrito) {
+            saida.write(CABECALHO);
+        }
+        saida.close();
+    }
+}
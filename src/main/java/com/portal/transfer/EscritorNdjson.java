@@ -0,0 +1,62 @@
+package com.portal.transfer;
+
+import com.portal.model.RegistroNoticia;
+
+import javax.json.Json;
+import javax.json.stream.JsonGenerator;
+import javax.json.stream.JsonGeneratorFactory;
+import java.io.FilterWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Collections;
+
+/**
+ * Escreve um objeto JSON por linha (NDJSON)
+ */
+class EscritorNdjson implements EscritorRegistros {
+    
+    private static final JsonGeneratorFactory GERADORES = Json.createGeneratorFactory(Collections.<String, Object>emptyMap());
+    
+    private final Writer saida;
+    private final Writer saidaCompartilhada;
+    
+    EscritorNdjson(Writer destino) {
+        this.saida = destino;
+        // Cada linha usa um gerador próprio; fechar o gerador não pode fechar nem
+        // descarregar a saída, que segue bufferizada até o fim da exportação
+        this.saidaCompartilhada = new FilterWriter(destino) {
+            @Override
+            public void flush() {
+            }
+            
+            @Override
+            public void close() {
+            }
+        };
+    }
+    
+    @Override
+    public void escrever(RegistroNoticia registro) throws IOException {
+        try (JsonGenerator gerador = GERADORES.createGenerator(saidaCompartilhada)) {
+            gerador.writeStartObject();
+            if (registro.getId() != null) {
+                gerador.write("id", registro.getId());
+            }
+            gerador.write("titulo", registro.getTitulo());
+            gerador.write("conteudo", registro.getConteudo());
+            if (registro.getDataPublicacao() != null) {
+                gerador.write("dataPublicacao", registro.getDataPublicacao().toString());
+            }
+            if (registro.getAutorId() != null) {
+                gerador.write("autorId", registro.getAutorId());
+            }
+            gerador.writeEnd();
+        }
+        saida.write('\n');
+    }
+    
+    @Override
+    public void close() throws IOException {
+        saida.close();
+    }
+}
@@ -0,0 +1,13 @@
+package com.portal.transfer;
+
+import com.portal.model.RegistroNoticia;
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Escrita sequencial de registros de notícia, sem acumular em memória
+ */
+public interface EscritorRegistros extends Closeable {
+    
+    void escrever(RegistroNoticia registro) throws IOException;
+}
@@ -0,0 +1,52 @@
+package com.portal.transfer;
+
+import java.io.Reader;
+import java.io.Writer;
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * Formatos aceitos pela importação e exportação em lote de notícias
+ */
+public enum FormatoTransferencia {
+    
+    NDJSON("application/x-ndjson", "ndjson"),
+    CSV("text/csv", "csv");
+    
+    private final String contentType;
+    private final String extensao;
+    
+    FormatoTransferencia(String contentType, String extensao) {
+        this.contentType = contentType;
+        this.extensao = extensao;
+    }
+    
+    public String getContentType() {
+        return contentType;
+    }
+    
+    public String getExtensao() {
+        return extensao;
+    }
+    
+    public LeitorRegistros leitor(Reader origem) {
+        return this == CSV ? new LeitorCsv(origem) : new LeitorNdjson(origem);
+    }
+    
+    public EscritorRegistros escritor(Writer destino) {
+        return this == CSV ? new EscritorCsv(destino) : new EscritorNdjson(destino);
+    }
+    
+    /**
+     * Resolve o formato pelo nome ("csv", "ndjson") ou pelo content type da requisição
+     */
+    public static Optional<FormatoTransferencia> resolver(String valor) {
+        if (valor == null) {
+            return Optional.empty();
+        }
+        String normalizado = valor.toLowerCase().split(";")[0].trim();
+        return Arrays.stream(values())
+            .filter(f -> f.extensao.equals(normalizado) || f.contentType.equals(normalizado))
+            .findFirst();
+    }
+}
@@ -0,0 +1,159 @@
+package com.portal.transfer;
+
+import com.portal.model.RegistroNoticia;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Lê CSV no formato RFC 4180 (campos entre aspas podem conter vírgulas e quebras de linha).
+ * A primeira linha é o cabeçalho; as colunas são localizadas pelo nome
+ * (id, titulo, conteudo, dataPublicacao, autorId), em qualquer ordem.
+ */
+class LeitorCsv implements LeitorRegistros {
+    
+    private static final int FIM = -1;
+    
+    private final BufferedReader entrada;
+    private Map<String, Integer> colunas;
+    private long linha = 1;
+    private int pendente = FIM - 1;
+    
+    LeitorCsv(Reader origem) {
+        this.entrada = origem instanceof BufferedReader ? (BufferedReader) origem : new BufferedReader(origem);
+    }
+    
+    @Override
+    public RegistroNoticia proximo() throws IOException, LinhaInvalidaException {
+        if (colunas == null) {
+            lerCabecalho();
+        }
+        List<String> campos;
+        long inicio;
+        do {
+            inicio = linha;
+            campos = lerCampos();
+            if (campos == null) {
+                return null;
+            }
+        } while (campos.size() == 1 && campos.get(0).isEmpty());
+        
+        try {
+            String data = campo(campos, "dataPublicacao");
+            String id = campo(campos, "id");
+            String autorId = campo(campos, "autorId");
+            return new RegistroNoticia(
+                id != null ? Long.valueOf(id) : null,
+                campo(campos, "titulo"),
+                campo(campos, "conteudo"),
+                data != null ? LocalDateTime.parse(data) : null,
+                autorId != null ? Long.valueOf(autorId) : null);
+        } catch (NumberFormatException | DateTimeParseException e) {
+            throw new LinhaInvalidaException(inicio, e.getMessage());
+        }
+    }
+    
+    /**
+     * Lê o cabeçalho. Sem ele não há como interpretar nenhuma linha, então a falha
+     * encerra a leitura (IOException) em vez de rejeitar só a linha.
+     */
+    private void lerCabecalho() throws IOException {
+        List<String> cabecalho = lerCampos();
+        if (cabecalho == null) {
+            throw new IOException("arquivo CSV vazio, sem cabeçalho");
+        }
+        Map<String, Integer> lidas = new HashMap<>();
+        for (int i = 0; i < cabecalho.size(); i++) {
+            lidas.put(cabecalho.get(i).trim(), i);
+        }
+        if (!lidas.containsKey("titulo") || !lidas.containsKey("conteudo")) {
+            throw new IOException("cabeçalho do CSV deve conter as colunas titulo e conteudo");
+        }
+        colunas = lidas;
+    }
+    
+    private String campo(List<String> campos, String nome) {
+        Integer indice = colunas.get(nome);
+        if (indice == null || indice >= campos.size()) {
+            return null;
+        }
+        String valor = campos.get(indice);
+        return valor.isEmpty() ? null : valor;
+    }
+    
+    /**
+     * Lê um registro completo (que pode ocupar várias linhas físicas), ou {@code null} ao fim
+     */
+    private List<String> lerCampos() throws IOException {
+        int c = ler();
+        if (c == FIM) {
+            return null;
+        }
+        List<String> campos = new ArrayList<>();
+        StringBuilder atual = new StringBuilder();
+        boolean entreAspas = false;
+        while (true) {
+            if (entreAspas) {
+                if (c == FIM) {
+                    break; // Aspas não fechadas: aceita o que foi lido
+                }
+                if (c == '"') {
+                    int seguinte = ler();
+                    if (seguinte == '"') {
+                        atual.append('"');
+                    } else {
+                        entreAspas = false;
+                        pendente = seguinte;
+                    }
+                } else {
+                    if (c == '\n') {
+                        linha++;
+                    }
+                    atual.append((char) c);
+                }
+            } else if (c == '"' && atual.length() == 0) {
+                entreAspas = true;
+            } else if (c == ',') {
+                campos.add(atual.toString());
+                atual.setLength(0);
+            } else if (c == '\r' || c == '\n' || c == FIM) {
+                if (c == '\r') {
+                    int seguinte = ler();
+                    if (seguinte != '\n') {
+                        pendente = seguinte;
+                    }
+                }
+                if (c != FIM) {
+                    linha++;
+                }
+                break;
+            } else {
+                atual.append((char) c);
+            }
+            c = ler();
+        }
+        campos.add(atual.toString());
+        return campos;
+    }
+    
+    private int ler() throws IOException {
+        if (pendente != FIM - 1) {
+            int c = pendente;
+            pendente = FIM - 1;
+            return c;
+        }
+        return entrada.read();
+    }
+    
+    @Override
+    public void close() throws IOException {
+        entrada.close();
+    }
+}
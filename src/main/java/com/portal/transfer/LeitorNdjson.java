@@ -0,0 +1,73 @@
+package com.portal.transfer;
+
+import com.portal.model.RegistroNoticia;
+
+import javax.json.Json;
+import javax.json.JsonException;
+import javax.json.JsonNumber;
+import javax.json.JsonObject;
+import javax.json.JsonReader;
+import javax.json.JsonString;
+import javax.json.JsonValue;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Lê um objeto JSON por linha (NDJSON). Linhas em branco são ignoradas.
+ */
+class LeitorNdjson implements LeitorRegistros {
+    
+    private final BufferedReader entrada;
+    private long linha;
+    
+    LeitorNdjson(Reader origem) {
+        this.entrada = origem instanceof BufferedReader ? (BufferedReader) origem : new BufferedReader(origem);
+    }
+    
+    @Override
+    public RegistroNoticia proximo() throws IOException, LinhaInvalidaException {
+        String texto;
+        do {
+            texto = entrada.readLine();
+            if (texto == null) {
+                return null;
+            }
+            linha++;
+        } while (texto.trim().isEmpty());
+        
+        try (JsonReader leitor = Json.createReader(new StringReader(texto))) {
+            JsonObject objeto = leitor.readObject();
+            String data = texto(objeto, "dataPublicacao");
+            return new RegistroNoticia(
+                numero(objeto, "id"),
+                texto(objeto, "titulo"),
+                texto(objeto, "conteudo"),
+                data != null ? LocalDateTime.parse(data) : null,
+                numero(objeto, "autorId"));
+        } catch (JsonException | ClassCastException | ArithmeticException | DateTimeParseException e) {
+            throw new LinhaInvalidaException(linha, e.getMessage());
+        }
+    }
+    
+    private static String texto(JsonObject objeto, String campo) {
+        JsonValue valor = objeto.get(campo);
+        return valor == null || valor == JsonValue.NULL ? null : ((JsonString) valor).getString();
+    }
+    
+    /**
+     * Número inteiro exato; frações e valores fora do intervalo de long lançam ArithmeticException
+     */
+    private static Long numero(JsonObject objeto, String campo) {
+        JsonValue valor = objeto.get(campo);
+        return valor == null || valor == JsonValue.NULL ? null : ((JsonNumber) valor).longValueExact();
+    }
+    
+    @Override
+    public void close() throws IOException {
+        entrada.close();
+    }
+}
@@ -0,0 +1,18 @@
+package com.portal.transfer;
+
+import com.portal.model.RegistroNoticia;
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Leitura sequencial de registros de notícia, um por vez
+ */
+public interface LeitorRegistros extends Closeable {
+    
+    /**
+     * Lê o próximo registro, ou {@code null} ao fim da entrada.
+     * Após uma {@link LinhaInvalidaException} a leitura pode continuar no registro seguinte;
+     * uma IOException (inclusive cabeçalho ausente ou inválido) encerra a leitura.
+     */
+    RegistroNoticia proximo() throws IOException, LinhaInvalidaException;
+}
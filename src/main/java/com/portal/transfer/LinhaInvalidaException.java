@@ -0,0 +1,20 @@
+package com.portal.transfer;
+
+/**
+ * Registro da entrada que não pôde ser interpretado
+ */
+public class LinhaInvalidaException extends Exception {
+    
+    private static final long serialVersionUID = 1L;
+    
+    private final long linha;
+    
+    public LinhaInvalidaException(long linha, String message) {
+        super("Linha " + linha + ": " + message);
+        this.linha = linha;
+    }
+    
+    public long getLinha() {
+        return linha;
+    }
+}
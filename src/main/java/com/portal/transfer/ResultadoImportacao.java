@@ -0,0 +1,49 @@
+package com.portal.transfer;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Resumo de uma importação em lote: linhas gravadas, rejeitadas e os primeiros erros
+ */
+public class ResultadoImportacao {
+    
+    private static final int MAXIMO_ERROS = 100;
+    
+    private long importadas;
+    private long rejeitadas;
+    private long duracaoMs;
+    private final List<String> erros = new ArrayList<>();
+    
+    public void somarImportadas(int quantidade) {
+        importadas += quantidade;
+    }
+    
+    public void rejeitar(long quantidade, String erro) {
+        rejeitadas += quantidade;
+        if (erros.size() < MAXIMO_ERROS) {
+            erros.add(erro);
+        }
+    }
+    
+    public void setDuracaoMs(long duracaoMs) {
+        this.duracaoMs = duracaoMs;
+    }
+    
+    public long getImportadas() {
+        return importadas;
+    }
+    
+    public long getRejeitadas() {
+        return rejeitadas;
+    }
+    
+    public long getDuracaoMs() {
+        return duracaoMs;
+    }
+    
+    public List<String> getErros() {
+        return Collections.unmodifiableList(erros);
+    }
+}
@@ -0,0 +1,82 @@
+package com.portal.dao;
+
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+
+public class ContagemEmCacheTest {
+    
+    @Test
+    public void contaUmaVezEAplicaOsDeltas() {
+        ContagemEmCache contagem = new ContagemEmCache();
+        AtomicInteger counts = new AtomicInteger();
+        
+        assertEquals(10, contagem.obter(() -> {
+            counts.incrementAndGet();
+            return 10;
+        }));
+        contagem.ajustar(3);
+        contagem.ajustar(-1);
+        
+        assertEquals(12, contagem.obter(() -> {
+            counts.incrementAndGet();
+            return 0;
+        }));
+        assertEquals(1, counts.get());
+    }
+    
+    @Test
+    public void deltasAnterioresAoPrimeiroCountNaoSaoSomados() {
+        ContagemEmCache contagem = new ContagemEmCache();
+        contagem.ajustar(5);
+        
+        assertEquals(10, contagem.obter(() -> 10));
+    }
+    
+    @Test
+    public void recontagemVencidaSubstituiOTotal() {
+        ContagemEmCache contagem = new ContagemEmCache(0);
+        contagem.obter(() -> 10);
+        contagem.ajustar(4);
+        
+        assertEquals(7, contagem.obter(() -> 7));
+    }
+    
+    @Test
+    public void deltaConfirmadoDuranteORecontagemNaoSePerde() {
+        ContagemEmCache contagem = new ContagemEmCache(0);
+        contagem.obter(() -> 10);
+        
+        // A inclusão é confirmada depois que o COUNT leu a tabela: o resultado não a inclui
+        long total = contagem.obter(() -> {
+            contagem.ajustar(1);
+            return 10;
+        });
+        
+        assertEquals(11, total);
+        assertEquals(11, contagem.obter(() -> 11));
+    }
+    
+    @Test
+    public void falhaNaRecontagemMantemOTotalAnterior() {
+        ContagemEmCache contagem = new ContagemEmCache(0);
+        contagem.obter(() -> 10);
+        contagem.ajustar(2);
+        
+        assertEquals(12, contagem.obter(() -> {
+            throw new IllegalStateException("banco indisponível");
+        }));
+        assertEquals(8, contagem.obter(() -> 8));
+    }
+    
+    @Test
+    public void totalNuncaFicaNegativo() {
+        ContagemEmCache contagem = new ContagemEmCache();
+        contagem.obter(() -> 1);
+        contagem.ajustar(-3);
+        
+        assertEquals(0, contagem.obter(() -> 1));
+    }
+}
@@ -0,0 +1,72 @@
+package com.portal.dao;
+
+import com.portal.model.NoticiaResumo;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.Optional;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class CursorListagemTest {
+    
+    private static final LocalDateTime DATA = LocalDateTime.of(2024, 5, 2, 14, 0, 1, 500);
+    
+    @Test
+    public void decodificaCursorPorData() {
+        for (OrdemNoticias ordem : new OrdemNoticias[] {OrdemNoticias.MAIS_RECENTES, OrdemNoticias.MAIS_ANTIGAS}) {
+            String token = CursorListagem.de(resumo(9L, "Título", DATA), ordem).codificar();
+            
+            Optional<CursorListagem> cursor = CursorListagem.decodificar(token, ordem);
+            
+            assertTrue(cursor.isPresent());
+            assertEquals(ordem, cursor.get().getOrdem());
+            assertEquals(DATA, cursor.get().getDataPublicacao());
+            assertNull(cursor.get().getTitulo());
+            assertEquals(Long.valueOf(9L), cursor.get().getId());
+        }
+    }
+    
+    @Test
+    public void tituloComSeparadorSobreviveAoRoundTrip() {
+        String titulo = "Eleições | resultado: 50% | ação";
+        String token = CursorListagem.de(resumo(3L, titulo, DATA), OrdemNoticias.TITULO).codificar();
+        
+        CursorListagem cursor = CursorListagem.decodificar(token, OrdemNoticias.TITULO).get();
+        
+        assertEquals(titulo, cursor.getTitulo());
+        assertNull(cursor.getDataPublicacao());
+        assertEquals(Long.valueOf(3L), cursor.getId());
+    }
+    
+    @Test
+    public void cursorDeOutraOrdenacaoEhIgnorado() {
+        String token = CursorListagem.de(resumo(1L, "Título", DATA), OrdemNoticias.MAIS_RECENTES).codificar();
+        
+        assertFalse(CursorListagem.decodificar(token, OrdemNoticias.MAIS_ANTIGAS).isPresent());
+        assertFalse(CursorListagem.decodificar(token, OrdemNoticias.TITULO).isPresent());
+    }
+    
+    @Test
+    public void tokenInvalidoVoltaParaAPrimeiraPagina() {
+        assertFalse(CursorListagem.decodificar(null, OrdemNoticias.MAIS_RECENTES).isPresent());
+        assertFalse(CursorListagem.decodificar(" ", OrdemNoticias.MAIS_RECENTES).isPresent());
+        assertFalse(CursorListagem.decodificar("***", OrdemNoticias.MAIS_RECENTES).isPresent());
+        assertFalse(CursorListagem.decodificar(token("MAIS_RECENTES|1"), OrdemNoticias.MAIS_RECENTES).isPresent());
+        assertFalse(CursorListagem.decodificar(token("MAIS_RECENTES|x|2024-01-01T00:00"), OrdemNoticias.MAIS_RECENTES).isPresent());
+        assertFalse(CursorListagem.decodificar(token("MAIS_RECENTES|1|ontem"), OrdemNoticias.MAIS_RECENTES).isPresent());
+    }
+    
+    private static NoticiaResumo resumo(Long id, String titulo, LocalDateTime data) {
+        return new NoticiaResumo(id, titulo, "", 1L, "Autor", data);
+    }
+    
+    private static String token(String bruto) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bruto.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,66 @@
+package com.portal.dao;
+
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.Optional;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class CursorNoticiaTest {
+    
+    @Test
+    public void decodificaOTokenGerado() {
+        LocalDateTime data = LocalDateTime.of(2024, 3, 15, 10, 30, 45, 123_456_789);
+        
+        Optional<CursorNoticia> cursor = CursorNoticia.decodificar(new CursorNoticia(data, 42L).codificar());
+        
+        assertTrue(cursor.isPresent());
+        assertEquals(data, cursor.get().getDataPublicacao());
+        assertEquals(Long.valueOf(42L), cursor.get().getId());
+    }
+    
+    @Test
+    public void tokenEhSeguroParaUrl() {
+        String token = new CursorNoticia(LocalDateTime.of(2024, 1, 1, 0, 0), Long.MAX_VALUE).codificar();
+        
+        assertTrue(token.matches("[A-Za-z0-9_-]+"));
+    }
+    
+    @Test
+    public void ignoraEspacosEmVolta() {
+        String token = new CursorNoticia(LocalDateTime.of(2024, 1, 1, 0, 0), 7L).codificar();
+        
+        assertEquals(Long.valueOf(7L), CursorNoticia.decodificar("  " + token + " ").get().getId());
+    }
+    
+    @Test
+    public void tokenNuloOuVazioVoltaParaAPrimeiraPagina() {
+        assertFalse(CursorNoticia.decodificar(null).isPresent());
+        assertFalse(CursorNoticia.decodificar("").isPresent());
+        assertFalse(CursorNoticia.decodificar("   ").isPresent());
+    }
+    
+    @Test
+    public void tokenQueNaoEhBase64EhIgnorado() {
+        assertFalse(CursorNoticia.decodificar("não é base64!").isPresent());
+    }
+    
+    @Test
+    public void tokenAdulteradoEhIgnorado() {
+        assertFalse(CursorNoticia.decodificar(token("2024-01-01T00:00")).isPresent());
+        assertFalse(CursorNoticia.decodificar(token("|42")).isPresent());
+        assertFalse(CursorNoticia.decodificar(token("2024-13-01T00:00|42")).isPresent());
+        assertFalse(CursorNoticia.decodificar(token("2024-01-01T00:00|abc")).isPresent());
+        assertFalse(CursorNoticia.decodificar(token("2024-01-01T00:00|")).isPresent());
+        assertFalse(CursorNoticia.decodificar(token("2024-01-01T00:00|1|2")).isPresent());
+    }
+    
+    private static String token(String bruto) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bruto.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,168 @@
+package com.portal.dao;
+
+import com.portal.model.Noticia;
+import com.portal.model.PerfilUsuario;
+import com.portal.model.Usuario;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import javax.persistence.Cache;
+import javax.persistence.EntityManager;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * As listagens de notícias devem trazer o autor no mesmo statement (grafo de entidade),
+ * sem uma consulta por notícia na renderização (N+1)
+ */
+public class NoticiaDAOTest {
+    
+    private static final int QUANTIDADE = 12;
+    
+    private static NoticiaDAO noticiaDAO;
+    private static String marcador;
+    private static Long primeiraId;
+    
+    @BeforeClass
+    public static void popular() {
+        noticiaDAO = new NoticiaDAO();
+        UsuarioDAO usuarioDAO = new UsuarioDAO();
+        marcador = "listagem" + System.nanoTime();
+        List<Usuario> autores = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Usuario autor = new Usuario("Autor " + i, marcador + i + "@teste.com", "senha", PerfilUsuario.ADMIN);
+            usuarioDAO.save(autor);
+            autores.add(autor);
+        }
+        LocalDateTime inicio = LocalDateTime.of(2024, 1, 1, 8, 0);
+        for (int i = 0; i < QUANTIDADE; i++) {
+            Noticia noticia = new Noticia(marcador + " título " + i, "Conteúdo " + marcador, autores.get(i % autores.size()));
+            noticia.setDataPublicacao(inicio.plusMinutes(i));
+            noticiaDAO.save(noticia);
+            if (primeiraId == null) {
+                primeiraId = noticia.getId();
+            }
+        }
+    }
+    
+    /**
+     * Cada caso começa sem nada em cache, para que a consulta vá de fato ao banco
+     */
+    @Before
+    public void limparCaches() {
+        EntityManager em = GenericDAO.createEntityManager();
+        try {
+            em.getEntityManagerFactory().getCache().evictAll();
+        } finally {
+            em.close();
+        }
+        GenericDAO.evictQueryCache();
+        GenericDAO.getStatistics().clear();
+    }
+    
+    @Test
+    public void findAllOrderByDateCarregaAutoresEmUmStatement() {
+        assertUmStatement(() -> noticiaDAO.findAllOrderByDate(), QUANTIDADE);
+    }
+    
+    @Test
+    public void findPaginaCarregaAutoresEmUmStatement() {
+        assertUmStatement(() -> noticiaDAO.findPagina(Optional.empty(), 5).getItens(), 5);
+    }
+    
+    @Test
+    public void findLatestCarregaAutoresEmUmStatement() {
+        assertUmStatement(() -> noticiaDAO.findLatest(QUANTIDADE), QUANTIDADE);
+    }
+    
+    @Test
+    public void findByTituloCarregaAutoresEmUmStatement() {
+        assertUmStatement(() -> noticiaDAO.findByTitulo(marcador), QUANTIDADE);
+    }
+    
+    @Test
+    public void findByKeywordsCarregaAutoresEmUmStatement() {
+        assertUmStatement(() -> noticiaDAO.findByKeywords(marcador), QUANTIDADE);
+    }
+    
+    @Test
+    public void findByIdComAutorCarregaAutorEmUmStatement() {
+        assertUmStatement(() -> Collections.singletonList(noticiaDAO.findByIdComAutor(primeiraId).get()), 1);
+    }
+    
+    @Test
+    public void updateTextoPreservaOCacheEOContextoDasOutrasNoticias() {
+        Noticia outra = novaNoticia("outra");
+        Noticia alvo = novaNoticia("alvo");
+        noticiaDAO.findById(outra.getId());
+        assertTrue(cacheSegundoNivel().contains(Noticia.class, outra.getId()));
+        
+        try (UnidadeTrabalho unidade = UnidadeTrabalho.abrir()) {
+            unidade.getEntityManager().getTransaction().begin();
+            Noticia carregada = noticiaDAO.findById(outra.getId()).get();
+            
+            Noticia atualizada = noticiaDAO.updateTexto(alvo.getId(), "Título editado", "Conteúdo editado").get();
+            
+            assertEquals("Título editado", atualizada.getTitulo());
+            assertNotNull(atualizada.getAutor().getNome());
+            assertTrue(unidade.getEntityManager().contains(carregada));
+            unidade.confirmar();
+        }
+        
+        assertTrue(cacheSegundoNivel().contains(Noticia.class, outra.getId()));
+        assertEquals("Conteúdo editado", noticiaDAO.findById(alvo.getId()).get().getConteudo());
+        assertFalse(noticiaDAO.updateTexto(-1L, "Título", "Conteúdo").isPresent());
+    }
+    
+    @Test
+    public void deletePreservaOCacheDasOutrasNoticias() {
+        Noticia outra = novaNoticia("outra");
+        Noticia alvo = novaNoticia("alvo");
+        noticiaDAO.findById(outra.getId());
+        
+        noticiaDAO.delete(alvo.getId());
+        
+        assertTrue(cacheSegundoNivel().contains(Noticia.class, outra.getId()));
+        assertFalse(noticiaDAO.findById(alvo.getId()).isPresent());
+    }
+    
+    private static Noticia novaNoticia(String titulo) {
+        Noticia noticia = new Noticia(marcador + " " + titulo, "Conteúdo", noticiaDAO.findByIdComAutor(primeiraId).get().getAutor());
+        noticia.setDataPublicacao(LocalDateTime.of(2023, 1, 1, 0, 0));
+        noticiaDAO.save(noticia);
+        return noticia;
+    }
+    
+    private static Cache cacheSegundoNivel() {
+        EntityManager em = GenericDAO.createEntityManager();
+        try {
+            return em.getEntityManagerFactory().getCache();
+        } finally {
+            em.close();
+        }
+    }
+    
+    /**
+     * A listagem usa um único statement e os nomes dos autores podem ser lidos depois
+     * que o EntityManager foi fechado
+     */
+    private static void assertUmStatement(Supplier<List<Noticia>> listagem, int minimo) {
+        List<Noticia> noticias = listagem.get();
+        
+        assertTrue("esperadas ao menos " + minimo + " notícias", noticias.size() >= minimo);
+        for (Noticia noticia : noticias) {
+            assertNotNull(noticia.getAutor().getNome());
+        }
+        assertEquals(1, GenericDAO.getStatistics().getPrepareStatementCount());
+    }
+}
@@ -0,0 +1,155 @@
+package com.portal.dao;
+
+import com.portal.model.PerfilUsuario;
+import com.portal.model.Usuario;
+import org.junit.Test;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Ações agendadas com {@link UnidadeTrabalho#aposConfirmacao(Runnable)} só acontecem depois
+ * do commit da transação externa e são descartadas quando ela é desfeita
+ */
+public class UnidadeTrabalhoTest {
+    
+    private final UsuarioDAO usuarioDAO = new UsuarioDAO();
+    
+    @Test
+    public void semUnidadeExecutaNaHora() {
+        AtomicBoolean executada = new AtomicBoolean();
+        
+        UnidadeTrabalho.aposConfirmacao(() -> executada.set(true));
+        
+        assertTrue(executada.get());
+    }
+    
+    @Test
+    public void semTransacaoAtivaExecutaNaHora() {
+        AtomicBoolean executada = new AtomicBoolean();
+        try (UnidadeTrabalho unidade = UnidadeTrabalho.abrir()) {
+            unidade.getEntityManager();
+            
+            UnidadeTrabalho.aposConfirmacao(() -> executada.set(true));
+            
+            assertTrue(executada.get());
+        }
+    }
+    
+    @Test
+    public void executaSoDepoisDoCommitDaTransacaoExterna() {
+        AtomicBoolean executada = new AtomicBoolean();
+        Usuario usuario = novoUsuario();
+        try (UnidadeTrabalho unidade = UnidadeTrabalho.abrir()) {
+            unidade.getEntityManager().getTransaction().begin();
+            UnidadeTrabalho.aposConfirmacao(() -> executada.set(true));
+            usuarioDAO.save(usuario);
+            assertFalse("a gravação do DAO participa da transação e não confirma", executada.get());
+            
+            unidade.confirmar();
+            
+            assertTrue(executada.get());
+        }
+        assertNotNull(buscar(usuario.getId()));
+    }
+    
+    @Test
+    public void descartaAsAcoesQuandoATransacaoEhDesfeita() {
+        AtomicBoolean executada = new AtomicBoolean();
+        Usuario usuario = novoUsuario();
+        try (UnidadeTrabalho unidade = UnidadeTrabalho.abrir()) {
+            unidade.getEntityManager().getTransaction().begin();
+            usuarioDAO.save(usuario);
+            UnidadeTrabalho.aposConfirmacao(() -> executada.set(true));
+            
+            unidade.desfazer();
+            
+            assertFalse(unidade.getEntityManager().contains(usuario));
+        }
+        assertFalse(executada.get());
+        assertNull(buscar(usuario.getId()));
+    }
+    
+    @Test
+    public void fecharSemConfirmarDescartaAsAcoes() {
+        AtomicBoolean executada = new AtomicBoolean();
+        try (UnidadeTrabalho unidade = UnidadeTrabalho.abrir()) {
+            unidade.getEntityManager().getTransaction().begin();
+            UnidadeTrabalho.aposConfirmacao(() -> executada.set(true));
+        }
+        
+        assertFalse(executada.get());
+    }
+    
+    @Test
+    public void unidadeParticipanteConfirmaPelaRaiz() {
+        List<String> ordem = new ArrayList<>();
+        try (UnidadeTrabalho raiz = UnidadeTrabalho.abrir()) {
+            raiz.getEntityManager().getTransaction().begin();
+            try (UnidadeTrabalho participante = UnidadeTrabalho.abrir()) {
+                UnidadeTrabalho.aposConfirmacao(() -> ordem.add("primeira"));
+                UnidadeTrabalho.aposConfirmacao(() -> ordem.add("segunda"));
+                
+                participante.confirmar();
+            }
+            assertFalse(raiz.getEntityManager().getTransaction().isActive());
+        }
+        
+        assertEquals(2, ordem.size());
+        assertEquals("primeira", ordem.get(0));
+    }
+    
+    @Test
+    public void falhaEmUmaAcaoNaoImpedeAsDemais() {
+        AtomicBoolean executada = new AtomicBoolean();
+        try (UnidadeTrabalho unidade = UnidadeTrabalho.abrir()) {
+            unidade.getEntityManager().getTransaction().begin();
+            UnidadeTrabalho.aposConfirmacao(() -> {
+                throw new IllegalStateException("falha simulada");
+            });
+            UnidadeTrabalho.aposConfirmacao(() -> executada.set(true));
+            
+            unidade.confirmar();
+        }
+        
+        assertTrue(executada.get());
+    }
+    
+    @Test
+    public void exclusaoEAcoesSaoConfirmadasJuntas() {
+        AtomicBoolean executada = new AtomicBoolean();
+        Usuario usuario = novoUsuario();
+        try (UnidadeTrabalho unidade = UnidadeTrabalho.abrir()) {
+            usuarioDAO.save(usuario);
+            unidade.getEntityManager().getTransaction().begin();
+            UnidadeTrabalho.aposConfirmacao(() -> executada.set(true));
+            usuarioDAO.delete(usuario.getId());
+            
+            unidade.confirmar();
+        }
+        
+        assertTrue(executada.get());
+        assertNull(buscar(usuario.getId()));
+    }
+    
+    private static Usuario novoUsuario() {
+        return new Usuario("Unidade", "unidade" + System.nanoTime() + "@teste.com", "senha", PerfilUsuario.LEITOR);
+    }
+    
+    private static Usuario buscar(Long id) {
+        EntityManager em = GenericDAO.createEntityManager();
+        try {
+            return id == null ? null : em.find(Usuario.class, id);
+        } finally {
+            em.close();
+        }
+    }
+}
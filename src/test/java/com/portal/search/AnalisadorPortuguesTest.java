@@ -0,0 +1,83 @@
+package com.portal.search;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class AnalisadorPortuguesTest {
+    
+    private final AnalisadorPortugues analisador = new AnalisadorPortugues();
+    
+    @Test
+    public void singularEPluralCaemNoMesmoTermo() {
+        assertMesmoTermo("eleição", "eleições", "ELEIÇÕES");
+        assertMesmoTermo("pão", "pães");
+        assertMesmoTermo("jornal", "jornais");
+        assertMesmoTermo("papel", "papéis");
+        assertMesmoTermo("homem", "homens");
+        assertMesmoTermo("flor", "flores");
+        assertMesmoTermo("país", "países");
+        assertMesmoTermo("luz", "luzes");
+        assertMesmoTermo("casa", "casas");
+    }
+    
+    @Test
+    public void generoEAdverbioCaemNoMesmoTermo() {
+        assertMesmoTermo("brasileiro", "brasileira", "brasileiros", "brasileiras");
+        assertMesmoTermo("rápido", "rápida", "rapidamente");
+    }
+    
+    @Test
+    public void termosCurtosEPluraisInvariaveisNaoMudam() {
+        assertEquals(Arrays.asList("bus", "onibus", "lapis", "class", "virus"),
+            termos("bus ônibus lápis class vírus"));
+    }
+    
+    @Test
+    public void descartaPalavrasVaziasSemContarPosicao() {
+        List<String> posicoes = new ArrayList<>();
+        analisador.analisar("A queda do preço para os consumidores",
+            (termo, posicao) -> posicoes.add(termo + "@" + posicao));
+        
+        assertEquals(Arrays.asList("qued@0", "prec@1", "consumidor@2"), posicoes);
+    }
+    
+    @Test
+    public void ignoraMarcacaoHtmlETermosLongos() {
+        assertEquals(Arrays.asList("copa", "mund"),
+            termos("<p class=\"destaque\">Copa</p> <b>do</b> mundo " + repetir('x', 41)));
+    }
+    
+    @Test
+    public void consultaUsaAMesmaReducaoDoTexto() {
+        ConsultaBusca consulta = ConsultaBusca.interpretar("\"eleições municipais\" OR prefeitos", analisador);
+        
+        assertEquals(Arrays.asList(
+            Arrays.asList(Arrays.asList("eleica", "municipal")),
+            Arrays.asList(Arrays.asList("prefeit"))), consulta.getGrupos());
+    }
+    
+    private void assertMesmoTermo(String... palavras) {
+        List<String> esperado = termos(palavras[0]);
+        assertEquals(1, esperado.size());
+        for (String palavra : palavras) {
+            assertEquals(palavra, esperado, termos(palavra));
+        }
+    }
+    
+    private List<String> termos(String texto) {
+        List<String> termos = new ArrayList<>();
+        analisador.analisar(texto, (termo, posicao) -> termos.add(termo));
+        return termos;
+    }
+    
+    private static String repetir(char c, int vezes) {
+        char[] texto = new char[vezes];
+        Arrays.fill(texto, c);
+        return new String(texto);
+    }
+}
@@ -0,0 +1,111 @@
+package com.portal.search;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+
+public class CacheBuscasTest {
+    
+    private CacheBuscas cache;
+    private AtomicInteger calculos;
+    
+    @Before
+    public void criarCache() {
+        cache = new CacheBuscas();
+        calculos = new AtomicInteger();
+    }
+    
+    @Test
+    public void mesmaVersaoReaproveitaOResultado() {
+        long[] primeiro = cache.obter("titulo|10|copa", 1, contando(1, 2, 3));
+        long[] segundo = cache.obter("titulo|10|copa", 1, contando(9));
+        
+        assertSame(primeiro, segundo);
+        assertEquals(1, calculos.get());
+        assertEquals(1, cache.getAcertos());
+        assertEquals(1, cache.getFalhas());
+    }
+    
+    @Test
+    public void novaVersaoRecalculaEDescartaAEntradaAntiga() {
+        cache.obter("titulo|10|copa", 1, contando(1, 2, 3));
+        long bytes = cache.getTotalBytes();
+        
+        long[] recalculado = cache.obter("titulo|10|copa", 2, contando(4));
+        
+        assertArrayEquals(new long[] {4}, recalculado);
+        assertEquals(2, calculos.get());
+        assertEquals(1, cache.getRemocoes());
+        assertEquals(1, cache.getEntradas());
+        assertEquals(bytes - 2 * 8, cache.getTotalBytes());
+        assertArrayEquals(new long[] {4}, cache.obter("titulo|10|copa", 2, contando(5)));
+        assertEquals(2, calculos.get());
+    }
+    
+    @Test
+    public void versaoAnteriorTambemInvalida() {
+        cache.obter("titulo|10|copa", 5, contando(1));
+        
+        cache.obter("titulo|10|copa", 4, contando(2));
+        
+        assertEquals(2, calculos.get());
+    }
+    
+    @Test
+    public void chavesDiferentesSaoIndependentes() {
+        cache.obter("titulo|10|copa", 1, contando(1));
+        cache.obter("titulo|10|eleicao", 1, contando(2));
+        
+        assertArrayEquals(new long[] {1}, cache.obter("titulo|10|copa", 1, contando(3)));
+        assertEquals(2, cache.getEntradas());
+        assertEquals(2, calculos.get());
+    }
+    
+    @Test
+    public void resultadoGrandeDemaisNaoEhGuardado() {
+        cache.obter("conteudo|0|a", 1, contando(new long[40_000]));
+        cache.obter("conteudo|0|a", 1, contando(new long[40_000]));
+        
+        assertEquals(0, cache.getEntradas());
+        assertEquals(0, cache.getTotalBytes());
+        assertEquals(2, calculos.get());
+    }
+    
+    @Test
+    public void limparEZerarEstatisticas() {
+        cache.obter("titulo|10|copa", 1, contando(1));
+        cache.obter("titulo|10|copa", 1, contando(1));
+        
+        cache.limpar();
+        cache.zerarEstatisticas();
+        
+        assertEquals(0, cache.getEntradas());
+        assertEquals(0, cache.getTotalBytes());
+        assertEquals(0, cache.getAcertos() + cache.getFalhas() + cache.getRemocoes());
+        cache.obter("titulo|10|copa", 1, contando(1));
+        assertEquals(2, calculos.get());
+    }
+    
+    @Test
+    public void chaveNormalizaAConsultaEPreservaOOperadorOr() {
+        assertEquals("titulo|10|eleicao municipal", CacheBuscas.chave("titulo", 10, "  Eleição   MUNICIPAL "));
+        assertEquals("titulo|10|copa | olimpiadas", CacheBuscas.chave("titulo", 10, "copa OR Olimpíadas"));
+        assertEquals("titulo|10|copa or olimpiadas", CacheBuscas.chave("titulo", 10, "copa or olimpiadas"));
+        assertNotEquals(CacheBuscas.chave("titulo", 10, "copa"), CacheBuscas.chave("conteudo", 10, "copa"));
+        assertNotEquals(CacheBuscas.chave("titulo", 10, "copa"), CacheBuscas.chave("titulo", 20, "copa"));
+    }
+    
+    private Supplier<long[]> contando(long... ids) {
+        return () -> {
+            calculos.incrementAndGet();
+            return ids;
+        };
+    }
+}
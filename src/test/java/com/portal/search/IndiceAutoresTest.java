@@ -0,0 +1,163 @@
+package com.portal.search;
+
+import com.portal.dao.CursorNoticia;
+import org.junit.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+public class IndiceAutoresTest {
+    
+    private static final LocalDateTime DATA = LocalDateTime.of(2024, 6, 1, 12, 0);
+    
+    @Test
+    public void construtorOrdenaPorDataEDepoisPorIdDecrescentes() {
+        List<long[]> noticias = new ArrayList<>();
+        for (long id = 1; id <= 13; id++) {
+            noticias.add(new long[] {id, id % 4});
+        }
+        Collections.shuffle(noticias, new Random(7));
+        IndiceAutores.Construtor construtor = new IndiceAutores.Construtor();
+        for (long[] noticia : noticias) {
+            construtor.adicionar(noticia[0], 1, DATA.plusDays(noticia[1]));
+        }
+        construtor.adicionar(14, 1, null);
+        construtor.adicionar(15, 2, DATA);
+        
+        IndiceAutores indice = construtor.construir();
+        
+        assertArrayEquals(new long[] {11, 7, 3, 10, 6, 2, 13, 9, 5, 1, 12, 8, 4, 14},
+            indice.pagina(1, Optional.empty(), 100));
+        assertEquals(14, indice.contar(1));
+        assertEquals(2, indice.getTotalAutores());
+    }
+    
+    @Test
+    public void construtorEquivaleAIndexarUmaAUma() {
+        Random random = new Random(2024);
+        IndiceAutores.Construtor construtor = new IndiceAutores.Construtor();
+        IndiceAutores incremental = new IndiceAutores();
+        Map<Long, List<long[]>> referencia = new HashMap<>();
+        for (long id = 1; id <= 1_000; id++) {
+            long autorId = random.nextInt(7);
+            int dias = random.nextInt(40);
+            construtor.adicionar(id, autorId, DATA.plusDays(dias));
+            incremental.indexar(id, autorId, DATA.plusDays(dias));
+            referencia.computeIfAbsent(autorId, autor -> new ArrayList<>()).add(new long[] {dias, id});
+        }
+        
+        IndiceAutores construido = construtor.construir();
+        
+        Comparator<long[]> ordem = Comparator.<long[]>comparingLong(n -> n[0]).thenComparingLong(n -> n[1]).reversed();
+        referencia.forEach((autorId, noticias) -> {
+            noticias.sort(ordem);
+            long[] esperado = noticias.stream().mapToLong(n -> n[1]).toArray();
+            assertArrayEquals(esperado, construido.pagina(autorId, Optional.empty(), 1_000));
+            assertArrayEquals(esperado, incremental.pagina(autorId, Optional.empty(), 1_000));
+        });
+    }
+    
+    @Test
+    public void reindexarMoveANoticiaDeAutorEDeData() {
+        IndiceAutores.Construtor construtor = new IndiceAutores.Construtor();
+        construtor.adicionar(1, 10, DATA);
+        construtor.adicionar(2, 10, DATA.plusDays(1));
+        construtor.adicionar(3, 20, DATA.plusDays(2));
+        IndiceAutores indice = construtor.construir();
+        
+        indice.indexar(2, 10, DATA.minusDays(1));
+        indice.indexar(3, 10, DATA.plusDays(5));
+        
+        assertArrayEquals(new long[] {3, 1, 2}, indice.pagina(10, Optional.empty(), 10));
+        assertEquals(0, indice.contar(20));
+        assertFalse(indice.ultimaPublicacao(20).isPresent());
+        assertEquals(1, indice.getTotalAutores());
+        assertEquals(Optional.of(DATA.plusDays(5)), indice.ultimaPublicacao(10));
+    }
+    
+    @Test
+    public void removerAtualizaContagemEUltimaPublicacao() {
+        IndiceAutores indice = new IndiceAutores();
+        LocalDateTime precisa = DATA.withNano(123_456_789);
+        indice.indexar(1, 10, DATA);
+        indice.indexar(2, 10, precisa);
+        
+        assertEquals(Optional.of(precisa), indice.ultimaPublicacao(10));
+        
+        indice.remover(2);
+        indice.remover(99);
+        
+        assertEquals(1, indice.contar(10));
+        assertEquals(Optional.of(DATA), indice.ultimaPublicacao(10));
+        indice.remover(1);
+        assertEquals(0, indice.getTotalAutores());
+        assertArrayEquals(new long[0], indice.pagina(10, Optional.empty(), 10));
+    }
+    
+    @Test
+    public void cursorNoElementoOExcluiDaPagina() {
+        IndiceAutores indice = indiceComEmpates();
+        
+        assertArrayEquals(new long[] {4, 3}, indice.pagina(1, cursor(DATA.plusDays(1), 5), 2));
+        assertArrayEquals(new long[] {3, 2, 1}, indice.pagina(1, cursor(DATA.plusDays(1), 4), 10));
+        assertArrayEquals(new long[0], indice.pagina(1, cursor(DATA, 1), 10));
+    }
+    
+    @Test
+    public void cursorEntreElementosComecaNoSeguinte() {
+        IndiceAutores indice = indiceComEmpates();
+        
+        assertArrayEquals(new long[] {3, 2}, indice.pagina(1, cursor(DATA.plusHours(12), 99), 2));
+        assertArrayEquals(new long[] {5, 4, 3, 2, 1}, indice.pagina(1, cursor(DATA.plusDays(1), 6), 10));
+        assertArrayEquals(new long[] {3, 2, 1}, indice.pagina(1, cursor(DATA.plusDays(1), 0), 10));
+        assertArrayEquals(new long[0], indice.pagina(1, cursor(DATA, 0), 10));
+    }
+    
+    @Test
+    public void cursorAntesDoPrimeiroOuDepoisDoUltimo() {
+        IndiceAutores indice = indiceComEmpates();
+        
+        assertArrayEquals(new long[] {6, 5, 4, 3, 2, 1}, indice.pagina(1, cursor(DATA.plusYears(1), 1), 10));
+        assertArrayEquals(new long[0], indice.pagina(1, cursor(DATA.minusYears(1), 1), 10));
+        assertArrayEquals(new long[0], indice.pagina(2, cursor(DATA, 1), 10));
+    }
+    
+    @Test
+    public void limiteZeroOuMaiorQueORestante() {
+        IndiceAutores indice = indiceComEmpates();
+        
+        assertArrayEquals(new long[0], indice.pagina(1, Optional.empty(), 0));
+        assertArrayEquals(new long[0], indice.pagina(1, Optional.empty(), -1));
+        assertArrayEquals(new long[] {6}, indice.pagina(1, Optional.empty(), 1));
+        assertArrayEquals(new long[] {2, 1}, indice.pagina(1, cursor(DATA, 3), 100));
+    }
+    
+    /**
+     * Autor 1: ids 6 (dia 2), 5 e 4 (dia 1), 3, 2 e 1 (dia 0)
+     */
+    private static IndiceAutores indiceComEmpates() {
+        IndiceAutores.Construtor construtor = new IndiceAutores.Construtor();
+        construtor.adicionar(1, 1, DATA);
+        construtor.adicionar(4, 1, DATA.plusDays(1));
+        construtor.adicionar(6, 1, DATA.plusDays(2));
+        construtor.adicionar(2, 1, DATA);
+        construtor.adicionar(5, 1, DATA.plusDays(1));
+        construtor.adicionar(3, 1, DATA);
+        return construtor.construir();
+    }
+    
+    private static Optional<CursorNoticia> cursor(LocalDateTime data, long id) {
+        return Optional.of(new CursorNoticia(data, id));
+    }
+}
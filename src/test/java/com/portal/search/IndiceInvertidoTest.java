@@ -0,0 +1,132 @@
+package com.portal.search;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Classificação por relevância (BM25) do índice invertido
+ */
+public class IndiceInvertidoTest {
+    
+    private static final LocalDateTime DATA = LocalDateTime.of(2024, 6, 1, 12, 0);
+    
+    private IndiceInvertido indice;
+    private Map<Campo, Double> pesos;
+    
+    @Before
+    public void criarIndice() {
+        indice = new IndiceInvertido(new AnalisadorPortugues());
+        pesos = new EnumMap<>(Campo.class);
+        pesos.put(Campo.TITULO, 3.0);
+        pesos.put(Campo.CONTEUDO, 1.0);
+        indice.indexar(90, "Previsão do tempo", "Chuva forte no litoral durante a semana", DATA, 1L, "Ana");
+        indice.indexar(91, "Mercado financeiro", "Bolsa fecha em alta com bancos", DATA, 1L, "Ana");
+    }
+    
+    @Test
+    public void termoNoTituloPesaMaisQueNoConteudo() {
+        indice.indexar(1, "Resultado da eleição", "Apuração termina na capital hoje cedo", DATA, 1L, "Ana");
+        indice.indexar(2, "Apuração termina na capital", "Resultado da eleição hoje cedo", DATA, 1L, "Ana");
+        
+        assertEquals(ids(1, 2), classificar("eleição", 10));
+    }
+    
+    @Test
+    public void maisOcorrenciasPontuamMais() {
+        indice.indexar(1, "Futebol", "Copa rodada jogo time estádio torcida", DATA, 1L, "Ana");
+        indice.indexar(2, "Futebol", "Copa copa jogo copa estádio torcida", DATA, 1L, "Ana");
+        
+        assertEquals(ids(2, 1), classificar("copa", 10));
+    }
+    
+    @Test
+    public void campoMaisCurtoPontuaMaisComAMesmaFrequencia() {
+        indice.indexar(1, "Economia", "Inflação sobe", DATA, 1L, "Ana");
+        indice.indexar(2, "Economia", "Inflação sobe junto com juros câmbio dólar gasolina energia aluguel", DATA, 1L, "Ana");
+        
+        assertEquals(ids(1, 2), classificar("inflação", 10));
+    }
+    
+    @Test
+    public void termoRaroPesaMaisQueTermoComum() {
+        indice.indexar(1, "Notícia", "Governo anuncia plano", DATA, 1L, "Ana");
+        indice.indexar(2, "Notícia", "Governo anuncia vacina", DATA, 1L, "Ana");
+        indice.indexar(3, "Notícia", "Governo anuncia obras", DATA, 1L, "Ana");
+        
+        assertEquals(2L, classificar("governo vacina", 10).get(0).longValue());
+    }
+    
+    @Test
+    public void qualquerTermoTornaODocumentoCandidato() {
+        indice.indexar(1, "Vacina", "Campanha começa", DATA, 1L, "Ana");
+        indice.indexar(2, "Obras", "Ponte inaugurada", DATA, 1L, "Ana");
+        
+        List<Long> resultado = classificar("vacina OR ponte", 10);
+        
+        assertEquals(2, resultado.size());
+        assertTrue(resultado.containsAll(ids(1, 2)));
+    }
+    
+    @Test
+    public void limiteMantemApenasOsMelhores() {
+        for (int i = 1; i <= 20; i++) {
+            indice.indexar(i, "Copa " + i, conteudoComRepeticoes("copa", i), DATA, 1L, "Ana");
+        }
+        
+        assertEquals(ids(20, 19, 18), classificar("copa", 3));
+        assertTrue(classificar("copa", 0).isEmpty());
+    }
+    
+    @Test
+    public void empateFavoreceOMaisRecente() {
+        indice.indexar(1, "Copa", "Jogo", DATA, 1L, "Ana");
+        indice.indexar(2, "Copa", "Jogo", DATA.plusDays(1), 1L, "Ana");
+        
+        assertEquals(ids(2, 1), classificar("copa", 10));
+    }
+    
+    @Test
+    public void documentoRemovidoOuReindexadoSaiDoResultado() {
+        indice.indexar(1, "Copa", "Jogo", DATA, 1L, "Ana");
+        indice.indexar(2, "Copa", "Jogo", DATA, 1L, "Ana");
+        indice.remover(1);
+        indice.indexar(2, "Olimpíadas", "Jogo", DATA, 1L, "Ana");
+        
+        assertTrue(classificar("copa", 10).isEmpty());
+        assertEquals(ids(2), classificar("olimpíada", 10));
+    }
+    
+    @Test
+    public void termoInexistenteNaoTemResultado() {
+        assertTrue(classificar("inexistente", 10).isEmpty());
+        assertTrue(classificar("", 10).isEmpty());
+    }
+    
+    private List<Long> classificar(String consulta, int limite) {
+        return indice.classificar(ConsultaBusca.interpretar(consulta, indice.getAnalisador()), pesos, limite).stream()
+            .map(DocumentoIndexado::getId)
+            .collect(Collectors.toList());
+    }
+    
+    private static String conteudoComRepeticoes(String termo, int vezes) {
+        StringBuilder conteudo = new StringBuilder();
+        for (int i = 0; i < 20; i++) {
+            conteudo.append(i < vezes ? termo : "texto").append(' ');
+        }
+        return conteudo.toString();
+    }
+    
+    private static List<Long> ids(long... ids) {
+        return Arrays.stream(ids).boxed().collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,194 @@
+package com.portal.search;
+
+import org.junit.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class IndiceSugestoesTest {
+    
+    private static final LocalDateTime DATA = LocalDateTime.of(2024, 6, 1, 12, 0);
+    
+    private static final String[] PALAVRAS = {
+        "eleição", "eleições", "eleitor", "economia", "educação", "copa", "copas", "Copacabana",
+        "mundo", "municipal", "município", "São", "Paulo", "saúde", "país", "país", "de", "a", "x1"
+    };
+    
+    @Test
+    public void qualquerPalavraDoTituloCasaComOPrefixo() {
+        IndiceSugestoes indice = new IndiceSugestoes();
+        indice.indexar(1, "Eleição municipal em São Paulo", DATA);
+        indice.indexar(2, "Copa do mundo", DATA);
+        
+        assertEquals(ids(1), ids(indice.sugerir("muni", 10)));
+        assertEquals(ids(1), ids(indice.sugerir("paulo", 10)));
+        assertEquals(ids(1), ids(indice.sugerir("municipal em s", 10)));
+        assertEquals(ids(2), ids(indice.sugerir("do mu", 10)));
+        assertEquals(ids(), ids(indice.sugerir("mundial", 10)));
+    }
+    
+    @Test
+    public void ignoraAcentosMaiusculasESeparadores() {
+        IndiceSugestoes indice = new IndiceSugestoes();
+        indice.indexar(1, "Eleição: São-Paulo", DATA);
+        
+        assertEquals(ids(1), ids(indice.sugerir("ELEIÇ", 10)));
+        assertEquals(ids(1), ids(indice.sugerir("eleicao sao", 10)));
+        assertEquals(ids(1), ids(indice.sugerir("  Sao   PAULO!", 10)));
+        assertEquals("Eleição: São-Paulo", indice.sugerir("sao", 10).get(0).getTitulo());
+    }
+    
+    @Test
+    public void prefixoCurtoOuLimiteInvalidoNaoTemSugestoes() {
+        IndiceSugestoes indice = new IndiceSugestoes();
+        indice.indexar(1, "Economia", DATA);
+        
+        assertTrue(indice.sugerir("e", 10).isEmpty());
+        assertTrue(indice.sugerir(" é ", 10).isEmpty());
+        assertTrue(indice.sugerir(null, 10).isEmpty());
+        assertTrue(indice.sugerir("ec", 0).isEmpty());
+        assertEquals(ids(1), ids(indice.sugerir("ec", 1)));
+    }
+    
+    @Test
+    public void limiteRespeitaOMaximo() {
+        IndiceSugestoes indice = new IndiceSugestoes();
+        for (int i = 1; i <= 30; i++) {
+            indice.indexar(i, "Copa " + i, DATA.plusMinutes(i));
+        }
+        
+        assertEquals(ids(30, 29, 28), ids(indice.sugerir("copa", 3)));
+        assertEquals(IndiceSugestoes.LIMITE_MAXIMO, indice.sugerir("copa", 100).size());
+    }
+    
+    @Test
+    public void tituloComPalavraRepetidaApareceUmaVez() {
+        IndiceSugestoes indice = new IndiceSugestoes();
+        indice.indexar(1, "Copa copa copa", DATA);
+        
+        assertEquals(ids(1), ids(indice.sugerir("cop", 10)));
+        assertEquals(3, indice.getTotalChaves());
+    }
+    
+    @Test
+    public void maisAcessadasVemPrimeiroEOPesoSobreviveAReindexacao() {
+        IndiceSugestoes indice = new IndiceSugestoes();
+        indice.indexar(1, "Copa América", DATA.plusDays(1));
+        indice.indexar(2, "Copa do mundo", DATA);
+        indice.registrarAcesso(2);
+        indice.registrarAcesso(2);
+        indice.registrarAcesso(99);
+        
+        indice.indexar(2, "Copa do mundo feminina", DATA);
+        
+        assertEquals(ids(2, 1), ids(indice.sugerir("copa", 10)));
+        assertEquals(2, indice.sugerir("feminina", 10).get(0).getPeso());
+        assertEquals(ids(2), ids(indice.sugerir("mundo f", 10)));
+    }
+    
+    @Test
+    public void reindexarERemoverDescartamAsChavesAntigas() {
+        IndiceSugestoes indice = new IndiceSugestoes();
+        indice.indexar(1, "Eleição municipal", DATA);
+        indice.indexar(2, "Eleitor indeciso", DATA);
+        
+        indice.indexar(1, "Economia em alta", DATA);
+        indice.remover(2);
+        indice.remover(42);
+        
+        assertTrue(indice.sugerir("ele", 10).isEmpty());
+        assertTrue(indice.sugerir("mun", 10).isEmpty());
+        assertEquals(ids(1), ids(indice.sugerir("eco", 10)));
+        assertEquals(3, indice.getTotalChaves());
+    }
+    
+    @Test
+    public void construtorPreservaOsPesosDoIndiceAnterior() {
+        IndiceSugestoes anterior = new IndiceSugestoes();
+        anterior.indexar(1, "Copa", DATA);
+        anterior.registrarAcesso(1);
+        
+        IndiceSugestoes.Construtor construtor = new IndiceSugestoes.Construtor(anterior);
+        construtor.adicionar(1, "Copa do mundo", DATA);
+        construtor.adicionar(2, "Copacabana", DATA.plusDays(1));
+        IndiceSugestoes novo = construtor.construir();
+        
+        assertEquals(ids(1, 2), ids(novo.sugerir("copa", 10)));
+        assertEquals(1, novo.sugerir("mundo", 10).get(0).getPeso());
+    }
+    
+    @Test(timeout = 10_000)
+    public void alteracoesIncrementaisEquivalemAReconstrucao() {
+        Random random = new Random(2024);
+        Set<String> prefixos = prefixosDasPalavras();
+        IndiceSugestoes incremental = new IndiceSugestoes();
+        Map<Long, String> titulos = new TreeMap<>();
+        Map<Long, LocalDateTime> datas = new TreeMap<>();
+        for (int passo = 0; passo < 2_000; passo++) {
+            long id = random.nextInt(60);
+            if (random.nextInt(4) == 0) {
+                incremental.remover(id);
+                titulos.remove(id);
+                datas.remove(id);
+            } else {
+                String titulo = tituloAleatorio(random);
+                LocalDateTime data = DATA.plusHours(random.nextInt(5));
+                incremental.indexar(id, titulo, data);
+                titulos.put(id, titulo);
+                datas.put(id, data);
+            }
+            if (passo % 50 == 0 || passo == 1_999) {
+                IndiceSugestoes.Construtor construtor = new IndiceSugestoes.Construtor(null);
+                titulos.forEach((chave, titulo) -> construtor.adicionar(chave, titulo, datas.get(chave)));
+                IndiceSugestoes reconstruido = construtor.construir();
+                
+                assertEquals("passo " + passo, reconstruido.getTotalChaves(), incremental.getTotalChaves());
+                for (String prefixo : prefixos) {
+                    assertEquals("passo " + passo + ", prefixo " + prefixo,
+                        ids(reconstruido.sugerir(prefixo, IndiceSugestoes.LIMITE_MAXIMO)),
+                        ids(incremental.sugerir(prefixo, IndiceSugestoes.LIMITE_MAXIMO)));
+                }
+            }
+        }
+    }
+    
+    private static String tituloAleatorio(Random random) {
+        int palavras = 1 + random.nextInt(5);
+        StringBuilder titulo = new StringBuilder();
+        for (int i = 0; i < palavras; i++) {
+            titulo.append(PALAVRAS[random.nextInt(PALAVRAS.length)]).append(random.nextInt(3) == 0 ? ", " : " ");
+        }
+        return titulo.toString();
+    }
+    
+    private static Set<String> prefixosDasPalavras() {
+        Set<String> prefixos = new LinkedHashSet<>();
+        for (String palavra : PALAVRAS) {
+            for (int tamanho = 2; tamanho <= palavra.length(); tamanho++) {
+                prefixos.add(palavra.substring(0, tamanho));
+            }
+            prefixos.add(palavra + " e");
+            prefixos.add(palavra + " co");
+        }
+        return prefixos;
+    }
+    
+    private static List<Long> ids(List<Sugestao> sugestoes) {
+        return sugestoes.stream().map(Sugestao::getId).collect(Collectors.toList());
+    }
+    
+    private static List<Long> ids(long... ids) {
+        return Arrays.stream(ids).boxed().collect(Collectors.toCollection(ArrayList::new));
+    }
+}
@@ -0,0 +1,165 @@
+package com.portal.search;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class ListaPostagemTest {
+    
+    @Test
+    public void construtorPreservaIdsFrequenciasEPosicoes() {
+        ListaPostagem lista = new ListaPostagem.Construtor()
+            .adicionar(3, new int[] {0, 4, 9}, 3)
+            .adicionar(200, new int[] {1}, 1)
+            .adicionar(70_000, new int[] {2, 130, 20_000}, 3)
+            .construir();
+        
+        Map<Long, int[]> esperado = new TreeMap<>();
+        esperado.put(3L, new int[] {0, 4, 9});
+        esperado.put(200L, new int[] {1});
+        esperado.put(70_000L, new int[] {2, 130, 20_000});
+        assertConteudo(esperado, lista);
+    }
+    
+    @Test
+    public void anexarAoFimGeraOsMesmosBytesDeUmaConstrucaoCompleta() {
+        ListaPostagem lista = lista(10, new int[] {1, 2});
+        lista = lista.comDocumento(11, new int[] {5}, 1);
+        lista = lista.comDocumento(1_000_000, new int[] {0, 300}, 2);
+        
+        ListaPostagem completa = new ListaPostagem.Construtor()
+            .adicionar(10, new int[] {1, 2}, 2)
+            .adicionar(11, new int[] {5}, 1)
+            .adicionar(1_000_000, new int[] {0, 300}, 2)
+            .construir();
+        assertEquals(completa.getTamanhoBytes(), lista.getTamanhoBytes());
+        assertArrayEquals(completa.ids(), lista.ids());
+        assertEquals(3, lista.getDocumentos());
+    }
+    
+    @Test
+    public void incluirForaDeOrdemMantemIdsCrescentes() {
+        ListaPostagem lista = lista(50, new int[] {0})
+            .comDocumento(10, new int[] {3}, 1)
+            .comDocumento(30, new int[] {7, 8}, 2);
+        
+        assertArrayEquals(new long[] {10, 30, 50}, lista.ids());
+    }
+    
+    @Test
+    public void incluirIdExistenteSubstituiAsPosicoes() {
+        ListaPostagem lista = lista(5, new int[] {1})
+            .comDocumento(9, new int[] {2}, 1)
+            .comDocumento(5, new int[] {4, 6}, 2);
+        
+        Map<Long, int[]> esperado = new TreeMap<>();
+        esperado.put(5L, new int[] {4, 6});
+        esperado.put(9L, new int[] {2});
+        assertConteudo(esperado, lista);
+    }
+    
+    @Test
+    public void incluirOUltimoIdNovamenteSubstituiSemDuplicar() {
+        ListaPostagem lista = lista(5, new int[] {1})
+            .comDocumento(9, new int[] {2}, 1)
+            .comDocumento(9, new int[] {3}, 1);
+        
+        Map<Long, int[]> esperado = new TreeMap<>();
+        esperado.put(5L, new int[] {1});
+        esperado.put(9L, new int[] {3});
+        assertConteudo(esperado, lista);
+    }
+    
+    @Test
+    public void removerDocumentoMantemOsDemais() {
+        ListaPostagem lista = lista(1, new int[] {0})
+            .comDocumento(2, new int[] {1}, 1)
+            .comDocumento(3, new int[] {2}, 1);
+        
+        assertArrayEquals(new long[] {1, 3}, lista.semDocumento(2).ids());
+        assertArrayEquals(new long[] {1, 2, 3}, lista.semDocumento(99).ids());
+    }
+    
+    @Test
+    public void removerUltimoDocumentoRetornaNull() {
+        assertNull(lista(7, new int[] {0}).semDocumento(7));
+    }
+    
+    @Test
+    public void listaAnteriorNaoMudaAoAnexar() {
+        ListaPostagem original = lista(1, new int[] {0});
+        int bytes = original.getTamanhoBytes();
+        
+        original.comDocumento(2, new int[] {0}, 1);
+        
+        assertEquals(bytes, original.getTamanhoBytes());
+        assertArrayEquals(new long[] {1}, original.ids());
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void construtorRejeitaIdsForaDeOrdem() {
+        new ListaPostagem.Construtor()
+            .adicionar(5, new int[] {0}, 1)
+            .adicionar(5, new int[] {0}, 1);
+    }
+    
+    @Test
+    public void inclusoesAleatoriasConferemComReferencia() {
+        Random random = new Random(42);
+        Map<Long, int[]> referencia = new TreeMap<>();
+        ListaPostagem lista = null;
+        for (int i = 0; i < 2_000; i++) {
+            long id = random.nextInt(3) == 0 ? random.nextInt(5_000) : 5_000 + i * 3L;
+            if (lista != null && random.nextInt(10) == 0) {
+                lista = lista.semDocumento(id);
+                referencia.remove(id);
+                continue;
+            }
+            int[] posicoes = posicoesAleatorias(random);
+            referencia.put(id, posicoes);
+            lista = lista == null
+                ? new ListaPostagem.Construtor().adicionar(id, posicoes, posicoes.length).construir()
+                : lista.comDocumento(id, posicoes, posicoes.length);
+        }
+        
+        assertConteudo(referencia, lista);
+        ListaPostagem.Construtor construtor = new ListaPostagem.Construtor();
+        referencia.forEach((id, posicoes) -> construtor.adicionar(id, posicoes, posicoes.length));
+        assertEquals(construtor.construir().getTamanhoBytes(), lista.getTamanhoBytes());
+    }
+    
+    private static ListaPostagem lista(long id, int[] posicoes) {
+        return new ListaPostagem.Construtor().adicionar(id, posicoes, posicoes.length).construir();
+    }
+    
+    private static int[] posicoesAleatorias(Random random) {
+        int[] posicoes = new int[1 + random.nextInt(12)];
+        int posicao = random.nextInt(3);
+        for (int i = 0; i < posicoes.length; i++) {
+            posicoes[i] = posicao;
+            posicao += 1 + random.nextInt(400);
+        }
+        return posicoes;
+    }
+    
+    private static void assertConteudo(Map<Long, int[]> esperado, ListaPostagem lista) {
+        assertEquals(esperado.size(), lista.getDocumentos());
+        ListaPostagem.Leitor leitor = lista.leitor();
+        for (Map.Entry<Long, int[]> entrada : esperado.entrySet()) {
+            assertTrue(leitor.proximo());
+            assertEquals((long) entrada.getKey(), leitor.documento());
+            assertEquals(entrada.getValue().length, leitor.frequencia());
+            assertArrayEquals(entrada.getValue(), Arrays.copyOf(leitor.posicoes(), leitor.frequencia()));
+        }
+        assertFalse(leitor.proximo());
+    }
+}
@@ -0,0 +1,34 @@
+package com.portal.search;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class NormalizadorTest {
+    
+    @Test
+    public void removeAcentosEConverteParaMinusculas() {
+        assertEquals("acao eleicao pao voce atras cafe indio", Normalizador.normalizar("Ação ELEIÇÃO pão você atrás café índio"));
+        assertEquals("aaaaa eeee iiii ooooo uuuu c n", Normalizador.normalizar("ÁÀÂÃÄ ÉÈÊË ÍÌÎÏ ÓÒÔÕÖ ÚÙÛÜ Ç Ñ"));
+    }
+    
+    @Test
+    public void preservaDigitosPontuacaoEOutrosAlfabetos() {
+        assertEquals("copa 2026: brasil x argentina!", Normalizador.normalizar("Copa 2026: Brasil x Argentina!"));
+        assertEquals("ß ø αβγ", Normalizador.normalizar("ß Ø ΑΒΓ"));
+    }
+    
+    @Test
+    public void aparaEspacosETrataNulo() {
+        assertEquals("busca", Normalizador.normalizar("  Busca \t"));
+        assertEquals("", Normalizador.normalizar(null));
+        assertEquals("", Normalizador.normalizar("   "));
+    }
+    
+    @Test
+    public void dobrarCoincideComONormalizarPorCaractere() {
+        for (char c = 0; c < 0x250; c++) {
+            assertEquals(String.valueOf(Normalizador.dobrar(c)), Normalizador.normalizar("x" + c + "x").substring(1, 2));
+        }
+    }
+}
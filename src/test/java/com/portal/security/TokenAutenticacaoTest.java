@@ -0,0 +1,268 @@
+package com.portal.security;
+
+import com.portal.model.PerfilUsuario;
+import com.portal.model.UsuarioPrincipal;
+import org.junit.After;
+import org.junit.Test;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import javax.servlet.http.Cookie;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.BiFunction;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+public class TokenAutenticacaoTest {
+    
+    private static final String CHAVE_ANTIGA = Base64.getEncoder().encodeToString(bytes("chave-antiga-de-32-bytes-para-hm"));
+    private static final String CHAVE_NOVA = Base64.getEncoder().encodeToString(bytes("chave-nova-de-32-bytes-para-hmac"));
+    private static final Base64.Encoder BASE64_URL = Base64.getUrlEncoder().withoutPadding();
+    
+    private static final long HORA = 60 * 60;
+    
+    private static final UsuarioPrincipal MARIA = new UsuarioPrincipal(7L, "Maria | da Silva", PerfilUsuario.ADMIN);
+    
+    @After
+    public void limparConfiguracao() {
+        System.clearProperty(TokenAutenticacao.PROPRIEDADE_CHAVES);
+    }
+    
+    @Test
+    public void verificaOTokenEmitido() {
+        TokenAutenticacao tokens = configurado("k1:" + CHAVE_ANTIGA);
+        
+        Optional<UsuarioPrincipal> principal = tokens.verificar(tokens.emitir(MARIA));
+        
+        assertTrue(principal.isPresent());
+        assertEquals(MARIA.getId(), principal.get().getId());
+        assertEquals(MARIA.getNome(), principal.get().getNome());
+        assertEquals(PerfilUsuario.ADMIN, principal.get().getPerfil());
+    }
+    
+    @Test
+    public void tokenTemVersaoKidDadosEAssinatura() {
+        String token = configurado("k1:" + CHAVE_ANTIGA).emitir(MARIA);
+        
+        String[] partes = token.split("\\.");
+        assertEquals(4, partes.length);
+        assertEquals("v2", partes[0]);
+        assertEquals("k1", partes[1]);
+    }
+    
+    @Test
+    public void dadosAdulteradosSaoRejeitados() {
+        TokenAutenticacao tokens = configurado("k1:" + CHAVE_ANTIGA);
+        String[] partes = tokens.emitir(new UsuarioPrincipal(7L, "Maria", PerfilUsuario.LEITOR)).split("\\.");
+        long expiracao = System.currentTimeMillis() / 1000 + 3600;
+        String promovido = BASE64_URL.encodeToString(bytes("7|ADMIN|" + expiracao + "|" + agora() + "|Maria"));
+        
+        assertFalse(tokens.verificar(partes[0] + "." + partes[1] + "." + promovido + "." + partes[3]).isPresent());
+    }
+    
+    @Test
+    public void assinaturaAdulteradaEhRejeitada() {
+        TokenAutenticacao tokens = configurado("k1:" + CHAVE_ANTIGA);
+        String token = tokens.emitir(MARIA);
+        int assinatura = token.lastIndexOf('.') + 1;
+        char trocado = token.charAt(assinatura) == 'A' ? 'B' : 'A';
+        
+        assertFalse(tokens.verificar(token.substring(0, assinatura) + trocado + token.substring(assinatura + 1)).isPresent());
+    }
+    
+    @Test
+    public void tokensMalformadosSaoRejeitados() {
+        TokenAutenticacao tokens = configurado("k1:" + CHAVE_ANTIGA);
+        
+        assertFalse(tokens.verificar(null).isPresent());
+        assertFalse(tokens.verificar("").isPresent());
+        assertFalse(tokens.verificar("v1.k1.abc").isPresent());
+        assertFalse(tokens.verificar("v3.k1.abc.def").isPresent());
+        assertFalse(tokens.verificar("v1.k1.***.***").isPresent());
+        assertFalse(tokens.verificar(assinado("v2", "k1", CHAVE_ANTIGA, "7|ADMIN")).isPresent());
+        assertFalse(tokens.verificar(assinado("v2", "k1", CHAVE_ANTIGA, "7|DONO|9999999999|1|Maria")).isPresent());
+        assertFalse(tokens.verificar(assinado("v2", "k1", CHAVE_ANTIGA, "7|ADMIN|9999999999|ontem|Maria")).isPresent());
+    }
+    
+    @Test
+    public void tokenExpiradoEhRejeitado() {
+        TokenAutenticacao tokens = configurado("k1:" + CHAVE_ANTIGA);
+        long agora = agora();
+        
+        assertFalse(tokens.verificar(assinado("v2", "k1", CHAVE_ANTIGA, "7|ADMIN|" + (agora - 1) + "|" + (agora - 60) + "|Maria")).isPresent());
+        assertTrue(tokens.verificar(assinado("v2", "k1", CHAVE_ANTIGA, "7|ADMIN|" + (agora + 60) + "|" + (agora - 60) + "|Maria")).isPresent());
+    }
+    
+    @Test
+    public void rotacaoAssinaComANovaChaveEAceitaAAntiga() {
+        String emitidoAntes = configurado("k1:" + CHAVE_ANTIGA).emitir(MARIA);
+        TokenAutenticacao rotacionado = configurado("k2:" + CHAVE_NOVA + ", k1:" + CHAVE_ANTIGA);
+        
+        String emitidoDepois = rotacionado.emitir(MARIA);
+        
+        assertEquals("k2", emitidoDepois.split("\\.")[1]);
+        assertTrue(rotacionado.verificar(emitidoAntes).isPresent());
+        assertTrue(rotacionado.verificar(emitidoDepois).isPresent());
+    }
+    
+    @Test
+    public void chaveRetiradaDeixaDeSerAceita() {
+        String emitidoAntes = configurado("k1:" + CHAVE_ANTIGA).emitir(MARIA);
+        
+        assertFalse(configurado("k2:" + CHAVE_NOVA).verificar(emitidoAntes).isPresent());
+    }
+    
+    @Test
+    public void kidComOutraChaveNaoValida() {
+        String token = configurado("k1:" + CHAVE_ANTIGA).emitir(MARIA);
+        
+        assertFalse(configurado("k1:" + CHAVE_NOVA).verificar(token).isPresent());
+    }
+    
+    @Test
+    public void semConfiguracaoUsaChaveLocalAleatoria() {
+        assumeTrue(System.getenv("PORTAL_TOKEN_CHAVES") == null);
+        TokenAutenticacao tokens = configurado(null);
+        TokenAutenticacao outroNo = configurado(null);
+        String token = tokens.emitir(MARIA);
+        
+        assertEquals("local", token.split("\\.")[1]);
+        assertTrue(tokens.verificar(token).isPresent());
+        assertFalse(outroNo.verificar(token).isPresent());
+        assertNotEquals(token, outroNo.emitir(MARIA));
+    }
+    
+    @Test
+    public void tokenNovoNaoEhRenovado() {
+        TokenAutenticacao tokens = configurado("k1:" + CHAVE_ANTIGA);
+        
+        assertFalse(autenticar(tokens, tokens.emitir(MARIA)).isPresent());
+    }
+    
+    @Test
+    public void renovacaoMantemOInstanteDoLogin() {
+        TokenAutenticacao tokens = configurado("k1:" + CHAVE_ANTIGA);
+        long login = agora() - 5 * HORA;
+        
+        String renovado = autenticar(tokens, assinado("v2", "k1", CHAVE_ANTIGA,
+            "7|ADMIN|" + (agora() + 3 * HORA) + "|" + login + "|Maria")).get();
+        
+        String[] campos = dados(renovado);
+        assertEquals(String.valueOf(login), campos[3]);
+        assertEquals(agora() + 8 * HORA, Long.parseLong(campos[2]), 5);
+        assertEquals("Maria", campos[4]);
+    }
+    
+    @Test
+    public void renovacaoNaoPassaDaVidaMaxima() {
+        TokenAutenticacao tokens = configurado("k1:" + CHAVE_ANTIGA);
+        long login = agora() - 20 * HORA;
+        
+        String renovado = autenticar(tokens, assinado("v2", "k1", CHAVE_ANTIGA,
+            "7|ADMIN|" + (agora() + 2 * HORA) + "|" + login + "|Maria")).get();
+        
+        assertEquals(login + TokenAutenticacao.VIDA_MAXIMA_SEGUNDOS, Long.parseLong(dados(renovado)[2]));
+    }
+    
+    @Test
+    public void tokenNoFimDaVidaMaximaNaoEhRenovado() {
+        TokenAutenticacao tokens = configurado("k1:" + CHAVE_ANTIGA);
+        long login = agora() - 23 * HORA;
+        String token = assinado("v2", "k1", CHAVE_ANTIGA,
+            "7|ADMIN|" + (login + TokenAutenticacao.VIDA_MAXIMA_SEGUNDOS) + "|" + login + "|Maria");
+        
+        assertFalse(autenticar(tokens, token).isPresent());
+        assertTrue(tokens.verificar(token).isPresent());
+    }
+    
+    @Test
+    public void tokenV1ValeAteExpirarMasNaoEhRenovado() {
+        TokenAutenticacao tokens = configurado("k1:" + CHAVE_ANTIGA);
+        String legado = assinado("v1", "k1", CHAVE_ANTIGA, "7|ADMIN|" + (agora() + HORA) + "|Maria | da Silva");
+        
+        assertEquals("Maria | da Silva", tokens.verificar(legado).get().getNome());
+        assertFalse(autenticar(tokens, legado).isPresent());
+    }
+    
+    /**
+     * Autentica uma requisição com o cookie e devolve o token reemitido na resposta, se houver
+     */
+    private static Optional<String> autenticar(TokenAutenticacao tokens, String token) {
+        List<String> cabecalhos = new ArrayList<>();
+        HttpServletRequest request = proxy(HttpServletRequest.class, (metodo, argumentos) -> {
+            switch (metodo) {
+                case "getCookies":
+                    return new Cookie[] {new Cookie(TokenAutenticacao.COOKIE, token)};
+                case "getContextPath":
+                    return "";
+                default:
+                    return false;
+            }
+        });
+        HttpServletResponse response = proxy(HttpServletResponse.class, (metodo, argumentos) -> {
+            if ("addHeader".equals(metodo)) {
+                cabecalhos.add((String) argumentos[1]);
+            }
+            return null;
+        });
+        
+        assertTrue(tokens.autenticar(request, response).isPresent());
+        return cabecalhos.stream()
+            .map(cabecalho -> cabecalho.substring(cabecalho.indexOf('=') + 1, cabecalho.indexOf(';')))
+            .findFirst();
+    }
+    
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> tipo, BiFunction<String, Object[], Object> resposta) {
+        return (T) Proxy.newProxyInstance(tipo.getClassLoader(), new Class<?>[] {tipo},
+            (instancia, metodo, argumentos) -> resposta.apply(metodo.getName(), argumentos));
+    }
+    
+    private static String[] dados(String token) {
+        return new String(Base64.getUrlDecoder().decode(token.split("\\.")[2]), StandardCharsets.UTF_8).split("\\|", 5);
+    }
+    
+    private static long agora() {
+        return System.currentTimeMillis() / 1000;
+    }
+    
+    private static TokenAutenticacao configurado(String chaves) {
+        if (chaves == null) {
+            System.clearProperty(TokenAutenticacao.PROPRIEDADE_CHAVES);
+        } else {
+            System.setProperty(TokenAutenticacao.PROPRIEDADE_CHAVES, chaves);
+        }
+        TokenAutenticacao tokens = new TokenAutenticacao();
+        tokens.iniciar();
+        return tokens;
+    }
+    
+    /**
+     * Monta um token da versão informada com dados arbitrários, assinado com a chave informada
+     */
+    private static String assinado(String versao, String kid, String chaveBase64, String dados) {
+        try {
+            String conteudo = versao + "." + kid + "." + BASE64_URL.encodeToString(bytes(dados));
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(Base64.getDecoder().decode(chaveBase64), "HmacSHA256"));
+            return conteudo + "." + BASE64_URL.encodeToString(mac.doFinal(bytes(conteudo)));
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+    
+    private static byte[] bytes(String texto) {
+        return texto.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,86 @@
+package com.portal.service;
+
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Base64;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+public class CodificadorSenhaTest {
+    
+    @Test
+    public void confereASenhaCodificada() {
+        String gravado = CodificadorSenha.codificar("correta horse battery");
+        
+        assertTrue(CodificadorSenha.confere("correta horse battery", gravado));
+        assertFalse(CodificadorSenha.confere("correta horse batterY", gravado));
+        assertFalse(CodificadorSenha.confere("", gravado));
+    }
+    
+    @Test
+    public void formatoTemIteracoesSaltEHashECabeNaColuna() {
+        String gravado = CodificadorSenha.codificar("senha");
+        
+        String[] partes = gravado.split("\\$");
+        assertEquals(4, partes.length);
+        assertEquals("pbkdf2", partes[0]);
+        assertEquals(CodificadorSenha.ITERACOES, Integer.parseInt(partes[1]));
+        assertEquals(16, Base64.getDecoder().decode(partes[2]).length);
+        assertEquals(32, Base64.getDecoder().decode(partes[3]).length);
+        assertTrue(gravado.length() <= 100);
+        assertFalse(CodificadorSenha.precisaRecodificar(gravado));
+    }
+    
+    @Test
+    public void saltAleatorioGeraHashesDiferentes() {
+        assertNotEquals(CodificadorSenha.codificar("senha"), CodificadorSenha.codificar("senha"));
+    }
+    
+    @Test
+    public void aceitaHashLegadoEPedeRecodificacao() {
+        String legado = sha256Hex("senhaAntiga");
+        
+        assertTrue(CodificadorSenha.confere("senhaAntiga", legado));
+        assertTrue(CodificadorSenha.confere("senhaAntiga", legado.toUpperCase()));
+        assertFalse(CodificadorSenha.confere("outraSenha", legado));
+        assertTrue(CodificadorSenha.precisaRecodificar(legado));
+    }
+    
+    @Test
+    public void iteracoesAlteradasNaoConferemEPedemRecodificacao() {
+        String gravado = CodificadorSenha.codificar("senha")
+            .replaceFirst("\\$" + CodificadorSenha.ITERACOES + "\\$", "\\$1000\\$");
+        
+        assertFalse(CodificadorSenha.confere("senha", gravado));
+        assertTrue(CodificadorSenha.precisaRecodificar(gravado));
+    }
+    
+    @Test
+    public void hashesInvalidosNaoConferem() {
+        assertFalse(CodificadorSenha.confere("senha", null));
+        assertFalse(CodificadorSenha.confere("senha", ""));
+        assertFalse(CodificadorSenha.confere("senha", "pbkdf2$abc$salt$hash"));
+        assertFalse(CodificadorSenha.confere("senha", "pbkdf2$1000$***$***"));
+        assertFalse(CodificadorSenha.confere("senha", "bcrypt$10$c2FsdA$aGFzaA"));
+        assertTrue(CodificadorSenha.precisaRecodificar(null));
+        assertTrue(CodificadorSenha.precisaRecodificar("pbkdf2$abc$salt$hash"));
+        assertTrue(CodificadorSenha.precisaRecodificar("qualquer coisa"));
+    }
+    
+    private static String sha256Hex(String senha) {
+        try {
+            StringBuilder hex = new StringBuilder();
+            for (byte b : MessageDigest.getInstance("SHA-256").digest(senha.getBytes(StandardCharsets.UTF_8))) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.portal.service;
+
+import com.portal.transfer.FormatoTransferencia;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Erros de cabeçalho encerram a importação; não há linha para rejeitar individualmente
+ */
+public class TransferenciaNoticiasServiceTest {
+    
+    private final TransferenciaNoticiasService servico = new TransferenciaNoticiasService();
+    
+    @Test(timeout = 5000)
+    public void csvVazioFalhaAImportacao() {
+        assertFalha("", "vazio");
+    }
+    
+    @Test(timeout = 5000)
+    public void csvSemColunasObrigatoriasFalhaAImportacao() {
+        assertFalha("id,nome,texto\n1,a,b\n2,c,d\n", "titulo e conteudo");
+    }
+    
+    private void assertFalha(String csv, String trechoMensagem) {
+        try {
+            servico.importar(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)),
+                FormatoTransferencia.CSV, 1L);
+            fail("esperada ServiceException");
+        } catch (ServiceException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains(trechoMensagem));
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.portal.transfer;
+
+import com.portal.model.RegistroNoticia;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.time.LocalDateTime;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+public class LeitorCsvTest {
+    
+    @Test
+    public void leColunasEmQualquerOrdemECamposEntreAspas() throws Exception {
+        LeitorRegistros leitor = leitor("conteudo,autorId,titulo,dataPublicacao\n"
+            + "\"Linha 1\nLinha 2, com \"\"aspas\"\"\",7,Título,2024-01-02T03:04:05\n");
+        
+        RegistroNoticia registro = leitor.proximo();
+        
+        assertEquals("Título", registro.getTitulo());
+        assertEquals("Linha 1\nLinha 2, com \"aspas\"", registro.getConteudo());
+        assertEquals(Long.valueOf(7L), registro.getAutorId());
+        assertEquals(LocalDateTime.of(2024, 1, 2, 3, 4, 5), registro.getDataPublicacao());
+        assertNull(leitor.proximo());
+    }
+    
+    @Test
+    public void linhaInvalidaNaoImpedeAsSeguintes() throws Exception {
+        LeitorRegistros leitor = leitor("titulo,conteudo,autorId\nA,a,x\nB,b,2\n");
+        
+        try {
+            leitor.proximo();
+            fail("esperada LinhaInvalidaException");
+        } catch (LinhaInvalidaException e) {
+            assertEquals(2, e.getLinha());
+        }
+        assertEquals("B", leitor.proximo().getTitulo());
+        assertNull(leitor.proximo());
+    }
+    
+    @Test(expected = IOException.class)
+    public void entradaVaziaEncerraALeitura() throws Exception {
+        leitor("").proximo();
+    }
+    
+    @Test
+    public void cabecalhoInvalidoEncerraALeitura() throws Exception {
+        LeitorRegistros leitor = leitor("id,nome\n1,a\n");
+        for (int tentativa = 0; tentativa < 2; tentativa++) {
+            try {
+                leitor.proximo();
+                fail("esperada IOException");
+            } catch (IOException e) {
+                assertEquals("cabeçalho do CSV deve conter as colunas titulo e conteudo", e.getMessage());
+            }
+        }
+    }
+    
+    private static LeitorRegistros leitor(String csv) {
+        return FormatoTransferencia.CSV.leitor(new StringReader(csv));
+    }
+}
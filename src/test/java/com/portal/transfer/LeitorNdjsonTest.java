@@ -0,0 +1,68 @@
+package com.portal.transfer;
+
+import com.portal.model.RegistroNoticia;
+import org.junit.Test;
+
+import java.io.StringReader;
+import java.time.LocalDateTime;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class LeitorNdjsonTest {
+    
+    @Test
+    public void leUmObjetoPorLinhaIgnorandoLinhasEmBranco() throws Exception {
+        LeitorRegistros leitor = leitor("\n{\"id\":5,\"titulo\":\"T\",\"conteudo\":\"C\","
+            + "\"dataPublicacao\":\"2024-01-02T03:04\",\"autorId\":7}\n\n");
+        
+        RegistroNoticia registro = leitor.proximo();
+        
+        assertEquals(Long.valueOf(5L), registro.getId());
+        assertEquals("T", registro.getTitulo());
+        assertEquals("C", registro.getConteudo());
+        assertEquals(LocalDateTime.of(2024, 1, 2, 3, 4), registro.getDataPublicacao());
+        assertEquals(Long.valueOf(7L), registro.getAutorId());
+        assertNull(leitor.proximo());
+    }
+    
+    @Test
+    public void numerosNaoInteirosSaoLinhasInvalidas() throws Exception {
+        LeitorRegistros leitor = leitor("{\"titulo\":\"A\",\"conteudo\":\"a\",\"autorId\":1.5}\n"
+            + "{\"titulo\":\"B\",\"conteudo\":\"b\",\"autorId\":1e30}\n"
+            + "{\"titulo\":\"C\",\"conteudo\":\"c\",\"id\":99999999999999999999}\n"
+            + "{\"titulo\":\"D\",\"conteudo\":\"d\",\"autorId\":\"2\"}\n"
+            + "{\"titulo\":\"E\",\"conteudo\":\"e\",\"autorId\":2}\n");
+        
+        for (long linha = 1; linha <= 4; linha++) {
+            assertLinhaInvalida(leitor, linha);
+        }
+        assertEquals("E", leitor.proximo().getTitulo());
+        assertNull(leitor.proximo());
+    }
+    
+    @Test
+    public void jsonMalformadoEDataInvalidaSaoLinhasInvalidas() throws Exception {
+        LeitorRegistros leitor = leitor("{\"titulo\":\n{\"titulo\":\"A\",\"dataPublicacao\":\"ontem\"}\n");
+        
+        assertLinhaInvalida(leitor, 1);
+        assertLinhaInvalida(leitor, 2);
+        assertNull(leitor.proximo());
+    }
+    
+    private static void assertLinhaInvalida(LeitorRegistros leitor, long linha) throws Exception {
+        try {
+            leitor.proximo();
+            fail("esperada LinhaInvalidaException na linha " + linha);
+        } catch (LinhaInvalidaException e) {
+            assertEquals(linha, e.getLinha());
+            assertTrue(e.getMessage().startsWith("Linha " + linha + ": "));
+        }
+    }
+    
+    private static LeitorRegistros leitor(String ndjson) {
+        return FormatoTransferencia.NDJSON.leitor(new StringReader(ndjson));
+    }
+}